@@ -0,0 +1,133 @@
+package it.unibz.inf.ontop.owlapi;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The query engine watches the input files: the axioms added to the ontology file must be used
+ * by the statements created afterwards, including those of a connection opened before the modification.
+ */
+public class H2OntologyReloadTest {
+
+	private static final String OWL_FILE = "src/test/resources/reload/reload.owl";
+	private static final String OBDA_FILE = "src/test/resources/reload/reload.obda";
+
+	private static final String JDBC_URL = "jdbc:h2:mem:ontologyReload";
+	private static final String JDBC_USER = "sa";
+	private static final String JDBC_PASSWORD = "";
+
+	private static final String PERSON_QUERY = "PREFIX : <http://example.org/>\n" +
+			"SELECT ?x WHERE { ?x a :Person }";
+	private static final long RELOAD_TIMEOUT_MS = 10000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Connection sqlConnection;
+	private File owlFile;
+	private OntopQueryEngine queryEngine;
+
+	@Before
+	public void setUp() throws Exception {
+		sqlConnection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+		try (Statement s = sqlConnection.createStatement()) {
+			s.execute("CREATE TABLE student (id INT PRIMARY KEY)");
+			s.execute("INSERT INTO student VALUES (1), (2)");
+		}
+
+		// Copies, as the ontology file is modified
+		owlFile = folder.newFile("reload.owl");
+		Files.copy(Paths.get(OWL_FILE), owlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		File obdaFile = folder.newFile("reload.obda");
+		Files.copy(Paths.get(OBDA_FILE), obdaFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		Properties properties = new Properties();
+		properties.setProperty(OntopSystemSettings.WATCH_INPUT_FILES, "true");
+
+		OntopSQLOWLAPIConfiguration config = OntopSQLOWLAPIConfiguration.defaultBuilder()
+				.ontologyFile(owlFile)
+				.nativeOntopMappingFile(obdaFile)
+				.jdbcUrl(JDBC_URL)
+				.jdbcUser(JDBC_USER)
+				.jdbcPassword(JDBC_PASSWORD)
+				.properties(properties)
+				.enableTestMode()
+				.build();
+
+		queryEngine = config.loadQueryEngine();
+		queryEngine.connect();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		queryEngine.close();
+		try (Statement s = sqlConnection.createStatement()) {
+			s.execute("DROP ALL OBJECTS DELETE FILES");
+		}
+		sqlConnection.close();
+	}
+
+	@Test
+	public void testSubClassAxiomAdded() throws Exception {
+		try (OntopConnection connection = queryEngine.getConnection()) {
+			assertEquals(ImmutableSet.of(), runQuery(connection));
+
+			addSubClassAxiom("http://example.org/Student", "http://example.org/Person");
+
+			ImmutableSet<String> expectedResults = ImmutableSet.of(
+					"http://example.org/student/1", "http://example.org/student/2");
+			long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MS;
+			ImmutableSet<String> results = runQuery(connection);
+			while (!results.equals(expectedResults) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(100);
+				results = runQuery(connection);
+			}
+			assertEquals(expectedResults, results);
+		}
+	}
+
+	private void addSubClassAxiom(String subClass, String superClass) throws Exception {
+		OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		OWLDataFactory factory = manager.getOWLDataFactory();
+		OWLOntology ontology = manager.loadOntologyFromOntologyDocument(owlFile);
+		manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(
+				factory.getOWLClass(IRI.create(subClass)), factory.getOWLClass(IRI.create(superClass))));
+		manager.saveOntology(ontology, IRI.create(owlFile.toURI()));
+	}
+
+	private static ImmutableSet<String> runQuery(OntopConnection connection) throws Exception {
+		ImmutableSet.Builder<String> results = ImmutableSet.builder();
+		try (OntopStatement statement = connection.createStatement()) {
+			TupleResultSet rs = statement.execute(connection.getInputQueryFactory().createSelectQuery(PERSON_QUERY));
+			while (rs.hasNext())
+				results.add(rs.next().getBinding("x").getValue().getValue());
+		}
+		return results.build();
+	}
+}
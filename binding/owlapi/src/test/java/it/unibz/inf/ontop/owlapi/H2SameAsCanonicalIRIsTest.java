@@ -0,0 +1,114 @@
+package it.unibz.inf.ontop.owlapi;
+
+import com.google.common.collect.ImmutableMultiset;
+import it.unibz.inf.ontop.injection.OntopOBDASettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.owlapi.connection.OWLConnection;
+import it.unibz.inf.ontop.owlapi.connection.OWLStatement;
+import it.unibz.inf.ontop.owlapi.resultset.OWLBindingSet;
+import it.unibz.inf.ontop.owlapi.resultset.TupleOWLResultSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.io.ToStringRenderer;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The IRIs of person_b are replaced in the mapping by their canonical IRIs (person_a), when linked.
+ * Each individual must be returned with a single IRI.
+ */
+public class H2SameAsCanonicalIRIsTest {
+
+	private static final String OWL_FILE = "src/test/resources/sameAs/canonical-iris.owl";
+	private static final String OBDA_FILE = "src/test/resources/sameAs/canonical-iris.obda";
+	private static final String SQL_FILE = "src/test/resources/sameAs/canonical-iris.sql";
+
+	private static final String JDBC_URL = "jdbc:h2:mem:sameAsCanonicalIRIs";
+	private static final String JDBC_USER = "sa";
+	private static final String JDBC_PASSWORD = "";
+
+	private Connection sqlConnection;
+	private OntopOWLReasoner reasoner;
+	private OWLConnection conn;
+
+	@Before
+	public void setUp() throws Exception {
+		sqlConnection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+		try (Statement s = sqlConnection.createStatement()) {
+			s.execute(new Scanner(new File(SQL_FILE)).useDelimiter("\\A").next());
+		}
+
+		Properties properties = new Properties();
+		properties.setProperty(OntopOBDASettings.SAME_AS_CANONICAL_IRIS, "true");
+
+		OntopSQLOWLAPIConfiguration config = OntopSQLOWLAPIConfiguration.defaultBuilder()
+				.ontologyFile(OWL_FILE)
+				.nativeOntopMappingFile(OBDA_FILE)
+				.jdbcUrl(JDBC_URL)
+				.jdbcUser(JDBC_USER)
+				.jdbcPassword(JDBC_PASSWORD)
+				.properties(properties)
+				.enableTestMode()
+				.build();
+
+		reasoner = OntopOWLFactory.defaultFactory().createReasoner(config);
+		conn = reasoner.getConnection();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		conn.close();
+		reasoner.dispose();
+		try (Statement s = sqlConnection.createStatement()) {
+			s.execute("DROP ALL OBJECTS DELETE FILES");
+		}
+		sqlConnection.close();
+	}
+
+	/**
+	 * The person_b entity without a link keeps its IRI
+	 */
+	@Test
+	public void testLinkedTemplate() throws Exception {
+		List<String> results = runQuery("PREFIX : <http://example.org/>\n" +
+				"SELECT ?x WHERE { ?x :age ?g }");
+
+		assertEquals(ImmutableMultiset.of("<http://example.org/a/1>", "<http://example.org/a/2>",
+				"<http://example.org/b/30>"), ImmutableMultiset.copyOf(results));
+	}
+
+	/**
+	 * Pattern over the canonical template joined with a pattern over the linked template
+	 */
+	@Test
+	public void testJoinWithCanonicalTemplate() throws Exception {
+		List<String> results = runQuery("PREFIX : <http://example.org/>\n" +
+				"SELECT ?x WHERE { ?x :name ?n . ?x :age ?g }");
+
+		assertEquals(ImmutableMultiset.of("<http://example.org/a/1>", "<http://example.org/a/2>"),
+				ImmutableMultiset.copyOf(results));
+	}
+
+	private List<String> runQuery(String query) throws Exception {
+		List<String> results = new ArrayList<>();
+		try (OWLStatement st = conn.createStatement()) {
+			TupleOWLResultSet rs = st.executeSelectQuery(query);
+			while (rs.hasNext()) {
+				OWLBindingSet bindingSet = rs.next();
+				for (String name : rs.getSignature())
+					results.add(ToStringRenderer.getInstance().getRendering(bindingSet.getOWLObject(name)));
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,80 @@
+package it.unibz.inf.ontop.owlapi;
+
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * The lazy T-mapping saturation (see LazyTMappingProcessor) must give the same definitions as the eager one
+ */
+public class LazyTMappingSaturationTest {
+
+	@Test
+	public void testUOBM() throws Exception {
+		checkSameDefinitions("uobm",
+				"src/test/resources/tmapping-uobm/univ-bench-dl.sql",
+				"src/test/resources/tmapping-uobm/univ-bench-dl.owl",
+				"src/test/resources/tmapping-uobm/univ-bench-dl.obda");
+	}
+
+	@Test
+	public void testPositions() throws Exception {
+		checkSameDefinitions("positions",
+				"src/test/resources/test/tmapping-positions-create-h2.sql",
+				"src/test/resources/test/tmapping-positions.owl",
+				"src/test/resources/test/tmapping-positions.obda");
+	}
+
+	private void checkSameDefinitions(String dbName, String sqlFile, String owlFile, String obdaFile)
+			throws Exception {
+		String jdbcUrl = "jdbc:h2:mem:lazy-tmapping-" + dbName;
+		try (Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("RUNSCRIPT FROM '" + sqlFile + "'");
+			}
+
+			Mapping eagerMapping = loadSaturatedMapping(jdbcUrl, owlFile, obdaFile, false);
+			Mapping lazyMapping = loadSaturatedMapping(jdbcUrl, owlFile, obdaFile, true);
+
+			assertFalse(eagerMapping.getPredicates().isEmpty());
+			assertEquals(eagerMapping.getPredicates(), lazyMapping.getPredicates());
+			for (AtomPredicate predicate : eagerMapping.getPredicates())
+				assertEquals(predicate.getName(),
+						toString(eagerMapping.getDefinition(predicate)),
+						toString(lazyMapping.getDefinition(predicate)));
+		}
+	}
+
+	private Mapping loadSaturatedMapping(String jdbcUrl, String owlFile, String obdaFile, boolean isLazy)
+			throws Exception {
+		Properties properties = new Properties();
+		properties.setProperty(OntopMappingSettings.LAZY_TMAPPING_SATURATION, String.valueOf(isLazy));
+
+		return OntopSQLOWLAPIConfiguration.defaultBuilder()
+				.ontologyFile(owlFile)
+				.nativeOntopMappingFile(obdaFile)
+				.jdbcUrl(jdbcUrl)
+				.jdbcUser("sa")
+				.jdbcPassword("")
+				.properties(properties)
+				.build()
+				.loadSpecification()
+				.getSaturatedMapping();
+	}
+
+	private static String toString(Optional<IntermediateQuery> definition) {
+		return definition.map(IntermediateQuery::toString).orElse("none");
+	}
+}
@@ -0,0 +1,112 @@
+package it.unibz.inf.ontop.owlapi;
+
+import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorOWL2QL;
+import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorUtility;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The assertions are translated in parallel by OWLAPITranslatorOWL2QL.translate:
+ * the result must be the one of visiting all the axioms in turn.
+ */
+
+public class OWL2QLTranslatorAssertionsTest {
+
+	private static final int INDIVIDUAL_COUNT = 500;
+
+	@Test
+	public void testAssertionOrder() throws Exception {
+		OWLOntology onto = createOntology(false);
+
+		Ontology parallel = OWLAPITranslatorUtility.translate(onto);
+		Ontology sequential = visitInTurn(onto);
+
+		assertEquals(INDIVIDUAL_COUNT, parallel.getClassAssertions().size());
+		assertEquals(INDIVIDUAL_COUNT, parallel.getObjectPropertyAssertions().size());
+		assertEquals(INDIVIDUAL_COUNT, parallel.getDataPropertyAssertions().size());
+		assertEquals(INDIVIDUAL_COUNT, parallel.getAnnotationAssertions().size());
+
+		assertEquals(sequential.getClassAssertions(), parallel.getClassAssertions());
+		assertEquals(sequential.getObjectPropertyAssertions(), parallel.getObjectPropertyAssertions());
+		assertEquals(sequential.getDataPropertyAssertions(), parallel.getDataPropertyAssertions());
+		assertEquals(sequential.getAnnotationAssertions(), parallel.getAnnotationAssertions());
+	}
+
+	/**
+	 * Every 50th individual is an instance of owl:Nothing
+	 */
+	@Test
+	public void testFirstInconsistentAxiom() throws Exception {
+		OWLOntology onto = createOntology(true);
+
+		String parallel = getErrorMessage(() -> OWLAPITranslatorUtility.translate(onto));
+		String sequential = getErrorMessage(() -> visitInTurn(onto));
+
+		assertEquals(sequential, parallel);
+		OWLAxiom first = onto.getAxioms().stream()
+				.filter(ax -> ax instanceof OWLClassAssertionAxiom
+						&& ((OWLClassAssertionAxiom) ax).getClassExpression().isOWLNothing())
+				.findFirst().get();
+		assertEquals("Inconsistency due to axiom " + first, parallel);
+	}
+
+	private static OWLOntology createOntology(boolean inconsistent) throws OWLOntologyCreationException {
+		OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		OWLDataFactory factory = manager.getOWLDataFactory();
+
+		OWLOntology onto = manager.createOntology(IRI.create("http://example/testonto"));
+
+		OWLClass a = factory.getOWLClass(IRI.create("http://example/A"));
+		OWLClass b = factory.getOWLClass(IRI.create("http://example/B"));
+		manager.addAxiom(onto, factory.getOWLSubClassOfAxiom(a, b));
+		OWLObjectProperty p = factory.getOWLObjectProperty(IRI.create("http://example/P"));
+		manager.addAxiom(onto, factory.getOWLDeclarationAxiom(p));
+		OWLDataProperty d = factory.getOWLDataProperty(IRI.create("http://example/D"));
+		manager.addAxiom(onto, factory.getOWLDeclarationAxiom(d));
+		OWLAnnotationProperty n = factory.getOWLAnnotationProperty(IRI.create("http://example/N"));
+		manager.addAxiom(onto, factory.getOWLDeclarationAxiom(n));
+
+		OWLNamedIndividual previous = null;
+		for (int i = 0; i < INDIVIDUAL_COUNT; i++) {
+			OWLNamedIndividual individual = factory.getOWLNamedIndividual(IRI.create("http://example/i" + i));
+			OWLClass c = (inconsistent && i % 50 == 17) ? factory.getOWLNothing() : a;
+			manager.addAxiom(onto, factory.getOWLClassAssertionAxiom(c, individual));
+			if (previous != null)
+				manager.addAxiom(onto, factory.getOWLObjectPropertyAssertionAxiom(p, previous, individual));
+			manager.addAxiom(onto, factory.getOWLDataPropertyAssertionAxiom(d, individual, i));
+			manager.addAxiom(onto, factory.getOWLAnnotationAssertionAxiom(n, individual.getIRI(),
+					factory.getOWLLiteral("individual " + i)));
+			previous = individual;
+		}
+		manager.addAxiom(onto, factory.getOWLObjectPropertyAssertionAxiom(p, previous,
+				factory.getOWLNamedIndividual(IRI.create("http://example/i0"))));
+		return onto;
+	}
+
+	private static Ontology visitInTurn(OWLOntology onto) {
+		OWLAPITranslatorOWL2QL translator = new OWLAPITranslatorOWL2QL(Collections.singleton(onto));
+		translator.setCurrentOWLOntology(onto);
+		for (OWLAxiom ax : onto.getAxioms())
+			ax.accept(translator);
+		return translator.getOntology();
+	}
+
+	private static String getErrorMessage(Supplier<Ontology> translation) {
+		try {
+			translation.get();
+		}
+		catch (RuntimeException e) {
+			return e.getMessage();
+		}
+		fail("The ontology is inconsistent");
+		return null;
+	}
+}
@@ -0,0 +1,8 @@
+CREATE TABLE person_a (id INT PRIMARY KEY, name VARCHAR(20) NOT NULL);
+CREATE TABLE person_b (id INT PRIMARY KEY, age INT NOT NULL);
+CREATE TABLE link (a_id INT NOT NULL, b_id INT NOT NULL);
+
+INSERT INTO person_a VALUES (1, 'Ann'), (2, 'Bob');
+INSERT INTO person_b VALUES (10, 30), (20, 40), (30, 50);
+-- person_b 30 has no link
+INSERT INTO link VALUES (1, 10), (2, 20);
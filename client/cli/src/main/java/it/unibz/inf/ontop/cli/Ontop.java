@@ -47,6 +47,8 @@ public class Ontop {
                         OntopMaterialize.class,
                         OntopBootstrap.class,
                         OntopValidate.class,
+                        OntopStatistics.class,
+                        OntopProfile.class,
                         /**
                          * hidden commands
                          */
@@ -21,14 +21,59 @@ package it.unibz.inf.ontop.cli;
  */
 
 import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.OptionType;
+import com.github.rvesse.airline.annotations.help.BashCompletion;
+import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.snapshot.SpecificationSnapshotTools;
+
+import java.io.File;
 
 @Command(name = "compile",
-        description = "compile the ontology axioms into  mappings",
-        hidden = true)
-public class OntopCompile implements OntopCommand {
+        description = "Precompile the mapping, the ontology and the DB metadata into a specification snapshot " +
+                "(loaded at startup when declared in the properties, see ontop.specificationSnapshot)")
+public class OntopCompile extends OntopMappingOntologyRelatedCommand {
+
+    @Option(type = OptionType.COMMAND, name = {"-o", "--output"}, title = "output",
+            description = "output file. Default: mapping file with the .snapshot extension")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    protected String outputFile;
 
     @Override
     public void run() {
+        Builder<? extends Builder> configBuilder = OntopSQLOWLAPIConfiguration.defaultBuilder();
+
+        if (mappingFile.endsWith(".obda"))
+            configBuilder.nativeOntopMappingFile(mappingFile);
+        else
+            configBuilder.r2rmlMappingFile(mappingFile);
+
+        if (owlFile != null)
+            configBuilder.ontologyFile(owlFile);
+
+        OntopSQLOWLAPIConfiguration configuration = configBuilder
+                .propertyFile(propertiesFile)
+                .build();
+
+        File snapshotFile = outputFile == null
+                ? SpecificationSnapshotTools.getDefaultSnapshotFile(new File(mappingFile))
+                : new File(outputFile);
+
+        try {
+            long start = System.currentTimeMillis();
+            OBDASpecification specification = configuration.saveSpecificationSnapshot(snapshotFile);
+
+            System.out.format("Specification (%d mapped predicates) compiled in %d ms, saved to %s\n",
+                    specification.getSaturatedMapping().getPredicates().size(),
+                    System.currentTimeMillis() - start, snapshotFile);
 
+        } catch (Exception e) {
+            System.err.println("Error occurred during the compilation: " + e.getMessage());
+            System.err.println("Debugging information for developers: ");
+            e.printStackTrace();
+        }
     }
 }
@@ -7,6 +7,11 @@ import com.github.rvesse.airline.annotations.help.BashCompletion;
 import com.github.rvesse.airline.annotations.restrictions.Required;
 import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
 
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Properties;
+
 abstract class OntopMappingOntologyRelatedCommand implements OntopCommand {
 
     @Option(type = OptionType.COMMAND, name = {"-t", "--ontology"}, title = "ontology file",
@@ -26,4 +31,15 @@ abstract class OntopMappingOntologyRelatedCommand implements OntopCommand {
     @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
     String propertiesFile;
 
+    /**
+     * For adding properties to the ones of the properties file
+     * (the properties given to a configuration builder replace the ones of its property file)
+     */
+    Properties loadProperties() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = new FileReader(propertiesFile)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
 }
@@ -0,0 +1,68 @@
+package it.unibz.inf.ontop.cli;
+
+import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.OptionType;
+import com.github.rvesse.airline.annotations.help.BashCompletion;
+import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+@Command(name = "profile",
+        description = "Build the specification and report (in JSON) the wall time, the allocated bytes and " +
+                "some element counts of each startup phase")
+public class OntopProfile extends OntopMappingOntologyRelatedCommand {
+
+    @Option(type = OptionType.COMMAND, name = {"-o", "--output"}, title = "output",
+            description = "output file. Default: standard output")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    protected String outputFile;
+
+    @Override
+    public void run() {
+        Properties properties;
+        try {
+            properties = loadProperties();
+        } catch (IOException e) {
+            System.err.println("Cannot read the properties file " + propertiesFile + ": " + e.getMessage());
+            return;
+        }
+        properties.setProperty(OntopMappingSettings.STARTUP_PROFILING, "true");
+
+        Builder<? extends Builder> configBuilder = OntopSQLOWLAPIConfiguration.defaultBuilder();
+
+        if (mappingFile.endsWith(".obda"))
+            configBuilder.nativeOntopMappingFile(mappingFile);
+        else
+            configBuilder.r2rmlMappingFile(mappingFile);
+
+        if (owlFile != null)
+            configBuilder.ontologyFile(owlFile);
+
+        OntopSQLOWLAPIConfiguration configuration = configBuilder
+                .properties(properties)
+                .build();
+
+        try {
+            configuration.loadSpecification();
+            String report = configuration.getStartupProfiler().toJson();
+
+            if (outputFile == null)
+                System.out.println(report);
+            else
+                Files.write(new File(outputFile).toPath(), report.getBytes(StandardCharsets.UTF_8));
+
+        } catch (Exception e) {
+            System.err.println("Error occurred during the profiling: " + e.getMessage());
+            System.err.println("Debugging information for developers: ");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package it.unibz.inf.ontop.cli;
+
+import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.OptionType;
+import com.github.rvesse.airline.annotations.help.BashCompletion;
+import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsCollector;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsSerializer;
+import it.unibz.inf.ontop.spec.dbschema.RDBMetadataExtractor;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.Optional;
+import java.util.Properties;
+
+@Command(name = "statistics",
+        description = "Collect statistics about the data source (stored next to the mapping file and loaded at startup)")
+public class OntopStatistics extends OntopMappingOntologyRelatedCommand {
+
+    @Option(type = OptionType.COMMAND, name = {"-o", "--output"}, title = "output",
+            description = "output file. Default: the ontop.statistics.file setting, " +
+                    "otherwise the mapping file with the .stats extension")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    protected String outputFile;
+
+    @Option(type = OptionType.COMMAND, name = {"--sample-size"}, title = "sample size",
+            description = "maximal number of rows read per table. Default: 100000")
+    protected Integer sampleSize;
+
+    @Option(type = OptionType.COMMAND, name = {"--threads"}, title = "threads",
+            description = "number of parallel DB connections. Default: 4")
+    protected Integer threadCount;
+
+    @Override
+    public void run() {
+        Properties properties;
+        try {
+            properties = loadProperties();
+        } catch (IOException e) {
+            System.err.println("Cannot read the properties file " + propertiesFile + ": " + e.getMessage());
+            return;
+        }
+        if (sampleSize != null)
+            properties.setProperty(OntopMappingSQLSettings.STATISTICS_SAMPLE_SIZE, String.valueOf(sampleSize));
+        if (threadCount != null)
+            properties.setProperty(OntopMappingSQLSettings.STATISTICS_THREAD_COUNT, String.valueOf(threadCount));
+
+        OntopMappingSQLAllConfiguration configuration;
+        if (mappingFile.endsWith(".obda")) {
+            configuration = OntopMappingSQLAllConfiguration.defaultBuilder()
+                    .nativeOntopMappingFile(mappingFile)
+                    .properties(properties)
+                    .build();
+        }
+        else {
+            configuration = OntopMappingSQLAllConfiguration.defaultBuilder()
+                    .r2rmlMappingFile(mappingFile)
+                    .properties(properties)
+                    .build();
+        }
+
+        File statisticsFile = outputFile != null
+                ? new File(outputFile)
+                : configuration.getSettings().getStatisticsFile()
+                    .map(File::new)
+                    .orElseGet(() -> DBStatisticsSerializer.getDefaultStatisticsFile(new File(mappingFile)));
+
+        try {
+            SQLPPMapping ppMapping = configuration.loadProvidedPPMapping();
+
+            RDBMetadata metadata;
+            try (Connection connection = LocalJDBCConnectionUtils.createConnection(configuration.getSettings())) {
+                metadata = configuration.getInjector().getInstance(RDBMetadataExtractor.class)
+                        .extract(ppMapping, connection, Optional.empty());
+            }
+
+            long start = System.currentTimeMillis();
+            DBStatistics statistics = configuration.getInjector().getInstance(DBStatisticsCollector.class)
+                    .collect(ppMapping, metadata);
+
+            DBStatisticsSerializer.save(statistics, statisticsFile);
+
+            System.out.format("Statistics of %d tables and %d mapping assertions collected in %d ms, saved to %s\n",
+                    statistics.getTableStatistics().size(), statistics.getMappingCardinalities().size(),
+                    System.currentTimeMillis() - start, statisticsFile);
+
+        } catch (Exception e) {
+            System.err.println("Error occurred during the statistics collection: " + e.getMessage());
+            System.err.println("Debugging information for developers: ");
+            e.printStackTrace();
+        }
+    }
+}
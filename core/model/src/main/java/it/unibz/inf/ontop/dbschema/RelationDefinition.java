@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.dbschema;
  */
 
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -36,6 +37,7 @@ import java.util.List;
 public abstract class RelationDefinition {
 
 	private final RelationID id;
+	private RelationStatistics statistics;
 	
 	protected RelationDefinition(RelationID id) {
 		this.id = id;
@@ -48,4 +50,24 @@ public abstract class RelationDefinition {
 	public abstract Attribute getAttribute(int index);
 
 	public abstract List<Attribute> getAttributes();
+
+	/**
+	 * sets the statistics of the relation (replaces the previous ones, if any)
+	 * 
+	 * @param statistics
+	 */
+	
+	public void setStatistics(RelationStatistics statistics) {
+		this.statistics = statistics;
+	}
+	
+	/**
+	 * returns the statistics of the relation (if available)
+	 * 
+	 * @return
+	 */
+	
+	public Optional<RelationStatistics> getStatistics() {
+		return Optional.ofNullable(statistics);
+	}
 }
@@ -0,0 +1,131 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Statistics about the content of a database relation<br>
+ *
+ * number of rows, (estimated) number of distinct values and fraction of nulls of its attributes
+ *
+ * Obtained from the database (e.g., index statistics of the JDBC driver or a statistics file) and used
+ * for estimating the cardinality of the query sub-trees (e.g., for ordering the joins).
+ * All the values are estimations and may be outdated.
+ *
+ */
+
+public class RelationStatistics {
+
+	public static final class Builder {
+		private final ImmutableMap.Builder<Integer, Long> distinctValueCounts = ImmutableMap.builder();
+		private final ImmutableMap.Builder<Integer, Double> nullFractions = ImmutableMap.builder();
+		private final long rowCount;
+
+		/**
+		 * creates a builder of statistics
+		 *
+		 * @param rowCount number of rows of the relation
+		 */
+
+		public Builder(long rowCount) {
+			if (rowCount < 0)
+				throw new IllegalArgumentException("Negative row count: " + rowCount);
+			this.rowCount = rowCount;
+		}
+
+		/**
+		 * adds the number of distinct (non-null) values of an attribute
+		 *
+		 * @param attribute
+		 * @param count
+		 * @return
+		 */
+
+		public Builder addDistinctValueCount(Attribute attribute, long count) {
+			if (count < 0)
+				throw new IllegalArgumentException("Negative number of distinct values for " + attribute + ": " + count);
+
+			distinctValueCounts.put(attribute.getIndex(), count);
+			return this;
+		}
+
+		/**
+		 * adds the fraction (between 0 and 1) of rows having a null value for the attribute
+		 *
+		 * @param attribute
+		 * @param fraction
+		 * @return
+		 */
+
+		public Builder addNullFraction(Attribute attribute, double fraction) {
+			if (fraction < 0 || fraction > 1)
+				throw new IllegalArgumentException("Invalid fraction of nulls for " + attribute + ": " + fraction);
+
+			nullFractions.put(attribute.getIndex(), fraction);
+			return this;
+		}
+
+		public RelationStatistics build() {
+			return new RelationStatistics(rowCount, distinctValueCounts.build(), nullFractions.build());
+		}
+	}
+
+	public static Builder builder(long rowCount) {
+		return new Builder(rowCount);
+	}
+
+	private final long rowCount;
+	// attribute index -> number of distinct values
+	private final ImmutableMap<Integer, Long> distinctValueCounts;
+	// attribute index -> fraction of nulls
+	private final ImmutableMap<Integer, Double> nullFractions;
+
+	/**
+	 * private constructor (use Builder instead)
+	 */
+
+	private RelationStatistics(long rowCount, ImmutableMap<Integer, Long> distinctValueCounts,
+							   ImmutableMap<Integer, Double> nullFractions) {
+		this.rowCount = rowCount;
+		this.distinctValueCounts = distinctValueCounts;
+		this.nullFractions = nullFractions;
+	}
+
+	/**
+	 * returns the (estimated) number of rows
+	 *
+	 * @return
+	 */
+
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * returns the (estimated) number of distinct values of the attribute at the specified position
+	 *
+	 * @param index is position <em>staring at 1</em>
+	 * @return empty if unknown
+	 */
+
+	public Optional<Long> getDistinctValueCount(int index) {
+		return Optional.ofNullable(distinctValueCounts.get(index));
+	}
+
+	/**
+	 * returns the (estimated) fraction of nulls of the attribute at the specified position
+	 *
+	 * @param index is position <em>staring at 1</em>
+	 * @return empty if unknown
+	 */
+
+	public Optional<Double> getNullFraction(int index) {
+		return Optional.ofNullable(nullFractions.get(index));
+	}
+
+	@Override
+	public String toString() {
+		return "ROWS " + rowCount + " DISTINCT VALUES " + distinctValueCounts + " NULLS " + nullFractions;
+	}
+}
@@ -7,10 +7,18 @@ public interface OntopOBDASettings extends OntopModelSettings {
 
     boolean isSameAsInMappingsEnabled();
 
+    /**
+     * The IRIs appearing as objects of the owl:sameAs mapping assertions are replaced (in the mapping, at startup)
+     * by the subject IRIs, taken as canonical representatives. The IRIs without a sameAs link are kept.
+     * The query-time sameAs rewriting is then not needed.
+     */
+    boolean isSameAsCanonicalIRIEnabled();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String  SAME_AS = "ontop.sameAs";
+    String  SAME_AS_CANONICAL_IRIS = "ontop.sameAs.canonicalIRIs";
     String  OPTIMIZE_EQUIVALENCES 	= "ontop.optimizeEquivalences";
 }
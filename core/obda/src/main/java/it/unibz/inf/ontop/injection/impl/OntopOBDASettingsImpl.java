@@ -9,11 +9,13 @@ public class OntopOBDASettingsImpl extends OntopModelSettingsImpl implements Ont
 
     private static final String DEFAULT_FILE = "obda-default.properties";
     private final boolean isSameAs;
+    private final boolean isSameAsCanonicalIRI;
     private final boolean optEquivalences;
 
     protected OntopOBDASettingsImpl(Properties userProperties) {
         super(loadProperties(userProperties));
         isSameAs = getRequiredBoolean(SAME_AS);
+        isSameAsCanonicalIRI = getRequiredBoolean(SAME_AS_CANONICAL_IRIS);
         optEquivalences = getRequiredBoolean(OPTIMIZE_EQUIVALENCES);
     }
 
@@ -36,4 +38,9 @@ public class OntopOBDASettingsImpl extends OntopModelSettingsImpl implements Ont
     public boolean isSameAsInMappingsEnabled() {
         return isSameAs;
     }
+
+    @Override
+    public boolean isSameAsCanonicalIRIEnabled() {
+        return isSameAsCanonicalIRI;
+    }
 }
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.util.Map;
+
 public class EncodeForURI {
 
 	private static final Logger log = LoggerFactory.getLogger(EncodeForURI.class);
@@ -31,6 +33,14 @@ public class EncodeForURI {
 			.put("%5B", "[")
 			.put("%5D", "]") 
 			.build();
+
+	/**
+	 * Characters to be encoded (the entries of TABLE are SQL string literals, hence the '' for ')
+	 */
+	private static final ImmutableMap<Character, String> ENCODING_TABLE = TABLE.entrySet().stream()
+			.collect(ImmutableCollectors.toMap(
+					e -> e.getValue().replace("''", "'").charAt(0),
+					Map.Entry::getKey));
 	
 	
 	/***
@@ -82,4 +92,36 @@ public class EncodeForURI {
 		}
 		return strBuilder.toString();
 	}
+
+	/**
+	 * True if the character is percent-encoded by encodeURIEscapeCodes(...) and by the REPLACE expressions in SQL
+	 */
+	public static boolean needsEncoding(char c) {
+		return ENCODING_TABLE.containsKey(c);
+	}
+
+	/**
+	 * Client-side counterpart of the nested REPLACE expressions generated in SQL:
+	 * percent-encodes the characters of TABLE.
+	 */
+	public static String encodeURIEscapeCodes(String value) {
+
+		int length = value.length();
+		StringBuilder strBuilder = null;
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String code = ENCODING_TABLE.get(c);
+			if (code != null) {
+				if (strBuilder == null) {
+					strBuilder = new StringBuilder(length + 20);
+					strBuilder.append(value, 0, i);
+				}
+				strBuilder.append(code);
+			}
+			else if (strBuilder != null)
+				strBuilder.append(c);
+		}
+		return strBuilder == null ? value : strBuilder.toString();
+	}
 }
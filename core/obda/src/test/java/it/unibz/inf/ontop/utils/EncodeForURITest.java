@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EncodeForURITest {
+
+	@Test
+	public void testEncode() {
+		assertEquals("John%20Smith%2C%20Jr.", EncodeForURI.encodeURIEscapeCodes("John Smith, Jr."));
+		assertEquals("a%2Fb%3Fc%3Dd%22", EncodeForURI.encodeURIEscapeCodes("a/b?c=d'"));
+	}
+
+	@Test
+	public void testNothingToEncode() {
+		String value = "abc-123_XYZ";
+		assertSame(value, EncodeForURI.encodeURIEscapeCodes(value));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		String value = "(a) [b] #c $d & e+f*g:h;i@j!";
+		assertEquals(value, EncodeForURI.decodeURIEscapeCodes(EncodeForURI.encodeURIEscapeCodes(value)));
+	}
+}
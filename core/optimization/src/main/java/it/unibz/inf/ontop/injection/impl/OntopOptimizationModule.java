@@ -16,6 +16,7 @@ import it.unibz.inf.ontop.iq.executor.pullout.PullVariableOutOfSubTreeExecutor;
 import it.unibz.inf.ontop.iq.executor.substitution.SubstitutionPropagationExecutor;
 import it.unibz.inf.ontop.iq.executor.truenode.TrueNodeRemovalExecutor;
 import it.unibz.inf.ontop.iq.executor.union.FlattenUnionExecutor;
+import it.unibz.inf.ontop.iq.executor.union.UnionBranchPruningExecutor;
 import it.unibz.inf.ontop.iq.executor.union.UnionLiftExecutor;
 import it.unibz.inf.ontop.iq.executor.unsatisfiable.RemoveEmptyNodesExecutor;
 import it.unibz.inf.ontop.injection.OntopOptimizationConfiguration;
@@ -59,6 +60,7 @@ public class OntopOptimizationModule extends OntopAbstractModule {
         bindFromSettings(ProjectionShrinkingExecutor.class);
         bindFromSettings(TrueNodeRemovalExecutor.class);
         bindFromSettings(FlattenUnionExecutor.class);
+        bindFromSettings(UnionBranchPruningExecutor.class);
         bindFromSettings(ConstructionNodeCleaningExecutor.class);
         bindFromSettings(DatalogProgram2QueryConverter.class);
         bindFromSettings(QueryUnionSplitter.class);
@@ -21,10 +21,13 @@ public class LeftJoinCompositeExecutor extends SimpleNodeCentricCompositeExecuto
     private final ImmutableList<SimpleNodeCentricExecutor<LeftJoinNode, LeftJoinOptimizationProposal>> executors;
 
     @Inject
-    private LeftJoinCompositeExecutor(LeftToInnerJoinExecutor leftToInnerJoinExecutor) {
+    private LeftJoinCompositeExecutor(RedundantLeftJoinExecutor redundantLeftJoinExecutor,
+                                      LeftToInnerJoinExecutor leftToInnerJoinExecutor) {
         ImmutableList.Builder<SimpleNodeCentricExecutor<LeftJoinNode, LeftJoinOptimizationProposal>> executorBuilder = ImmutableList.builder();
 
         //executorBuilder.add(new LeftJoinBooleanExpressionExecutor());
+        // Removal first (cheaper than an inner join)
+        executorBuilder.add(redundantLeftJoinExecutor);
         executorBuilder.add(leftToInnerJoinExecutor);
 
         executors = executorBuilder.build();
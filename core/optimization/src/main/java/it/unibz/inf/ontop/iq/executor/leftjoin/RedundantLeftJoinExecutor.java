@@ -0,0 +1,79 @@
+package it.unibz.inf.ontop.iq.executor.leftjoin;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
+import it.unibz.inf.ontop.iq.exception.InvalidQueryOptimizationProposalException;
+import it.unibz.inf.ontop.iq.executor.SimpleNodeCentricExecutor;
+import it.unibz.inf.ontop.iq.impl.QueryTreeComponent;
+import it.unibz.inf.ontop.iq.node.LeftJoinNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.proposal.LeftJoinOptimizationProposal;
+import it.unibz.inf.ontop.iq.proposal.NodeCentricOptimizationResults;
+import it.unibz.inf.ontop.iq.proposal.impl.NodeCentricOptimizationResultsImpl;
+import it.unibz.inf.ontop.iq.tools.UniqueKeyAnalyzer;
+import it.unibz.inf.ontop.model.term.Variable;
+
+import java.util.Optional;
+
+import static it.unibz.inf.ontop.iq.node.BinaryOrderedOperatorNode.ArgumentPosition.LEFT;
+import static it.unibz.inf.ontop.iq.node.BinaryOrderedOperatorNode.ArgumentPosition.RIGHT;
+
+/**
+ * Removes the right child of a left join when:
+ *   - none of its specific variables is used above the left join,
+ *   - and it has a unique key only made of left variables (at most one match per left tuple).
+ *
+ * The left join then returns exactly the tuples of its left child.
+ *
+ * Typical case: OPTIONAL pattern whose variables are not projected, joined on the primary key of a table.
+ */
+@Singleton
+public class RedundantLeftJoinExecutor implements SimpleNodeCentricExecutor<LeftJoinNode, LeftJoinOptimizationProposal> {
+
+    private final UniqueKeyAnalyzer uniqueKeyAnalyzer;
+
+    @Inject
+    private RedundantLeftJoinExecutor() {
+        this.uniqueKeyAnalyzer = new UniqueKeyAnalyzer();
+    }
+
+    @Override
+    public NodeCentricOptimizationResults<LeftJoinNode> apply(LeftJoinOptimizationProposal proposal,
+                                                              IntermediateQuery query,
+                                                              QueryTreeComponent treeComponent)
+            throws InvalidQueryOptimizationProposalException, EmptyQueryException {
+        LeftJoinNode leftJoinNode = proposal.getFocusNode();
+
+        QueryNode leftChild = query.getChild(leftJoinNode, LEFT)
+                .orElseThrow(() -> new InvalidIntermediateQueryException("A LJ must have a left child"));
+
+        QueryNode rightChild = query.getChild(leftJoinNode, RIGHT)
+                .orElseThrow(() -> new InvalidIntermediateQueryException("A LJ must have a right child"));
+
+        if (!isRedundant(leftJoinNode, leftChild, rightChild, query))
+            // No change
+            return new NodeCentricOptimizationResultsImpl<>(query, leftJoinNode);
+
+        treeComponent.removeSubTree(rightChild);
+        QueryNode replacingChild = treeComponent.replaceNodeByChild(leftJoinNode, Optional.empty());
+        return new NodeCentricOptimizationResultsImpl<>(query, Optional.of(replacingChild));
+    }
+
+    private boolean isRedundant(LeftJoinNode leftJoinNode, QueryNode leftChild, QueryNode rightChild,
+                                IntermediateQuery query) {
+        ImmutableSet<Variable> leftVariables = query.getVariables(leftChild);
+        ImmutableSet<Variable> requiredVariables = query.getVariablesRequiredByAncestors(leftJoinNode);
+
+        if (query.getVariables(rightChild).stream()
+                .filter(v -> !leftVariables.contains(v))
+                .anyMatch(requiredVariables::contains))
+            return false;
+
+        return uniqueKeyAnalyzer.getUniqueKeys(rightChild, query).stream()
+                .anyMatch(leftVariables::containsAll);
+    }
+}
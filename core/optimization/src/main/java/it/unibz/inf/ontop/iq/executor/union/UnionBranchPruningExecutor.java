@@ -0,0 +1,8 @@
+package it.unibz.inf.ontop.iq.executor.union;
+
+import it.unibz.inf.ontop.iq.executor.SimpleNodeCentricExecutor;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.proposal.UnionBranchPruningProposal;
+
+public interface UnionBranchPruningExecutor extends SimpleNodeCentricExecutor<FilterNode, UnionBranchPruningProposal> {
+}
@@ -0,0 +1,78 @@
+package it.unibz.inf.ontop.iq.executor.union.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.exception.InvalidQueryOptimizationProposalException;
+import it.unibz.inf.ontop.iq.executor.union.UnionBranchPruningExecutor;
+import it.unibz.inf.ontop.iq.impl.QueryTreeComponent;
+import it.unibz.inf.ontop.iq.node.EmptyNode;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.proposal.NodeCentricOptimizationResults;
+import it.unibz.inf.ontop.iq.proposal.NodeTrackingResults;
+import it.unibz.inf.ontop.iq.proposal.UnionBranchPruningProposal;
+import it.unibz.inf.ontop.iq.proposal.impl.NodeCentricOptimizationResultsImpl;
+import it.unibz.inf.ontop.iq.proposal.impl.RemoveEmptyNodeProposalImpl;
+
+import java.util.Optional;
+
+public class UnionBranchPruningExecutorImpl implements UnionBranchPruningExecutor {
+
+    private final IntermediateQueryFactory iqFactory;
+
+    @Inject
+    private UnionBranchPruningExecutorImpl(IntermediateQueryFactory iqFactory) {
+        this.iqFactory = iqFactory;
+    }
+
+    @Override
+    public NodeCentricOptimizationResults<FilterNode> apply(UnionBranchPruningProposal proposal, IntermediateQuery query,
+                                                            QueryTreeComponent treeComponent)
+            throws InvalidQueryOptimizationProposalException, EmptyQueryException {
+
+        FilterNode focusNode = proposal.getFocusNode();
+        UnionNode unionNode = proposal.getUnionNode();
+        ImmutableSet<QueryNode> prunedBranches = proposal.getPrunedBranches();
+
+        if (!query.getChildren(unionNode).containsAll(prunedBranches))
+            throw new InvalidQueryOptimizationProposalException("The pruned branches must be children of " + unionNode);
+
+        /*
+         * No branch left: the filter sub-tree is empty
+         */
+        if (prunedBranches.size() == query.getChildren(unionNode).size()) {
+            EmptyNode emptyNode = iqFactory.createEmptyNode(query.getVariables(focusNode));
+            treeComponent.replaceSubTree(focusNode, emptyNode);
+
+            NodeTrackingResults<EmptyNode> removalResults = query.applyProposal(
+                    new RemoveEmptyNodeProposalImpl(emptyNode, false), true);
+
+            return new NodeCentricOptimizationResultsImpl<>(query, removalResults.getOptionalNextSibling(),
+                    removalResults.getOptionalClosestAncestor());
+        }
+
+        prunedBranches.forEach(treeComponent::removeSubTree);
+
+        /*
+         * The remaining child replaces the union.
+         * If it projects more variables than the union, it is wrapped into a construction node.
+         */
+        if (treeComponent.getChildren(unionNode).size() == 1) {
+            QueryNode remainingChild = treeComponent.getChildren(unionNode).get(0);
+            if (query.getVariables(remainingChild).equals(unionNode.getVariables()))
+                treeComponent.replaceNodeByChild(unionNode, Optional.empty());
+            else
+                treeComponent.replaceNode(unionNode, iqFactory.createConstructionNode(unionNode.getVariables()));
+        }
+
+        if (proposal.isFilterRedundant()) {
+            QueryNode replacingChild = treeComponent.replaceNodeByChild(focusNode, Optional.empty());
+            return new NodeCentricOptimizationResultsImpl<>(query, Optional.of(replacingChild));
+        }
+        return new NodeCentricOptimizationResultsImpl<>(query, focusNode);
+    }
+}
@@ -0,0 +1,67 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ImmutableQueryModifiers;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.impl.ImmutableQueryModifiersImpl;
+import it.unibz.inf.ontop.iq.optimizer.impl.NodeCentricDepthFirstOptimizer;
+import it.unibz.inf.ontop.iq.proposal.ConstructionNodeCleaningProposal;
+import it.unibz.inf.ontop.iq.proposal.impl.ConstructionNodeCleaningProposalImpl;
+import it.unibz.inf.ontop.iq.tools.UniqueKeyAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Removes the DISTINCT modifier of a construction node when its child
+ * is known not to produce duplicates (see UniqueKeyAnalyzer).
+ * <p>
+ * Typical case: the subject IRI is built from the primary key of the table (with an IRI template),
+ * so the DB does not need to sort or hash the result for eliminating duplicates.
+ */
+public class DistinctEliminationOptimizer extends NodeCentricDepthFirstOptimizer<ConstructionNodeCleaningProposal> {
+
+    private static final Logger log = LoggerFactory.getLogger(DistinctEliminationOptimizer.class);
+
+    private final UniqueKeyAnalyzer uniqueKeyAnalyzer;
+
+    public DistinctEliminationOptimizer() {
+        super(false);
+        this.uniqueKeyAnalyzer = new UniqueKeyAnalyzer();
+    }
+
+    @Override
+    public IntermediateQuery optimize(IntermediateQuery query) throws EmptyQueryException {
+        IntermediateQuery optimizedQuery = super.optimize(query);
+        log.trace("New query after DISTINCT elimination: \n" + optimizedQuery.toString());
+        return optimizedQuery;
+    }
+
+    @Override
+    protected Optional<ConstructionNodeCleaningProposal> evaluateNode(QueryNode node, IntermediateQuery query) {
+        if (node instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) node;
+            Optional<ImmutableQueryModifiers> optionalModifiers = constructionNode.getOptionalModifiers();
+
+            if (optionalModifiers.isPresent() && optionalModifiers.get().isDistinct()) {
+                Optional<QueryNode> optionalChild = query.getFirstChild(constructionNode);
+                if (optionalChild.isPresent()
+                        && uniqueKeyAnalyzer.isDistinctRedundant(constructionNode, query)) {
+                    return Optional.of(new ConstructionNodeCleaningProposalImpl(constructionNode,
+                            removeDistinct(optionalModifiers.get()), optionalChild.get(), false));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ImmutableQueryModifiers> removeDistinct(ImmutableQueryModifiers modifiers) {
+        if (!(modifiers.hasLimit() || modifiers.hasOffset() || modifiers.hasOrder()))
+            return Optional.empty();
+        return Optional.of(new ImmutableQueryModifiersImpl(false, modifiers.getLimit(), modifiers.getOffset(),
+                modifiers.getSortConditions()));
+    }
+}
@@ -0,0 +1,123 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.tools.CardinalityEstimator;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Reorders the children of the inner join nodes according to their estimated cardinality
+ * (see CardinalityEstimator), so that the most selective patterns come first in the generated query.
+ * <p>
+ * Greedy ordering: starts with the smallest child, then repeatedly picks the smallest child
+ * sharing a variable with the already ordered ones (cartesian products are postponed).
+ * <p>
+ * Joins for which some child has no estimation (e.g. no statistics are available) are left unchanged.
+ * This does not change the semantics of the query: only the order of the children of the inner joins.
+ */
+public class JoinOrderingOptimizer implements IntermediateQueryOptimizer {
+
+    private static final Logger log = LoggerFactory.getLogger(JoinOrderingOptimizer.class);
+
+    private final CardinalityEstimator cardinalityEstimator;
+
+    public JoinOrderingOptimizer() {
+        this.cardinalityEstimator = new CardinalityEstimator();
+    }
+
+    @Override
+    public IntermediateQuery optimize(IntermediateQuery query) {
+        Map<QueryNode, ImmutableList<QueryNode>> newChildrenMap = new HashMap<>();
+        for (QueryNode node : query.getNodesInTopDownOrder()) {
+            if (node instanceof InnerJoinNode)
+                computeNewOrder((InnerJoinNode) node, query)
+                        .ifPresent(children -> newChildrenMap.put(node, children));
+        }
+
+        if (newChildrenMap.isEmpty())
+            return query;
+
+        IntermediateQuery optimizedQuery = rebuild(query, newChildrenMap);
+        log.trace("New query after join ordering: \n" + optimizedQuery.toString());
+        return optimizedQuery;
+    }
+
+    /**
+     * Returns the new list of children if different from the current one
+     */
+    private Optional<ImmutableList<QueryNode>> computeNewOrder(InnerJoinNode joinNode, IntermediateQuery query) {
+        ImmutableList<QueryNode> children = query.getChildren(joinNode);
+        if (children.size() < 2)
+            return Optional.empty();
+
+        Map<QueryNode, Double> estimates = new HashMap<>();
+        for (QueryNode child : children) {
+            Optional<Double> estimate = cardinalityEstimator.estimate(child, query);
+            if (!estimate.isPresent())
+                return Optional.empty();
+            estimates.put(child, estimate.get());
+        }
+
+        List<QueryNode> remainingChildren = new ArrayList<>(children);
+        ImmutableList.Builder<QueryNode> orderedChildrenBuilder = ImmutableList.builder();
+        Set<Variable> joinedVariables = new HashSet<>();
+
+        while (!remainingChildren.isEmpty()) {
+            QueryNode nextChild = selectNextChild(remainingChildren, joinedVariables, estimates, query);
+            remainingChildren.remove(nextChild);
+            orderedChildrenBuilder.add(nextChild);
+            joinedVariables.addAll(query.getVariables(nextChild));
+        }
+
+        ImmutableList<QueryNode> orderedChildren = orderedChildrenBuilder.build();
+        return orderedChildren.equals(children)
+                ? Optional.empty()
+                : Optional.of(orderedChildren);
+    }
+
+    /**
+     * Smallest child connected to the already joined variables (if any).
+     * Ties are resolved by keeping the original order.
+     */
+    private static QueryNode selectNextChild(List<QueryNode> remainingChildren, Set<Variable> joinedVariables,
+                                             Map<QueryNode, Double> estimates, IntermediateQuery query) {
+        Optional<QueryNode> connectedChild = remainingChildren.stream()
+                .filter(c -> query.getVariables(c).stream().anyMatch(joinedVariables::contains))
+                .min(Comparator.comparing(estimates::get));
+
+        return connectedChild
+                .orElseGet(() -> remainingChildren.stream()
+                        .min(Comparator.comparing(estimates::get))
+                        .get());
+    }
+
+    private static IntermediateQuery rebuild(IntermediateQuery query,
+                                             Map<QueryNode, ImmutableList<QueryNode>> newChildrenMap) {
+        IntermediateQueryBuilder queryBuilder = query.newBuilder();
+        QueryNode rootNode = query.getRootNode();
+        queryBuilder.init(query.getProjectionAtom(), rootNode);
+
+        Queue<QueryNode> parentNodes = new LinkedList<>();
+        parentNodes.add(rootNode);
+
+        while (!parentNodes.isEmpty()) {
+            QueryNode parentNode = parentNodes.poll();
+
+            ImmutableList<QueryNode> children = Optional.ofNullable(newChildrenMap.get(parentNode))
+                    .orElseGet(() -> query.getChildren(parentNode));
+
+            for (QueryNode childNode : children) {
+                queryBuilder.addChild(parentNode, childNode, query.getOptionalPosition(parentNode, childNode));
+                parentNodes.add(childNode);
+            }
+        }
+        return queryBuilder.build();
+    }
+}
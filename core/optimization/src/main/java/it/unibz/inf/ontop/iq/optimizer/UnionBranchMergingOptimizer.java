@@ -0,0 +1,416 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE;
+import it.unibz.inf.ontop.model.term.impl.ImmutabilityTools;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.SUBSTITUTION_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE.NUMERIC_TYPES;
+
+/**
+ * Merges the children of a union node that scan the same relation into a single scan
+ * with a disjunctive filter.
+ * <p>
+ * Typical case: several mapping assertions over the same table that only differ by a constant
+ * (e.g. a type column) or by a filter. Instead of a UNION of several scans of the table,
+ * one scan with an OR-ed condition is produced.
+ * <p>
+ * Supported shape for a branch: [ConstructionNode without modifiers] -> [FilterNode] -> ExtensionalDataNode.
+ * The variables that are not projected by a branch are local to it: the branches are compared
+ * after renaming them (in the order of their first occurrence in the data atom).
+ * Branches are merged when
+ *   - they have the same construction node (same projected variables and same substitution) or no construction node,
+ *   - their data atoms have the same predicate and only differ by some ground terms,
+ *   - they are pairwise disjoint (some variable is required to be equal to two constants
+ *     that are also different for the DB, see areDistinct).
+ * The latter condition guarantees that no duplicate is lost (bag semantics of the union).
+ * <p>
+ * Branches with different substitutions (that would require a CASE in the projection) are not merged.
+ */
+public class UnionBranchMergingOptimizer implements IntermediateQueryOptimizer {
+
+    private static final Logger log = LoggerFactory.getLogger(UnionBranchMergingOptimizer.class);
+
+    @Override
+    public IntermediateQuery optimize(IntermediateQuery query) {
+        /*
+         * New children of the modified union nodes and of the created nodes
+         */
+        Map<QueryNode, ImmutableList<QueryNode>> newChildrenMap = new HashMap<>();
+        /*
+         * Union nodes left with only one child
+         */
+        Map<QueryNode, QueryNode> replacementMap = new HashMap<>();
+
+        for (QueryNode node : query.getNodesInTopDownOrder()) {
+            if (node instanceof UnionNode)
+                mergeBranches((UnionNode) node, query, newChildrenMap, replacementMap);
+        }
+
+        if (newChildrenMap.isEmpty())
+            return query;
+
+        IntermediateQuery optimizedQuery = rebuild(query, newChildrenMap, replacementMap);
+        log.trace("New query after merging the union branches: \n" + optimizedQuery.toString());
+        return optimizedQuery;
+    }
+
+    private void mergeBranches(UnionNode unionNode, IntermediateQuery query,
+                               Map<QueryNode, ImmutableList<QueryNode>> newChildrenMap,
+                               Map<QueryNode, QueryNode> replacementMap) {
+        ImmutableList<QueryNode> children = query.getChildren(unionNode);
+
+        /*
+         * Fresh variables replacing the local variables of the branches (shared by all the branches)
+         */
+        List<Variable> canonicalVariables = new ArrayList<>();
+
+        /*
+         * Groups the candidate branches (insertion order is preserved)
+         */
+        Map<BranchKey, List<Branch>> groups = new LinkedHashMap<>();
+        for (QueryNode child : children) {
+            extractBranch(child, unionNode, query, canonicalVariables)
+                    .ifPresent(b -> groups.computeIfAbsent(new BranchKey(b), k -> new ArrayList<>()).add(b));
+        }
+
+        Map<QueryNode, QueryNode> mergedNodes = new HashMap<>();
+        Set<QueryNode> removedNodes = new HashSet<>();
+
+        for (List<Branch> group : groups.values()) {
+            if (group.size() < 2)
+                continue;
+            mergeGroup(group, unionNode, query, newChildrenMap)
+                    .ifPresent(n -> {
+                        mergedNodes.put(group.get(0).root, n);
+                        group.stream()
+                                .skip(1)
+                                .forEach(b -> removedNodes.add(b.root));
+                    });
+        }
+
+        if (mergedNodes.isEmpty())
+            return;
+
+        ImmutableList<QueryNode> newChildren = children.stream()
+                .filter(c -> !removedNodes.contains(c))
+                .map(c -> mergedNodes.getOrDefault(c, c))
+                .collect(ImmutableCollectors.toList());
+
+        if (newChildren.size() == 1)
+            replacementMap.put(unionNode, newChildren.get(0));
+        else
+            newChildrenMap.put(unionNode, newChildren);
+    }
+
+    private Optional<Branch> extractBranch(QueryNode child, UnionNode unionNode, IntermediateQuery query,
+                                           List<Variable> canonicalVariables) {
+        QueryNode node = child;
+
+        Optional<ConstructionNode> constructionNode = Optional.empty();
+        if (node instanceof ConstructionNode) {
+            ConstructionNode c = (ConstructionNode) node;
+            if (c.getOptionalModifiers().isPresent())
+                return Optional.empty();
+            constructionNode = Optional.of(c);
+            node = query.getFirstChild(node).get();
+        }
+
+        Optional<ImmutableExpression> filterCondition = Optional.empty();
+        if (node instanceof FilterNode) {
+            filterCondition = Optional.of(((FilterNode) node).getFilterCondition());
+            node = query.getFirstChild(node).get();
+        }
+
+        if (!(node instanceof ExtensionalDataNode))
+            return Optional.empty();
+
+        DataAtom atom = ((ExtensionalDataNode) node).getProjectionAtom();
+        ImmutableSet<Variable> projectedVariables = constructionNode
+                .map(ConstructionNode::getVariables)
+                .orElseGet(unionNode::getVariables);
+        ImmutableList<Variable> localVariables = atom.getArguments().stream()
+                .filter(t -> t instanceof Variable)
+                .map(t -> (Variable) t)
+                .filter(v -> !projectedVariables.contains(v))
+                .distinct()
+                .collect(ImmutableCollectors.toList());
+
+        while (canonicalVariables.size() < localVariables.size())
+            canonicalVariables.add(query.generateNewVariable());
+
+        InjectiveVar2VarSubstitution renaming = SUBSTITUTION_FACTORY.getInjectiveVar2VarSubstitution(
+                IntStream.range(0, localVariables.size())
+                        .boxed()
+                        .collect(ImmutableCollectors.toMap(localVariables::get, canonicalVariables::get)));
+
+        return Optional.of(new Branch(child,
+                constructionNode.map(c -> new ProjectionAndSubstitution(c.getVariables(),
+                        renaming.applyRenaming(c.getSubstitution()))),
+                filterCondition.map(renaming::applyToBooleanExpression),
+                renaming.applyToDataAtom(atom)));
+    }
+
+    /**
+     * Returns the root of the merged branch, if the branches can be merged
+     */
+    private Optional<QueryNode> mergeGroup(List<Branch> group, UnionNode unionNode, IntermediateQuery query,
+                                           Map<QueryNode, ImmutableList<QueryNode>> newChildrenMap) {
+        DataAtom firstAtom = group.get(0).atom;
+        int arity = firstAtom.getEffectiveArity();
+
+        ImmutableList<Integer> differingPositions = IntStream.range(0, arity)
+                .filter(i -> group.stream()
+                        .anyMatch(b -> !b.atom.getTerm(i).equals(firstAtom.getTerm(i))))
+                .boxed()
+                .collect(ImmutableCollectors.toList());
+
+        // Only ground terms may differ
+        if (differingPositions.stream()
+                .anyMatch(i -> group.stream()
+                        .anyMatch(b -> !b.atom.getTerm(i).isGround())))
+            return Optional.empty();
+
+        ImmutableMap<Integer, Variable> newVariables = differingPositions.stream()
+                .collect(ImmutableCollectors.toMap(i -> i, i -> query.generateNewVariable()));
+
+        ImmutableList<Optional<ImmutableExpression>> optionalConditions = group.stream()
+                .map(b -> computeCondition(b, newVariables))
+                .collect(ImmutableCollectors.toList());
+
+        // A branch without condition cannot be disjoint from the others
+        if (optionalConditions.stream().anyMatch(c -> !c.isPresent()))
+            return Optional.empty();
+
+        ImmutableList<ImmutableExpression> conditions = optionalConditions.stream()
+                .map(Optional::get)
+                .collect(ImmutableCollectors.toList());
+
+        if (!arePairwiseDisjoint(conditions))
+            return Optional.empty();
+
+        ImmutableList<VariableOrGroundTerm> newArguments = IntStream.range(0, arity)
+                .boxed()
+                .map(i -> Optional.<VariableOrGroundTerm>ofNullable(newVariables.get(i))
+                        .orElseGet(() -> firstAtom.getTerm(i)))
+                .collect(ImmutableCollectors.toList());
+
+        IntermediateQueryFactory iqFactory = query.getFactory();
+        ExtensionalDataNode newDataNode = iqFactory.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(firstAtom.getPredicate(), newArguments));
+        FilterNode newFilterNode = iqFactory.createFilterNode(computeDisjunction(conditions));
+
+        newChildrenMap.put(newDataNode, ImmutableList.of());
+        newChildrenMap.put(newFilterNode, ImmutableList.of(newDataNode));
+
+        // The new variables must not be projected by the union branch
+        ConstructionNode newConstructionNode = group.get(0).construction
+                .map(c -> iqFactory.createConstructionNode(c.variables, c.substitution))
+                .orElseGet(() -> iqFactory.createConstructionNode(unionNode.getVariables()));
+        newChildrenMap.put(newConstructionNode, ImmutableList.of(newFilterNode));
+        return Optional.of(newConstructionNode);
+    }
+
+    /**
+     * Equalities between the new variables and the ground terms of the branch, plus its filter condition
+     */
+    private static Optional<ImmutableExpression> computeCondition(Branch branch, ImmutableMap<Integer, Variable> newVariables) {
+        DataAtom atom = branch.atom;
+
+        List<ImmutableExpression> conjuncts = new ArrayList<>();
+        newVariables.forEach((i, v) -> conjuncts.add(
+                TERM_FACTORY.getImmutableExpression(ExpressionOperation.EQ, v, atom.getTerm(i))));
+        branch.filterCondition.ifPresent(conjuncts::add);
+
+        return ImmutabilityTools.foldBooleanExpressions(ImmutableList.copyOf(conjuncts));
+    }
+
+    private static ImmutableExpression computeDisjunction(ImmutableList<ImmutableExpression> conditions) {
+        return conditions.stream()
+                .reduce((c1, c2) -> TERM_FACTORY.getImmutableExpression(ExpressionOperation.OR, c1, c2))
+                .get();
+    }
+
+    private static boolean arePairwiseDisjoint(ImmutableList<ImmutableExpression> conditions) {
+        ImmutableList<Map<Variable, Constant>> equalities = conditions.stream()
+                .map(UnionBranchMergingOptimizer::extractConstantEqualities)
+                .collect(ImmutableCollectors.toList());
+
+        for (int i = 0; i < equalities.size(); i++) {
+            for (int j = i + 1; j < equalities.size(); j++) {
+                Map<Variable, Constant> equalities2 = equalities.get(j);
+                boolean disjoint = equalities.get(i).entrySet().stream()
+                        .anyMatch(e -> Optional.ofNullable(equalities2.get(e.getKey()))
+                                .filter(c -> areDistinct(c, e.getValue()))
+                                .isPresent());
+                if (!disjoint)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Constants that the DB does not consider as equal. Conservative: constants of different types
+     * (e.g. "1" and 1) are not distinct unless they are numbers with different values (1 and 1.0 are not),
+     * and strings differing only by their case or trailing spaces are not distinct (collations may ignore them).
+     */
+    private static boolean areDistinct(Constant c1, Constant c2) {
+        if (!(c1 instanceof ValueConstant) || !(c2 instanceof ValueConstant))
+            return false;
+
+        COL_TYPE type1 = ((ValueConstant) c1).getType();
+        COL_TYPE type2 = ((ValueConstant) c2).getType();
+        String value1 = c1.getValue();
+        String value2 = c2.getValue();
+
+        if (NUMERIC_TYPES.contains(type1) && NUMERIC_TYPES.contains(type2)) {
+            try {
+                return new BigDecimal(value1.trim()).compareTo(new BigDecimal(value2.trim())) != 0;
+            }
+            catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        return type1 == type2
+                && !stripTrailingSpaces(value1).equalsIgnoreCase(stripTrailingSpaces(value2));
+    }
+
+    private static String stripTrailingSpaces(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ')
+            end--;
+        return value.substring(0, end);
+    }
+
+    /**
+     * Conjuncts of the form "variable = constant"
+     */
+    private static Map<Variable, Constant> extractConstantEqualities(ImmutableExpression condition) {
+        Map<Variable, Constant> equalities = new HashMap<>();
+        for (ImmutableExpression conjunct : condition.flattenAND()) {
+            if (conjunct.getFunctionSymbol() != ExpressionOperation.EQ)
+                continue;
+            ImmutableTerm t1 = conjunct.getTerm(0);
+            ImmutableTerm t2 = conjunct.getTerm(1);
+            if ((t1 instanceof Variable) && (t2 instanceof Constant))
+                equalities.put((Variable) t1, (Constant) t2);
+            else if ((t2 instanceof Variable) && (t1 instanceof Constant))
+                equalities.put((Variable) t2, (Constant) t1);
+        }
+        return equalities;
+    }
+
+    private static IntermediateQuery rebuild(IntermediateQuery query,
+                                             Map<QueryNode, ImmutableList<QueryNode>> newChildrenMap,
+                                             Map<QueryNode, QueryNode> replacementMap) {
+        IntermediateQueryBuilder queryBuilder = query.newBuilder();
+        QueryNode rootNode = query.getRootNode();
+        queryBuilder.init(query.getProjectionAtom(), rootNode);
+
+        Queue<QueryNode> parentNodes = new LinkedList<>();
+        parentNodes.add(rootNode);
+
+        while (!parentNodes.isEmpty()) {
+            QueryNode parentNode = parentNodes.poll();
+
+            boolean isNewOrModified = newChildrenMap.containsKey(parentNode);
+            ImmutableList<QueryNode> children = isNewOrModified
+                    ? newChildrenMap.get(parentNode)
+                    : query.getChildren(parentNode);
+
+            for (QueryNode childNode : children) {
+                QueryNode newChildNode = replacementMap.getOrDefault(childNode, childNode);
+                queryBuilder.addChild(parentNode, newChildNode,
+                        isNewOrModified
+                                ? Optional.empty()
+                                : query.getOptionalPosition(parentNode, childNode));
+                parentNodes.add(newChildNode);
+            }
+        }
+        return queryBuilder.build();
+    }
+
+
+    /**
+     * Construction node, filter condition and data atom of the branch, with the local variables renamed
+     */
+    private static class Branch {
+        private final QueryNode root;
+        private final Optional<ProjectionAndSubstitution> construction;
+        private final Optional<ImmutableExpression> filterCondition;
+        private final DataAtom atom;
+
+        private Branch(QueryNode root, Optional<ProjectionAndSubstitution> construction,
+                       Optional<ImmutableExpression> filterCondition, DataAtom atom) {
+            this.root = root;
+            this.construction = construction;
+            this.filterCondition = filterCondition;
+            this.atom = atom;
+        }
+    }
+
+    private static class ProjectionAndSubstitution {
+        private final ImmutableSet<Variable> variables;
+        private final ImmutableSubstitution<ImmutableTerm> substitution;
+
+        private ProjectionAndSubstitution(ImmutableSet<Variable> variables,
+                                          ImmutableSubstitution<ImmutableTerm> substitution) {
+            this.variables = variables;
+            this.substitution = substitution;
+        }
+    }
+
+    /**
+     * Branches having different keys cannot be merged
+     */
+    private static class BranchKey {
+        private final AtomPredicate predicate;
+        private final Optional<ImmutableSet<Variable>> projectedVariables;
+        private final Optional<ImmutableMap<Variable, ImmutableTerm>> substitution;
+
+        private BranchKey(Branch branch) {
+            this.predicate = branch.atom.getPredicate();
+            this.projectedVariables = branch.construction.map(c -> c.variables);
+            this.substitution = branch.construction
+                    .map(c -> c.substitution.getImmutableMap());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BranchKey other = (BranchKey) o;
+            return predicate.equals(other.predicate)
+                    && projectedVariables.equals(other.projectedVariables)
+                    && substitution.equals(other.substitution);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(predicate, projectedVariables, substitution);
+        }
+    }
+}
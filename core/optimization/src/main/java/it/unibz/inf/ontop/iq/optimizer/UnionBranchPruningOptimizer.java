@@ -0,0 +1,109 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.evaluator.ExpressionEvaluator;
+import it.unibz.inf.ontop.evaluator.ExpressionEvaluator.EvaluationResult;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.optimizer.impl.NodeCentricDepthFirstOptimizer;
+import it.unibz.inf.ontop.iq.proposal.UnionBranchPruningProposal;
+import it.unibz.inf.ontop.iq.proposal.impl.UnionBranchPruningProposalImpl;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Evaluates the condition of a FilterNode against each child of the UnionNode below it
+ * (possibly through ConstructionNodes without query modifiers).
+ * <p>
+ * The bindings of the construction node at the top of the child are applied to the condition.
+ * If the condition then evaluates to false (or NULL), the child is removed.
+ * If it evaluates to true for all the remaining children, the filter is removed.
+ * <p>
+ * Typical case: FILTER(lang(?l) = "en") or langMatches(lang(?l), "en") above a union of mapping assertions
+ * building literals with different constant language tags.
+ * Only the branches that can match are kept, and the filter is not evaluated by the DB anymore.
+ * <p>
+ * When some children cannot be decided, the filter is kept above the (pruned) union.
+ */
+public class UnionBranchPruningOptimizer extends NodeCentricDepthFirstOptimizer<UnionBranchPruningProposal> {
+
+    private static final Logger log = LoggerFactory.getLogger(UnionBranchPruningOptimizer.class);
+
+    public UnionBranchPruningOptimizer() {
+        super(true);
+    }
+
+    @Override
+    public IntermediateQuery optimize(IntermediateQuery query) throws EmptyQueryException {
+        IntermediateQuery optimizedQuery = super.optimize(query);
+        log.trace("New query after union branch pruning: \n" + optimizedQuery.toString());
+        return optimizedQuery;
+    }
+
+    @Override
+    protected Optional<UnionBranchPruningProposal> evaluateNode(QueryNode node, IntermediateQuery query) {
+        if (node instanceof FilterNode) {
+            return evaluateFilterNode((FilterNode) node, query);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<UnionBranchPruningProposal> evaluateFilterNode(FilterNode filterNode, IntermediateQuery query) {
+        // Non-final
+        ImmutableExpression condition = filterNode.getFilterCondition();
+        // Non-final
+        Optional<QueryNode> optionalChild = query.getFirstChild(filterNode);
+
+        while (optionalChild.isPresent() && isTransparentConstructionNode(optionalChild.get())) {
+            ConstructionNode constructionNode = (ConstructionNode) optionalChild.get();
+            condition = constructionNode.getSubstitution().applyToBooleanExpression(condition);
+            optionalChild = query.getFirstChild(constructionNode);
+        }
+
+        if ((!optionalChild.isPresent()) || (!(optionalChild.get() instanceof UnionNode)))
+            return Optional.empty();
+
+        UnionNode unionNode = (UnionNode) optionalChild.get();
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+        ImmutableSet.Builder<QueryNode> prunedBranchBuilder = ImmutableSet.builder();
+        boolean isFilterRedundant = true;
+
+        for (QueryNode branch : query.getChildren(unionNode)) {
+            EvaluationResult result = evaluator.evaluateExpression(applyBranchBindings(condition, branch));
+            if (result.isEffectiveFalse())
+                prunedBranchBuilder.add(branch);
+            else if (!result.isEffectiveTrue())
+                isFilterRedundant = false;
+        }
+
+        ImmutableSet<QueryNode> prunedBranches = prunedBranchBuilder.build();
+
+        return (prunedBranches.isEmpty() && (!isFilterRedundant))
+                ? Optional.empty()
+                : Optional.of(new UnionBranchPruningProposalImpl(filterNode, unionNode, prunedBranches,
+                        isFilterRedundant));
+    }
+
+    /**
+     * Construction nodes with query modifiers (e.g. LIMIT) are not transparent:
+     * removing rows below them may change their results.
+     */
+    private static boolean isTransparentConstructionNode(QueryNode node) {
+        return (node instanceof ConstructionNode)
+                && (!((ConstructionNode) node).getOptionalModifiers().isPresent());
+    }
+
+    private static ImmutableExpression applyBranchBindings(ImmutableExpression condition, QueryNode branch) {
+        return (branch instanceof ConstructionNode)
+                ? ((ConstructionNode) branch).getSubstitution().applyToBooleanExpression(condition)
+                : condition;
+    }
+}
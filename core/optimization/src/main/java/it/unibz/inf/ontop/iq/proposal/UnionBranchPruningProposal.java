@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.iq.proposal;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+
+/**
+ * Removes the children of a UnionNode that are rejected by the condition of the focus FilterNode
+ * (ancestor of the union).
+ *
+ * If the condition holds for all the remaining children, the filter node is removed.
+ */
+public interface UnionBranchPruningProposal extends SimpleNodeCentricOptimizationProposal<FilterNode> {
+
+    UnionNode getUnionNode();
+
+    /**
+     * Children of the union node to remove
+     */
+    ImmutableSet<QueryNode> getPrunedBranches();
+
+    /**
+     * True if the filter condition always holds for the branches that are kept
+     */
+    boolean isFilterRedundant();
+}
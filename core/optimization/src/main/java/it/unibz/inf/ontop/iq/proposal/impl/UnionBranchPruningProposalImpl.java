@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.iq.proposal.impl;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.proposal.UnionBranchPruningProposal;
+
+public class UnionBranchPruningProposalImpl implements UnionBranchPruningProposal {
+
+    private final FilterNode focusNode;
+    private final UnionNode unionNode;
+    private final ImmutableSet<QueryNode> prunedBranches;
+    private final boolean isFilterRedundant;
+
+    public UnionBranchPruningProposalImpl(FilterNode focusNode, UnionNode unionNode,
+                                          ImmutableSet<QueryNode> prunedBranches, boolean isFilterRedundant) {
+        this.focusNode = focusNode;
+        this.unionNode = unionNode;
+        this.prunedBranches = prunedBranches;
+        this.isFilterRedundant = isFilterRedundant;
+    }
+
+    @Override
+    public FilterNode getFocusNode() {
+        return focusNode;
+    }
+
+    @Override
+    public UnionNode getUnionNode() {
+        return unionNode;
+    }
+
+    @Override
+    public ImmutableSet<QueryNode> getPrunedBranches() {
+        return prunedBranches;
+    }
+
+    @Override
+    public boolean isFilterRedundant() {
+        return isFilterRedundant;
+    }
+}
@@ -0,0 +1,129 @@
+package it.unibz.inf.ontop.iq.tools;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.dbschema.DatabaseRelationDefinition;
+import it.unibz.inf.ontop.dbschema.Relation2Predicate;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.RelationID;
+import it.unibz.inf.ontop.dbschema.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static it.unibz.inf.ontop.iq.node.BinaryOrderedOperatorNode.ArgumentPosition.LEFT;
+
+/**
+ * Estimates the number of tuples returned by a sub-tree from the statistics of the DB relations
+ * and of the views created for the source queries of the mapping (see RelationStatistics).
+ * <p>
+ * Simple cost model:
+ *   - a data node returns the number of rows of its relation, divided by the number of distinct values
+ *     of each column that is bound to a constant (or to an already used variable),
+ *   - filters keep a fixed fraction of the tuples,
+ *   - inner joins are assumed to follow foreign keys: they return at most the tuples of their smallest child,
+ *   - left joins return the tuples of their left child,
+ *   - unions return the tuples of all their children.
+ * <p>
+ * The estimation is empty when the statistics of some relation are not available.
+ */
+public class CardinalityEstimator {
+
+    /**
+     * Used for filter conditions and when the number of distinct values is unknown
+     */
+    private static final double DEFAULT_SELECTIVITY = 0.1;
+
+    public Optional<Double> estimate(QueryNode node, IntermediateQuery query) {
+        if (node instanceof ExtensionalDataNode)
+            return estimateDataNode((ExtensionalDataNode) node, query);
+        else if (node instanceof ConstructionNode)
+            return query.getFirstChild(node)
+                    .map(c -> estimate(c, query))
+                    .orElseGet(() -> Optional.of(1.0));
+        else if (node instanceof FilterNode)
+            return query.getFirstChild(node)
+                    .flatMap(c -> estimate(c, query))
+                    .map(c -> c * DEFAULT_SELECTIVITY);
+        else if (node instanceof InnerJoinNode)
+            return estimateChildren(node, query)
+                    .map(l -> l.stream().min(Double::compare).orElse(1.0))
+                    .map(c -> ((InnerJoinNode) node).getOptionalFilterCondition().isPresent()
+                            ? c * DEFAULT_SELECTIVITY
+                            : c);
+        else if (node instanceof LeftJoinNode)
+            return query.getChild(node, LEFT)
+                    .flatMap(c -> estimate(c, query));
+        else if (node instanceof UnionNode)
+            return estimateChildren(node, query)
+                    .map(l -> l.stream().mapToDouble(Double::doubleValue).sum());
+        else if (node instanceof TrueNode)
+            return Optional.of(1.0);
+        else if (node instanceof EmptyNode)
+            return Optional.of(0.0);
+        else
+            return Optional.empty();
+    }
+
+    private Optional<ImmutableList<Double>> estimateChildren(QueryNode node, IntermediateQuery query) {
+        ImmutableList<Optional<Double>> estimates = query.getChildren(node).stream()
+                .map(c -> estimate(c, query))
+                .collect(ImmutableCollectors.toList());
+
+        return estimates.stream().allMatch(Optional::isPresent)
+                ? Optional.of(estimates.stream()
+                    .map(Optional::get)
+                    .collect(ImmutableCollectors.toList()))
+                : Optional.empty();
+    }
+
+    private Optional<Double> estimateDataNode(ExtensionalDataNode dataNode, IntermediateQuery query) {
+        DataAtom atom = dataNode.getProjectionAtom();
+        DBMetadata dbMetadata = query.getDBMetadata();
+        RelationID relationId = Relation2Predicate.createRelationFromPredicateName(dbMetadata.getQuotedIDFactory(),
+                atom.getPredicate());
+        RelationDefinition relation = dbMetadata.getRelation(relationId);
+        if (relation == null)
+            return Optional.empty();
+
+        Optional<RelationStatistics> optionalStatistics = relation.getStatistics();
+        if (!optionalStatistics.isPresent())
+            return Optional.empty();
+
+        RelationStatistics statistics = optionalStatistics.get();
+        ImmutableList<? extends VariableOrGroundTerm> arguments = atom.getArguments();
+
+        double cardinality = statistics.getRowCount();
+        Set<Variable> encounteredVariables = new HashSet<>();
+        for (int i = 0; i < arguments.size(); i++) {
+            VariableOrGroundTerm argument = arguments.get(i);
+            // Constant or implicit equality between two columns
+            if ((argument instanceof GroundTerm) || (!encounteredVariables.add((Variable) argument))) {
+                cardinality *= statistics.getDistinctValueCount(i + 1)
+                        .filter(c -> c > 0)
+                        .map(c -> 1.0 / c)
+                        .orElse(DEFAULT_SELECTIVITY);
+            }
+        }
+
+        // At most one tuple when a unique constraint is fully bound to constants
+        if ((relation instanceof DatabaseRelationDefinition)
+                && ((DatabaseRelationDefinition) relation).getUniqueConstraints().stream()
+                .map(UniqueConstraint::getAttributes)
+                .anyMatch(attributes -> attributes.stream()
+                        .allMatch(a -> (a.getIndex() <= arguments.size())
+                                && (arguments.get(a.getIndex() - 1) instanceof GroundTerm))))
+            cardinality = Math.min(cardinality, 1.0);
+
+        return Optional.of(cardinality);
+    }
+}
@@ -0,0 +1,186 @@
+package it.unibz.inf.ontop.iq.tools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.EmptyNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Detects unions whose children can never return the same tuple.
+ * <p>
+ * Two children are disjoint when they bind at least one projected variable to incompatible terms:
+ *   - IRI templates with incompatible constant prefixes (or suffixes),
+ *   - an IRI and a literal,
+ *   - literals of different datatypes or with different language tags,
+ *   - different constants.
+ * <p>
+ * For such unions, the duplicate elimination of the UNION (set semantics) is useless:
+ * a UNION ALL returns the same tuples.
+ */
+public class UnionDisjointnessAnalyzer {
+
+    private static final String TEMPLATE_PLACEHOLDER = "{}";
+
+    /**
+     * True if the children of the union node are pairwise disjoint
+     */
+    public boolean isDisjointUnion(UnionNode unionNode, IntermediateQuery query) {
+        ImmutableSet<Variable> projectedVariables = unionNode.getVariables();
+
+        ImmutableList<QueryNode> children = query.getChildren(unionNode).stream()
+                .filter(c -> !(c instanceof EmptyNode))
+                .collect(ImmutableCollectors.toList());
+
+        for (int i = 0; i < children.size(); i++) {
+            for (int j = i + 1; j < children.size(); j++) {
+                if (!areDisjoint(children.get(i), children.get(j), projectedVariables))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True if the two tuples of terms (e.g. rule heads) can never be evaluated into the same tuple.
+     * <p>
+     * Incompatible terms may both be evaluated to NULL, which is not a difference for the duplicate
+     * elimination: at least one of them must be non-nullable, given the non-nullable variables of each tuple.
+     */
+    public boolean areDisjoint(List<? extends ImmutableTerm> tuple1, ImmutableSet<Variable> nonNullableVariables1,
+                               List<? extends ImmutableTerm> tuple2, ImmutableSet<Variable> nonNullableVariables2) {
+        if (tuple1.size() != tuple2.size())
+            return false;
+
+        for (int i = 0; i < tuple1.size(); i++) {
+            ImmutableTerm term1 = tuple1.get(i);
+            ImmutableTerm term2 = tuple2.get(i);
+            if (areIncompatible(term1, term2)
+                    && (isNonNullable(term1, nonNullableVariables1) || isNonNullable(term2, nonNullableVariables2)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * IRI templates and literals are NULL as soon as one of their arguments is
+     */
+    private boolean isNonNullable(ImmutableTerm term, ImmutableSet<Variable> nonNullableVariables) {
+        if (term instanceof Variable)
+            return nonNullableVariables.contains(term);
+        if (term instanceof Constant)
+            return !term.equals(TermConstants.NULL);
+
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        return ((functionalTerm.getFunctionSymbol() instanceof URITemplatePredicate)
+                    || functionalTerm.isDataTypeFunction())
+                && functionalTerm.getArguments().stream()
+                    .allMatch(a -> isNonNullable(a, nonNullableVariables));
+    }
+
+    private boolean areDisjoint(QueryNode child1, QueryNode child2, ImmutableSet<Variable> variables) {
+        if (!((child1 instanceof ConstructionNode) && (child2 instanceof ConstructionNode)))
+            return false;
+
+        ImmutableMap<Variable, ImmutableTerm> map1 = ((ConstructionNode) child1).getSubstitution().getImmutableMap();
+        ImmutableMap<Variable, ImmutableTerm> map2 = ((ConstructionNode) child2).getSubstitution().getImmutableMap();
+
+        return variables.stream()
+                .filter(v -> map1.containsKey(v) && map2.containsKey(v))
+                .anyMatch(v -> areIncompatible(map1.get(v), map2.get(v)));
+    }
+
+    /**
+     * True if the two terms can never be evaluated into the same RDF term
+     */
+    public boolean areIncompatible(ImmutableTerm term1, ImmutableTerm term2) {
+        if ((term1 instanceof Constant) && (term2 instanceof Constant))
+            return !term1.equals(term2);
+
+        if (!((term1 instanceof ImmutableFunctionalTerm) && (term2 instanceof ImmutableFunctionalTerm)))
+            return false;
+
+        ImmutableFunctionalTerm functionalTerm1 = (ImmutableFunctionalTerm) term1;
+        ImmutableFunctionalTerm functionalTerm2 = (ImmutableFunctionalTerm) term2;
+
+        boolean isTemplate1 = functionalTerm1.getFunctionSymbol() instanceof URITemplatePredicate;
+        boolean isTemplate2 = functionalTerm2.getFunctionSymbol() instanceof URITemplatePredicate;
+
+        if (isTemplate1 && isTemplate2)
+            return areIncompatibleTemplates(functionalTerm1, functionalTerm2);
+        // IRI vs literal
+        else if (isTemplate1 || isTemplate2)
+            return functionalTerm1.isDataTypeFunction() || functionalTerm2.isDataTypeFunction();
+        else if (functionalTerm1.isDataTypeFunction() && functionalTerm2.isDataTypeFunction()) {
+            // Different datatypes
+            if (!functionalTerm1.getFunctionSymbol().equals(functionalTerm2.getFunctionSymbol()))
+                return true;
+            // Same datatype: e.g. different language tags
+            return haveIncompatibleArguments(functionalTerm1, functionalTerm2, 0);
+        }
+        return false;
+    }
+
+    /**
+     * Compares the constant parts before the first and after the last place holders
+     */
+    private boolean areIncompatibleTemplates(ImmutableFunctionalTerm template1, ImmutableFunctionalTerm template2) {
+        Optional<String> templateString1 = getTemplateString(template1);
+        Optional<String> templateString2 = getTemplateString(template2);
+        if (!(templateString1.isPresent() && templateString2.isPresent()))
+            return false;
+
+        String string1 = templateString1.get();
+        String string2 = templateString2.get();
+
+        if (string1.equals(string2))
+            return haveIncompatibleArguments(template1, template2, 1);
+
+        String prefix1 = getPrefix(string1);
+        String prefix2 = getPrefix(string2);
+        if (!(prefix1.startsWith(prefix2) || prefix2.startsWith(prefix1)))
+            return true;
+
+        String suffix1 = getSuffix(string1);
+        String suffix2 = getSuffix(string2);
+        return !(suffix1.endsWith(suffix2) || suffix2.endsWith(suffix1));
+    }
+
+    private boolean haveIncompatibleArguments(ImmutableFunctionalTerm functionalTerm1,
+                                              ImmutableFunctionalTerm functionalTerm2, int firstIndex) {
+        ImmutableList<? extends ImmutableTerm> arguments1 = functionalTerm1.getArguments();
+        ImmutableList<? extends ImmutableTerm> arguments2 = functionalTerm2.getArguments();
+        for (int i = firstIndex; i < Math.min(arguments1.size(), arguments2.size()); i++) {
+            if (areIncompatible(arguments1.get(i), arguments2.get(i)))
+                return true;
+        }
+        return false;
+    }
+
+    private static Optional<String> getTemplateString(ImmutableFunctionalTerm template) {
+        return Optional.of(template.getArguments())
+                .filter(args -> !args.isEmpty())
+                .map(args -> args.get(0))
+                .filter(t -> t instanceof ValueConstant)
+                .map(t -> ((ValueConstant) t).getValue());
+    }
+
+    private static String getPrefix(String templateString) {
+        int index = templateString.indexOf(TEMPLATE_PLACEHOLDER);
+        return index < 0 ? templateString : templateString.substring(0, index);
+    }
+
+    private static String getSuffix(String templateString) {
+        int index = templateString.lastIndexOf(TEMPLATE_PLACEHOLDER);
+        return index < 0 ? templateString : templateString.substring(index + TEMPLATE_PLACEHOLDER.length());
+    }
+}
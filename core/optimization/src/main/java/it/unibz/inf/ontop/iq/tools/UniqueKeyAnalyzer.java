@@ -0,0 +1,212 @@
+package it.unibz.inf.ontop.iq.tools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DatabaseRelationDefinition;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Infers "unique keys" of sub-trees: sets of projected variables that identify the returned tuples.
+ * A sub-tree having at least one unique key never returns the same tuple twice.
+ *
+ * Sources of keys:
+ *   - unique constraints of the DB relations (only on non-nullable attributes),
+ *   - DISTINCT query modifiers.
+ *
+ * Keys are propagated through the substitutions of construction nodes when the key variables
+ * can be recovered from the projected terms. IRI templates and datatype functions are considered as
+ * injective (as in the rest of the query reformulation).
+ *
+ * For unions, the children must be pairwise disjoint (see UnionDisjointnessAnalyzer).
+ */
+public class UniqueKeyAnalyzer {
+
+    private final UnionDisjointnessAnalyzer unionDisjointnessAnalyzer = new UnionDisjointnessAnalyzer();
+
+    /**
+     * True if the sub-tree never returns the same tuple twice
+     */
+    public boolean isDuplicateFree(QueryNode node, IntermediateQuery query) {
+        return !getUniqueKeys(node, query, true).isEmpty();
+    }
+
+    /**
+     * True if the sub-tree never returns the same tuple twice once all its DISTINCT modifiers
+     * have been dropped (e.g. when they are not rendered in the source query).
+     *
+     * For a root construction node without other DISTINCT modifiers below it,
+     * same as isDistinctRedundant(...).
+     */
+    public boolean isDuplicateFreeIgnoringModifiers(QueryNode node, IntermediateQuery query) {
+        return !getUniqueKeys(node, query, false).isEmpty();
+    }
+
+    /**
+     * True if the DISTINCT modifier of the construction node (if any) cannot eliminate any tuple
+     */
+    public boolean isDistinctRedundant(ConstructionNode constructionNode, IntermediateQuery query) {
+        return !getConstructionNodeKeys(constructionNode, query, false, true).isEmpty();
+    }
+
+    public ImmutableSet<ImmutableSet<Variable>> getUniqueKeys(QueryNode node, IntermediateQuery query) {
+        return getUniqueKeys(node, query, true);
+    }
+
+    private ImmutableSet<ImmutableSet<Variable>> getUniqueKeys(QueryNode node, IntermediateQuery query,
+                                                               boolean considerModifiers) {
+        if (node instanceof ExtensionalDataNode)
+            return getDataNodeKeys((ExtensionalDataNode) node, query);
+        else if (node instanceof ConstructionNode)
+            return getConstructionNodeKeys((ConstructionNode) node, query, considerModifiers, considerModifiers);
+        else if (node instanceof FilterNode)
+            return query.getFirstChild(node)
+                    .map(c -> getUniqueKeys(c, query, considerModifiers))
+                    .orElseGet(ImmutableSet::of);
+        else if ((node instanceof InnerJoinNode) || (node instanceof LeftJoinNode))
+            return getJoinKeys(query.getChildren(node), query, considerModifiers);
+        else if (node instanceof UnionNode)
+            return getUnionKeys((UnionNode) node, query, considerModifiers);
+        /*
+         * At most one tuple
+         */
+        else if ((node instanceof TrueNode) || (node instanceof EmptyNode))
+            return ImmutableSet.of(ImmutableSet.of());
+        else
+            return ImmutableSet.of();
+    }
+
+    private ImmutableSet<ImmutableSet<Variable>> getDataNodeKeys(ExtensionalDataNode dataNode, IntermediateQuery query) {
+        DataAtom atom = dataNode.getProjectionAtom();
+        Optional<DatabaseRelationDefinition> optionalRelation = query.getDBMetadata()
+                .getDatabaseRelationByPredicate(atom.getPredicate());
+        if (!optionalRelation.isPresent())
+            return ImmutableSet.of();
+
+        /*
+         * Ground terms are ignored: they are the same for all the tuples
+         */
+        return optionalRelation.get().getUniqueConstraints().stream()
+                .filter(uc -> uc.getAttributes().stream().noneMatch(Attribute::canNull))
+                .filter(uc -> uc.getAttributes().stream().allMatch(a -> a.getIndex() <= atom.getArguments().size()))
+                .map(uc -> uc.getAttributes().stream()
+                        .map(a -> atom.getTerm(a.getIndex() - 1))
+                        .filter(t -> t instanceof Variable)
+                        .map(t -> (Variable) t)
+                        .collect(ImmutableCollectors.toSet()))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    /**
+     * considerNodeModifiers: for the modifiers of the construction node itself
+     * considerModifiers: for the modifiers of its descendants
+     */
+    private ImmutableSet<ImmutableSet<Variable>> getConstructionNodeKeys(ConstructionNode constructionNode,
+                                                                         IntermediateQuery query,
+                                                                         boolean considerNodeModifiers,
+                                                                         boolean considerModifiers) {
+        ImmutableSet<Variable> projectedVariables = constructionNode.getVariables();
+
+        Stream<ImmutableSet<Variable>> distinctKeys = (considerNodeModifiers
+                && constructionNode.getOptionalModifiers()
+                    .filter(QueryModifiers::isDistinct)
+                    .isPresent())
+                ? Stream.of(projectedVariables)
+                : Stream.empty();
+
+        ImmutableSet<ImmutableSet<Variable>> childKeys = query.getFirstChild(constructionNode)
+                .map(c -> getUniqueKeys(c, query, considerModifiers))
+                .orElseGet(() -> ImmutableSet.of(ImmutableSet.of()));
+
+        ImmutableMap<Variable, ImmutableTerm> substitutionMap = constructionNode.getSubstitution().getImmutableMap();
+
+        Stream<ImmutableSet<Variable>> propagatedKeys = childKeys.stream()
+                .map(k -> convertChildKey(k, projectedVariables, substitutionMap))
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+
+        return Stream.concat(distinctKeys, propagatedKeys)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    /**
+     * Finds for each variable of the child key a projected variable from which it can be recovered
+     */
+    private static Optional<ImmutableSet<Variable>> convertChildKey(ImmutableSet<Variable> childKey,
+                                                                   ImmutableSet<Variable> projectedVariables,
+                                                                   ImmutableMap<Variable, ImmutableTerm> substitutionMap) {
+        ImmutableSet.Builder<Variable> keyBuilder = ImmutableSet.builder();
+        for (Variable keyVariable : childKey) {
+            if (projectedVariables.contains(keyVariable) && (!substitutionMap.containsKey(keyVariable))) {
+                keyBuilder.add(keyVariable);
+                continue;
+            }
+            Optional<Variable> recoveringVariable = substitutionMap.entrySet().stream()
+                    .filter(e -> projectedVariables.contains(e.getKey()))
+                    .filter(e -> isInjective(e.getValue()))
+                    .filter(e -> e.getValue().getVariableStream().anyMatch(keyVariable::equals))
+                    .map(Map.Entry::getKey)
+                    .findFirst();
+            if (!recoveringVariable.isPresent())
+                return Optional.empty();
+            keyBuilder.add(recoveringVariable.get());
+        }
+        return Optional.of(keyBuilder.build());
+    }
+
+    private static boolean isInjective(ImmutableTerm term) {
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return true;
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        return ((functionalTerm.getFunctionSymbol() instanceof URITemplatePredicate)
+                || functionalTerm.isDataTypeFunction())
+                && functionalTerm.getArguments().stream()
+                    .allMatch(UniqueKeyAnalyzer::isInjective);
+    }
+
+    /**
+     * Works for inner and left joins: a combination of the keys of the children
+     * (for left joins, a left tuple without a match is extended once with nulls)
+     */
+    private ImmutableSet<ImmutableSet<Variable>> getJoinKeys(ImmutableList<QueryNode> children,
+                                                             IntermediateQuery query, boolean considerModifiers) {
+        ImmutableList<ImmutableSet<ImmutableSet<Variable>>> childKeys = children.stream()
+                .map(c -> getUniqueKeys(c, query, considerModifiers))
+                .collect(ImmutableCollectors.toList());
+
+        if (childKeys.isEmpty() || childKeys.stream().anyMatch(ImmutableSet::isEmpty))
+            return ImmutableSet.of();
+
+        return Sets.cartesianProduct(childKeys).stream()
+                .map(keys -> keys.stream()
+                        .flatMap(ImmutableSet::stream)
+                        .collect(ImmutableCollectors.toSet()))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private ImmutableSet<ImmutableSet<Variable>> getUnionKeys(UnionNode unionNode, IntermediateQuery query,
+                                                              boolean considerModifiers) {
+        ImmutableSet<Variable> projectedVariables = unionNode.getVariables();
+
+        ImmutableList<QueryNode> children = query.getChildren(unionNode).stream()
+                .filter(c -> !(c instanceof EmptyNode))
+                .collect(ImmutableCollectors.toList());
+
+        if (!(children.stream().allMatch(c -> !getUniqueKeys(c, query, considerModifiers).isEmpty())
+                && unionDisjointnessAnalyzer.isDisjointUnion(unionNode, query)))
+            return ImmutableSet.of();
+
+        return ImmutableSet.of(projectedVariables);
+    }
+}
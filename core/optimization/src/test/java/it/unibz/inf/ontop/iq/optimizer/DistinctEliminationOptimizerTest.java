@@ -0,0 +1,211 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.equivalence.IQSyntacticEquivalenceChecker;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.ImmutableQueryModifiers;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.node.impl.ImmutableQueryModifiersImpl;
+import it.unibz.inf.ontop.iq.tools.UniqueKeyAnalyzer;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.model.term.impl.URITemplatePredicateImpl;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Optional;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.IQ_FACTORY;
+import static it.unibz.inf.ontop.OptimizationTestingTools.createQueryBuilder;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.SUBSTITUTION_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+public class DistinctEliminationOptimizerTest {
+
+    private final static AtomPredicate TABLE1_PREDICATE;
+    private final static AtomPredicate TABLE2_PREDICATE;
+    private final static AtomPredicate ANS1_PREDICATE = ATOM_FACTORY.getAtomPredicate("ans1", 1);
+    private final static Variable X = TERM_FACTORY.getVariable("X");
+    private final static Variable A = TERM_FACTORY.getVariable("A");
+    private final static Variable B = TERM_FACTORY.getVariable("B");
+    private final static Variable C = TERM_FACTORY.getVariable("C");
+
+    private final static URITemplatePredicate URI_PREDICATE = new URITemplatePredicateImpl(2);
+    private final static Constant URI_TEMPLATE_STR_1 = TERM_FACTORY.getConstantLiteral("http://example.org/person/{}");
+    private final static Constant URI_TEMPLATE_STR_2 = TERM_FACTORY.getConstantLiteral("http://example.org/company/{}");
+
+    private final static ImmutableQueryModifiers DISTINCT_MODIFIER = new ImmutableQueryModifiersImpl(true, -1, -1,
+            ImmutableList.of());
+
+    private final static DBMetadata METADATA;
+
+    static {
+        BasicDBMetadata dbMetadata = DBMetadataTestingTools.createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        DatabaseRelationDefinition table1Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "table1"));
+        Attribute col1T1 = table1Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table1Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table1Def.addUniqueConstraint(UniqueConstraint.primaryKeyOf(col1T1));
+        TABLE1_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(table1Def);
+
+        DatabaseRelationDefinition table2Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "table2"));
+        Attribute col1T2 = table2Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table2Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table2Def.addUniqueConstraint(UniqueConstraint.primaryKeyOf(col1T2));
+        TABLE2_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(table2Def);
+
+        dbMetadata.freeze();
+        METADATA = dbMetadata;
+    }
+
+    /**
+     * IRI built from the primary key
+     */
+    @Test
+    public void testPrimaryKeyIRI() throws EmptyQueryException {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, generateURI(URI_TEMPLATE_STR_1, A)),
+                Optional.of(DISTINCT_MODIFIER));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, dataNode);
+        IntermediateQuery query = queryBuilder.build();
+
+        System.out.println("\nBefore optimization: \n" + query);
+
+        IntermediateQuery optimizedQuery = new DistinctEliminationOptimizer().optimize(query);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        ConstructionNode newRootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                rootNode.getSubstitution());
+        IntermediateQueryBuilder expectedQueryBuilder = createQueryBuilder(METADATA);
+        expectedQueryBuilder.init(projectionAtom, newRootNode);
+        expectedQueryBuilder.addChild(newRootNode, dataNode);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQueryBuilder.build()));
+    }
+
+    /**
+     * IRI built from a non-unique column: the DISTINCT is kept
+     */
+    @Test
+    public void testNonUniqueIRI() throws EmptyQueryException {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, generateURI(URI_TEMPLATE_STR_1, B)),
+                Optional.of(DISTINCT_MODIFIER));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, dataNode);
+        IntermediateQuery query = queryBuilder.build();
+        IntermediateQuery expectedQuery = query.createSnapshot();
+
+        IntermediateQuery optimizedQuery = new DistinctEliminationOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQuery));
+    }
+
+    /**
+     * Union of two tables with disjoint IRI templates
+     */
+    @Test
+    public void testDisjointUnion() throws EmptyQueryException {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(), Optional.of(DISTINCT_MODIFIER));
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(projectionAtom.getVariables());
+        ConstructionNode constructionNode1 = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, generateURI(URI_TEMPLATE_STR_1, A)));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, A, B));
+        ConstructionNode constructionNode2 = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, generateURI(URI_TEMPLATE_STR_2, A)));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, unionNode);
+        queryBuilder.addChild(unionNode, constructionNode1);
+        queryBuilder.addChild(constructionNode1, dataNode1);
+        queryBuilder.addChild(unionNode, constructionNode2);
+        queryBuilder.addChild(constructionNode2, dataNode2);
+        IntermediateQuery query = queryBuilder.build();
+
+        IntermediateQuery optimizedQuery = new DistinctEliminationOptimizer().optimize(query);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        ConstructionNode newRootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        IntermediateQueryBuilder expectedQueryBuilder = createQueryBuilder(METADATA);
+        expectedQueryBuilder.init(projectionAtom, newRootNode);
+        expectedQueryBuilder.addChild(newRootNode, unionNode);
+        expectedQueryBuilder.addChild(unionNode, constructionNode1);
+        expectedQueryBuilder.addChild(constructionNode1, dataNode1);
+        expectedQueryBuilder.addChild(unionNode, constructionNode2);
+        expectedQueryBuilder.addChild(constructionNode2, dataNode2);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQueryBuilder.build()));
+    }
+
+    /**
+     * Join on a non-key column: the duplicates only come from the join, so the DISTINCT is kept
+     * and the query is not duplicate-free without it
+     */
+    @Test
+    public void testNonKeyJoin() throws EmptyQueryException {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, generateURI(URI_TEMPLATE_STR_1, A)),
+                Optional.of(DISTINCT_MODIFIER));
+        InnerJoinNode joinNode = IQ_FACTORY.createInnerJoinNode();
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, A, B));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, C, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, joinNode);
+        queryBuilder.addChild(joinNode, dataNode1);
+        queryBuilder.addChild(joinNode, dataNode2);
+        IntermediateQuery query = queryBuilder.build();
+        IntermediateQuery expectedQuery = query.createSnapshot();
+
+        UniqueKeyAnalyzer analyzer = new UniqueKeyAnalyzer();
+        assertTrue(analyzer.isDuplicateFree(rootNode, query));
+        assertFalse(analyzer.isDuplicateFreeIgnoringModifiers(rootNode, query));
+        assertFalse(analyzer.isDistinctRedundant(rootNode, query));
+
+        IntermediateQuery optimizedQuery = new DistinctEliminationOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQuery));
+    }
+
+    private static ImmutableFunctionalTerm generateURI(Constant template, Variable argument) {
+        return TERM_FACTORY.getImmutableFunctionalTerm(URI_PREDICATE, template, argument);
+    }
+}
@@ -0,0 +1,120 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.equivalence.IQSyntacticEquivalenceChecker;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.junit.Test;
+
+import java.sql.Types;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.IQ_FACTORY;
+import static it.unibz.inf.ontop.OptimizationTestingTools.createQueryBuilder;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static junit.framework.TestCase.assertTrue;
+
+public class JoinOrderingOptimizerTest {
+
+    private final static AtomPredicate TABLE1_PREDICATE;
+    private final static AtomPredicate TABLE2_PREDICATE;
+    private final static AtomPredicate TABLE3_PREDICATE;
+    private final static AtomPredicate ANS1_PREDICATE = ATOM_FACTORY.getAtomPredicate("ans1", 2);
+    private final static Variable A = TERM_FACTORY.getVariable("A");
+    private final static Variable B = TERM_FACTORY.getVariable("B");
+    private final static Variable C = TERM_FACTORY.getVariable("C");
+
+    private final static DBMetadata METADATA;
+
+    static {
+        BasicDBMetadata dbMetadata = DBMetadataTestingTools.createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        // Large table
+        DatabaseRelationDefinition table1Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "table1"));
+        table1Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table1Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table1Def.setStatistics(RelationStatistics.builder(1000000).build());
+        TABLE1_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(table1Def);
+
+        // Small table
+        DatabaseRelationDefinition table2Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "table2"));
+        table2Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table2Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table2Def.setStatistics(RelationStatistics.builder(100).build());
+        TABLE2_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(table2Def);
+
+        // No statistics
+        DatabaseRelationDefinition table3Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "table3"));
+        table3Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table3Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        TABLE3_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(table3Def);
+
+        dbMetadata.freeze();
+        METADATA = dbMetadata;
+    }
+
+    @Test
+    public void testSmallTableFirst() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, B, C);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        InnerJoinNode joinNode = IQ_FACTORY.createInnerJoinNode();
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, A, B));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, A, C));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, joinNode);
+        queryBuilder.addChild(joinNode, dataNode1);
+        queryBuilder.addChild(joinNode, dataNode2);
+        IntermediateQuery query = queryBuilder.build();
+
+        System.out.println("\nBefore optimization: \n" + query);
+
+        IntermediateQuery optimizedQuery = new JoinOrderingOptimizer().optimize(query);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        IntermediateQueryBuilder expectedQueryBuilder = createQueryBuilder(METADATA);
+        expectedQueryBuilder.init(projectionAtom, rootNode);
+        expectedQueryBuilder.addChild(rootNode, joinNode);
+        expectedQueryBuilder.addChild(joinNode, dataNode2);
+        expectedQueryBuilder.addChild(joinNode, dataNode1);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQueryBuilder.build()));
+    }
+
+    /**
+     * No statistics for one of the tables: the order is kept
+     */
+    @Test
+    public void testMissingStatistics() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, B, C);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        InnerJoinNode joinNode = IQ_FACTORY.createInnerJoinNode();
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, A, B));
+        ExtensionalDataNode dataNode3 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE3_PREDICATE, A, C));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, joinNode);
+        queryBuilder.addChild(joinNode, dataNode1);
+        queryBuilder.addChild(joinNode, dataNode3);
+        IntermediateQuery query = queryBuilder.build();
+        IntermediateQuery expectedQuery = query.createSnapshot();
+
+        IntermediateQuery optimizedQuery = new JoinOrderingOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQuery));
+    }
+}
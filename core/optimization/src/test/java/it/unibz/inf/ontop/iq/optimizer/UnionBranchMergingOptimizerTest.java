@@ -0,0 +1,198 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.equivalence.IQSyntacticEquivalenceChecker;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE;
+import org.junit.Test;
+
+import java.sql.Types;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.IQ_FACTORY;
+import static it.unibz.inf.ontop.OptimizationTestingTools.createQueryBuilder;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation.EQ;
+import static it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation.OR;
+import static junit.framework.TestCase.assertTrue;
+
+public class UnionBranchMergingOptimizerTest {
+
+    private final static AtomPredicate TABLE1_PREDICATE;
+    private final static AtomPredicate ANS1_PREDICATE = ATOM_FACTORY.getAtomPredicate("ans1", 1);
+    private final static Variable X = TERM_FACTORY.getVariable("X");
+    private final static Variable B = TERM_FACTORY.getVariable("B");
+    private final static Variable C = TERM_FACTORY.getVariable("C");
+    private final static Variable D = TERM_FACTORY.getVariable("D");
+    private final static Variable E = TERM_FACTORY.getVariable("E");
+    // Replace the local variables of the merged branches
+    private final static Variable F0 = TERM_FACTORY.getVariable("f0");
+    private final static Variable F1 = TERM_FACTORY.getVariable("f1");
+
+    private final static ImmutableExpression B_STUDENT = TERM_FACTORY.getImmutableExpression(EQ, B,
+            TERM_FACTORY.getConstantLiteral("student"));
+    private final static ImmutableExpression B_TEACHER = TERM_FACTORY.getImmutableExpression(EQ, B,
+            TERM_FACTORY.getConstantLiteral("teacher"));
+    private final static ImmutableExpression C_TEACHER = TERM_FACTORY.getImmutableExpression(EQ, C,
+            TERM_FACTORY.getConstantLiteral("teacher"));
+
+    private final static DBMetadata METADATA;
+
+    static {
+        BasicDBMetadata dbMetadata = DBMetadataTestingTools.createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        DatabaseRelationDefinition table1Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "table1"));
+        table1Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table1Def.addAttribute(idFactory.createAttributeID("col2"), Types.VARCHAR, null, false);
+        table1Def.addAttribute(idFactory.createAttributeID("col3"), Types.VARCHAR, null, false);
+        TABLE1_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(table1Def);
+
+        dbMetadata.freeze();
+        METADATA = dbMetadata;
+    }
+
+    @Test
+    public void testDisjointFilters() {
+        IntermediateQuery query = createUnionQuery(B_STUDENT, ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C),
+                B_TEACHER, ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C));
+
+        System.out.println("\nBefore optimization: \n" + query);
+
+        IntermediateQuery optimizedQuery = new UnionBranchMergingOptimizer().optimize(query);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, createMergedQuery("student", "teacher")));
+    }
+
+    /**
+     * The local variables of the branches have different names
+     */
+    @Test
+    public void testDisjointFiltersWithRenaming() {
+        IntermediateQuery query = createUnionQuery(B_STUDENT, ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C),
+                TERM_FACTORY.getImmutableExpression(EQ, D, TERM_FACTORY.getConstantLiteral("teacher")),
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, D, E));
+
+        IntermediateQuery optimizedQuery = new UnionBranchMergingOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, createMergedQuery("student", "teacher")));
+    }
+
+    /**
+     * 1 and 1.0 are different constants but are equal for the DB: not merged
+     */
+    @Test
+    public void testNumericConstantsOfDifferentTypes() {
+        IntermediateQuery query = createUnionQuery(
+                TERM_FACTORY.getImmutableExpression(EQ, B, TERM_FACTORY.getConstantLiteral("1", COL_TYPE.INTEGER)),
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C),
+                TERM_FACTORY.getImmutableExpression(EQ, B, TERM_FACTORY.getConstantLiteral("1.0", COL_TYPE.DECIMAL)),
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C));
+        IntermediateQuery expectedQuery = query.createSnapshot();
+
+        IntermediateQuery optimizedQuery = new UnionBranchMergingOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQuery));
+    }
+
+    /**
+     * The string "1" and the integer 1 may be equal for the DB (implicit conversion): not merged
+     */
+    @Test
+    public void testStringAndNumericConstants() {
+        IntermediateQuery query = createUnionQuery(
+                TERM_FACTORY.getImmutableExpression(EQ, B, TERM_FACTORY.getConstantLiteral("1")),
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C),
+                TERM_FACTORY.getImmutableExpression(EQ, B, TERM_FACTORY.getConstantLiteral("1", COL_TYPE.INTEGER)),
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C));
+        IntermediateQuery expectedQuery = query.createSnapshot();
+
+        IntermediateQuery optimizedQuery = new UnionBranchMergingOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQuery));
+    }
+
+    /**
+     * The branches may overlap: not merged (duplicates would be lost)
+     */
+    @Test
+    public void testNonDisjointFilters() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(projectionAtom.getVariables());
+        FilterNode filterNode1 = IQ_FACTORY.createFilterNode(B_STUDENT);
+        FilterNode filterNode2 = IQ_FACTORY.createFilterNode(C_TEACHER);
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, B, C));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, unionNode);
+        queryBuilder.addChild(unionNode, filterNode1);
+        queryBuilder.addChild(filterNode1, dataNode1);
+        queryBuilder.addChild(unionNode, filterNode2);
+        queryBuilder.addChild(filterNode2, dataNode2);
+        IntermediateQuery query = queryBuilder.build();
+        IntermediateQuery expectedQuery = query.createSnapshot();
+
+        IntermediateQuery optimizedQuery = new UnionBranchMergingOptimizer().optimize(query);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, expectedQuery));
+    }
+
+    /**
+     * UNION of two filtered scans, projecting X
+     */
+    private static IntermediateQuery createUnionQuery(ImmutableExpression condition1, DataAtom atom1,
+                                                      ImmutableExpression condition2, DataAtom atom2) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(projectionAtom.getVariables());
+        FilterNode filterNode1 = IQ_FACTORY.createFilterNode(condition1);
+        FilterNode filterNode2 = IQ_FACTORY.createFilterNode(condition2);
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, unionNode);
+        queryBuilder.addChild(unionNode, filterNode1);
+        queryBuilder.addChild(filterNode1, IQ_FACTORY.createExtensionalDataNode(atom1));
+        queryBuilder.addChild(unionNode, filterNode2);
+        queryBuilder.addChild(filterNode2, IQ_FACTORY.createExtensionalDataNode(atom2));
+        return queryBuilder.build();
+    }
+
+    /**
+     * One scan with the disjunction of the equalities of the second column with the constants
+     */
+    private static IntermediateQuery createMergedQuery(String constant1, String constant2) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(TERM_FACTORY.getImmutableExpression(OR,
+                TERM_FACTORY.getImmutableExpression(EQ, F0, TERM_FACTORY.getConstantLiteral(constant1)),
+                TERM_FACTORY.getImmutableExpression(EQ, F0, TERM_FACTORY.getConstantLiteral(constant2))));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, X, F0, F1));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder(METADATA);
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, constructionNode);
+        queryBuilder.addChild(constructionNode, filterNode);
+        queryBuilder.addChild(filterNode, dataNode);
+        return queryBuilder.build();
+    }
+}
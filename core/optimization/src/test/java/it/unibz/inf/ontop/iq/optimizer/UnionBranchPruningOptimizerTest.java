@@ -0,0 +1,218 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.equivalence.IQSyntacticEquivalenceChecker;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.SUBSTITUTION_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE.STRING;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class UnionBranchPruningOptimizerTest {
+
+    private final static AtomPredicate TABLE1_PREDICATE = ATOM_FACTORY.getAtomPredicate("table1", 2);
+    private final static AtomPredicate TABLE2_PREDICATE = ATOM_FACTORY.getAtomPredicate("table2", 2);
+    private final static AtomPredicate TABLE3_PREDICATE = ATOM_FACTORY.getAtomPredicate("table3", 3);
+    private final static AtomPredicate ANS1_PREDICATE2 = ATOM_FACTORY.getAtomPredicate("ans1", 2);
+    private final static Variable S = TERM_FACTORY.getVariable("S");
+    private final static Variable L = TERM_FACTORY.getVariable("L");
+    private final static Variable A = TERM_FACTORY.getVariable("A");
+    private final static Variable B = TERM_FACTORY.getVariable("B");
+    private final static Variable C = TERM_FACTORY.getVariable("C");
+
+    private final static ImmutableFunctionalTerm EN_LITERAL = TERM_FACTORY.getImmutableTypedTerm(A, "en");
+    private final static ImmutableFunctionalTerm FR_LITERAL = TERM_FACTORY.getImmutableTypedTerm(B, "fr");
+    private final static ImmutableFunctionalTerm VARIABLE_LANG_LITERAL = TERM_FACTORY.getImmutableTypedTerm(B, C);
+
+    private final static ImmutableExpression LANG_EN_CONDITION = TERM_FACTORY.getImmutableExpression(
+            ExpressionOperation.EQ,
+            TERM_FACTORY.getImmutableFunctionalTerm(ExpressionOperation.SPARQL_LANG, L),
+            TERM_FACTORY.getImmutableTypedTerm(TERM_FACTORY.getConstantLiteral("en", STRING), STRING));
+
+    private final static DistinctVariableOnlyDataAtom PROJECTION_ATOM = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+            ANS1_PREDICATE2, S, L);
+
+    @Test
+    public void testPruneAndDropFilter() throws EmptyQueryException {
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(PROJECTION_ATOM.getVariables());
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(LANG_EN_CONDITION);
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(S, L));
+        ConstructionNode enNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, EN_LITERAL));
+        ConstructionNode frNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, FR_LITERAL));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, S, A));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, S, B));
+
+        IntermediateQueryBuilder queryBuilder1 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder1.init(PROJECTION_ATOM, rootNode);
+        queryBuilder1.addChild(rootNode, filterNode);
+        queryBuilder1.addChild(filterNode, unionNode);
+        queryBuilder1.addChild(unionNode, enNode);
+        queryBuilder1.addChild(enNode, dataNode1);
+        queryBuilder1.addChild(unionNode, frNode);
+        queryBuilder1.addChild(frNode, dataNode2);
+        IntermediateQuery query1 = queryBuilder1.build();
+
+        System.out.println("\nBefore optimization: \n" + query1);
+
+        IntermediateQuery optimizedQuery = new UnionBranchPruningOptimizer().optimize(query1);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        IntermediateQueryBuilder queryBuilder2 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder2.init(PROJECTION_ATOM, rootNode);
+        queryBuilder2.addChild(rootNode, enNode);
+        queryBuilder2.addChild(enNode, dataNode1);
+        IntermediateQuery query2 = queryBuilder2.build();
+
+        System.out.println("\nExpected: \n" + query2);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, query2));
+    }
+
+    @Test
+    public void testPruneAndKeepFilter() throws EmptyQueryException {
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(PROJECTION_ATOM.getVariables());
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(LANG_EN_CONDITION);
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(S, L));
+        ConstructionNode enNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, EN_LITERAL));
+        ConstructionNode frNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, FR_LITERAL));
+        ConstructionNode variableLangNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, VARIABLE_LANG_LITERAL));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, S, A));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, S, B));
+        ExtensionalDataNode dataNode3 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE3_PREDICATE, S, B, C));
+
+        IntermediateQueryBuilder queryBuilder1 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder1.init(PROJECTION_ATOM, rootNode);
+        queryBuilder1.addChild(rootNode, filterNode);
+        queryBuilder1.addChild(filterNode, unionNode);
+        queryBuilder1.addChild(unionNode, enNode);
+        queryBuilder1.addChild(enNode, dataNode1);
+        queryBuilder1.addChild(unionNode, frNode);
+        queryBuilder1.addChild(frNode, dataNode2);
+        queryBuilder1.addChild(unionNode, variableLangNode);
+        queryBuilder1.addChild(variableLangNode, dataNode3);
+        IntermediateQuery query1 = queryBuilder1.build();
+
+        System.out.println("\nBefore optimization: \n" + query1);
+
+        IntermediateQuery optimizedQuery = new UnionBranchPruningOptimizer().optimize(query1);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        IntermediateQueryBuilder queryBuilder2 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder2.init(PROJECTION_ATOM, rootNode);
+        queryBuilder2.addChild(rootNode, filterNode);
+        queryBuilder2.addChild(filterNode, unionNode);
+        queryBuilder2.addChild(unionNode, enNode);
+        queryBuilder2.addChild(enNode, dataNode1);
+        queryBuilder2.addChild(unionNode, variableLangNode);
+        queryBuilder2.addChild(variableLangNode, dataNode3);
+        IntermediateQuery query2 = queryBuilder2.build();
+
+        System.out.println("\nExpected: \n" + query2);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, query2));
+    }
+
+    /**
+     * The remaining branch also projects A: it is wrapped into a construction node projecting S and L
+     */
+    @Test
+    public void testRemainingBranchWithMoreVariables() throws EmptyQueryException {
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(PROJECTION_ATOM.getVariables());
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(LANG_EN_CONDITION);
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(S, L));
+        ConstructionNode enNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L, A),
+                SUBSTITUTION_FACTORY.getSubstitution(L, EN_LITERAL));
+        ConstructionNode frNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, FR_LITERAL));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, S, A));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, S, B));
+
+        IntermediateQueryBuilder queryBuilder1 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder1.init(PROJECTION_ATOM, rootNode);
+        queryBuilder1.addChild(rootNode, filterNode);
+        queryBuilder1.addChild(filterNode, unionNode);
+        queryBuilder1.addChild(unionNode, enNode);
+        queryBuilder1.addChild(enNode, dataNode1);
+        queryBuilder1.addChild(unionNode, frNode);
+        queryBuilder1.addChild(frNode, dataNode2);
+        IntermediateQuery query1 = queryBuilder1.build();
+
+        System.out.println("\nBefore optimization: \n" + query1);
+
+        IntermediateQuery optimizedQuery = new UnionBranchPruningOptimizer().optimize(query1);
+
+        System.out.println("\nAfter optimization: \n" + optimizedQuery);
+
+        ConstructionNode projectionNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L));
+
+        IntermediateQueryBuilder queryBuilder2 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder2.init(PROJECTION_ATOM, rootNode);
+        queryBuilder2.addChild(rootNode, projectionNode);
+        queryBuilder2.addChild(projectionNode, enNode);
+        queryBuilder2.addChild(enNode, dataNode1);
+        IntermediateQuery query2 = queryBuilder2.build();
+
+        System.out.println("\nExpected: \n" + query2);
+
+        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(optimizedQuery, query2));
+        assertEquals(ImmutableSet.of(S, L), optimizedQuery.getVariables(
+                optimizedQuery.getFirstChild(optimizedQuery.getRootNode()).get()));
+    }
+
+    @Test(expected = EmptyQueryException.class)
+    public void testNoMatchingBranch() throws EmptyQueryException {
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(PROJECTION_ATOM.getVariables());
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(LANG_EN_CONDITION);
+        ConstructionNode frNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, FR_LITERAL));
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(S, L));
+        ConstructionNode otherFrNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, L),
+                SUBSTITUTION_FACTORY.getSubstitution(L, TERM_FACTORY.getImmutableTypedTerm(A, "fr")));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, S, A));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, S, B));
+
+        IntermediateQueryBuilder queryBuilder1 = createQueryBuilder(EMPTY_METADATA);
+        queryBuilder1.init(PROJECTION_ATOM, rootNode);
+        queryBuilder1.addChild(rootNode, filterNode);
+        queryBuilder1.addChild(filterNode, unionNode);
+        queryBuilder1.addChild(unionNode, otherFrNode);
+        queryBuilder1.addChild(otherFrNode, dataNode1);
+        queryBuilder1.addChild(unionNode, frNode);
+        queryBuilder1.addChild(frNode, dataNode2);
+        IntermediateQuery query1 = queryBuilder1.build();
+
+        System.out.println("\nBefore optimization: \n" + query1);
+
+        new UnionBranchPruningOptimizer().optimize(query1);
+    }
+}
@@ -21,7 +21,9 @@ package it.unibz.inf.ontop.dbschema;
  */
 
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
 
@@ -77,6 +79,38 @@ public class RDBMetadata extends BasicDBMetadata {
 		return view;
 	}
 
+	/**
+	 * re-creates a view with the given ID (used only in RDBMetadataSerializer)
+	 *
+	 * @param id
+	 * @param sql
+	 * @return
+	 */
+
+	ParserViewDefinition createParserView(RelationID id, String sql) {
+		if (!isStillMutable()) {
+			throw new IllegalStateException("Too late! Parser views must be created before freezing the DBMetadata");
+		}
+		parserViewCounter++;
+		ParserViewDefinition view = new ParserViewDefinition(id, sql);
+		add(view, relations);
+		return view;
+	}
+
+	/**
+	 * returns the views created for SQLQueryParser
+	 *
+	 * @return
+	 */
+
+	public ImmutableList<ParserViewDefinition> getParserViews() {
+		return relations.values().stream()
+				.filter(r -> r instanceof ParserViewDefinition)
+				.map(r -> (ParserViewDefinition) r)
+				.distinct()
+				.collect(ImmutableCollectors.toList());
+	}
+
 	@Deprecated
 	@Override
 	public RDBMetadata clone() {
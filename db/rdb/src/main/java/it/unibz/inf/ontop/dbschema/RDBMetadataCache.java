@@ -0,0 +1,526 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.*;
+
+import static it.unibz.inf.ontop.dbschema.RDBMetadataSerializer.*;
+
+/**
+ * Local cache of the metadata of the relations (see RDBMetadataExtractionTools).
+ * <p>
+ * Each cached relation comes with a fingerprint of its definition in the DB:
+ * <ul>
+ *     <li>Oracle, DB2 and MS SQL Server: the time of the last DDL statement on the relation
+ *         (including the changes of constraints);</li>
+ *     <li>other DB engines: a hash of the list of columns (names, types and nullability)
+ *         and of the primary, unique and foreign keys. The columns are obtained with one JDBC call per schema,
+ *         the keys with one INFORMATION_SCHEMA query per set of schemas when the DB engine supports it
+ *         (unique indexes declared without a constraint are then not seen), and otherwise
+ *         with the same JDBC calls as the extraction, relation by relation.</li>
+ * </ul>
+ * Only the relations whose fingerprint has changed, that are not in the cache or that were extracted
+ * more than maxAge seconds ago are extracted from the DB. The maximal age bounds the reuse of
+ * the statistics and of the changes that are not covered by the fingerprints.
+ * The foreign keys are stored by attribute names and resolved again after the extraction.
+ * <p>
+ * The whole cache is ignored when the DB (source key, DB engine or driver) is not the same.
+ */
+public class RDBMetadataCache {
+
+	private static final Logger log = LoggerFactory.getLogger(RDBMetadataCache.class);
+
+	private static final String MAGIC = "ontop-metadata-cache";
+	/**
+	 * To be incremented each time the format changes
+	 */
+	private static final int VERSION = 3;
+
+	private static final String ORACLE_DDL_TIME_QUERY =
+			"SELECT owner, object_name, TO_CHAR(last_ddl_time, 'YYYY-MM-DD HH24:MI:SS') " +
+			"FROM all_objects WHERE object_type IN ('TABLE', 'VIEW') AND owner IN (%s)";
+
+	private static final String DB2_DDL_TIME_QUERY =
+			"SELECT TABSCHEMA, TABNAME, CHAR(ALTER_TIME) FROM SYSCAT.TABLES WHERE TABSCHEMA IN (%s)";
+
+	private static final String SQL_SERVER_DDL_TIME_QUERY =
+			"SELECT s.name, o.name, CONVERT(VARCHAR(30), o.modify_date, 126) " +
+			"FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+			"WHERE o.type IN ('U', 'V') AND s.name IN (%s)";
+
+	/**
+	 * Standard INFORMATION_SCHEMA views (PostgreSQL, MySQL, HSQLDB, etc.), ordered for a stable hash
+	 */
+	private static final String INFORMATION_SCHEMA_KEY_QUERY =
+			"SELECT tc.TABLE_SCHEMA, tc.TABLE_NAME, tc.CONSTRAINT_TYPE, tc.CONSTRAINT_NAME, " +
+			"       kcu.COLUMN_NAME, kcu.ORDINAL_POSITION " +
+			"FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+			"JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " +
+			"     AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+			"     AND kcu.TABLE_SCHEMA = tc.TABLE_SCHEMA AND kcu.TABLE_NAME = tc.TABLE_NAME " +
+			"WHERE tc.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'UNIQUE', 'FOREIGN KEY') AND tc.TABLE_SCHEMA IN (%s) " +
+			"ORDER BY 1, 2, 3, 4, 6";
+
+	/**
+	 * Same as RDBMetadataExtractionTools.loadMetadata, but the relations with an unchanged fingerprint
+	 * are taken from the cache file (which is then updated).
+	 *
+	 * @param maxAge maximal age (in seconds) of a cached relation
+	 * @param sourceKey identifies the DB (e.g., JDBC URL and user)
+	 */
+	public static void loadMetadata(RDBMetadata metadata, Connection conn, Set<RelationID> realTables,
+									File cacheFile, int maxAge, String sourceKey,
+									ConnectionFactory connectionFactory, int threadCount) throws SQLException {
+
+		if (realTables == null || realTables.isEmpty()) {
+			// the complete list of relations is needed anyway
+			RDBMetadataExtractionTools.loadMetadata(metadata, conn, realTables, connectionFactory, threadCount);
+			return;
+		}
+
+		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+		Set<RelationID> preExistingRelationIds = new HashSet<>();
+		for (DatabaseRelationDefinition relation : metadata.getDatabaseRelations())
+			preExistingRelationIds.add(relation.getID());
+
+		Optional<CacheContent> cache = read(cacheFile, metadata, sourceKey);
+		long now = System.currentTimeMillis();
+
+		Map<RelationID, String> fingerprints = new HashMap<>();
+		Map<RelationID, Long> extractionTimes = new HashMap<>();
+		Set<RelationID> reusedRelationIds = new LinkedHashSet<>();
+		Set<RelationID> relationIdsToExtract = new HashSet<>();
+		if (cache.isPresent()) {
+			CacheContent content = cache.get();
+			List<RelationID> cachedRelationIds = new ArrayList<>();
+			for (DatabaseRelationDefinition relation : content.metadata.getDatabaseRelations())
+				cachedRelationIds.add(relation.getID());
+			fingerprints.putAll(getFingerprints(conn, idfac, cachedRelationIds));
+
+			for (RelationID seedId : realTables) {
+				DatabaseRelationDefinition cached = content.metadata.getDatabaseRelation(seedId);
+				if (cached == null)
+					relationIdsToExtract.add(seedId);
+				else if (content.fingerprints.get(cached.getID()).equals(fingerprints.get(cached.getID()))
+						&& now - content.extractionTimes.get(cached.getID()) < maxAge * 1000L)
+					reusedRelationIds.add(cached.getID());
+				else
+					relationIdsToExtract.add(cached.getID());
+			}
+			log.debug("Metadata cache {}: {} relations reused, {} to be extracted", cacheFile,
+					reusedRelationIds.size(), relationIdsToExtract.size());
+
+			// before the extraction (for the foreign keys of the extracted relations)
+			reusedRelationIds.removeIf(id -> metadata.getDatabaseRelation(id) != null);
+			for (RelationID id : reusedRelationIds) {
+				copyRelation(content.metadata.getDatabaseRelation(id), metadata);
+				extractionTimes.put(id, content.extractionTimes.get(id));
+			}
+		}
+		else
+			relationIdsToExtract.addAll(realTables);
+
+		if (!relationIdsToExtract.isEmpty())
+			RDBMetadataExtractionTools.loadMetadata(metadata, conn, relationIdsToExtract, connectionFactory, threadCount);
+
+		if (cache.isPresent()) {
+			for (RelationID id : reusedRelationIds)
+				addForeignKeys(metadata.getDatabaseRelation(id), cache.get().foreignKeys.get(id), metadata);
+		}
+
+		List<DatabaseRelationDefinition> relations = new ArrayList<>();
+		List<RelationID> extractedRelationIds = new ArrayList<>();
+		for (DatabaseRelationDefinition relation : metadata.getDatabaseRelations()) {
+			if (preExistingRelationIds.contains(relation.getID()))
+				continue;
+			relations.add(relation);
+			if (!reusedRelationIds.contains(relation.getID())) {
+				extractedRelationIds.add(relation.getID());
+				extractionTimes.put(relation.getID(), now);
+			}
+		}
+		fingerprints.putAll(getFingerprints(conn, idfac, extractedRelationIds));
+		write(cacheFile, metadata, sourceKey, relations, fingerprints, extractionTimes);
+	}
+
+
+	private static final class CacheContent {
+		private final RDBMetadata metadata;
+		private final Map<RelationID, String> fingerprints;
+		private final Map<RelationID, Long> extractionTimes;
+		private final Map<RelationID, List<CachedForeignKey>> foreignKeys;
+
+		private CacheContent(RDBMetadata metadata, Map<RelationID, String> fingerprints,
+							 Map<RelationID, Long> extractionTimes,
+							 Map<RelationID, List<CachedForeignKey>> foreignKeys) {
+			this.metadata = metadata;
+			this.fingerprints = fingerprints;
+			this.extractionTimes = extractionTimes;
+			this.foreignKeys = foreignKeys;
+		}
+	}
+
+	private static final class CachedForeignKey {
+		private final String name;
+		private final RelationID referencedRelationId;
+		private final List<String> attributes = new ArrayList<>();
+		private final List<String> referencedAttributes = new ArrayList<>();
+
+		private CachedForeignKey(String name, RelationID referencedRelationId) {
+			this.name = name;
+			this.referencedRelationId = referencedRelationId;
+		}
+	}
+
+	/**
+	 * Empty if the cache file does not exist, cannot be read or is for another DB
+	 */
+	private static Optional<CacheContent> read(File cacheFile, RDBMetadata metadata, String sourceKey) {
+		if (!cacheFile.exists())
+			return Optional.empty();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (!MAGIC.equals(readString(in)) || in.readInt() != VERSION
+					|| !sourceKey.equals(readString(in))
+					|| !Objects.equals(metadata.getDbmsProductName(), readString(in))
+					|| !Objects.equals(metadata.getDbmsVersion(), readString(in))
+					|| !Objects.equals(metadata.getDriverName(), readString(in))
+					|| !Objects.equals(metadata.getDriverVersion(), readString(in))) {
+				log.info("Metadata cache {} ignored: created for another DB or by another version", cacheFile);
+				return Optional.empty();
+			}
+
+			// scratch metadata, with the same ID factory
+			RDBMetadata cachedMetadata = new RDBMetadata(metadata.getDriverName(), metadata.getDriverVersion(),
+					metadata.getDbmsProductName(), metadata.getDbmsVersion(), metadata.getQuotedIDFactory(),
+					JdbcTypeMapper.getInstance());
+			QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+
+			Map<RelationID, String> fingerprints = new HashMap<>();
+			Map<RelationID, Long> extractionTimes = new HashMap<>();
+			int relationCount = in.readInt();
+			for (int i = 0; i < relationCount; i++) {
+				String fingerprint = readString(in);
+				long extractionTime = in.readLong();
+				RelationID id = readRelation(cachedMetadata, in).getID();
+				fingerprints.put(id, fingerprint);
+				extractionTimes.put(id, extractionTime);
+			}
+
+			Map<RelationID, List<CachedForeignKey>> foreignKeys = new HashMap<>();
+			for (DatabaseRelationDefinition relation : cachedMetadata.getDatabaseRelations()) {
+				int fkCount = in.readInt();
+				List<CachedForeignKey> fks = new ArrayList<>(fkCount);
+				for (int j = 0; j < fkCount; j++) {
+					CachedForeignKey fk = new CachedForeignKey(readString(in), readRelationID(idfac, in));
+					int size = in.readInt();
+					for (int k = 0; k < size; k++) {
+						fk.attributes.add(readString(in));
+						fk.referencedAttributes.add(readString(in));
+					}
+					fks.add(fk);
+				}
+				foreignKeys.put(relation.getID(), fks);
+			}
+			return Optional.of(new CacheContent(cachedMetadata, fingerprints, extractionTimes, foreignKeys));
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Metadata cache {} ignored: {}", cacheFile, e.toString());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Written to a temporary file first (the cache file can be shared by several instances)
+	 */
+	private static void write(File cacheFile, RDBMetadata metadata, String sourceKey,
+							  List<DatabaseRelationDefinition> relations, Map<RelationID, String> fingerprints,
+							  Map<RelationID, Long> extractionTimes) {
+		File tmpFile = new File(cacheFile.getAbsoluteFile().getParentFile(),
+				cacheFile.getName() + "." + UUID.randomUUID() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				writeString(MAGIC, out);
+				out.writeInt(VERSION);
+				writeString(sourceKey, out);
+				writeString(metadata.getDbmsProductName(), out);
+				writeString(metadata.getDbmsVersion(), out);
+				writeString(metadata.getDriverName(), out);
+				writeString(metadata.getDriverVersion(), out);
+
+				// no fingerprint: the relation is extracted again next time
+				out.writeInt(relations.size());
+				for (DatabaseRelationDefinition relation : relations) {
+					writeString(fingerprints.getOrDefault(relation.getID(), ""), out);
+					out.writeLong(extractionTimes.get(relation.getID()));
+					writeRelation(relation, out);
+				}
+
+				for (DatabaseRelationDefinition relation : relations) {
+					out.writeInt(relation.getForeignKeys().size());
+					for (ForeignKeyConstraint fk : relation.getForeignKeys()) {
+						writeString(fk.getName(), out);
+						writeRelationID(fk.getReferencedRelation().getID(), out);
+						out.writeInt(fk.getComponents().size());
+						for (ForeignKeyConstraint.Component component : fk.getComponents()) {
+							writeString(component.getAttribute().getID().getName(), out);
+							writeString(component.getReference().getID().getName(), out);
+						}
+					}
+				}
+			}
+			try {
+				Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			log.warn("Cannot write the metadata cache {}: {}", cacheFile, e.toString());
+			tmpFile.delete();
+		}
+	}
+
+	private static void copyRelation(DatabaseRelationDefinition source, RDBMetadata metadata) {
+		DatabaseRelationDefinition relation = metadata.createDatabaseRelation(source.getID());
+		for (Attribute attribute : source.getAttributes())
+			relation.addAttribute(attribute.getID(), attribute.getType(), attribute.getSQLTypeName(), attribute.canNull());
+
+		for (UniqueConstraint uc : source.getUniqueConstraints()) {
+			UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
+			for (Attribute attribute : uc.getAttributes())
+				builder.add(relation.getAttribute(attribute.getIndex()));
+			relation.addUniqueConstraint(builder.build(uc.getName(), uc.isPrimaryKey()));
+		}
+
+		if (source.getStatistics().isPresent()) {
+			RelationStatistics statistics = source.getStatistics().get();
+			RelationStatistics.Builder builder = RelationStatistics.builder(statistics.getRowCount());
+			for (Attribute attribute : relation.getAttributes()) {
+				statistics.getDistinctValueCount(attribute.getIndex())
+						.ifPresent(c -> builder.addDistinctValueCount(attribute, c));
+				statistics.getNullFraction(attribute.getIndex())
+						.ifPresent(f -> builder.addNullFraction(attribute, f));
+			}
+			relation.setStatistics(builder.build());
+		}
+	}
+
+	/**
+	 * The foreign keys whose referenced relation or attributes no longer exist are ignored
+	 */
+	private static void addForeignKeys(DatabaseRelationDefinition relation, List<CachedForeignKey> fks,
+									   RDBMetadata metadata) {
+		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+		for (CachedForeignKey fk : fks) {
+			DatabaseRelationDefinition ref = metadata.getDatabaseRelation(fk.referencedRelationId);
+			if (ref == null) {
+				log.warn("Cannot find table: " + fk.referencedRelationId + " for FK " + fk.name);
+				continue;
+			}
+			ForeignKeyConstraint.Builder builder = ForeignKeyConstraint.builder(relation, ref);
+			boolean isValid = true;
+			for (int i = 0; i < fk.attributes.size(); i++) {
+				Attribute attribute = relation.getAttribute(QuotedID.createIdFromDatabaseRecord(idfac, fk.attributes.get(i)));
+				Attribute reference = ref.getAttribute(QuotedID.createIdFromDatabaseRecord(idfac, fk.referencedAttributes.get(i)));
+				if (attribute == null || reference == null) {
+					isValid = false;
+					break;
+				}
+				builder.add(attribute, reference);
+			}
+			if (isValid)
+				relation.addForeignKeyConstraint(builder.build(fk.name));
+			else
+				log.warn("FK " + fk.name + " of " + relation.getID() + " ignored: the attributes have changed");
+		}
+	}
+
+	/**
+	 * Fingerprints of the given relations (created from DB records).
+	 * The relations missing from the result do not exist (or could not be checked).
+	 */
+	private static Map<RelationID, String> getFingerprints(Connection conn, QuotedIDFactory idfac,
+														   Collection<RelationID> relationIds) throws SQLException {
+		Map<RelationID, String> fingerprints = new HashMap<>();
+		if (relationIds.isEmpty())
+			return fingerprints;
+
+		String productName = conn.getMetaData().getDatabaseProductName();
+		String query;
+		if (productName.contains("Oracle"))
+			query = ORACLE_DDL_TIME_QUERY;
+		else if (productName.contains("DB2"))
+			query = DB2_DDL_TIME_QUERY;
+		else if (productName.contains("SQL Server"))
+			query = SQL_SERVER_DDL_TIME_QUERY;
+		else
+			query = null;
+
+		Set<String> schemas = new LinkedHashSet<>();
+		for (RelationID id : relationIds)
+			if (id.getSchemaName() != null)
+				schemas.add(id.getSchemaName());
+
+		if (query != null && !schemas.isEmpty()) {
+			String placeholders = String.join(", ", Collections.nCopies(schemas.size(), "?"));
+			try (PreparedStatement stmt = conn.prepareStatement(String.format(query, placeholders))) {
+				int index = 1;
+				for (String schema : schemas)
+					stmt.setString(index++, schema);
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next())
+						fingerprints.put(RelationID.createRelationIdFromDatabaseRecord(idfac, rs.getString(1), rs.getString(2)),
+								"ddl:" + rs.getString(3));
+				}
+			}
+			catch (SQLException e) {
+				log.debug("Cannot retrieve the DDL times (the columns are used instead): " + e.getMessage());
+				fingerprints.clear();
+			}
+		}
+
+		Set<RelationID> remaining = new HashSet<>(relationIds);
+		remaining.removeAll(fingerprints.keySet());
+		if (!remaining.isEmpty())
+			fingerprints.putAll(getColumnAndKeyFingerprints(conn, idfac, remaining, productName.contains("MySQL")));
+
+		fingerprints.keySet().retainAll(new HashSet<>(relationIds));
+		return fingerprints;
+	}
+
+	/**
+	 * One getColumns call per schema (and per relation without schema) for the columns,
+	 * and one query per set of schemas (or JDBC calls per relation) for the keys
+	 */
+	private static Map<RelationID, String> getColumnAndKeyFingerprints(Connection conn, QuotedIDFactory idfac,
+																	   Set<RelationID> relationIds, boolean isSchemaCatalog) throws SQLException {
+		DatabaseMetaData md = conn.getMetaData();
+		Set<String> schemas = new LinkedHashSet<>();
+		List<RelationID> schemalessIds = new ArrayList<>();
+		for (RelationID id : relationIds) {
+			if (id.getSchemaName() != null)
+				schemas.add(id.getSchemaName());
+			else
+				schemalessIds.add(id);
+		}
+
+		Map<RelationID, Hasher> columnHashers = new HashMap<>();
+		for (String schema : schemas) {
+			// MySQL: the schema is the catalog (see RDBMetadataExtractionTools)
+			try (ResultSet rs = isSchemaCatalog
+					? md.getColumns(schema, null, null, null)
+					: md.getColumns(null, schema, null, null)) {
+				hashColumns(rs, idfac, columnHashers);
+			}
+		}
+		for (RelationID id : schemalessIds) {
+			try (ResultSet rs = md.getColumns(null, null, id.getTableName(), null)) {
+				hashColumns(rs, idfac, columnHashers);
+			}
+		}
+
+		Map<RelationID, Hasher> keyHashers = new HashMap<>();
+		List<RelationID> relationIdsWithoutKeys = new ArrayList<>(schemalessIds);
+		if (!hashKeysFromInformationSchema(conn, idfac, schemas, keyHashers)) {
+			for (RelationID id : relationIds)
+				if (id.getSchemaName() != null)
+					relationIdsWithoutKeys.add(id);
+		}
+		for (RelationID id : relationIdsWithoutKeys)
+			hashKeys(md, id, isSchemaCatalog, keyHashers.computeIfAbsent(id, k -> Hashing.sha256().newHasher()));
+
+		Map<RelationID, String> fingerprints = new HashMap<>();
+		for (Map.Entry<RelationID, Hasher> e : columnHashers.entrySet())
+			if (relationIds.contains(e.getKey())) {
+				Hasher keyHasher = keyHashers.get(e.getKey());
+				fingerprints.put(e.getKey(), "columns:" + e.getValue().hash()
+						+ " keys:" + (keyHasher == null ? "none" : keyHasher.hash()));
+			}
+		return fingerprints;
+	}
+
+	private static void hashColumns(ResultSet rs, QuotedIDFactory idfac, Map<RelationID, Hasher> hashers) throws SQLException {
+		while (rs.next()) {
+			String schema = rs.getString("TABLE_SCHEM");
+			// MySQL workaround
+			if (schema == null)
+				schema = rs.getString("TABLE_CAT");
+			RelationID id = RelationID.createRelationIdFromDatabaseRecord(idfac, schema, rs.getString("TABLE_NAME"));
+			String column = rs.getString("COLUMN_NAME") + " " + rs.getString("TYPE_NAME") + " " + rs.getInt("NULLABLE") + ";";
+			hashers.computeIfAbsent(id, k -> Hashing.sha256().newHasher())
+					.putString(column, StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * @return false if the INFORMATION_SCHEMA views are not available (the keys are then hashed relation by relation)
+	 */
+	private static boolean hashKeysFromInformationSchema(Connection conn, QuotedIDFactory idfac, Set<String> schemas,
+														 Map<RelationID, Hasher> hashers) {
+		if (schemas.isEmpty())
+			return true;
+
+		String placeholders = String.join(", ", Collections.nCopies(schemas.size(), "?"));
+		Map<RelationID, Hasher> schemaHashers = new HashMap<>();
+		try (PreparedStatement stmt = conn.prepareStatement(String.format(INFORMATION_SCHEMA_KEY_QUERY, placeholders))) {
+			int index = 1;
+			for (String schema : schemas)
+				stmt.setString(index++, schema);
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					RelationID id = RelationID.createRelationIdFromDatabaseRecord(idfac, rs.getString(1), rs.getString(2));
+					String key = rs.getString(3) + " " + rs.getString(4) + " " + rs.getString(5) + " " + rs.getInt(6) + ";";
+					schemaHashers.computeIfAbsent(id, k -> Hashing.sha256().newHasher())
+							.putString(key, StandardCharsets.UTF_8);
+				}
+			}
+		}
+		catch (SQLException e) {
+			log.debug("Cannot retrieve the keys from INFORMATION_SCHEMA (retrieved table by table): " + e.getMessage());
+			return false;
+		}
+		hashers.putAll(schemaHashers);
+		return true;
+	}
+
+	/**
+	 * Same JDBC calls as RDBMetadataExtractionTools (primary key, unique indexes and foreign keys)
+	 */
+	private static void hashKeys(DatabaseMetaData md, RelationID id, boolean isSchemaCatalog, Hasher hasher)
+			throws SQLException {
+		String catalog = isSchemaCatalog ? id.getSchemaName() : null;
+		String schema = isSchemaCatalog ? null : id.getSchemaName();
+
+		try (ResultSet rs = md.getPrimaryKeys(catalog, schema, id.getTableName())) {
+			while (rs.next())
+				hasher.putString("P " + rs.getString("PK_NAME") + " " + rs.getString("COLUMN_NAME")
+						+ " " + rs.getShort("KEY_SEQ") + ";", StandardCharsets.UTF_8);
+		}
+		try (ResultSet rs = md.getIndexInfo(catalog, schema, id.getTableName(), true, true)) {
+			while (rs.next()) {
+				if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic)
+					continue;
+				hasher.putString("U " + rs.getString("INDEX_NAME") + " " + rs.getString("COLUMN_NAME")
+						+ " " + rs.getShort("ORDINAL_POSITION") + ";", StandardCharsets.UTF_8);
+			}
+		}
+		try (ResultSet rs = md.getImportedKeys(catalog, schema, id.getTableName())) {
+			while (rs.next())
+				hasher.putString("F " + rs.getString("FK_NAME") + " " + rs.getString("FKCOLUMN_NAME")
+						+ " " + rs.getString("PKTABLE_SCHEM") + " " + rs.getString("PKTABLE_NAME")
+						+ " " + rs.getString("PKCOLUMN_NAME") + ";", StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Retrieves the database metadata (table schema and database constraints) 
@@ -178,6 +179,20 @@ public class RDBMetadataExtractionTools {
 		return metadata;	
 	}
 	
+	/**
+	 * Creates the additional connections used for extracting the metadata in parallel
+	 */
+	@FunctionalInterface
+	public interface ConnectionFactory {
+		Connection createConnection() throws SQLException;
+	}
+
+	/**
+	 * Minimal number of requested relations in a schema for retrieving the columns of the whole schema
+	 * in one call (instead of one call per relation)
+	 */
+	private static final int BULK_COLUMN_EXTRACTION_THRESHOLD = 20;
+
 	/**
 	 * Retrieves the database metadata (table schema and database constraints) 
 	 * 
@@ -189,6 +204,20 @@ public class RDBMetadataExtractionTools {
 	 */
 
 	public static void loadMetadata(RDBMetadata metadata, Connection conn, Set<RelationID> realTables) throws SQLException {
+		loadMetadata(metadata, conn, realTables, null, 1);
+	}
+
+	/**
+	 * Same as above, but the JDBC metadata calls are distributed over threadCount connections: 
+	 *    the given one and the ones created by the connection factory (closed at the end).
+	 * 
+	 * The columns of the schemas with many requested relations are retrieved in bulk and,
+	 *    for Oracle and DB2, the primary and foreign keys are retrieved by a single system catalog query.
+	 * 
+	 * The metadata object is only modified by the calling thread.
+	 */
+	public static void loadMetadata(RDBMetadata metadata, Connection conn, Set<RelationID> realTables,
+									ConnectionFactory connectionFactory, int threadCount) throws SQLException {
 		
 		if (printouts)
 			System.out.println("GETTING METADATA WITH " + conn + " ON " + realTables);
@@ -233,64 +262,187 @@ public class RDBMetadataExtractionTools {
 		else if (productName.contains("Microsoft SQL Server"))
 			dt = SQLServerTypeFixer;
 
-		List<DatabaseRelationDefinition> extractedRelations = new LinkedList<>();
-		
+		try (MetadataConnectionPool pool = new MetadataConnectionPool(conn, connectionFactory, threadCount)) {
+
+			Map<RelationID, String> bulkSchemas = getBulkExtractionSchemas(seedRelationIds, conn);
+			List<DatabaseRelationDefinition> extractedRelations = extractRelations(metadata, seedRelationIds, bulkSchemas,
+					dt, pool);
+
+			// null if not available: the keys are then retrieved relation by relation
+			Map<RelationID, List<KeyRecord>> catalogKeys = getKeysFromCatalog(conn, productName, extractedRelations, idfac);
+
+			List<MetadataQuery<RelationRecords>> queries = new ArrayList<>(extractedRelations.size());
+			for (DatabaseRelationDefinition relation : extractedRelations)
+				queries.add(m -> new RelationRecords(
+						catalogKeys == null ? getKeys(m, relation.getID(), idfac) : null,
+						getIndexes(m, relation.getID())));
+			List<RelationRecords> records = pool.run(queries);
+
+			for (int i = 0; i < extractedRelations.size(); i++) {
+				DatabaseRelationDefinition relation = extractedRelations.get(i);
+				List<KeyRecord> keys = catalogKeys == null
+						? records.get(i).keys
+						: catalogKeys.getOrDefault(relation.getID(), Collections.emptyList());
+
+				addPrimaryKey(relation, keys, idfac);
+				addUniqueConstraints(relation, records.get(i).indexes, idfac);
+				addForeignKeys(relation, keys, metadata);
+				addStatistics(relation, records.get(i).indexes, idfac);
+				if (printouts) {
+					System.out.println(relation + ";");
+					for (UniqueConstraint uc : relation.getUniqueConstraints())
+						System.out.println(uc + ";");
+					for (ForeignKeyConstraint fk : relation.getForeignKeys())
+						System.out.println(fk +  ";");
+					System.out.println("");
+				}
+			}
+		}
+
+		if (printouts) {
+			System.out.println("RESULTING METADATA:\n" + metadata);
+			System.out.println("DBMetadataExtractor END OF REPORT\n=================================");
+		}
+	}
+
+	/**
+	 * Seed -> schema whose columns are retrieved in one call, for the seeds of the schemas with many seeds.
+	 * 
+	 * A seed without schema is considered in the default schema of the connection only if no other schema
+	 *    has a relation with that name (otherwise, the seed stands for all these relations and is retrieved alone).
+	 */
+	private static Map<RelationID, String> getBulkExtractionSchemas(List<RelationID> seedRelationIds, Connection conn)
+			throws SQLException {
+		Map<String, List<RelationID>> seedsBySchema = new LinkedHashMap<>();
+		List<RelationID> schemalessSeeds = new ArrayList<>();
+		for (RelationID seedId : seedRelationIds) {
+			if (seedId.hasSchema())
+				seedsBySchema.computeIfAbsent(seedId.getSchemaName(), k -> new ArrayList<>()).add(seedId);
+			else
+				schemalessSeeds.add(seedId);
+		}
+
+		if (schemalessSeeds.size() >= BULK_COLUMN_EXTRACTION_THRESHOLD) {
+			String defaultSchema = getDefaultSchema(conn);
+			if (defaultSchema != null) {
+				Map<String, Set<String>> relationSchemas = getRelationSchemas(conn.getMetaData());
+				for (RelationID seedId : schemalessSeeds)
+					if (Collections.singleton(defaultSchema).equals(relationSchemas.get(seedId.getTableName())))
+						seedsBySchema.computeIfAbsent(defaultSchema, k -> new ArrayList<>()).add(seedId);
+			}
+		}
+
+		Map<RelationID, String> bulkSchemas = new HashMap<>();
+		for (Map.Entry<String, List<RelationID>> e : seedsBySchema.entrySet())
+			if (e.getValue().size() >= BULK_COLUMN_EXTRACTION_THRESHOLD)
+				for (RelationID seedId : e.getValue())
+					bulkSchemas.put(seedId, e.getKey());
+		return bulkSchemas;
+	}
+
+	/**
+	 * null if the driver does not report it (e.g., MySQL, where the schemas are catalogs, or JDBC 4.0 drivers)
+	 */
+	private static String getDefaultSchema(Connection conn) {
+		try {
+			return conn.getSchema();
+		}
+		catch (SQLException | AbstractMethodError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Relation name -> schemas having a relation with that name
+	 */
+	private static Map<String, Set<String>> getRelationSchemas(DatabaseMetaData md) throws SQLException {
+		Map<String, Set<String>> relationSchemas = new HashMap<>();
+		try (ResultSet rs = md.getTables(null, null, null, null)) {
+			while (rs.next())
+				relationSchemas.computeIfAbsent(rs.getString("TABLE_NAME"), k -> new HashSet<>())
+						.add(rs.getString("TABLE_SCHEM"));
+		}
+		return relationSchemas;
+	}
+
+	/**
+	 * Creates the relations (with their attributes) of the seeds
+	 */
+	private static List<DatabaseRelationDefinition> extractRelations(RDBMetadata metadata, List<RelationID> seedRelationIds,
+																	 Map<RelationID, String> bulkSchemas,
+																	 DatatypeNormalizer dt, MetadataConnectionPool pool) throws SQLException {
+		List<String> schemas = new ArrayList<>(new LinkedHashSet<>(bulkSchemas.values()));
+
+		List<MetadataQuery<List<ColumnRecord>>> queries = new ArrayList<>();
+		for (String schema : schemas)
+			queries.add(m -> getColumns(m, schema, null, dt));
+		for (RelationID seedId : seedRelationIds)
+			if (!bulkSchemas.containsKey(seedId))
+				queries.add(m -> getColumns(m, seedId.getSchemaName(), seedId.getTableName(), dt));
+		List<List<ColumnRecord>> results = pool.run(queries);
+
+		Map<List<String>, List<ColumnRecord>> bulkColumns = new HashMap<>();
+		for (int i = 0; i < schemas.size(); i++)
+			for (ColumnRecord column : results.get(i))
+				bulkColumns.computeIfAbsent(Arrays.asList(column.schema, column.table), k -> new ArrayList<>())
+						.add(column);
+
+		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+		List<DatabaseRelationDefinition> extractedRelations = new ArrayList<>();
+		int next = schemas.size();
 		for (RelationID seedId : seedRelationIds) {
+			// only the exact names are kept from the bulk results (the table name is a pattern otherwise)
+			List<ColumnRecord> columns = bulkSchemas.containsKey(seedId)
+					? bulkColumns.getOrDefault(Arrays.asList(bulkSchemas.get(seedId), seedId.getTableName()),
+							Collections.emptyList())
+					: results.get(next++);
+
 			// the same seedId can be mapped to many tables (if the seedId has no schema)
 			// we collect attributes from all of them
 			DatabaseRelationDefinition currentRelation = null;
-			
-			// catalog is ignored for now (rs.getString("TABLE_CAT"))
-			try (ResultSet rs = md.getColumns(null, seedId.getSchemaName(), seedId.getTableName(), null)) {
-				while (rs.next()) {
-					String schema = rs.getString("TABLE_SCHEM");
-					// MySQL workaround
-					if (schema == null)
-						schema = rs.getString("TABLE_CAT");
-
-					RelationID relationId = RelationID.createRelationIdFromDatabaseRecord(idfac, schema,
-										rs.getString("TABLE_NAME"));
-					QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
-					if (printouts)
-						System.out.println("         " + relationId + "." + attributeId);
-					
-					if (currentRelation == null || !currentRelation.getID().equals(relationId)) {
-						// switch to the next database relation
-						currentRelation = metadata.createDatabaseRelation(relationId);
-						extractedRelations.add(currentRelation);
-					}
-					
-					// columnNoNulls, columnNullable, columnNullableUnknown 
-					boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-					String typeName = rs.getString("TYPE_NAME");
-					int dataType = dt.getCorrectedDatatype(rs.getInt("DATA_TYPE"), typeName);
-					
-					currentRelation.addAttribute(attributeId, dataType, typeName, isNullable);
+			for (ColumnRecord column : columns) {
+				RelationID relationId = RelationID.createRelationIdFromDatabaseRecord(idfac, column.schema, column.table);
+				QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, column.column);
+				if (printouts)
+					System.out.println("         " + relationId + "." + attributeId);
+
+				if (currentRelation == null || !currentRelation.getID().equals(relationId)) {
+					// switch to the next database relation
+					currentRelation = metadata.createDatabaseRelation(relationId);
+					extractedRelations.add(currentRelation);
 				}
+				currentRelation.addAttribute(attributeId, column.dataType, column.typeName, column.isNullable);
 			}
 		}
-			
-		for (DatabaseRelationDefinition relation : extractedRelations)	{
-			getPrimaryKey(md, relation, metadata.getQuotedIDFactory());
-			getUniqueAttributes(md, relation, metadata.getQuotedIDFactory());
-			getForeignKeys(md, relation, metadata);
-			if (printouts) {
-				System.out.println(relation + ";");
-				for (UniqueConstraint uc : relation.getUniqueConstraints())
-					System.out.println(uc + ";");
-				for (ForeignKeyConstraint fk : relation.getForeignKeys())
-					System.out.println(fk +  ";");
-				System.out.println("");
-			}
-		}
+		return extractedRelations;
+	}
 
-		if (printouts) {
-			System.out.println("RESULTING METADATA:\n" + metadata);
-			System.out.println("DBMetadataExtractor END OF REPORT\n=================================");
+	/**
+	 * tableName is null for all the tables of the schema
+	 */
+	private static List<ColumnRecord> getColumns(DatabaseMetaData md, String schema, String tableName,
+												 DatatypeNormalizer dt) throws SQLException {
+		List<ColumnRecord> columns = new ArrayList<>();
+		// catalog is ignored for now (rs.getString("TABLE_CAT"))
+		try (ResultSet rs = md.getColumns(null, schema, tableName, null)) {
+			while (rs.next()) {
+				String tableSchema = rs.getString("TABLE_SCHEM");
+				// MySQL workaround
+				if (tableSchema == null)
+					tableSchema = rs.getString("TABLE_CAT");
+
+				// columnNoNulls, columnNullable, columnNullableUnknown 
+				boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+				String typeName = rs.getString("TYPE_NAME");
+				int dataType = dt.getCorrectedDatatype(rs.getInt("DATA_TYPE"), typeName);
+
+				columns.add(new ColumnRecord(tableSchema, rs.getString("TABLE_NAME"), rs.getString("COLUMN_NAME"),
+						dataType, typeName, isNullable));
+			}
 		}
+		return columns;
 	}
-	
-	
+
 	/**
 	 * Retrieve the normalized list of tables from a given list of RelationIDs
 	 */
@@ -547,143 +699,458 @@ public class RDBMetadataExtractionTools {
 	
 	
 
-	/** 
-	 * Retrieves the primary key for the table 
-	 * 
+	/**
+	 * Retrieves the primary key and the foreign keys of the table
 	 */
-	private static void getPrimaryKey(DatabaseMetaData md, DatabaseRelationDefinition relation, QuotedIDFactory idfac) throws SQLException {
-		RelationID id = relation.getID();
+	private static List<KeyRecord> getKeys(DatabaseMetaData md, RelationID id, QuotedIDFactory idfac) throws SQLException {
+		List<KeyRecord> keys = new ArrayList<>();
 		// Retrieves a description of the given table's primary key columns. They are ordered by COLUMN_NAME (sic!)
 		try (ResultSet rs = md.getPrimaryKeys(null, id.getSchemaName(), id.getTableName())) {
-			Map<Integer, String> primaryKeyAttributes = new HashMap<>();
-			String currentName = null;
 			while (rs.next()) {
 				// TABLE_CAT is ignored for now; assume here that relation has a fully specified name
 				RelationID id2 = RelationID.createRelationIdFromDatabaseRecord(idfac, 
 									rs.getString("TABLE_SCHEM"), rs.getString("TABLE_NAME"));		
-				if (id2.equals(id)) {
-					currentName = rs.getString("PK_NAME"); // may be null			
-					String attr = rs.getString("COLUMN_NAME");
-					int seq = rs.getShort("KEY_SEQ");
-					primaryKeyAttributes.put(seq, attr);
-				}
+				if (id2.equals(id))
+					keys.add(new KeyRecord(true, rs.getString("PK_NAME"), // may be null
+							rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"), null, null, null));
 			}
-			if (!primaryKeyAttributes.isEmpty()) {
-				// use the KEY_SEQ values to restore the correct order of attributes in the PK
-				UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
-				for (int i = 1; i <= primaryKeyAttributes.size(); i++) {
-					QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, primaryKeyAttributes.get(i));
-					builder.add(relation.getAttribute(attrId));
-				}
-				relation.addUniqueConstraint(builder.build(currentName, true));
+		}
+		try (ResultSet rs = md.getImportedKeys(null, id.getSchemaName(), id.getTableName())) {
+			while (rs.next()) {
+				// FKTABLE_SCHEM and FKTABLE_NAME are ignored for now  
+				keys.add(new KeyRecord(false, rs.getString("FK_NAME"), // may be null
+						rs.getShort("KEY_SEQ"), rs.getString("FKCOLUMN_NAME"),
+						rs.getString("PKTABLE_SCHEM"), rs.getString("PKTABLE_NAME"), rs.getString("PKCOLUMN_NAME")));
 			}
-		} 
+		}
+		return keys;
+	}
+
+	/**
+	 * Retrieves the index information of the table (for the unique constraints and the statistics)
+	 */
+	private static List<IndexRecord> getIndexes(DatabaseMetaData md, RelationID id) throws SQLException {
+		List<IndexRecord> indexes = new ArrayList<>();
+		// all the indexes (not only the unique ones): the non-unique ones are used for the statistics
+		try (ResultSet rs = md.getIndexInfo(null, id.getSchemaName(), id.getTableName(), false, true)) {
+			while (rs.next()) {
+				long cardinality = rs.getLong("CARDINALITY");
+				if (rs.wasNull())
+					cardinality = -1;
+				indexes.add(new IndexRecord(rs.getShort("TYPE"), rs.getShort("ORDINAL_POSITION"),
+						rs.getBoolean("NON_UNIQUE"), rs.getString("INDEX_NAME"), rs.getString("COLUMN_NAME"),
+						cardinality));
+			}
+		}
+		return indexes;
+	}
+
+	/** 
+	 * Adds the primary key of the table 
+	 * 
+	 */
+	private static void addPrimaryKey(DatabaseRelationDefinition relation, List<KeyRecord> keys, QuotedIDFactory idfac) {
+		Map<Integer, String> primaryKeyAttributes = new HashMap<>();
+		String currentName = null;
+		for (KeyRecord key : keys) {
+			if (key.isPrimaryKey) {
+				currentName = key.name;
+				primaryKeyAttributes.put(key.position, key.column);
+			}
+		}
+		if (!primaryKeyAttributes.isEmpty()) {
+			// use the KEY_SEQ values to restore the correct order of attributes in the PK
+			UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
+			for (int i = 1; i <= primaryKeyAttributes.size(); i++) {
+				QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, primaryKeyAttributes.get(i));
+				builder.add(relation.getAttribute(attrId));
+			}
+			relation.addUniqueConstraint(builder.build(currentName, true));
+		}
 	}
 	
 	/**
-	 * Retrieves the unique attributes(s) 
-	 * @param md
-	 * @return
-	 * @throws SQLException 
+	 * Adds the unique attributes(s) 
 	 */
-	private static void getUniqueAttributes(DatabaseMetaData md, DatabaseRelationDefinition relation, QuotedIDFactory idfac) throws SQLException {
+	private static void addUniqueConstraints(DatabaseRelationDefinition relation, List<IndexRecord> indexes, QuotedIDFactory idfac) {
 		
-		RelationID id = relation.getID();
-		// extracting unique 
-		try (ResultSet rs = md.getIndexInfo(null, id.getSchemaName(), id.getTableName(), true, true)) {
-			UniqueConstraint.Builder builder = null;
-			String currentName = null;
-			while (rs.next()) {
-				// TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
-				//       tableIndexClustered - this is a clustered index
-				//       tableIndexHashed - this is a hashed index
-				//       tableIndexOther (all are static final int in DatabaseMetaData)
-				if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
-					if (builder != null)
-						relation.addUniqueConstraint(builder.build(currentName, false));
-					
-					builder = null;
-					continue;
-				}
-				if (rs.getShort("ORDINAL_POSITION") == 1) {
-					if (builder != null)
-						relation.addUniqueConstraint(builder.build(currentName, false));
-
-					// TABLE_CAT is ignored for now; assume here that relation has a fully specified name
-					// and so, no need to check whether TABLE_SCHEM and TABLE_NAME match
-					
-					if (!rs.getBoolean("NON_UNIQUE")) {
-						builder = UniqueConstraint.builder(relation);
-						currentName = rs.getString("INDEX_NAME"); 
-					}
-					else 
-						builder = null;
-				}
+		UniqueConstraint.Builder builder = null;
+		String currentName = null;
+		for (IndexRecord index : indexes) {
+			// TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
+			//       tableIndexClustered - this is a clustered index
+			//       tableIndexHashed - this is a hashed index
+			//       tableIndexOther (all are static final int in DatabaseMetaData)
+			if (index.type == DatabaseMetaData.tableIndexStatistic) {
+				if (builder != null)
+					relation.addUniqueConstraint(builder.build(currentName, false));
 				
-				if (builder != null) {
-					QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
-					// ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
-					//        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
-					// CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table; 
-					//                      otherwise, it is the number of unique values in the index.
-					// PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table, 
-					//                    otherwise it is the number of pages used for the current index.
-					// FILTER_CONDITION String => Filter condition, if any. (may be null)
-					Attribute attr = relation.getAttribute(attrId);
-					if (attr == null) { // Compensate for the bug in PostgreSQL JBDC driver that
-						// strips off the quatation marks
-						attrId = QuotedID.createIdFromDatabaseRecord(idfac, "\"" + rs.getString("COLUMN_NAME") + "\"");
-						attr = relation.getAttribute(attrId);
-					}
-					builder.add(attr);
+				builder = null;
+				continue;
+			}
+			if (index.ordinalPosition == 1) {
+				if (builder != null)
+					relation.addUniqueConstraint(builder.build(currentName, false));
+
+				// TABLE_CAT is ignored for now; assume here that relation has a fully specified name
+				// and so, no need to check whether TABLE_SCHEM and TABLE_NAME match
+				
+				if (!index.isNonUnique) {
+					builder = UniqueConstraint.builder(relation);
+					currentName = index.name; 
+				}
+				else 
+					builder = null;
+			}
+			
+			if (builder != null) {
+				QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, index.column);
+				// ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
+				//        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
+				// CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table; 
+				//                      otherwise, it is the number of unique values in the index.
+				// PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table, 
+				//                    otherwise it is the number of pages used for the current index.
+				// FILTER_CONDITION String => Filter condition, if any. (may be null)
+				Attribute attr = relation.getAttribute(attrId);
+				if (attr == null) { // Compensate for the bug in PostgreSQL JBDC driver that
+					// strips off the quatation marks
+					attrId = QuotedID.createIdFromDatabaseRecord(idfac, "\"" + index.column + "\"");
+					attr = relation.getAttribute(attrId);
 				}
+				builder.add(attr);
 			}
-			if (builder != null)
-				relation.addUniqueConstraint(builder.build(currentName, false));
 		}
+		if (builder != null)
+			relation.addUniqueConstraint(builder.build(currentName, false));
 	}
 	
+	/**
+	 * Sets the (approximate) statistics of the table from the index information:
+	 *    the number of rows and the number of distinct values of the columns
+	 *    that are the first column of an index (when the driver provides them)
+	 */
+	private static void addStatistics(DatabaseRelationDefinition relation, List<IndexRecord> indexes, QuotedIDFactory idfac) {
+
+		long rowCount = -1;
+		Map<Attribute, Long> distinctValueCounts = new HashMap<>();
+		for (IndexRecord index : indexes) {
+			// CARDINALITY: number of rows in the table for tableIndexStatistic,
+			//              otherwise the number of unique values in the index (0 or null if unknown)
+			if (index.cardinality <= 0)
+				continue;
+
+			if (index.type == DatabaseMetaData.tableIndexStatistic) {
+				rowCount = index.cardinality;
+				continue;
+			}
+			// the number of unique values of a multi-column index is not the one of its first column
+			if (index.ordinalPosition != 1)
+				continue;
+
+			if (index.column == null)
+				continue;
+			Attribute attr = relation.getAttribute(QuotedID.createIdFromDatabaseRecord(idfac, index.column));
+			if (attr == null) // Compensate for the bug in PostgreSQL JBDC driver that strips off the quotation marks
+				attr = relation.getAttribute(QuotedID.createIdFromDatabaseRecord(idfac, "\"" + index.column + "\""));
+			if (attr != null)
+				distinctValueCounts.merge(attr, index.cardinality, Math::min);
+		}
+
+		if (rowCount < 0)
+			return;
+
+		RelationStatistics.Builder builder = RelationStatistics.builder(rowCount);
+		for (Map.Entry<Attribute, Long> e : distinctValueCounts.entrySet())
+			builder.addDistinctValueCount(e.getKey(), Math.min(e.getValue(), rowCount));
+		relation.setStatistics(builder.build());
+	}
+
 	/** 
-	 * Retrieves the foreign keys for the table 
+	 * Adds the foreign keys of the table 
 	 * 
 	 */
-	private static void getForeignKeys(DatabaseMetaData md, DatabaseRelationDefinition relation, DBMetadata metadata) throws SQLException {
+	private static void addForeignKeys(DatabaseRelationDefinition relation, List<KeyRecord> keys, DBMetadata metadata) {
 		
 		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
 		
-		RelationID relationId = relation.getID();	
-		try (ResultSet rs = md.getImportedKeys(null, relationId.getSchemaName(), relationId.getTableName())) {
-			ForeignKeyConstraint.Builder builder = null;
-			String currentName = null;
-			while (rs.next()) {
+		ForeignKeyConstraint.Builder builder = null;
+		DatabaseRelationDefinition ref = null;
+		String currentName = null;
+		for (KeyRecord key : keys) {
+			if (key.isPrimaryKey)
+				continue;
+
+			if (key.position == 1) {
+				if (builder != null) 
+					relation.addForeignKeyConstraint(builder.build(currentName));
+				
+				currentName = key.name;
 				RelationID refId = RelationID.createRelationIdFromDatabaseRecord(idfac,
-										rs.getString("PKTABLE_SCHEM"), rs.getString("PKTABLE_NAME"));
-				DatabaseRelationDefinition ref = metadata.getDatabaseRelation(refId);
-				// FKTABLE_SCHEM and FKTABLE_NAME are ignored for now  
-				int seq = rs.getShort("KEY_SEQ");
-				if (seq == 1) {
-					if (builder != null) 
-						relation.addForeignKeyConstraint(builder.build(currentName));
-					
-					currentName = rs.getString("FK_NAME"); // String => foreign key name (may be null)
-					
-					if (ref != null) {
-						builder = new ForeignKeyConstraint.Builder(relation, ref);
-					}
-					else {
-						builder = null; // do not add this foreign key 
-						                // because there is no table it refers to
-						log.warn("Cannot find table: " + refId + " for FK " + currentName);
-					}
+										key.referencedSchema, key.referencedTable);
+				ref = metadata.getDatabaseRelation(refId);
+				if (ref != null) {
+					builder = new ForeignKeyConstraint.Builder(relation, ref);
 				}
-				if (builder != null) {
-					QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("FKCOLUMN_NAME"));
-					QuotedID refAttrId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("PKCOLUMN_NAME"));
-					builder.add(relation.getAttribute(attrId), ref.getAttribute(refAttrId));
+				else {
+					builder = null; // do not add this foreign key 
+					                // because there is no table it refers to
+					log.warn("Cannot find table: " + refId + " for FK " + currentName);
 				}
 			}
-			if (builder != null)
-				relation.addForeignKeyConstraint(builder.build(currentName));
-		} 
+			if (builder != null) {
+				QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, key.column);
+				QuotedID refAttrId = QuotedID.createIdFromDatabaseRecord(idfac, key.referencedColumn);
+				builder.add(relation.getAttribute(attrId), ref.getAttribute(refAttrId));
+			}
+		}
+		if (builder != null)
+			relation.addForeignKeyConstraint(builder.build(currentName));
+	}
+
+
+	/**
+	 * Primary and foreign keys of all the tables of the given schemas (%s stands for the list of schemas)
+	 * 
+	 * Columns: table schema, table name, constraint name, constraint type (P or R), column name, position,
+	 *          referenced schema, referenced table, referenced column
+	 */
+	private static final String ORACLE_KEY_QUERY =
+			"SELECT c.owner, c.table_name, c.constraint_name, c.constraint_type, cc.column_name, cc.position, " +
+			"       r.owner, r.table_name, rc.column_name " +
+			"FROM all_constraints c " +
+			"JOIN all_cons_columns cc ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name " +
+			"     AND cc.table_name = c.table_name " +
+			"LEFT JOIN all_constraints r ON r.owner = c.r_owner AND r.constraint_name = c.r_constraint_name " +
+			"LEFT JOIN all_cons_columns rc ON rc.owner = r.owner AND rc.constraint_name = r.constraint_name " +
+			"     AND rc.position = cc.position " +
+			"WHERE c.constraint_type IN ('P', 'R') AND c.owner IN (%s) " +
+			"ORDER BY c.owner, c.table_name, c.constraint_type, c.constraint_name, cc.position";
+
+	private static final String DB2_KEY_QUERY =
+			"SELECT k.TABSCHEMA, k.TABNAME, k.CONSTNAME, 'P', k.COLNAME, k.COLSEQ, " +
+			"       CAST(NULL AS VARCHAR(128)), CAST(NULL AS VARCHAR(128)), CAST(NULL AS VARCHAR(128)) " +
+			"FROM SYSCAT.TABCONST t " +
+			"JOIN SYSCAT.KEYCOLUSE k ON k.CONSTNAME = t.CONSTNAME AND k.TABSCHEMA = t.TABSCHEMA AND k.TABNAME = t.TABNAME " +
+			"WHERE t.TYPE = 'P' AND t.TABSCHEMA IN (%s) " +
+			"UNION ALL " +
+			"SELECT r.TABSCHEMA, r.TABNAME, r.CONSTNAME, 'R', f.COLNAME, f.COLSEQ, r.REFTABSCHEMA, r.REFTABNAME, p.COLNAME " +
+			"FROM SYSCAT.REFERENCES r " +
+			"JOIN SYSCAT.KEYCOLUSE f ON f.CONSTNAME = r.CONSTNAME AND f.TABSCHEMA = r.TABSCHEMA AND f.TABNAME = r.TABNAME " +
+			"JOIN SYSCAT.KEYCOLUSE p ON p.CONSTNAME = r.REFKEYNAME AND p.TABSCHEMA = r.REFTABSCHEMA " +
+			"     AND p.TABNAME = r.REFTABNAME AND p.COLSEQ = f.COLSEQ " +
+			"WHERE r.TABSCHEMA IN (%s) " +
+			"ORDER BY 1, 2, 4, 3, 6";
+
+	/**
+	 * Retrieves the primary and foreign keys of the relations by a single query on the system catalog.
+	 * 
+	 * @return null if the database engine is not supported or if the query fails
+	 *         (the keys are then retrieved relation by relation)
+	 */
+	private static Map<RelationID, List<KeyRecord>> getKeysFromCatalog(Connection conn, String productName,
+							List<DatabaseRelationDefinition> relations, QuotedIDFactory idfac) {
+		String query;
+		if (productName.contains("Oracle"))
+			query = ORACLE_KEY_QUERY;
+		else if (productName.contains("DB2"))
+			query = DB2_KEY_QUERY;
+		else
+			return null;
+
+		Set<String> schemas = new LinkedHashSet<>();
+		for (DatabaseRelationDefinition relation : relations) {
+			if (relation.getID().getSchemaName() == null)
+				return null;
+			schemas.add(relation.getID().getSchemaName());
+		}
+		if (schemas.isEmpty())
+			return null;
+
+		String placeholders = String.join(", ", Collections.nCopies(schemas.size(), "?"));
+		String[] parts = query.split("%s", -1);
+		Map<RelationID, List<KeyRecord>> keys = new HashMap<>();
+		try (PreparedStatement stmt = conn.prepareStatement(String.join(placeholders, parts))) {
+			int index = 1;
+			for (int i = 1; i < parts.length; i++)
+				for (String schema : schemas)
+					stmt.setString(index++, schema);
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					RelationID id = RelationID.createRelationIdFromDatabaseRecord(idfac, rs.getString(1), rs.getString(2));
+					keys.computeIfAbsent(id, k -> new ArrayList<>())
+							.add(new KeyRecord("P".equals(rs.getString(4)), rs.getString(3), rs.getInt(6),
+									rs.getString(5), rs.getString(7), rs.getString(8), rs.getString(9)));
+				}
+			}
+			return keys;
+		}
+		catch (SQLException e) {
+			log.debug("Cannot retrieve the keys from the system catalog (retrieved table by table): " + e.getMessage());
+			return null;
+		}
+	}
+
+
+	private static final class ColumnRecord {
+		private final String schema, table, column;
+		private final int dataType;
+		private final String typeName;
+		private final boolean isNullable;
+
+		ColumnRecord(String schema, String table, String column, int dataType, String typeName, boolean isNullable) {
+			this.schema = schema;
+			this.table = table;
+			this.column = column;
+			this.dataType = dataType;
+			this.typeName = typeName;
+			this.isNullable = isNullable;
+		}
+	}
+
+	/**
+	 * Column of a primary key or of a foreign key (referenced* are null for primary keys)
+	 */
+	private static final class KeyRecord {
+		private final boolean isPrimaryKey;
+		private final String name;
+		private final int position;
+		private final String column;
+		private final String referencedSchema, referencedTable, referencedColumn;
+
+		KeyRecord(boolean isPrimaryKey, String name, int position, String column,
+				  String referencedSchema, String referencedTable, String referencedColumn) {
+			this.isPrimaryKey = isPrimaryKey;
+			this.name = name;
+			this.position = position;
+			this.column = column;
+			this.referencedSchema = referencedSchema;
+			this.referencedTable = referencedTable;
+			this.referencedColumn = referencedColumn;
+		}
+	}
+
+	/**
+	 * Entry of the index information (cardinality is -1 when unknown)
+	 */
+	private static final class IndexRecord {
+		private final short type;
+		private final short ordinalPosition;
+		private final boolean isNonUnique;
+		private final String name;
+		private final String column;
+		private final long cardinality;
+
+		IndexRecord(short type, short ordinalPosition, boolean isNonUnique, String name, String column, long cardinality) {
+			this.type = type;
+			this.ordinalPosition = ordinalPosition;
+			this.isNonUnique = isNonUnique;
+			this.name = name;
+			this.column = column;
+			this.cardinality = cardinality;
+		}
+	}
+
+	private static final class RelationRecords {
+		private final List<KeyRecord> keys; // null if retrieved from the system catalog
+		private final List<IndexRecord> indexes;
+
+		RelationRecords(List<KeyRecord> keys, List<IndexRecord> indexes) {
+			this.keys = keys;
+			this.indexes = indexes;
+		}
+	}
+
+
+	private interface MetadataQuery<T> {
+		T run(DatabaseMetaData md) throws SQLException;
+	}
+
+	/**
+	 * Runs the metadata queries over the given connection and the additional ones (created when first needed).
+	 * The results are returned in the order of the queries.
+	 */
+	private static final class MetadataConnectionPool implements AutoCloseable {
+		private final Connection connection;
+		private final ConnectionFactory connectionFactory;
+		private final int threadCount;
+		private final List<Connection> additionalConnections = new ArrayList<>();
+		private boolean isConnectionFactoryFailing = false;
+
+		MetadataConnectionPool(Connection connection, ConnectionFactory connectionFactory, int threadCount) {
+			this.connection = connection;
+			this.connectionFactory = connectionFactory;
+			this.threadCount = threadCount;
+		}
+
+		<T> List<T> run(List<MetadataQuery<T>> queries) throws SQLException {
+			int parallelism = connectionFactory == null ? 1 : Math.min(threadCount, queries.size());
+			while (!isConnectionFactoryFailing && additionalConnections.size() < parallelism - 1) {
+				try {
+					additionalConnections.add(connectionFactory.createConnection());
+				}
+				catch (SQLException e) {
+					log.warn("Cannot create an additional connection for extracting the metadata: " + e.getMessage());
+					isConnectionFactoryFailing = true;
+				}
+			}
+
+			List<T> results = new ArrayList<>(queries.size());
+			if (parallelism <= 1 || additionalConnections.isEmpty()) {
+				DatabaseMetaData md = connection.getMetaData();
+				for (MetadataQuery<T> query : queries)
+					results.add(query.run(md));
+				return results;
+			}
+
+			int poolSize = Math.min(parallelism, additionalConnections.size() + 1);
+			BlockingQueue<DatabaseMetaData> mds = new ArrayBlockingQueue<>(poolSize);
+			mds.add(connection.getMetaData());
+			for (Connection c : additionalConnections.subList(0, poolSize - 1))
+				mds.add(c.getMetaData());
+
+			ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+			try {
+				List<Future<T>> futures = new ArrayList<>(queries.size());
+				for (MetadataQuery<T> query : queries)
+					futures.add(executor.submit(() -> {
+						DatabaseMetaData md = mds.take();
+						try {
+							return query.run(md);
+						}
+						finally {
+							mds.put(md);
+						}
+					}));
+				for (Future<T> future : futures)
+					results.add(future.get());
+				return results;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Extraction of the metadata interrupted");
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof SQLException)
+					throw (SQLException) e.getCause();
+				throw new SQLException(e.getCause());
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+
+		@Override
+		public void close() {
+			for (Connection c : additionalConnections) {
+				try {
+					c.close();
+				}
+				catch (SQLException e) {
+					log.warn("Cannot close the connection: " + e.getMessage());
+				}
+			}
+		}
 	}
 }
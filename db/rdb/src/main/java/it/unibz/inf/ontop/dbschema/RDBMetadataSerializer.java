@@ -0,0 +1,268 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes and reads RDBMetadata in a compact binary format
+ * (used for the snapshots of the OBDA specification).
+ * <p>
+ * Stores the relations (with their attributes, unique constraints, foreign keys and statistics)
+ * and the views created for SQLQueryParser (with their statistics).
+ * Other functional dependencies are not stored.
+ * <p>
+ * The IDs are stored in their SQL rendering, so that they are re-created with the same quotation.
+ * The metadata returned by read(...) is frozen.
+ */
+public class RDBMetadataSerializer {
+
+	private static final byte STANDARD_SQL_ID_FACTORY = 0;
+	private static final byte LOWER_CASE_ID_FACTORY = 1;
+	private static final byte IDENTITY_ID_FACTORY = 2;
+	private static final byte MYSQL_ID_FACTORY = 3;
+
+	public static void write(RDBMetadata metadata, DataOutputStream out) throws IOException {
+		writeIDFactory(metadata.getQuotedIDFactory(), out);
+		writeString(metadata.getDriverName(), out);
+		writeString(metadata.getDriverVersion(), out);
+		writeString(metadata.getDbmsProductName(), out);
+		writeString(metadata.getDbmsVersion(), out);
+
+		List<DatabaseRelationDefinition> relations = ImmutableList.copyOf(metadata.getDatabaseRelations());
+		out.writeInt(relations.size());
+		for (DatabaseRelationDefinition relation : relations) {
+			writeRelation(relation, out);
+		}
+
+		// after all the relations (for the references)
+		for (DatabaseRelationDefinition relation : relations) {
+			out.writeInt(relation.getForeignKeys().size());
+			for (ForeignKeyConstraint fk : relation.getForeignKeys()) {
+				writeString(fk.getName(), out);
+				writeRelationID(fk.getReferencedRelation().getID(), out);
+				out.writeInt(fk.getComponents().size());
+				for (ForeignKeyConstraint.Component component : fk.getComponents()) {
+					out.writeInt(component.getAttribute().getIndex());
+					out.writeInt(component.getReference().getIndex());
+				}
+			}
+		}
+
+		List<ParserViewDefinition> views = metadata.getParserViews();
+		out.writeInt(views.size());
+		for (ParserViewDefinition view : views) {
+			writeRelationID(view.getID(), out);
+			writeString(view.getStatement(), out);
+			out.writeInt(view.getAttributes().size());
+			for (Attribute attribute : view.getAttributes()) {
+				QualifiedAttributeID id = attribute.getQualifiedID();
+				out.writeBoolean(id.getRelation() != null);
+				if (id.getRelation() != null)
+					writeRelationID(id.getRelation(), out);
+				writeString(id.getAttribute().getSQLRendering(), out);
+			}
+			writeStatistics(view, out);
+		}
+	}
+
+	public static RDBMetadata read(DataInputStream in) throws IOException {
+		QuotedIDFactory idfac = readIDFactory(in);
+		RDBMetadata metadata = new RDBMetadata(readString(in), readString(in), readString(in), readString(in),
+				idfac, JdbcTypeMapper.getInstance());
+
+		int relationCount = in.readInt();
+		DatabaseRelationDefinition[] relations = new DatabaseRelationDefinition[relationCount];
+		for (int i = 0; i < relationCount; i++)
+			relations[i] = readRelation(metadata, in);
+
+		for (DatabaseRelationDefinition relation : relations) {
+			int fkCount = in.readInt();
+			for (int j = 0; j < fkCount; j++) {
+				String name = readString(in);
+				RelationID referencedID = readRelationID(idfac, in);
+				DatabaseRelationDefinition referencedRelation = metadata.getDatabaseRelation(referencedID);
+				if (referencedRelation == null)
+					throw new IOException("Unknown relation referenced by the foreign key " + name + ": " + referencedID);
+				ForeignKeyConstraint.Builder builder = ForeignKeyConstraint.builder(relation, referencedRelation);
+				int size = in.readInt();
+				for (int k = 0; k < size; k++)
+					builder.add(relation.getAttribute(in.readInt()), referencedRelation.getAttribute(in.readInt()));
+				relation.addForeignKeyConstraint(builder.build(name));
+			}
+		}
+
+		int viewCount = in.readInt();
+		for (int i = 0; i < viewCount; i++) {
+			ParserViewDefinition view = metadata.createParserView(readRelationID(idfac, in), readString(in));
+			int attributeCount = in.readInt();
+			for (int j = 0; j < attributeCount; j++) {
+				RelationID relationID = in.readBoolean() ? readRelationID(idfac, in) : null;
+				view.addAttribute(new QualifiedAttributeID(relationID, idfac.createAttributeID(readString(in))));
+			}
+			readStatistics(view, in);
+		}
+
+		metadata.freeze();
+		return metadata;
+	}
+
+	/**
+	 * Writes the relation with its attributes, unique constraints and statistics (but not the foreign keys)
+	 */
+	static void writeRelation(DatabaseRelationDefinition relation, DataOutputStream out) throws IOException {
+		writeRelationID(relation.getID(), out);
+		out.writeInt(relation.getAttributes().size());
+		for (Attribute attribute : relation.getAttributes()) {
+			writeString(attribute.getID().getSQLRendering(), out);
+			out.writeInt(attribute.getType());
+			writeString(attribute.getSQLTypeName(), out);
+			out.writeBoolean(attribute.canNull());
+		}
+
+		out.writeInt(relation.getUniqueConstraints().size());
+		for (UniqueConstraint uc : relation.getUniqueConstraints()) {
+			writeString(uc.getName(), out);
+			out.writeBoolean(uc.isPrimaryKey());
+			writeAttributeIndexes(uc.getAttributes(), out);
+		}
+
+		writeStatistics(relation, out);
+	}
+
+	static DatabaseRelationDefinition readRelation(RDBMetadata metadata, DataInputStream in) throws IOException {
+		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+		DatabaseRelationDefinition relation = metadata.createDatabaseRelation(readRelationID(idfac, in));
+		int attributeCount = in.readInt();
+		for (int j = 0; j < attributeCount; j++)
+			relation.addAttribute(idfac.createAttributeID(readString(in)), in.readInt(),
+					readString(in), in.readBoolean());
+
+		int ucCount = in.readInt();
+		for (int j = 0; j < ucCount; j++) {
+			String name = readString(in);
+			boolean isPK = in.readBoolean();
+			UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
+			int size = in.readInt();
+			for (int k = 0; k < size; k++)
+				builder.add(relation.getAttribute(in.readInt()));
+			relation.addUniqueConstraint(builder.build(name, isPK));
+		}
+
+		readStatistics(relation, in);
+		return relation;
+	}
+
+	private static void writeStatistics(RelationDefinition relation, DataOutputStream out) throws IOException {
+		out.writeBoolean(relation.getStatistics().isPresent());
+		if (relation.getStatistics().isPresent()) {
+			RelationStatistics statistics = relation.getStatistics().get();
+			out.writeLong(statistics.getRowCount());
+			for (Attribute attribute : relation.getAttributes()) {
+				writeOptionalLong(statistics.getDistinctValueCount(attribute.getIndex()).orElse(null), out);
+				writeOptionalDouble(statistics.getNullFraction(attribute.getIndex()).orElse(null), out);
+			}
+		}
+	}
+
+	private static void readStatistics(RelationDefinition relation, DataInputStream in) throws IOException {
+		if (in.readBoolean()) {
+			RelationStatistics.Builder builder = RelationStatistics.builder(in.readLong());
+			for (Attribute attribute : relation.getAttributes()) {
+				if (in.readBoolean())
+					builder.addDistinctValueCount(attribute, in.readLong());
+				if (in.readBoolean())
+					builder.addNullFraction(attribute, in.readDouble());
+			}
+			relation.setStatistics(builder.build());
+		}
+	}
+
+	private static void writeIDFactory(QuotedIDFactory idfac, DataOutputStream out) throws IOException {
+		if (idfac instanceof QuotedIDFactoryMySQL) {
+			out.writeByte(MYSQL_ID_FACTORY);
+			out.writeBoolean(((QuotedIDFactoryMySQL) idfac).areTableNamesCaseSensitive());
+		}
+		else if (idfac instanceof QuotedIDFactoryLowerCase)
+			out.writeByte(LOWER_CASE_ID_FACTORY);
+		else if (idfac instanceof QuotedIDFactoryIdentity)
+			out.writeByte(IDENTITY_ID_FACTORY);
+		else if (idfac instanceof QuotedIDFactoryStandardSQL)
+			out.writeByte(STANDARD_SQL_ID_FACTORY);
+		else
+			throw new IOException("Unsupported QuotedIDFactory: " + idfac.getClass());
+
+		writeString(idfac.getIDQuotationString(), out);
+	}
+
+	private static QuotedIDFactory readIDFactory(DataInputStream in) throws IOException {
+		byte kind = in.readByte();
+		boolean caseSensitiveTableNames = kind == MYSQL_ID_FACTORY && in.readBoolean();
+		String quotationString = readString(in);
+		switch (kind) {
+			case MYSQL_ID_FACTORY:
+				return new QuotedIDFactoryMySQL(caseSensitiveTableNames, quotationString);
+			case LOWER_CASE_ID_FACTORY:
+				return new QuotedIDFactoryLowerCase(quotationString);
+			case IDENTITY_ID_FACTORY:
+				return new QuotedIDFactoryIdentity(quotationString);
+			case STANDARD_SQL_ID_FACTORY:
+				return new QuotedIDFactoryStandardSQL(quotationString);
+			default:
+				throw new IOException("Unknown QuotedIDFactory: " + kind);
+		}
+	}
+
+	static void writeRelationID(RelationID id, DataOutputStream out) throws IOException {
+		writeString(id.getSchemaSQLRendering(), out);
+		writeString(id.getTableNameSQLRendering(), out);
+	}
+
+	static RelationID readRelationID(QuotedIDFactory idfac, DataInputStream in) throws IOException {
+		return idfac.createRelationID(readString(in), readString(in));
+	}
+
+	private static void writeAttributeIndexes(List<Attribute> attributes, DataOutputStream out) throws IOException {
+		out.writeInt(attributes.size());
+		for (Attribute attribute : attributes)
+			out.writeInt(attribute.getIndex());
+	}
+
+	private static void writeOptionalLong(Long value, DataOutputStream out) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			out.writeLong(value);
+	}
+
+	private static void writeOptionalDouble(Double value, DataOutputStream out) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			out.writeDouble(value);
+	}
+
+	/**
+	 * null-safe and without the 64K limit of writeUTF (view definitions can be long)
+	 */
+	static void writeString(String s, DataOutputStream out) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0)
+			return null;
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,159 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RDBMetadataCacheTest {
+
+    private static final String SOURCE_KEY = "test";
+    private static final int MAX_AGE = 3600;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Connection connection;
+    private File cacheFile;
+    // Number of relations extracted from the DB (and not taken from the cache)
+    private final AtomicInteger extractionCount = new AtomicInteger();
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + folder.getRoot().getName(), "sa", "");
+        cacheFile = new File(folder.getRoot(), "metadata.cache");
+        execute("CREATE TABLE PERSON (ID INT NOT NULL, NAME VARCHAR(20) NOT NULL, CITY INT NOT NULL)",
+                "CREATE TABLE CITY (ID INT PRIMARY KEY)");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testUnchangedRelations() throws SQLException {
+        load(MAX_AGE);
+        assertEquals(2, extractionCount.getAndSet(0));
+
+        RDBMetadata metadata = load(MAX_AGE);
+
+        assertEquals(0, extractionCount.get());
+        assertTrue(getRelation(metadata, "CITY").getPrimaryKey() != null);
+    }
+
+    @Test
+    public void testPrimaryKeyChange() throws SQLException {
+        assertTrue(getRelation(load(MAX_AGE), "PERSON").getPrimaryKey() == null);
+
+        execute("ALTER TABLE PERSON ADD PRIMARY KEY (ID)");
+        extractionCount.set(0);
+        RDBMetadata metadata = load(MAX_AGE);
+
+        assertEquals(1, extractionCount.get());
+        assertTrue(getRelation(metadata, "PERSON").getPrimaryKey() != null);
+    }
+
+    @Test
+    public void testUniqueConstraintChange() throws SQLException {
+        assertEquals(0, getRelation(load(MAX_AGE), "PERSON").getUniqueConstraints().size());
+
+        execute("ALTER TABLE PERSON ADD CONSTRAINT PERSON_NAME UNIQUE (NAME)");
+        extractionCount.set(0);
+        RDBMetadata metadata = load(MAX_AGE);
+
+        assertEquals(1, extractionCount.get());
+        assertEquals(1, getRelation(metadata, "PERSON").getUniqueConstraints().size());
+    }
+
+    @Test
+    public void testForeignKeyChange() throws SQLException {
+        assertTrue(getRelation(load(MAX_AGE), "PERSON").getForeignKeys().isEmpty());
+
+        execute("ALTER TABLE PERSON ADD CONSTRAINT PERSON_CITY FOREIGN KEY (CITY) REFERENCES CITY (ID)");
+        extractionCount.set(0);
+        RDBMetadata metadata = load(MAX_AGE);
+
+        assertEquals(1, extractionCount.get());
+        assertFalse(getRelation(metadata, "PERSON").getForeignKeys().isEmpty());
+    }
+
+    /**
+     * The relations (and their statistics) are extracted again once too old
+     */
+    @Test
+    public void testMaxAge() throws SQLException {
+        load(MAX_AGE);
+        extractionCount.set(0);
+
+        load(0);
+
+        assertEquals(2, extractionCount.get());
+    }
+
+    private RDBMetadata load(int maxAge) throws SQLException {
+        Connection countingConnection = getCountingConnection();
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(countingConnection);
+        QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+        RDBMetadataCache.loadMetadata(metadata, countingConnection,
+                ImmutableSet.of(idfac.createRelationID("PUBLIC", "PERSON"), idfac.createRelationID("PUBLIC", "CITY")),
+                cacheFile, maxAge, SOURCE_KEY, null, 1);
+        return metadata;
+    }
+
+    private static DatabaseRelationDefinition getRelation(RDBMetadata metadata, String name) {
+        QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+        return metadata.getDatabaseRelation(idfac.createRelationID("PUBLIC", name));
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements)
+                statement.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * Counts the calls of getIndexInfo made by the extraction (all the indexes),
+     * not the ones made for the fingerprints (unique indexes only)
+     */
+    private Connection getCountingConnection() throws SQLException {
+        DatabaseMetaData md = connection.getMetaData();
+        DatabaseMetaData countingMetadata = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getIndexInfo") && !((Boolean) args[3]))
+                        extractionCount.incrementAndGet();
+                    return invoke(method, md, args);
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> method.getName().equals("getMetaData")
+                        ? countingMetadata
+                        : invoke(method, connection, args));
+    }
+
+    private static Object invoke(java.lang.reflect.Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class RDBMetadataExtractionToolsTest {
+
+    // Above the threshold of the bulk extraction of the columns
+    private static final int TABLE_COUNT = 25;
+
+    private static int dbCount = 0;
+
+    private String jdbcUrl;
+    private Connection connection;
+    // Number of calls per DatabaseMetaData method (getColumns is split into bulk and per-table calls)
+    private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+    private final List<Connection> additionalConnections = new ArrayList<>();
+
+    @Before
+    public void setUp() throws SQLException {
+        jdbcUrl = "jdbc:h2:mem:metadata_extraction_" + dbCount++;
+        connection = DriverManager.getConnection(jdbcUrl, "sa", "");
+        execute("CREATE SCHEMA HR", "CREATE SCHEMA OTHER");
+        execute("CREATE TABLE HR.CITY (ID INT PRIMARY KEY, NAME VARCHAR(20) NOT NULL)");
+        for (int i = 0; i < TABLE_COUNT; i++)
+            execute("CREATE TABLE HR.T" + i + " (ID INT PRIMARY KEY, CODE CHAR(3) UNIQUE, CITY INT, "
+                    + "FOREIGN KEY (CITY) REFERENCES HR.CITY (ID))");
+        for (int i = 0; i < TABLE_COUNT; i++)
+            execute("CREATE TABLE P" + i + " (ID INT PRIMARY KEY, VAL DOUBLE)");
+        // P0 also occurs in another schema
+        execute("CREATE TABLE OTHER.P0 (ID INT, VAL VARCHAR(10))");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * The columns of a schema with many seeds are retrieved by one call,
+     * with the same relations as when retrieved relation by relation
+     */
+    @Test
+    public void testBulkColumns() throws SQLException {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < TABLE_COUNT; i++)
+            expected.addAll(describe(load(null, "HR", "T" + i, "HR", "CITY")));
+        callCounts.clear();
+
+        RDBMetadata metadata = load(null, getSeeds("HR", "T", TABLE_COUNT, "HR", "CITY"));
+
+        assertEquals(1, getCallCount("getColumns(bulk)"));
+        assertEquals(0, getCallCount("getColumns"));
+        List<String> relations = describe(metadata);
+        for (String relation : relations)
+            assertTrue(expected.contains(relation));
+        assertEquals(expected.stream().distinct().count(), relations.size());
+    }
+
+    /**
+     * The seeds without schema are retrieved in bulk from the default schema,
+     * except the ones occurring in another schema (all their relations are still extracted)
+     */
+    @Test
+    public void testBulkColumnsWithoutSchema() throws SQLException {
+        RDBMetadata metadata = load(null, getSeeds(null, "P", TABLE_COUNT));
+
+        assertEquals(1, getCallCount("getColumns(bulk)"));
+        assertEquals(1, getCallCount("getColumns"));
+        assertEquals(TABLE_COUNT + 1, metadata.getDatabaseRelations().size());
+        QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+        assertNotNull(metadata.getDatabaseRelation(idfac.createRelationID("OTHER", "P0")));
+        DatabaseRelationDefinition p1 = metadata.getDatabaseRelation(idfac.createRelationID("PUBLIC", "P1"));
+        assertEquals(2, p1.getAttributes().size());
+        assertNotNull(p1.getPrimaryKey());
+    }
+
+    /**
+     * The keys of all the relations come from one query on the Oracle system catalog
+     */
+    @Test
+    public void testOracleCatalogKeys() throws SQLException {
+        createOracleCatalog();
+        execute("INSERT INTO ALL_CONSTRAINTS VALUES ('HR', 'CITY_PK', 'P', 'CITY', NULL, NULL)",
+                "INSERT INTO ALL_CONSTRAINTS VALUES ('HR', 'T0_PK', 'P', 'T0', NULL, NULL)",
+                "INSERT INTO ALL_CONSTRAINTS VALUES ('HR', 'T0_FK', 'R', 'T0', 'HR', 'CITY_PK')",
+                "INSERT INTO ALL_CONS_COLUMNS VALUES ('HR', 'CITY_PK', 'CITY', 'ID', 1)",
+                "INSERT INTO ALL_CONS_COLUMNS VALUES ('HR', 'T0_PK', 'T0', 'ID', 1)",
+                "INSERT INTO ALL_CONS_COLUMNS VALUES ('HR', 'T0_FK', 'T0', 'CITY', 1)");
+
+        RDBMetadata metadata = load("Oracle", "HR", "T0", "HR", "CITY");
+
+        assertCatalogKeys(metadata, "T0_PK", "T0_FK");
+    }
+
+    /**
+     * The keys of all the relations come from one query on the DB2 system catalog
+     */
+    @Test
+    public void testDB2CatalogKeys() throws SQLException {
+        execute("CREATE SCHEMA SYSCAT",
+                "CREATE TABLE SYSCAT.TABCONST (CONSTNAME VARCHAR(128), TABSCHEMA VARCHAR(128), "
+                        + "TABNAME VARCHAR(128), TYPE CHAR(1))",
+                "CREATE TABLE SYSCAT.KEYCOLUSE (CONSTNAME VARCHAR(128), TABSCHEMA VARCHAR(128), "
+                        + "TABNAME VARCHAR(128), COLNAME VARCHAR(128), COLSEQ INT)",
+                "CREATE TABLE SYSCAT.REFERENCES (CONSTNAME VARCHAR(128), TABSCHEMA VARCHAR(128), "
+                        + "TABNAME VARCHAR(128), REFKEYNAME VARCHAR(128), REFTABSCHEMA VARCHAR(128), "
+                        + "REFTABNAME VARCHAR(128))",
+                "INSERT INTO SYSCAT.TABCONST VALUES ('CITY_PK', 'HR', 'CITY', 'P'), ('T0_PK', 'HR', 'T0', 'P')",
+                "INSERT INTO SYSCAT.KEYCOLUSE VALUES ('CITY_PK', 'HR', 'CITY', 'ID', 1), "
+                        + "('T0_PK', 'HR', 'T0', 'ID', 1), ('T0_FK', 'HR', 'T0', 'CITY', 1)",
+                "INSERT INTO SYSCAT.REFERENCES VALUES ('T0_FK', 'HR', 'T0', 'CITY_PK', 'HR', 'CITY')");
+
+        RDBMetadata metadata = load("DB2/LINUXX8664", "HR", "T0", "HR", "CITY");
+
+        assertCatalogKeys(metadata, "T0_PK", "T0_FK");
+    }
+
+    /**
+     * Without a readable system catalog, the keys are retrieved relation by relation
+     */
+    @Test
+    public void testCatalogKeysFallback() throws SQLException {
+        RDBMetadata metadata = load("Oracle", "HR", "T0", "HR", "CITY");
+
+        assertEquals(2, getCallCount("getPrimaryKeys"));
+        assertEquals(2, getCallCount("getImportedKeys"));
+        DatabaseRelationDefinition t0 = getRelation(metadata, "HR", "T0");
+        assertNotNull(t0.getPrimaryKey());
+        assertEquals(1, t0.getForeignKeys().size());
+    }
+
+    /**
+     * The metadata extracted over several connections is the same as over one connection,
+     * and the additional connections are closed at the end
+     */
+    @Test
+    public void testConnectionPool() throws SQLException {
+        List<String> expected = describe(load(null, getSeeds("HR", "T", TABLE_COUNT, "HR", "CITY")));
+
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(connection);
+        RDBMetadataExtractionTools.loadMetadata(metadata, connection, getSeedIds(metadata, getSeeds("HR", "T", TABLE_COUNT, "HR", "CITY")),
+                () -> {
+                    Connection c = DriverManager.getConnection(jdbcUrl, "sa", "");
+                    additionalConnections.add(c);
+                    return c;
+                }, 4);
+
+        assertEquals(expected, describe(metadata));
+        assertEquals(3, additionalConnections.size());
+        for (Connection c : additionalConnections)
+            assertTrue(c.isClosed());
+        assertTrue(!connection.isClosed());
+    }
+
+    /**
+     * The extraction goes on with the given connection when no additional connection can be created
+     */
+    @Test
+    public void testConnectionPoolWithFailingFactory() throws SQLException {
+        List<String> expected = describe(load(null, getSeeds("HR", "T", TABLE_COUNT, "HR", "CITY")));
+
+        AtomicInteger attemptCount = new AtomicInteger();
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(connection);
+        RDBMetadataExtractionTools.loadMetadata(metadata, connection, getSeedIds(metadata, getSeeds("HR", "T", TABLE_COUNT, "HR", "CITY")),
+                () -> {
+                    attemptCount.incrementAndGet();
+                    throw new SQLException("Too many connections");
+                }, 4);
+
+        assertEquals(expected, describe(metadata));
+        // Not attempted again after the failure
+        assertEquals(1, attemptCount.get());
+    }
+
+    private void assertCatalogKeys(RDBMetadata metadata, String primaryKeyName, String foreignKeyName) {
+        assertEquals(0, getCallCount("getPrimaryKeys"));
+        assertEquals(0, getCallCount("getImportedKeys"));
+
+        DatabaseRelationDefinition t0 = getRelation(metadata, "HR", "T0");
+        assertEquals(primaryKeyName, t0.getPrimaryKey().getName());
+        assertEquals(1, t0.getForeignKeys().size());
+        ForeignKeyConstraint foreignKey = t0.getForeignKeys().get(0);
+        assertEquals(foreignKeyName, foreignKey.getName());
+        assertEquals(getRelation(metadata, "HR", "CITY"), foreignKey.getReferencedRelation());
+        assertNotNull(getRelation(metadata, "HR", "CITY").getPrimaryKey());
+        // The unique constraints still come from the indexes
+        assertEquals(2, t0.getUniqueConstraints().size());
+    }
+
+    private void createOracleCatalog() throws SQLException {
+        execute("CREATE TABLE ALL_CONSTRAINTS (OWNER VARCHAR(128), CONSTRAINT_NAME VARCHAR(128), "
+                        + "CONSTRAINT_TYPE CHAR(1), TABLE_NAME VARCHAR(128), R_OWNER VARCHAR(128), "
+                        + "R_CONSTRAINT_NAME VARCHAR(128))",
+                "CREATE TABLE ALL_CONS_COLUMNS (OWNER VARCHAR(128), CONSTRAINT_NAME VARCHAR(128), "
+                        + "TABLE_NAME VARCHAR(128), COLUMN_NAME VARCHAR(128), POSITION INT)");
+    }
+
+    /**
+     * schema.prefix0, ..., schema.prefix(count - 1), followed by the other seeds
+     */
+    private static String[] getSeeds(String schema, String prefix, int count, String... otherSeeds) {
+        String[] seeds = new String[2 * count + otherSeeds.length];
+        for (int i = 0; i < count; i++) {
+            seeds[2 * i] = schema;
+            seeds[2 * i + 1] = prefix + i;
+        }
+        System.arraycopy(otherSeeds, 0, seeds, 2 * count, otherSeeds.length);
+        return seeds;
+    }
+
+    private static Set<RelationID> getSeedIds(RDBMetadata metadata, String... schemaAndTableNames) {
+        QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+        ImmutableSet.Builder<RelationID> seeds = ImmutableSet.builder();
+        for (int i = 0; i < schemaAndTableNames.length; i += 2)
+            seeds.add(idfac.createRelationID(schemaAndTableNames[i], schemaAndTableNames[i + 1]));
+        return seeds.build();
+    }
+
+    /**
+     * productName: reported by the connection instead of H2 (if not null)
+     */
+    private RDBMetadata load(String productName, String... schemaAndTableNames) throws SQLException {
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(connection);
+        RDBMetadataExtractionTools.loadMetadata(metadata, getCountingConnection(productName),
+                getSeedIds(metadata, schemaAndTableNames));
+        return metadata;
+    }
+
+    private static DatabaseRelationDefinition getRelation(RDBMetadata metadata, String schema, String table) {
+        return metadata.getDatabaseRelation(metadata.getQuotedIDFactory().createRelationID(schema, table));
+    }
+
+    /**
+     * Relations and constraints, as strings
+     */
+    private static List<String> describe(RDBMetadata metadata) {
+        List<String> descriptions = new ArrayList<>();
+        for (DatabaseRelationDefinition relation : metadata.getDatabaseRelations()) {
+            descriptions.add(relation.toString());
+            for (UniqueConstraint uc : relation.getUniqueConstraints())
+                descriptions.add(uc.toString());
+            for (ForeignKeyConstraint fk : relation.getForeignKeys())
+                descriptions.add(fk.toString());
+        }
+        return descriptions.stream().sorted().collect(Collectors.toList());
+    }
+
+    private int getCallCount(String method) {
+        AtomicInteger count = callCounts.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements)
+                statement.executeUpdate(sql);
+        }
+    }
+
+    private Connection getCountingConnection(String productName) throws SQLException {
+        DatabaseMetaData md = connection.getMetaData();
+        DatabaseMetaData countingMetadata = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getDatabaseProductName") && productName != null)
+                        return productName;
+                    String name = method.getName().equals("getColumns") && args[2] == null
+                            ? "getColumns(bulk)"
+                            : method.getName();
+                    callCounts.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+                    return invoke(method, md, args);
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return countingMetadata;
+                        // Not implemented by H2 1.4 (JDBC 4.0)
+                        case "getSchema":
+                            return "PUBLIC";
+                        case "createStatement":
+                            return getOracleUserStatement(connection.createStatement());
+                        default:
+                            return invoke(method, connection, args);
+                    }
+                });
+    }
+
+    /**
+     * Answers the query of the Oracle user (the pseudo-column USER is not supported by H2)
+     */
+    private Statement getOracleUserStatement(Statement statement) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Statement.class },
+                (proxy, method, args) -> method.getName().equals("executeQuery")
+                                && args[0].equals("SELECT user FROM dual")
+                        ? statement.executeQuery("SELECT USER() AS USER FROM DUAL")
+                        : invoke(method, statement, args));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
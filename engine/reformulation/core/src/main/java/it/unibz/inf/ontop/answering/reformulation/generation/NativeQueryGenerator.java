@@ -41,5 +41,11 @@ public interface NativeQueryGenerator extends Serializable {
 	ExecutableQuery generateSourceQuery(IntermediateQuery query, ImmutableList<String> signature)
 			throws OntopReformulationException;
 
+	/**
+	 * Source query for an ASK query: only tells whether the query has at least one answer.
+	 */
+	ExecutableQuery generateAskQuery(IntermediateQuery query, ImmutableList<String> signature)
+			throws OntopReformulationException;
+
 	ExecutableQuery generateEmptyQuery(ImmutableList<String> signature);
 }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
+import it.unibz.inf.ontop.answering.reformulation.input.AskQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
@@ -26,8 +27,12 @@ import it.unibz.inf.ontop.injection.TranslationFactory;
 import it.unibz.inf.ontop.iq.IntermediateQuery;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.optimizer.BindingLiftOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.DistinctEliminationOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.JoinLikeOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.JoinOrderingOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.ProjectionShrinkingOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.UnionBranchMergingOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.UnionBranchPruningOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.impl.PushUpBooleanExpressionOptimizerImpl;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
@@ -120,7 +125,8 @@ public class QuestQueryProcessor implements QueryReformulator {
 		DatalogProgram program = translation.getProgram();
 		log.debug("Datalog program translated from the SPARQL query: \n{}", program);
 
-		if(settings.isSameAsInMappingsEnabled()){
+		// Canonical IRIs: the sameAs assertions are already taken into account in the mapping
+		if(settings.isSameAsInMappingsEnabled() && !settings.isSameAsCanonicalIRIEnabled()){
 			program = sameAsRewriter.getSameAsRewriting(program);
 			log.debug("Datalog program after SameAs rewriting \n" + program);
 		}
@@ -196,6 +202,10 @@ public class QuestQueryProcessor implements QueryReformulator {
 
 				log.debug("Unfolded query: \n" + intermediateQuery.toString());
 
+				// E.g. removes the mapping assertions whose language tag does not match a lang filter
+				intermediateQuery = new UnionBranchPruningOptimizer().optimize(intermediateQuery);
+				log.debug("After pruning the union branches rejected by filters: \n" + intermediateQuery.toString());
+
 
 				//lift bindings and union when it is possible
 				intermediateQuery = bindingLiftOptimizer.optimize(intermediateQuery);
@@ -203,6 +213,14 @@ public class QuestQueryProcessor implements QueryReformulator {
 
 				log.debug("New lifted query: \n" + intermediateQuery.toString());
 
+				// Some filters may only be above the unions after the lift
+				intermediateQuery = new UnionBranchPruningOptimizer().optimize(intermediateQuery);
+				log.debug("After pruning the union branches rejected by filters (after lift): \n" + intermediateQuery.toString());
+
+				// E.g. mapping assertions over the same table only differing by a constant
+				intermediateQuery = new UnionBranchMergingOptimizer().optimize(intermediateQuery);
+				log.debug("After merging the union branches scanning the same table: \n" + intermediateQuery.toString());
+
 				intermediateQuery = new PushUpBooleanExpressionOptimizerImpl(false).optimize(intermediateQuery);
 				log.debug("After pushing up boolean expressions: \n" + intermediateQuery.toString());
 
@@ -214,6 +232,14 @@ public class QuestQueryProcessor implements QueryReformulator {
 				intermediateQuery = joinLikeOptimizer.optimize(intermediateQuery);
 				log.debug("New query after fixed point join optimization: \n" + intermediateQuery.toString());
 
+				// Relies on the unique constraints: after the join optimization (self-join elimination)
+				intermediateQuery = new DistinctEliminationOptimizer().optimize(intermediateQuery);
+				log.debug("After removing the redundant DISTINCTs: \n" + intermediateQuery.toString());
+
+				// Relies on the statistics of the DB relations (no change if not available)
+				intermediateQuery = new JoinOrderingOptimizer().optimize(intermediateQuery);
+				log.debug("After ordering the joins: \n" + intermediateQuery.toString());
+
 //				BasicLeftJoinOptimizer leftJoinOptimizer = new BasicLeftJoinOptimizer();
 //				intermediateQuery = leftJoinOptimizer.optimize(intermediateQuery);
 //				log.debug("New query after left join optimization: \n" + intermediateQuery.toString());
@@ -223,7 +249,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 //				log.debug("New query after join optimization: \n" + intermediateQuery.toString());
 
 				ExecutableQuery executableQuery = generateExecutableQuery(intermediateQuery,
-						ImmutableList.copyOf(translation.getSignature()));
+						ImmutableList.copyOf(translation.getSignature()), inputQuery instanceof AskQuery);
 				queryCache.put(inputQuery, executableQuery);
 				return executableQuery;
 
@@ -256,11 +282,14 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
-	private ExecutableQuery generateExecutableQuery(IntermediateQuery intermediateQuery, ImmutableList<String> signature)
+	private ExecutableQuery generateExecutableQuery(IntermediateQuery intermediateQuery, ImmutableList<String> signature,
+													boolean isAskQuery)
 			throws OntopReformulationException {
 		log.debug("Producing the native query string...");
 
-		ExecutableQuery executableQuery = datasourceQueryGenerator.generateSourceQuery(intermediateQuery, signature);
+		ExecutableQuery executableQuery = isAskQuery
+				? datasourceQueryGenerator.generateAskQuery(intermediateQuery, signature)
+				: datasourceQueryGenerator.generateSourceQuery(intermediateQuery, signature);
 
 		log.debug("Resulting native query: \n{}", executableQuery);
 
@@ -23,6 +23,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import it.unibz.inf.ontop.iq.node.OrderCondition;
@@ -91,6 +92,38 @@ public interface SQLDialectAdapter {
 
 	public String sqlOrderByAndSlice(List<OrderCondition> conditions, String viewname, long limit, long offset);
 
+	/**
+	 * Query returning (at least) one row if one of the sub-queries is not empty, no row otherwise.
+	 *
+	 * The sub-queries are probed in the given order, so that the DB can stop at the first non-empty one.
+	 * Without sub-query, the query returns no row.
+	 */
+	public String sqlExistsQuery(List<String> subqueries);
+
+	/**
+	 * True if the DB supports (non-recursive) WITH clauses
+	 */
+	public boolean supportsCommonTableExpressions();
+
+	/**
+	 * WITH clause to be placed before the main query.
+	 *
+	 * Named sub-queries are given in their dependency order (a sub-query may only refer to the previous ones).
+	 */
+	public String sqlWithClause(Map<String, String> namedSubqueries);
+
+	/**
+	 * True if the DB supports VALUES table constructors in a FROM clause (with a derived column list)
+	 */
+	public boolean supportsTableValueConstructor();
+
+	/**
+	 * SELECT query over a VALUES table constructor.
+	 *
+	 * Each row contains one SQL expression per column.
+	 */
+	public String sqlTableValueConstructor(List<List<String>> rows, List<String> columnNames, String alias);
+
 	/***
 	 * Returns the expression that cast's the given column into a particular SQL
 	 * type. The types are those enumerated in java.sql.Types.
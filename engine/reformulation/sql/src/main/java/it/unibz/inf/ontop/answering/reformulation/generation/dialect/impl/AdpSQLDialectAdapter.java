@@ -9,6 +9,22 @@ public class AdpSQLDialectAdapter extends SQL99DialectAdapter {
 		// TODO: provide a correct implementation
 		return value ? 	"1" : "0";
 	}
+
+	/**
+	 * Not assumed for ADP: the sub-queries are always inlined
+	 */
+	@Override
+	public boolean supportsCommonTableExpressions() {
+		return false;
+	}
+
+	/**
+	 * Not assumed for ADP: the constant rows are rendered as a UNION ALL
+	 */
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return false;
+	}
 	
 	/**
 	 * same as PostgreSQL
@@ -94,6 +94,22 @@ public class H2SQLDialectAdapter extends SQL99DialectAdapter {
 	public String getDummyTable() {
 		return "SELECT 1";
 	}
+
+	/**
+	 * Still experimental in H2
+	 */
+	@Override
+	public boolean supportsCommonTableExpressions() {
+		return false;
+	}
+
+	/**
+	 * Derived column lists are not supported by all the H2 versions
+	 */
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return false;
+	}
 	
 	@Override 
 	public String getSQLLexicalFormBoolean(boolean value) {
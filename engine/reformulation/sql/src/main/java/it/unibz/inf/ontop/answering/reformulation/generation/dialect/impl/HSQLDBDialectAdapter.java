@@ -175,6 +175,11 @@ public class HSQLDBDialectAdapter extends SQL99DialectAdapter {
 		// TODO: check whether it is OK --- this was the behaviour in JDBCUtility
 		return "SELECT 1";
 	}
+
+	@Override
+	public String sqlExistsQuery(List<String> subqueries) {
+		return sqlLimitOneQuery(subqueries);
+	}
 	
 	@Override
 	public String getSQLLexicalFormString(String constant) {
@@ -149,6 +149,11 @@ public class MonetDBSQLDialectAdapter extends SQL99DialectAdapter {
         return "SELECT 1";
     }
 
+    @Override
+    public String sqlExistsQuery(List<String> subqueries) {
+        return sqlLimitOneQuery(subqueries);
+    }
+
     @Override
     public String getSQLLexicalFormString(String constant) {
         return "'" + constant + "'";
@@ -248,4 +253,11 @@ public class MonetDBSQLDialectAdapter extends SQL99DialectAdapter {
         return sqlQuote(signatureVariableName + proposedSuffix);
     }
 
+    /**
+     * Not assumed for MonetDB: the constant rows are rendered as a UNION ALL
+     */
+    @Override
+    public boolean supportsTableValueConstructor() {
+        return false;
+    }
 }
@@ -22,6 +22,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl;
 
 import java.sql.Types;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -201,6 +202,30 @@ public class Mysql2SQLDialectAdapter extends SQL99DialectAdapter {
 	public String getDummyTable() {
 		return "SELECT 1";
 	}
+
+	/**
+	 * A WHERE clause requires a FROM clause in older versions of MySQL
+	 */
+	@Override
+	public String sqlExistsQuery(List<String> subqueries) {
+		return sqlExistsQuery("SELECT 1 FROM DUAL", subqueries);
+	}
+
+	/**
+	 * Only supported since MySQL 8.0
+	 */
+	@Override
+	public boolean supportsCommonTableExpressions() {
+		return false;
+	}
+
+	/**
+	 * Only supported (as VALUES ROW(...)) since MySQL 8.0.19
+	 */
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return false;
+	}
 	
 	@Override 
 	public String getSQLLexicalFormBoolean(boolean value) {
@@ -412,4 +412,12 @@ public class OracleSQLDialectAdapter extends SQL99DialectAdapter {
 		throw new RuntimeException("Impossible to create a new variable/view " + prefix + shortenIntermediateNamePrefix
 				+ "???" + suffix + " : already " + Math.pow(10, NAME_NUMBER_LENGTH) + " of them.");
 	}
+
+	/**
+	 * Not supported in a FROM clause
+	 */
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return false;
+	}
 }
@@ -21,4 +21,12 @@ public class SAPHANASQLDialectAdapter extends SQL99DialectAdapter {
             }
         }
     }
+
+    /**
+     * Not supported in a FROM clause
+     */
+    @Override
+    public boolean supportsTableValueConstructor() {
+        return false;
+    }
 }
@@ -26,9 +26,11 @@ import it.unibz.inf.ontop.utils.EncodeForURI;
 import java.sql.Types;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import it.unibz.inf.ontop.iq.node.OrderCondition;
 import it.unibz.inf.ontop.model.term.Variable;
@@ -460,6 +462,65 @@ public class SQL99DialectAdapter implements SQLDialectAdapter {
 		return "SELECT 1";
 	}
 
+	/**
+	 * SELECT 1 WHERE EXISTS (...) OR EXISTS (...)
+	 */
+	@Override
+	public String sqlExistsQuery(List<String> subqueries) {
+		return sqlExistsQuery(getDummyTable(), subqueries);
+	}
+
+	protected final String sqlExistsQuery(String dummyQuery, List<String> subqueries) {
+		if (subqueries.isEmpty())
+			return dummyQuery + "\nWHERE 1 = 0";
+
+		return dummyQuery + "\nWHERE " + subqueries.stream()
+				.map(q -> "EXISTS (\n" + q + "\n)")
+				.collect(Collectors.joining("\nOR "));
+	}
+
+	/**
+	 * For the DBs not supporting EXISTS outside a FROM clause:
+	 * SELECT 1 FROM (... UNION ALL ...) ASK_VIEW LIMIT 1
+	 */
+	protected final String sqlLimitOneQuery(List<String> subqueries) {
+		if (subqueries.isEmpty())
+			return "SELECT 1 FROM (\n" + getDummyTable() + "\n) ASK_VIEW\nWHERE 1 = 0";
+
+		return "SELECT 1 FROM (\n" + String.join("\nUNION ALL\n", subqueries) + "\n) ASK_VIEW\n"
+				+ sqlSlice(1, -1);
+	}
+
+	@Override
+	public boolean supportsCommonTableExpressions() {
+		return true;
+	}
+
+	/**
+	 * WITH name1 AS (...), name2 AS (...)
+	 */
+	@Override
+	public String sqlWithClause(Map<String, String> namedSubqueries) {
+		return "WITH " + namedSubqueries.entrySet().stream()
+				.map(e -> e.getKey() + " AS (\n" + e.getValue() + "\n)")
+				.collect(Collectors.joining(",\n")) + "\n";
+	}
+
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return true;
+	}
+
+	/**
+	 * SELECT * FROM (VALUES (...), (...)) alias (col1, col2)
+	 */
+	@Override
+	public String sqlTableValueConstructor(List<List<String>> rows, List<String> columnNames, String alias) {
+		return "SELECT * FROM (VALUES\n" + rows.stream()
+				.map(r -> "(" + String.join(", ", r) + ")")
+				.collect(Collectors.joining(",\n")) + "\n) " + alias + " (" + String.join(", ", columnNames) + ")";
+	}
+
 	@Override
 	public String getSQLLexicalFormString(String constant) {
 
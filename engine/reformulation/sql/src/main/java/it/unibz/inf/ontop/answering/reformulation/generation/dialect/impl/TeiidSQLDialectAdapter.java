@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl;
  */
 
 import java.sql.Types;
+import java.util.List;
 
 public class TeiidSQLDialectAdapter extends SQL99DialectAdapter {
 
@@ -32,6 +33,11 @@ public class TeiidSQLDialectAdapter extends SQL99DialectAdapter {
 		return "NOW()";
 	}
 
+	@Override
+	public String sqlExistsQuery(List<String> subqueries) {
+		return sqlLimitOneQuery(subqueries);
+	}
+
 	@Override
 	public String round() {
 		return "ROUND(%s, 0)";
@@ -183,5 +189,12 @@ public class TeiidSQLDialectAdapter extends SQL99DialectAdapter {
 		
 		return bf.toString();
 	}
-	
+
+	/**
+	 * Not assumed for Teiid, which federates heterogeneous sources: the constant rows are rendered as a UNION ALL
+	 */
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return false;
+	}
 }
@@ -44,6 +44,13 @@ public class LegacySQLGenerator implements NativeQueryGenerator {
                 .generateSourceQuery(query, signature);
     }
 
+    @Override
+    public ExecutableQuery generateAskQuery(IntermediateQuery query, ImmutableList<String> signature)
+            throws OntopReformulationException {
+        return originalEngine.clone()
+                .generateAskQuery(query, signature);
+    }
+
     @Override
     public ExecutableQuery generateEmptyQuery(ImmutableList<String> signatureContainer) {
         // Empty string query
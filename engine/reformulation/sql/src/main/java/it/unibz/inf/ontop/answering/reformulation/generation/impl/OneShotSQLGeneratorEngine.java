@@ -28,6 +28,7 @@ import it.unibz.inf.ontop.answering.reformulation.generation.dialect.SQLAdapterF
 import it.unibz.inf.ontop.answering.reformulation.generation.dialect.SQLDialectAdapter;
 import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.DB2SQLDialectAdapter;
 import it.unibz.inf.ontop.answering.reformulation.generation.utils.XsdDatatypeConverter;
+import it.unibz.inf.ontop.answering.reformulation.impl.DeferredIRITemplates;
 import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQuery;
 import it.unibz.inf.ontop.datalog.*;
 import it.unibz.inf.ontop.datalog.impl.DatalogAlgebraOperatorPredicates;
@@ -40,15 +41,21 @@ import it.unibz.inf.ontop.iq.IntermediateQuery;
 import it.unibz.inf.ontop.iq.node.OrderCondition;
 import it.unibz.inf.ontop.iq.optimizer.GroundTermRemovalFromDataNodeReshaper;
 import it.unibz.inf.ontop.iq.optimizer.PullOutVariableOptimizer;
+import it.unibz.inf.ontop.iq.tools.UnionDisjointnessAnalyzer;
+import it.unibz.inf.ontop.iq.tools.UniqueKeyAnalyzer;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.functionsymbol.BNodePredicate;
 import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
 import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
 import it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE;
 import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.model.term.impl.ImmutabilityTools;
 import it.unibz.inf.ontop.model.term.impl.TermUtils;
 import it.unibz.inf.ontop.model.type.TermType;
+import it.unibz.inf.ontop.substitution.impl.SubstitutionImpl;
+import it.unibz.inf.ontop.substitution.impl.SubstitutionUtilities;
 import it.unibz.inf.ontop.utils.EncodeForURI;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 import org.slf4j.LoggerFactory;
@@ -63,6 +70,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static it.unibz.inf.ontop.datalog.impl.DatalogAlgebraOperatorPredicates.SPARQL_GROUP;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.DATALOG_FACTORY;
 import static it.unibz.inf.ontop.model.OntopModelSingletons.TYPE_FACTORY;
 import static it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE.*;
 
@@ -95,9 +103,17 @@ public class OneShotSQLGeneratorEngine {
     private static final String LANG_STR = "%s AS %s";
     private static final String LANG_SUFFIX = "Lang";
     private static final String MAIN_COLUMN_SUFFIX = "";
+    private static final String TEMPLATE_ARGUMENT_SUFFIX = "Arg";
 
 
 	private static final String INDENT = "    ";
+	private static final String COMMON_TABLE_EXPRESSION_PREFIX = "QCTE";
+	/**
+	 * Delimits the references to the common table expressions in the generated SQL until it is known
+	 * whether they are shared (WITH clause) or inlined. Not expected in the SQL itself.
+	 */
+	private static final char REFERENCE_DELIMITER = '\u0000';
+	private static final String VALUES_VIEW_NAME = "QVALUES";
 
 	private final RDBMetadata metadata;
 	private final SQLDialectAdapter sqladapter;
@@ -107,12 +123,24 @@ public class OneShotSQLGeneratorEngine {
 	private boolean generatingREPLACE = true;
 	private final boolean distinctResultSet;
 	private final String replace1, replace2;
+	private final boolean deferringIRIConstruction;
+	private final boolean usingCommonTableExpressions;
+	private final boolean usingTableValueConstructors;
+	private final UnionDisjointnessAnalyzer unionDisjointnessAnalyzer = new UnionDisjointnessAnalyzer();
 
 	/**
 	 * Mutable (query-dependent)
 	 */
 	private boolean isDistinct = false;
 	private boolean isOrderBy = false;
+	private boolean isAskQuery = false;
+
+	/**
+	 * Position in the signature (0-based) -> max number of template arguments.
+	 * Empty when the IRIs are built by the DB.
+	 */
+	private Map<Integer, Integer> deferredIRIArities = new HashMap<>();
+	private List<DeferredIRITemplates.Template> deferredIRITemplates = new ArrayList<>();
 
 	@Nullable
 	private IRIDictionary uriRefIds;
@@ -121,6 +149,11 @@ public class OneShotSQLGeneratorEngine {
 
 	private Map<Predicate, String> sqlAnsViewMap;
 
+	/**
+	 * Sub-query statement -> name of the common table expression (in the registration order)
+	 */
+	private Map<String, String> commonTableExpressionNames = new LinkedHashMap<>();
+
 	private final ImmutableMap<ExpressionOperation, String> operations;
 
 	private static final org.slf4j.Logger log = LoggerFactory
@@ -155,6 +188,11 @@ public class OneShotSQLGeneratorEngine {
 
 
 		this.generatingREPLACE = settings.isIRISafeEncodingEnabled();
+		this.deferringIRIConstruction = settings.isIRIConstructionDeferred();
+		this.usingCommonTableExpressions = settings.isCommonTableExpressionSharingEnabled()
+				&& sqladapter.supportsCommonTableExpressions();
+		this.usingTableValueConstructors = settings.isValuesTableConstructorEnabled()
+				&& sqladapter.supportsTableValueConstructor();
 
 		if (generatingREPLACE) {
 			StringBuilder sb1 = new StringBuilder();
@@ -179,7 +217,8 @@ public class OneShotSQLGeneratorEngine {
 	 */
 	private OneShotSQLGeneratorEngine(RDBMetadata metadata, SQLDialectAdapter sqlAdapter, boolean generatingReplace,
                                       String replace1, String replace2, boolean distinctResultSet,
-                                      IRIDictionary uriRefIds, JdbcTypeMapper jdbcTypeMapper,
+                                      boolean deferringIRIConstruction, boolean usingCommonTableExpressions,
+                                      boolean usingTableValueConstructors, IRIDictionary uriRefIds, JdbcTypeMapper jdbcTypeMapper,
                                       ImmutableMap<ExpressionOperation, String> operations,
 									  IntermediateQuery2DatalogTranslator iq2DatalogTranslator) {
 		this.metadata = metadata;
@@ -189,6 +228,9 @@ public class OneShotSQLGeneratorEngine {
 		this.replace1 = replace1;
 		this.replace2 = replace2;
 		this.distinctResultSet = distinctResultSet;
+		this.deferringIRIConstruction = deferringIRIConstruction;
+		this.usingCommonTableExpressions = usingCommonTableExpressions;
+		this.usingTableValueConstructors = usingTableValueConstructors;
 		this.uriRefIds = uriRefIds;
 		this.jdbcTypeMapper = jdbcTypeMapper;
 		this.iq2DatalogTranslator = iq2DatalogTranslator;
@@ -248,7 +290,10 @@ public class OneShotSQLGeneratorEngine {
 	@Override
 	public OneShotSQLGeneratorEngine clone() {
 		return new OneShotSQLGeneratorEngine(metadata, sqladapter, generatingREPLACE,
-				replace1, replace2, distinctResultSet, uriRefIds, jdbcTypeMapper, operations, iq2DatalogTranslator);
+				replace1, replace2, distinctResultSet, deferringIRIConstruction, usingCommonTableExpressions,
+				usingTableValueConstructors, uriRefIds,
+				jdbcTypeMapper, operations,
+				iq2DatalogTranslator);
 	}
 
 	/**
@@ -267,10 +312,14 @@ public class OneShotSQLGeneratorEngine {
 
 		normalizeProgram(queryProgram);
 
+		if (hasSelectDistinctStatement(queryProgram) && !distinctResultSet)
+			unfoldTopLevelUnion(queryProgram, normalizedQuery.getProjectionAtom().getPredicate());
+
 		DatalogDependencyGraphGenerator depGraph = new DatalogDependencyGraphGenerator(
 				queryProgram);
 
 		sqlAnsViewMap = new HashMap<>();
+		commonTableExpressionNames = new LinkedHashMap<>();
 
 		ruleIndex = depGraph.getRuleIndex();
 
@@ -282,6 +331,12 @@ public class OneShotSQLGeneratorEngine {
 
 		isDistinct = hasSelectDistinctStatement(queryProgram);
 		isOrderBy = hasOrderByClause(queryProgram);
+		// Only useful for the distinct post-processing (before the normalization, which renames the join variables).
+		// The DISTINCT modifiers are then not rendered in SQL, so they are not sources of unique keys.
+		boolean isDuplicateFree = distinctResultSet
+				&& new UniqueKeyAnalyzer().isDuplicateFreeIgnoringModifiers(intermediateQuery.getRootNode(),
+						intermediateQuery);
+
 		if (queryProgram.getQueryModifiers().hasModifiers()) {
 			final String outerViewName = "SUB_QVIEW";
 			String subquery = generateQuery(signature, ruleIndex, predicatesInBottomUp, extensionalPredicates);
@@ -317,13 +372,162 @@ public class OneShotSQLGeneratorEngine {
 			sql += subquery + "\n";
 			sql += ") " + outerViewName + "\n";
 			sql += modifier;
-			return new SQLExecutableQuery(sql, signature);
+			return createExecutableQuery(sql, signature, isDuplicateFree);
 		} else {
 			String sqlQuery = generateQuery(signature, ruleIndex, predicatesInBottomUp, extensionalPredicates);
-			return new SQLExecutableQuery(sqlQuery, signature);
+			return createExecutableQuery(sqlQuery, signature, isDuplicateFree);
 		}
 	}
 
+	/**
+	 * Generates a SQL query that returns one row if the query has at least one answer, no row otherwise.
+	 *
+	 * The rules defining ans1 only project a constant and are probed one after the other
+	 * (see {@link SQLDialectAdapter#sqlExistsQuery}), so that the DB can stop at the first match.
+	 * DISTINCT and ORDER BY are ignored as they do not change whether there is an answer.
+	 *
+	 * Falls back to the regular query when an OFFSET (or LIMIT 0) is present.
+	 */
+	public SQLExecutableQuery generateAskQuery(IntermediateQuery intermediateQuery, ImmutableList<String> signature)
+			throws OntopReformulationException {
+
+		IntermediateQuery normalizedQuery = normalizeIQ(intermediateQuery);
+
+		DatalogProgram queryProgram = iq2DatalogTranslator.translate(normalizedQuery);
+
+		if (queryProgram.getQueryModifiers().hasModifiers()
+				&& (queryProgram.getQueryModifiers().getOffset() > 0 || queryProgram.getQueryModifiers().getLimit() == 0))
+			return generateSourceQuery(intermediateQuery, signature);
+
+		normalizeProgram(queryProgram);
+
+		DatalogDependencyGraphGenerator depGraph = new DatalogDependencyGraphGenerator(
+				queryProgram);
+
+		sqlAnsViewMap = new HashMap<>();
+		commonTableExpressionNames = new LinkedHashMap<>();
+
+		ruleIndex = depGraph.getRuleIndex();
+
+		isAskQuery = true;
+		isDistinct = false;
+		isOrderBy = false;
+
+		String sqlQuery = generateQuery(signature, ruleIndex, depGraph.getPredicatesInBottomUp(),
+				depGraph.getExtensionalPredicates());
+		return createExecutableQuery(sqlQuery, signature, false);
+	}
+
+	private SQLExecutableQuery createExecutableQuery(String mainQuery, ImmutableList<String> signature,
+													 boolean isDuplicateFree) {
+		if (commonTableExpressionNames.isEmpty())
+			return new SQLExecutableQuery(mainQuery, signature, buildDeferredIRITemplates(signature.size()),
+					isDuplicateFree);
+
+		/*
+		 * Name -> statement (in the registration order: the nested sub-queries come first)
+		 */
+		Map<String, String> commonTableExpressions = new LinkedHashMap<>();
+		commonTableExpressionNames.forEach((statement, name) -> commonTableExpressions.put(name, statement));
+
+		/*
+		 * Inlines the sub-queries that are only referenced once (some DBs would otherwise materialize them)
+		 */
+		String newMainQuery = mainQuery;
+		for (String name : ImmutableList.copyOf(commonTableExpressions.keySet())) {
+			String reference = getCommonTableExpressionReference(name);
+			int occurrences = countOccurrences(newMainQuery, reference) + commonTableExpressions.values().stream()
+					.mapToInt(q -> countOccurrences(q, reference))
+					.sum();
+			if (occurrences > 1)
+				continue;
+
+			String inlinedReference = "(" + commonTableExpressions.remove(name) + ")";
+			newMainQuery = newMainQuery.replace(reference, inlinedReference);
+			commonTableExpressions.replaceAll((n, q) -> q.replace(reference, inlinedReference));
+		}
+
+		/*
+		 * The other ones are referenced by their name
+		 */
+		for (String name : commonTableExpressions.keySet()) {
+			String reference = getCommonTableExpressionReference(name);
+			newMainQuery = newMainQuery.replace(reference, name);
+			commonTableExpressions.replaceAll((n, q) -> q.replace(reference, name));
+		}
+
+		String withClause = commonTableExpressions.isEmpty()
+				? ""
+				: sqladapter.sqlWithClause(commonTableExpressions);
+
+		return new SQLExecutableQuery(withClause, newMainQuery, signature,
+				buildDeferredIRITemplates(signature.size()), isDuplicateFree);
+	}
+
+	private static int countOccurrences(String text, String pattern) {
+		int count = 0;
+		for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + pattern.length()))
+			count++;
+		return count;
+	}
+
+	/**
+	 * Sub-query in a FROM clause: "(statement) alias", or a reference to a common table expression
+	 * (resolved by createExecutableQuery(...)) followed by the alias.
+	 */
+	private String getSubQueryReference(String statement, String alias) {
+		if (!usingCommonTableExpressions)
+			return String.format("(%s) %s", statement, alias);
+
+		String name = commonTableExpressionNames.computeIfAbsent(statement,
+				q -> sqladapter.sqlQuote(COMMON_TABLE_EXPRESSION_PREFIX + (commonTableExpressionNames.size() + 1)));
+		return getCommonTableExpressionReference(name) + " " + alias;
+	}
+
+	private static String getCommonTableExpressionReference(String name) {
+		return REFERENCE_DELIMITER + name + REFERENCE_DELIMITER;
+	}
+
+	/**
+	 * Replaces ans1(...) :- ans2(x1, ..., xn) by one ans1 rule per rule defining ans2 (a union).
+	 *
+	 * The union is then rendered in the main query instead of a view under a SELECT DISTINCT:
+	 * each branch eliminates its own duplicates and disjoint branches are combined with UNION ALL
+	 * (see {@link #areDisjointRules}).
+	 */
+	private void unfoldTopLevelUnion(DatalogProgram program, Predicate topPredicate) {
+		List<CQIE> topRules = ImmutableList.copyOf(program.getRules(topPredicate));
+		if (topRules.size() != 1 || topRules.get(0).getBody().size() != 1)
+			return;
+
+		CQIE topRule = topRules.get(0);
+		Function bodyAtom = topRule.getBody().get(0);
+		if (bodyAtom.isOperation() || bodyAtom.isAlgebraFunction()
+				|| !bodyAtom.getTerms().stream().allMatch(t -> t instanceof Variable)
+				|| ImmutableSet.copyOf(bodyAtom.getTerms()).size() != bodyAtom.getArity())
+			return;
+
+		// Fresh predicate of the union (not used elsewhere)
+		List<CQIE> unionRules = ImmutableList.copyOf(program.getRules(bodyAtom.getFunctionSymbol()));
+		if (unionRules.size() < 2)
+			return;
+
+		List<CQIE> unfoldedRules = new ArrayList<>();
+		for (CQIE unionRule : unionRules) {
+			Map<Variable, Term> map = new HashMap<>();
+			for (int i = 0; i < bodyAtom.getArity(); i++)
+				map.put((Variable) bodyAtom.getTerm(i), unionRule.getHead().getTerm(i));
+
+			Function head = (Function) topRule.getHead().clone();
+			SubstitutionUtilities.applySubstitution(head, new SubstitutionImpl(map));
+			unfoldedRules.add(DATALOG_FACTORY.getCQIE(head, unionRule.getBody()));
+		}
+
+		program.removeRules(topRules);
+		program.removeRules(unionRules);
+		program.appendRule(unfoldedRules);
+	}
+
 	private IntermediateQuery normalizeIQ(IntermediateQuery intermediateQuery) {
 
 		IntermediateQuery groundTermFreeQuery = new GroundTermRemovalFromDataNodeReshaper()
@@ -427,6 +631,8 @@ public class OneShotSQLGeneratorEngine {
 		List<String> queryStrings = Lists.newArrayListWithCapacity(ansrules
 				.size());
 
+		prepareDeferredIRIConstruction(ansrules, signature.size());
+
 		
 		/* Main loop, constructing the SPJ query for each CQ */
 
@@ -443,11 +649,150 @@ public class OneShotSQLGeneratorEngine {
 			queryStrings.add(querystr);
 		}
 
-		StringBuilder result = createUnionFromSQLList(queryStrings);
+		if (isAskQuery)
+			return sqladapter.sqlExistsQuery(queryStrings);
+
+		StringBuilder result = createUnionFromSQLList(queryStrings,
+				isDistinct && !distinctResultSet && areDisjointRules(ansrules));
 
 		return result.toString();
 	}
 
+	/**
+	 * True if the heads of the rules are pairwise incompatible (e.g. IRIs built from templates
+	 * with different prefixes): their union cannot contain duplicates coming from different rules.
+	 */
+	private boolean areDisjointRules(Collection<CQIE> rules) {
+		ImmutableList<ImmutableList<ImmutableTerm>> heads = rules.stream()
+				.map(r -> r.getHead().getTerms().stream()
+						.map(ImmutabilityTools::convertIntoImmutableTerm)
+						.collect(ImmutableCollectors.toList()))
+				.collect(ImmutableCollectors.toList());
+		ImmutableList<ImmutableSet<Variable>> nonNullableVariables = rules.stream()
+				.map(r -> getNonNullableVariables(r.getBody()))
+				.collect(ImmutableCollectors.toList());
+
+		for (int i = 0; i < heads.size(); i++) {
+			for (int j = i + 1; j < heads.size(); j++) {
+				if (!unionDisjointnessAnalyzer.areDisjoint(heads.get(i), nonNullableVariables.get(i),
+						heads.get(j), nonNullableVariables.get(j)))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Variables appearing in a data atom at the position of a column that cannot be NULL.
+	 *
+	 * The right part of a left join is ignored, as well as the views (their columns are nullable).
+	 */
+	private ImmutableSet<Variable> getNonNullableVariables(List<Function> atoms) {
+		ImmutableSet.Builder<Variable> builder = ImmutableSet.builder();
+		for (Function atom : atoms) {
+			if (atom.isOperation())
+				continue;
+
+			if (atom.isAlgebraFunction()) {
+				List<Function> subAtoms = atom.getTerms().stream()
+						.filter(t -> t instanceof Function)
+						.map(t -> (Function) t)
+						.collect(Collectors.toList());
+				builder.addAll(getNonNullableVariables(
+						atom.getFunctionSymbol() == DatalogAlgebraOperatorPredicates.SPARQL_LEFTJOIN
+								? subAtoms.subList(0, Math.min(1, subAtoms.size()))
+								: subAtoms));
+				continue;
+			}
+
+			RelationDefinition relation = metadata.getRelation(Relation2Predicate.createRelationFromPredicateName(
+					metadata.getQuotedIDFactory(), atom.getFunctionSymbol()));
+			if (relation == null)
+				continue;
+
+			List<Term> arguments = atom.getTerms();
+			for (int i = 0; i < arguments.size(); i++) {
+				if ((arguments.get(i) instanceof Variable) && !relation.getAttribute(i + 1).canNull())
+					builder.add((Variable) arguments.get(i));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Decides which projected IRIs are built on the client side.
+	 *
+	 * A position is deferred when, in every ans1 rule, its term is either NULL or an IRI template
+	 * whose arguments are variables.
+	 *
+	 * Not applied to DISTINCT and ORDER BY queries (they need the complete IRI in the DB)
+	 * nor when the distinct post-processing is enabled (it only compares the three standard columns).
+	 */
+	private void prepareDeferredIRIConstruction(Collection<CQIE> ansRules, int signatureSize) {
+		deferredIRIArities = new HashMap<>();
+		deferredIRITemplates = new ArrayList<>();
+
+		if ((!deferringIRIConstruction) || isDistinct || isOrderBy || isAskQuery || distinctResultSet
+				|| hasIRIDictionary())
+			return;
+
+		for (int i = 0; i < signatureSize; i++) {
+			int arity = 0;
+			for (CQIE rule : ansRules) {
+				List<Term> headTerms = rule.getHead().getTerms();
+				if (headTerms.size() != signatureSize) {
+					arity = 0;
+					break;
+				}
+				Term term = headTerms.get(i);
+				if (isDeferrableIRITemplate(term)) {
+					arity = Math.max(arity, ((Function) term).getArity() - 1);
+				}
+				else if (term != TermConstants.NULL) {
+					arity = 0;
+					break;
+				}
+			}
+			if (arity > 0)
+				deferredIRIArities.put(i, arity);
+		}
+	}
+
+	private boolean isDeferrableIRITemplate(Term term) {
+		if (!(term instanceof Function))
+			return false;
+		Function function = (Function) term;
+		return (function.getFunctionSymbol() instanceof URITemplatePredicate)
+				&& function.getArity() > 1
+				&& (function.getTerm(0) instanceof ValueConstant)
+				&& function.getTerms().stream()
+					.skip(1)
+					.allMatch(t -> t instanceof Variable);
+	}
+
+	/**
+	 * The additional argument columns are placed after the 3 * n standard columns,
+	 * in the order of the signature.
+	 */
+	private Optional<DeferredIRITemplates> buildDeferredIRITemplates(int signatureSize) {
+		if (deferredIRIArities.isEmpty())
+			return Optional.empty();
+
+		ImmutableMap.Builder<Integer, ImmutableList<Integer>> columnBuilder = ImmutableMap.builder();
+		int nextColumn = 3 * signatureSize + 1;
+		for (int i = 0; i < signatureSize; i++) {
+			Integer arity = deferredIRIArities.get(i);
+			if (arity == null)
+				continue;
+			ImmutableList.Builder<Integer> argumentColumns = ImmutableList.builder();
+			for (int j = 1; j < arity; j++)
+				argumentColumns.add(nextColumn++);
+			columnBuilder.put(i + 1, argumentColumns.build());
+		}
+		return Optional.of(new DeferredIRITemplates(ImmutableList.copyOf(deferredIRITemplates),
+				columnBuilder.build()));
+	}
+
 
 
 	/**
@@ -456,9 +801,11 @@ public class OneShotSQLGeneratorEngine {
 	 *
 	 * @param queriesStrings list
 	 *                       of SQL strings
+	 * @param areDisjoint    true if the SQL queries cannot return the same tuple
+	 *                       (UNION ALL is then used even for DISTINCT queries)
 	 * @return Union of sql queries
 	 */
-	private StringBuilder createUnionFromSQLList(List<String> queriesStrings) {
+	private StringBuilder createUnionFromSQLList(List<String> queriesStrings, boolean areDisjoint) {
 		Iterator<String> queryStringIterator = queriesStrings.iterator();
 		StringBuilder result = new StringBuilder();
 		if (queryStringIterator.hasNext()) {
@@ -466,7 +813,7 @@ public class OneShotSQLGeneratorEngine {
 		}
 
 		String UNION;
-		if (isDistinct && !distinctResultSet) {
+		if (isDistinct && !distinctResultSet && !areDisjoint) {
 			UNION = "UNION";
 		} else {
 			UNION = "UNION ALL";
@@ -507,14 +854,42 @@ public class OneShotSQLGeneratorEngine {
 		String FROM = getFROM(cq.getBody(), index);
 		String WHERE = getWHERE(cq.getBody(), index);
 
-		String SELECT = getSelectClause(signature, cq, index, innerdistincts, isAns1, castDatatypes, termTypes);
 		String GROUP = getGroupBy(cq.getBody(), index);
 		String HAVING = getHaving(cq.getBody(), index);
 
+		/*
+		 * ASK: the projected values are not needed.
+		 * Aggregates are kept (without GROUP BY, they always return one row).
+		 */
+		if (isAskQuery && isAns1) {
+			if (!containsAggregate(cq.getHead()))
+				return "SELECT 1" + FROM + WHERE + GROUP + HAVING;
+
+			String SELECT = getSelectClause(signature, cq, index, false, isAns1, castDatatypes, termTypes);
+			return "SELECT 1 FROM (\n" + SELECT + FROM + WHERE + GROUP + HAVING + "\n) " + ASK_VIEW_NAME;
+		}
+
+		String SELECT = getSelectClause(signature, cq, index, innerdistincts, isAns1, castDatatypes, termTypes);
+
 		String querystr = SELECT + FROM + WHERE + GROUP + HAVING;
 		return querystr;
 	}
 
+	private static final String ASK_VIEW_NAME = "ASK_QVIEW";
+
+	private static final ImmutableSet<ExpressionOperation> AGGREGATE_OPERATIONS = ImmutableSet.of(
+			ExpressionOperation.AVG, ExpressionOperation.SUM, ExpressionOperation.MAX, ExpressionOperation.MIN,
+			ExpressionOperation.COUNT);
+
+	private static boolean containsAggregate(Term term) {
+		if (!(term instanceof Function))
+			return false;
+		Function function = (Function) term;
+		return AGGREGATE_OPERATIONS.contains(function.getFunctionSymbol())
+				|| function.getTerms().stream()
+					.anyMatch(OneShotSQLGeneratorEngine::containsAggregate);
+	}
+
 	private String getHaving(List<Function> body, QueryAliasIndex index) {
 		StringBuilder result = new StringBuilder();
 		List <Term> conditions = new LinkedList<Term> ();
@@ -642,26 +1017,32 @@ public class OneShotSQLGeneratorEngine {
 
 		int headArity = 0;
 
-		for (CQIE rule : ruleList) {
-			Function cqHead = rule.getHead();
+		if (usingTableValueConstructors && ruleList.size() > 1 && ruleList.stream().allMatch(this::isConstantRule)) {
+			headArity = ruleList.iterator().next().getHead().getTerms().size();
+			unionView = getTableValueConstructor(ruleList, headArity, castTypes, subQueryDefinitions, termTypeMap);
+		}
+		else {
+			for (CQIE rule : ruleList) {
+				Function cqHead = rule.getHead();
 
-			headArity = cqHead.getTerms().size();
+				headArity = cqHead.getTerms().size();
 
-			List<String> varContainer = cqHead.getVariables().stream()
-					.map(Variable::getName)
-					.collect(Collectors.toList());
+				List<String> varContainer = cqHead.getVariables().stream()
+						.map(Variable::getName)
+						.collect(Collectors.toList());
 
-			/* Creates the SQL for the View */
-			String sqlQuery = generateQueryFromSingleRule(rule, varContainer,
-					false, castTypes, subQueryDefinitions, termTypeMap.get(rule));
+				/* Creates the SQL for the View */
+				String sqlQuery = generateQueryFromSingleRule(rule, varContainer,
+						false, castTypes, subQueryDefinitions, termTypeMap.get(rule));
 
-			sqls.add(sqlQuery);
-		}
+				sqls.add(sqlQuery);
+			}
 
-		if (sqls.size() == 1) {
-			unionView = sqls.iterator().next();
-		} else {
-			unionView = "(" + Joiner.on(")\n UNION ALL \n (").join(sqls) + ")";
+			if (sqls.size() == 1) {
+				unionView = sqls.iterator().next();
+			} else {
+				unionView = "(" + Joiner.on(")\n UNION ALL \n (").join(sqls) + ")";
+			}
 		}
 
 		QuotedIDFactory idFactory = metadata.getQuotedIDFactory();
@@ -696,6 +1077,50 @@ public class OneShotSQLGeneratorEngine {
 		return view;
 	}
 
+	/**
+	 * Rule only producing one constant row (e.g. a row of a SPARQL VALUES block):
+	 * ground head and no data atom (at most nullary atoms) in the body.
+	 */
+	private boolean isConstantRule(CQIE rule) {
+		return rule.getBody().stream()
+				.allMatch(a -> a.getArity() == 0 && !a.isOperation() && !a.isAlgebraFunction())
+				&& rule.getHead().getTerms().stream()
+				.allMatch(t -> ImmutabilityTools.convertIntoImmutableTerm(t).isGround());
+	}
+
+	/**
+	 * One VALUES row per constant rule, with the same columns as the UNION of single-row SELECTs
+	 * (type, lang and main column for each head argument).
+	 */
+	private String getTableValueConstructor(Collection<CQIE> constantRules, int headArity,
+											ImmutableList<COL_TYPE> castTypes,
+											Map<Predicate, ParserViewDefinition> subQueryDefinitions,
+											ImmutableMap<CQIE, ImmutableList<Optional<TermType>>> termTypeMap) {
+		List<List<String>> rows = new ArrayList<>(constantRules.size());
+		for (CQIE rule : constantRules) {
+			QueryAliasIndex index = new QueryAliasIndex(rule, subQueryDefinitions);
+			List<Term> headTerms = rule.getHead().getTerms();
+			ImmutableList<Optional<TermType>> termTypes = termTypeMap.get(rule);
+
+			List<String> row = new ArrayList<>(3 * headArity);
+			for (int i = 0; i < headArity; i++) {
+				Term term = headTerms.get(i);
+				row.add(getTypeColumnExpression(term, index, termTypes.get(i)));
+				row.add(getLangColumnExpression(term, index, termTypes.get(i)));
+				row.add(getMainColumnExpression(term, index, castTypes.get(i)));
+			}
+			rows.add(row);
+		}
+
+		List<String> columnNames = new ArrayList<>(3 * headArity);
+		for (int i = 0; i < headArity; i++) {
+			columnNames.add(sqladapter.sqlQuote("v" + i + TYPE_SUFFIX));
+			columnNames.add(sqladapter.sqlQuote("v" + i + LANG_SUFFIX));
+			columnNames.add(sqladapter.sqlQuote("v" + i));
+		}
+		return sqladapter.sqlTableValueConstructor(rows, columnNames, VALUES_VIEW_NAME);
+	}
+
 	/**
 	 * Escapes view names.
 	 */
@@ -780,6 +1205,14 @@ public class OneShotSQLGeneratorEngine {
 			}
 			return String.format(expressionFormat, column);
 		} else if (isBinary(atom)) {
+			Optional<String> likeCondition = getLikeConditionForStringFunction(atom, index);
+			if (likeCondition.isPresent())
+				return "(" + likeCondition.get() + ")";
+
+			Optional<String> typedComparison = getTypedComparison(atom, index);
+			if (typedComparison.isPresent())
+				return "(" + typedComparison.get() + ")";
+
 			// For binary boolean operators, e.g., AND, OR, EQ, GT, LT, etc.
 			// _
 			String expressionFormat = operations.get(functionSymbol);
@@ -1275,6 +1708,11 @@ public class OneShotSQLGeneratorEngine {
 		 */
 		Set<String> sqlVariableNames = new HashSet<>();
 
+		/**
+		 * Additional columns for the arguments of the deferred IRI templates
+		 */
+		List<String> templateArgumentColumns = new ArrayList<>();
+
 		while (hit.hasNext()) {
 			Term ht = hit.next();
 
@@ -1303,8 +1741,20 @@ public class OneShotSQLGeneratorEngine {
 			}
 
 			String typeColumn = getTypeColumnForSELECT(ht, varName, index, sqlVariableNames, optionalTermType);
-			String mainColumn = getMainColumnForSELECT(ht, varName, index, castType, sqlVariableNames);
-			String langColumn = getLangColumnForSELECT(ht, varName, index, sqlVariableNames, optionalTermType);
+			String mainColumn;
+			String langColumn;
+
+			Integer deferredArity = isAns1 ? deferredIRIArities.get(hpos) : null;
+			if (deferredArity != null) {
+				mainColumn = getMainColumnForDeferredIRI(ht, varName, index, sqlVariableNames);
+				langColumn = getTemplateIdColumnForDeferredIRI(ht, varName, sqlVariableNames);
+				templateArgumentColumns.addAll(getArgumentColumnsForDeferredIRI(ht, varName, deferredArity, index,
+						sqlVariableNames));
+			}
+			else {
+				mainColumn = getMainColumnForSELECT(ht, varName, index, castType, sqlVariableNames);
+				langColumn = getLangColumnForSELECT(ht, varName, index, sqlVariableNames, optionalTermType);
+			}
 
 			sb.append("\n   ");
 			sb.append(typeColumn);
@@ -1317,9 +1767,84 @@ public class OneShotSQLGeneratorEngine {
 			}
 			hpos++;
 		}
+		for (String argumentColumn : templateArgumentColumns) {
+			sb.append(",\n   ");
+			sb.append(argumentColumn);
+		}
 		return sb.toString();
 	}
 
+	/**
+	 * First argument of the IRI template (NULL if not a template)
+	 */
+	private String getMainColumnForDeferredIRI(Term ht, String signatureVarName, QueryAliasIndex index,
+											   Set<String> sqlVariableNames) {
+		final String varName = sqladapter.nameTopVariable(signatureVarName, MAIN_COLUMN_SUFFIX, sqlVariableNames);
+		sqlVariableNames.add(varName);
+
+		String mainColumn = isDeferrableIRITemplate(ht)
+				? getDeferredTemplateArgument(((Function) ht).getTerm(1), index)
+				: "NULL";
+		return String.format("%s AS %s", mainColumn, varName);
+	}
+
+	/**
+	 * Uses the lang column (always NULL for IRIs) for the template id
+	 */
+	private String getTemplateIdColumnForDeferredIRI(Term ht, String signatureVarName, Set<String> sqlVariableNames) {
+		String langVariableName = sqladapter.nameTopVariable(signatureVarName, LANG_SUFFIX, sqlVariableNames);
+		sqlVariableNames.add(langVariableName);
+
+		String templateId = isDeferrableIRITemplate(ht)
+				? "'" + getDeferredTemplateId((Function) ht) + "'"
+				: "NULL";
+		return String.format(LANG_STR, templateId, langVariableName);
+	}
+
+	/**
+	 * Remaining arguments, padded with NULLs up to the max arity of the templates of this position
+	 */
+	private List<String> getArgumentColumnsForDeferredIRI(Term ht, String signatureVarName, int arity,
+														  QueryAliasIndex index, Set<String> sqlVariableNames) {
+		List<String> columns = new ArrayList<>();
+		for (int i = 1; i < arity; i++) {
+			String argumentVariableName = sqladapter.nameTopVariable(signatureVarName,
+					TEMPLATE_ARGUMENT_SUFFIX + i, sqlVariableNames);
+			sqlVariableNames.add(argumentVariableName);
+
+			String argument = (isDeferrableIRITemplate(ht) && ((Function) ht).getArity() > i + 1)
+					? getDeferredTemplateArgument(((Function) ht).getTerm(i + 1), index)
+					: "NULL";
+			columns.add(String.format("%s AS %s", argument, argumentVariableName));
+		}
+		return columns;
+	}
+
+	/**
+	 * All the arguments are projected as strings (as when the IRI is built in the DB)
+	 */
+	private String getDeferredTemplateArgument(Term argument, QueryAliasIndex index) {
+		String column = getSQLString(argument, index, false);
+		return isStringColType(argument, index)
+				? column
+				: sqladapter.sqlCast(column, Types.VARCHAR);
+	}
+
+	private int getDeferredTemplateId(Function iriTemplate) {
+		String template = trimLiteral(((ValueConstant) iriTemplate.getTerm(0)).getValue());
+		String[] split = template.split("[{][}]");
+		// Same condition as for the REPLACE expressions (see getSQLStringForTemplateFunction)
+		DeferredIRITemplates.Template deferredTemplate = new DeferredIRITemplates.Template(
+				ImmutableList.copyOf(split), iriTemplate.getArity() - 1, generatingREPLACE && split.length > 0);
+
+		int id = deferredIRITemplates.indexOf(deferredTemplate);
+		if (id < 0) {
+			deferredIRITemplates.add(deferredTemplate);
+			id = deferredIRITemplates.size() - 1;
+		}
+		return id;
+	}
+
 	private String getMainColumnForSELECT(Term ht, String signatureVarName,
 										  QueryAliasIndex index, COL_TYPE castDataType,
 										  Set<String> sqlVariableNames) {
@@ -1327,10 +1852,14 @@ public class OneShotSQLGeneratorEngine {
 		final String varName = sqladapter.nameTopVariable(signatureVarName, MAIN_COLUMN_SUFFIX, sqlVariableNames);
 		sqlVariableNames.add(varName);
 
-		String mainColumn;
-
 		String mainTemplate = "%s AS %s";
 
+		return String.format(mainTemplate, getMainColumnExpression(ht, index, castDataType), varName);
+	}
+
+	private String getMainColumnExpression(Term ht, QueryAliasIndex index, COL_TYPE castDataType) {
+		String mainColumn;
+
 		if (ht instanceof URIConstant) {
 			URIConstant uc = (URIConstant) ht;
 			mainColumn = sqladapter.getSQLLexicalFormString(uc.getURI().toString());
@@ -1402,7 +1931,14 @@ public class OneShotSQLGeneratorEngine {
 		 */
 		if (mainColumn.charAt(0) != '\'' && mainColumn.charAt(0) != '(') {
 
-			if (castDataType != null){
+			/*
+			 * No need to cast a column already having the right type
+			 * (the cast would prevent the DB from using its indexes when filtering on this view column)
+			 */
+			if (castDataType != null
+					&& !getColumnSQLType(ht, index)
+						.filter(t -> t == jdbcTypeMapper.getSQLType(castDataType))
+						.isPresent()){
 
 				mainColumn = sqladapter.sqlCast(mainColumn, jdbcTypeMapper.getSQLType(castDataType));
 			}
@@ -1416,10 +1952,7 @@ public class OneShotSQLGeneratorEngine {
 
 		}
 
-
-		String format = String.format(mainTemplate, mainColumn, varName);
-
-		return format;
+		return mainColumn;
 	}
 
 	private String getLangColumnForSELECT(Term ht, String signatureVarName, QueryAliasIndex index,
@@ -1431,6 +1964,10 @@ public class OneShotSQLGeneratorEngine {
         String langVariableName = sqladapter.nameTopVariable(signatureVarName, LANG_SUFFIX, sqlVariableNames);
         sqlVariableNames.add(langVariableName);
 
+		return String.format(LANG_STR, getLangColumnExpression(ht, index, optionalTermType), langVariableName);
+	}
+
+	private String getLangColumnExpression(Term ht, QueryAliasIndex index, Optional<TermType> optionalTermType) {
 		final String lang;
 
 		if (ht instanceof Variable) {
@@ -1448,8 +1985,8 @@ public class OneShotSQLGeneratorEngine {
 														"for any LANG_STRING"))))
 					.orElse("NULL");
 		}
-		return String.format(LANG_STR, lang, langVariableName);
-    }
+		return lang;
+	}
 
 	/**
 	 * Infers the type of a projected term.
@@ -1469,6 +2006,11 @@ public class OneShotSQLGeneratorEngine {
 		final String varName = sqladapter.nameTopVariable(signatureVarName, TYPE_SUFFIX, sqlVariableNames);
 		sqlVariableNames.add(varName);
 
+		return String.format(TYPE_STR, getTypeColumnExpression(projectedTerm, index, optionalTermType), varName);
+	}
+
+	private String getTypeColumnExpression(Term projectedTerm, QueryAliasIndex index,
+										   Optional<TermType> optionalTermType) {
 		final String typeString;
 		if (projectedTerm instanceof Variable) {
 			typeString = getTypeFromVariable((Variable) projectedTerm, index);
@@ -1483,8 +2025,7 @@ public class OneShotSQLGeneratorEngine {
 
 			typeString = String.format("%d", colType.getQuestCode());
 		}
-
-		return String.format(TYPE_STR, typeString, varName);
+		return typeString;
 	}
 
 	/**
@@ -1686,6 +2227,265 @@ public class OneShotSQLGeneratorEngine {
 		return toReturn;
 	}
 
+	/**
+	 * STRSTARTS, STRENDS and CONTAINS with a constant second argument are rendered as LIKE conditions,
+	 * so that the DB can use an index for STRSTARTS.
+	 *
+	 * When the first argument is an IRI template, STRSTARTS is rewritten onto the first argument
+	 * of the template (if equivalent).
+	 */
+	private Optional<String> getLikeConditionForStringFunction(Function function, QueryAliasIndex index) {
+		Predicate functionSymbol = function.getFunctionSymbol();
+		if ((functionSymbol != ExpressionOperation.STR_STARTS
+				&& functionSymbol != ExpressionOperation.STR_ENDS
+				&& functionSymbol != ExpressionOperation.CONTAINS)
+				|| hasIRIDictionary())
+			return Optional.empty();
+
+		Optional<String> optionalConstant = getStringConstant(function.getTerm(1));
+		if (!optionalConstant.isPresent())
+			return Optional.empty();
+		String constant = optionalConstant.get();
+
+		Term stringTerm = function.getTerm(0);
+		Term iriTerm = ((stringTerm instanceof Function)
+				&& ((Function) stringTerm).getFunctionSymbol() == ExpressionOperation.SPARQL_STR)
+				? ((Function) stringTerm).getTerm(0)
+				: stringTerm;
+
+		if ((iriTerm instanceof Function)
+				&& (((Function) iriTerm).getFunctionSymbol() instanceof URITemplatePredicate)) {
+			return functionSymbol == ExpressionOperation.STR_STARTS
+					? getPrefixConditionForIRITemplate((Function) iriTerm, constant, index)
+					: Optional.empty();
+		}
+
+		String pattern = functionSymbol == ExpressionOperation.STR_STARTS
+				? escapeLikePattern(constant) + "%"
+				: functionSymbol == ExpressionOperation.STR_ENDS
+					? "%" + escapeLikePattern(constant)
+					: "%" + escapeLikePattern(constant) + "%";
+
+		return Optional.of(getLikeCondition(getSQLString(stringTerm, index, true), pattern));
+	}
+
+	/**
+	 * IRI = fragment0 + arg1 + fragment1 + ...
+	 *
+	 * If the prefix is longer than fragment0, the condition can be moved to arg1
+	 * when the remaining part of the prefix cannot overlap with fragment1 and is not affected by the encoding.
+	 */
+	private Optional<String> getPrefixConditionForIRITemplate(Function iriTemplate, String prefix,
+															  QueryAliasIndex index) {
+		if (!isDeferrableIRITemplate(iriTemplate))
+			return Optional.empty();
+
+		String template = trimLiteral(((ValueConstant) iriTemplate.getTerm(0)).getValue());
+		String[] split = template.split("[{][}]");
+		String firstFragment = split.length > 0 ? split[0] : "";
+		ImmutableList<Term> arguments = ImmutableList.copyOf(iriTemplate.getTerms().subList(1, iriTemplate.getArity()));
+
+		if (prefix.length() <= firstFragment.length()) {
+			if (!firstFragment.startsWith(prefix))
+				return Optional.of("1 = 0");
+			// The IRI is not null iff all its arguments are not null
+			return Optional.of(arguments.stream()
+					.map(a -> getSQLString(a, index, false) + " IS NOT NULL")
+					.collect(Collectors.joining(" AND ")));
+		}
+
+		if (!prefix.startsWith(firstFragment))
+			return Optional.of("1 = 0");
+
+		String remainder = prefix.substring(firstFragment.length());
+
+		boolean isEncoded = generatingREPLACE && split.length > 0;
+		if (remainder.contains("%")
+				|| (isEncoded && remainder.chars().anyMatch(c -> EncodeForURI.needsEncoding((char) c))))
+			return Optional.empty();
+
+		if (arguments.size() > 1 || split.length > 1) {
+			String nextFragment = split.length > 1 ? split[1] : "";
+			if (nextFragment.isEmpty() || remainder.indexOf(nextFragment.charAt(0)) >= 0)
+				return Optional.empty();
+		}
+
+		Term firstArgument = arguments.get(0);
+		String column = isStringColType(firstArgument, index)
+				? getSQLString(firstArgument, index, false)
+				: sqladapter.sqlCast(getSQLString(firstArgument, index, false), Types.VARCHAR);
+
+		String condition = getLikeCondition(column, escapeLikePattern(remainder) + "%");
+		return Optional.of(arguments.size() == 1
+				? condition
+				: condition + arguments.stream()
+					.skip(1)
+					.map(a -> " AND " + getSQLString(a, index, false) + " IS NOT NULL")
+					.collect(Collectors.joining()));
+	}
+
+	private static Optional<String> getStringConstant(Term term) {
+		if ((term instanceof Function) && ((Function) term).isDataTypeFunction() && ((Function) term).getArity() == 1)
+			term = ((Function) term).getTerm(0);
+
+		if (term instanceof ValueConstant) {
+			ValueConstant constant = (ValueConstant) term;
+			if (constant != TermConstants.NULL
+					&& (constant.getType() == STRING || constant.getType() == LITERAL
+						|| constant.getType() == LANG_STRING))
+				return Optional.of(constant.getValue());
+		}
+		return Optional.empty();
+	}
+
+	private static final char LIKE_ESCAPE = '!';
+
+	private static String escapeLikePattern(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 4);
+		for (char c : value.toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE)
+				sb.append(LIKE_ESCAPE);
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	private String getLikeCondition(String column, String pattern) {
+		String condition = column + " LIKE " + sqladapter.getSQLLexicalFormString(pattern);
+		return pattern.indexOf(LIKE_ESCAPE) >= 0
+				? condition + " ESCAPE '" + LIKE_ESCAPE + "'"
+				: condition;
+	}
+
+	private static final ImmutableSet<ExpressionOperation> COMPARISON_OPERATIONS = ImmutableSet.of(
+			ExpressionOperation.EQ, ExpressionOperation.NEQ, ExpressionOperation.GT, ExpressionOperation.GTE,
+			ExpressionOperation.LT, ExpressionOperation.LTE);
+
+	private static final ImmutableSet<Integer> NUMERIC_SQL_TYPES = ImmutableSet.of(
+			Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.REAL, Types.FLOAT, Types.DOUBLE,
+			Types.NUMERIC, Types.DECIMAL);
+
+	private static final ImmutableSet<Integer> TEMPORAL_SQL_TYPES = ImmutableSet.of(
+			Types.DATE, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE);
+
+	private static final ImmutableSet<Integer> STRING_SQL_TYPES = ImmutableSet.of(
+			Types.VARCHAR, Types.CHAR, Types.LONGNVARCHAR, Types.LONGVARCHAR, Types.NVARCHAR, Types.NCHAR);
+
+	private static final ImmutableSet<COL_TYPE> NUMERIC_COL_TYPES = ImmutableSet.of(
+			DECIMAL, DOUBLE, FLOAT, INTEGER, LONG, INT, UNSIGNED_INT, NEGATIVE_INTEGER, POSITIVE_INTEGER,
+			NON_NEGATIVE_INTEGER, NON_POSITIVE_INTEGER);
+
+	private static final ImmutableSet<COL_TYPE> TEMPORAL_COL_TYPES = ImmutableSet.of(
+			DATETIME, DATETIME_STAMP, DATE);
+
+	/**
+	 * Comparison between a DB column and a numeric or temporal constant.
+	 *
+	 * Uses the declared SQL type of the column: when it is compatible with the constant,
+	 * the column is left untouched (only the constant is adapted), so that the DB can use its indexes.
+	 * A column with a string type is cast only when its RDF datatype (in the mapping) is also
+	 * numeric or temporal: a xsd:string literal must not become equal to a number.
+	 */
+	private Optional<String> getTypedComparison(Function comparison, QueryAliasIndex index) {
+		if (!COMPARISON_OPERATIONS.contains(comparison.getFunctionSymbol()) || hasIRIDictionary())
+			return Optional.empty();
+
+		Term left = comparison.getTerm(0);
+		Term right = comparison.getTerm(1);
+		Optional<ValueConstant> rightConstant = getTypedConstant(right);
+		Optional<ValueConstant> leftConstant = getTypedConstant(left);
+
+		final Term columnTerm;
+		final ValueConstant constant;
+		if (rightConstant.isPresent() && !leftConstant.isPresent()) {
+			columnTerm = left;
+			constant = rightConstant.get();
+		}
+		else if (leftConstant.isPresent() && !rightConstant.isPresent()) {
+			columnTerm = right;
+			constant = leftConstant.get();
+		}
+		else
+			return Optional.empty();
+
+		Optional<Integer> optionalColumnType = getColumnSQLType(columnTerm, index);
+		if (!optionalColumnType.isPresent())
+			return Optional.empty();
+		int columnType = optionalColumnType.get();
+
+		String column = getSQLString(columnTerm, index, false);
+		COL_TYPE constantType = constant.getType();
+		String constantString = getSQLLexicalForm(constant);
+
+		Optional<COL_TYPE> columnDatatype = getRDFDatatype(columnTerm);
+
+		if (NUMERIC_COL_TYPES.contains(constantType)) {
+			if (STRING_SQL_TYPES.contains(columnType)) {
+				if (!columnDatatype.filter(NUMERIC_COL_TYPES::contains).isPresent())
+					return Optional.empty();
+				column = sqladapter.sqlCast(column, jdbcTypeMapper.getSQLType(constantType));
+			}
+			else if (!NUMERIC_SQL_TYPES.contains(columnType))
+				return Optional.empty();
+		}
+		else if (TEMPORAL_COL_TYPES.contains(constantType)) {
+			if (STRING_SQL_TYPES.contains(columnType)) {
+				if (!columnDatatype.filter(TEMPORAL_COL_TYPES::contains).isPresent())
+					return Optional.empty();
+				column = sqladapter.sqlCast(column, constantType == DATE ? Types.DATE : Types.TIMESTAMP);
+			}
+			else if (!TEMPORAL_SQL_TYPES.contains(columnType))
+				return Optional.empty();
+		}
+		else
+			return Optional.empty();
+
+		String expressionFormat = operations.get(comparison.getFunctionSymbol());
+		return Optional.of(columnTerm == left
+				? String.format(expressionFormat, column, constantString)
+				: String.format(expressionFormat, constantString, column));
+	}
+
+	private static Optional<ValueConstant> getTypedConstant(Term term) {
+		if ((term instanceof Function) && ((Function) term).isDataTypeFunction() && ((Function) term).getArity() == 1)
+			term = ((Function) term).getTerm(0);
+
+		return (term instanceof ValueConstant) && (term != TermConstants.NULL)
+				? Optional.of((ValueConstant) term)
+				: Optional.empty();
+	}
+
+	/**
+	 * RDF datatype of the term when it is given by a datatype function (e.g. integer(x))
+	 */
+	private static Optional<COL_TYPE> getRDFDatatype(Term term) {
+		if ((term instanceof Function) && ((Function) term).isDataTypeFunction())
+			return TYPE_FACTORY.getDatatype(((Function) term).getFunctionSymbol().getName());
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Declared SQL type of the DB column corresponding to the term (if any).
+	 *
+	 * Only the columns of the DB relations have a declared type: the columns of the parser views
+	 * (mapping source queries that could not be parsed) are not considered.
+	 */
+	private Optional<Integer> getColumnSQLType(Term term, QueryAliasIndex index) {
+		if ((term instanceof Function) && ((Function) term).isDataTypeFunction() && ((Function) term).getArity() == 1)
+			term = ((Function) term).getTerm(0);
+
+		if (!(term instanceof Variable))
+			return Optional.empty();
+
+		Set<QualifiedAttributeID> columnRefs = index.getColumnReferences((Variable) term);
+		if (columnRefs == null || columnRefs.isEmpty())
+			return Optional.empty();
+
+		return index.getDatabaseAttribute(columnRefs.iterator().next())
+				.map(Attribute::getType);
+	}
+
 	private boolean isStringColType(Term term, QueryAliasIndex index) {
 		if (term instanceof Function) {
 			Function function = (Function) term;
@@ -1874,6 +2674,14 @@ public class OneShotSQLGeneratorEngine {
 				return String.format(expressionFormat, op);
 			}
 			else if (function.getArity() == 2) {
+				Optional<String> specificCondition = getLikeConditionForStringFunction(function, index);
+				if (!specificCondition.isPresent())
+					specificCondition = getTypedComparison(function, index);
+				if (specificCondition.isPresent())
+					return useBrackets
+							? String.format("(%s)", specificCondition.get())
+							: specificCondition.get();
+
 				// for binary functions, e.g., AND, OR, EQ, NEQ, GT etc.
 				String leftOp = getSQLString(function.getTerm(0), index, true);
 				String rightOp = getSQLString(function.getTerm(1), index, true);
@@ -2318,7 +3126,7 @@ public class OneShotSQLGeneratorEngine {
 							viewNames.get(atom).getSQLRendering());
 				}
 				else if (def instanceof ParserViewDefinition) {
-					return String.format("(%s) %s", ((ParserViewDefinition) def).getStatement(),
+					return getSubQueryReference(((ParserViewDefinition) def).getStatement(),
 							viewNames.get(atom).getSQLRendering());
 				}
 				throw new RuntimeException("Impossible to get data definition for: " + atom + ", type: " + def);
@@ -2345,8 +3153,7 @@ public class OneShotSQLGeneratorEngine {
 					// TODO: check if it is correct not to consider other view names.
 					final String viewName = sqladapter.sqlQuote(sqladapter.nameView(VIEW_PREFIX, pred.getName(),
 							VIEW_ANS_SUFFIX, ImmutableSet.of()));
-					String formatView = String.format("(%s) %s", view, viewName);
-					return formatView;
+					return getSubQueryReference(view, viewName);
 				}
 				throw new RuntimeException(
 						"Impossible to get data definition for: " + atom
@@ -2358,6 +3165,18 @@ public class OneShotSQLGeneratorEngine {
 			return Optional.ofNullable(dataDefinitionsById.get(relationId));
 		}
 
+		/**
+		 * Attribute of a DB relation (not of a view) referenced by its alias
+		 */
+		public Optional<Attribute> getDatabaseAttribute(QualifiedAttributeID columnReference) {
+			return dataDefinitions.entrySet().stream()
+					.filter(e -> e.getValue() instanceof DatabaseRelationDefinition)
+					.filter(e -> columnReference.getRelation().equals(viewNames.get(e.getKey())))
+					.map(e -> ((DatabaseRelationDefinition) e.getValue()).getAttribute(columnReference.getAttribute()))
+					.filter(Objects::nonNull)
+					.findFirst();
+		}
+
 		public String getColumnReference(Function atom, int column) {
 			RelationID viewName = viewNames.get(atom);
 			RelationDefinition def = dataDefinitions.get(atom);
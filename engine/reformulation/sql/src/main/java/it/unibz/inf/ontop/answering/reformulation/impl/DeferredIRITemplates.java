@@ -0,0 +1,112 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Describes the projected variables whose IRIs are NOT built by the database
+ * (see the "ontop.deferredIriConstruction" option).
+ *
+ * For such a variable, the standard three columns are kept but with a different meaning:
+ *   - the type column still contains the OBJECT type code,
+ *   - the lang column contains the id of the IRI template (NULL if the variable is unbound),
+ *   - the main column contains the first argument of the template.
+ * The remaining arguments are projected in additional columns placed after the 3 * n standard ones.
+ *
+ * The IRI is assembled (and percent-encoded if required) on the client side, only when the binding is read.
+ */
+public class DeferredIRITemplates {
+
+    private final ImmutableList<Template> templates;
+
+    /**
+     * Signature position (1-based) -> indexes of the additional argument columns (1-based)
+     */
+    private final ImmutableMap<Integer, ImmutableList<Integer>> additionalArgumentColumns;
+
+    public DeferredIRITemplates(ImmutableList<Template> templates,
+                                ImmutableMap<Integer, ImmutableList<Integer>> additionalArgumentColumns) {
+        this.templates = templates;
+        this.additionalArgumentColumns = additionalArgumentColumns;
+    }
+
+    public boolean isDeferred(int column) {
+        return additionalArgumentColumns.containsKey(column);
+    }
+
+    /**
+     * Empty if the column is not deferred or if its templates have only one argument
+     */
+    public ImmutableList<Integer> getAdditionalArgumentColumns(int column) {
+        return Optional.ofNullable(additionalArgumentColumns.get(column))
+                .orElseGet(ImmutableList::of);
+    }
+
+    public Template getTemplate(int templateId) {
+        return templates.get(templateId);
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredIRITemplates{" + templates + ", " + additionalArgumentColumns + "}";
+    }
+
+
+    /**
+     * IRI template split into its constant fragments.
+     *
+     * The IRI is fragment[0] + arg[0] + fragment[1] + arg[1] + ...
+     * (missing fragments are treated as empty strings).
+     */
+    public static class Template {
+        private final ImmutableList<String> fragments;
+        private final int arity;
+        private final boolean encodingArguments;
+
+        public Template(ImmutableList<String> fragments, int arity, boolean encodingArguments) {
+            this.fragments = fragments;
+            this.arity = arity;
+            this.encodingArguments = encodingArguments;
+        }
+
+        public ImmutableList<String> getFragments() {
+            return fragments;
+        }
+
+        /**
+         * Number of arguments
+         */
+        public int getArity() {
+            return arity;
+        }
+
+        /**
+         * True if the arguments must be percent-encoded (IRI-safe encoding)
+         */
+        public boolean isEncodingArguments() {
+            return encodingArguments;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Template)) return false;
+            Template other = (Template) o;
+            return arity == other.arity
+                    && encodingArguments == other.encodingArguments
+                    && fragments.equals(other.fragments);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * fragments.hashCode() + 2 * arity + (encodingArguments ? 1 : 0);
+        }
+
+        @Override
+        public String toString() {
+            return String.join("{}", fragments);
+        }
+    }
+}
@@ -3,25 +3,54 @@ package it.unibz.inf.ontop.answering.reformulation.impl;
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 
+import java.util.Optional;
+
 /**
  * SQL-query string, signature and optional construct template
  * (for SPARQL CONSTRUCT queries).
  */
 public class SQLExecutableQuery implements ExecutableQuery {
 
+    private final String withClause;
     private final String sqlQuery;
     private final ImmutableList<String> signature;
+    private final Optional<DeferredIRITemplates> deferredIRITemplates;
+    private final boolean duplicateFree;
 
     public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature) {
+        this(sqlQuery, signature, Optional.empty());
+    }
+
+    public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature,
+                              Optional<DeferredIRITemplates> deferredIRITemplates) {
+        this(sqlQuery, signature, deferredIRITemplates, false);
+    }
+
+    public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature,
+                              Optional<DeferredIRITemplates> deferredIRITemplates, boolean duplicateFree) {
+        this("", sqlQuery, signature, deferredIRITemplates, duplicateFree);
+    }
+
+    /**
+     * withClause: WITH clause (common table expressions) preceding the main query. Empty string if none.
+     */
+    public SQLExecutableQuery(String withClause, String sqlQuery, ImmutableList<String> signature,
+                              Optional<DeferredIRITemplates> deferredIRITemplates, boolean duplicateFree) {
+        this.withClause = withClause;
         this.sqlQuery = sqlQuery;
         this.signature = signature;
+        this.deferredIRITemplates = deferredIRITemplates;
+        this.duplicateFree = duplicateFree;
     }
     /**
      * Empty SQL
      */
     public SQLExecutableQuery(ImmutableList<String> signature) {
+        this.withClause = "";
         this.sqlQuery = "";
         this.signature = signature;
+        this.deferredIRITemplates = Optional.empty();
+        this.duplicateFree = true;
     }
 
     @Override
@@ -30,11 +59,40 @@ public class SQLExecutableQuery implements ExecutableQuery {
     }
 
     public String getSQL() {
+        return withClause + sqlQuery;
+    }
+
+    /**
+     * Common table expressions used by the main query (empty string if none)
+     */
+    public String getWithClause() {
+        return withClause;
+    }
+
+    /**
+     * SQL query without its WITH clause (e.g. for nesting it into another query)
+     */
+    public String getMainQuery() {
         return sqlQuery;
     }
 
+    /**
+     * Present when some IRIs have to be built from the projected template arguments
+     */
+    public Optional<DeferredIRITemplates> getDeferredIRITemplates() {
+        return deferredIRITemplates;
+    }
+
+    /**
+     * True if the SQL query is known not to return the same tuple twice
+     * (no need for eliminating duplicates on the client side)
+     */
+    public boolean isDuplicateFree() {
+        return duplicateFree;
+    }
+
     @Override
     public String toString() {
-        return sqlQuery;
+        return getSQL();
     }
 }
@@ -3,4 +3,29 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * Projects the arguments of the IRI templates instead of building the IRIs in the DB.
+     * The IRIs are then built on the client side.
+     */
+    boolean isIRIConstructionDeferred();
+
+    /**
+     * Sub-queries appearing several times in the generated SQL are defined once in a WITH clause
+     * (when supported by the DB).
+     */
+    boolean isCommonTableExpressionSharingEnabled();
+
+    /**
+     * Sub-queries only made of constant rows (e.g. SPARQL VALUES blocks) are rendered as a VALUES table constructor
+     * instead of a UNION of single-row SELECTs (when supported by the DB).
+     */
+    boolean isValuesTableConstructorEnabled();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String DEFERRED_IRI_CONSTRUCTION = "ontop.deferredIriConstruction";
+    String COMMON_TABLE_EXPRESSIONS = "ontop.commonTableExpressions";
+    String VALUES_TABLE_CONSTRUCTOR = "ontop.valuesTableConstructor";
 }
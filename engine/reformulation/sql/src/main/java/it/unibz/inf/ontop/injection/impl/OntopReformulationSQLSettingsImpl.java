@@ -28,6 +28,21 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
         return loadDefaultPropertiesFromFile(OntopReformulationSQLSettings.class, DEFAULT_FILE);
     }
 
+    @Override
+    public boolean isIRIConstructionDeferred() {
+        return getRequiredBoolean(DEFERRED_IRI_CONSTRUCTION);
+    }
+
+    @Override
+    public boolean isCommonTableExpressionSharingEnabled() {
+        return getRequiredBoolean(COMMON_TABLE_EXPRESSIONS);
+    }
+
+    @Override
+    public boolean isValuesTableConstructorEnabled() {
+        return getRequiredBoolean(VALUES_TABLE_CONSTRUCTOR);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
@@ -0,0 +1,725 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.SQLDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.H2SQLDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.HSQLDBDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.MonetDBSQLDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.Mysql2SQLDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.OracleSQLDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.TeiidSQLDialectAdapter;
+import it.unibz.inf.ontop.answering.reformulation.impl.DeferredIRITemplates;
+import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQuery;
+import it.unibz.inf.ontop.datalog.MutableQueryModifiers;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.injection.SpecificationFactory;
+import it.unibz.inf.ontop.injection.TranslationFactory;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.ImmutableQueryModifiers;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.OrderCondition;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.node.impl.ImmutableQueryModifiersImpl;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE;
+import it.unibz.inf.ontop.model.term.impl.MutableQueryModifiersImpl;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.spec.ontology.OntologyVocabulary;
+import it.unibz.inf.ontop.spec.ontology.TBoxReasoner;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyFactoryImpl;
+import it.unibz.inf.ontop.spec.ontology.impl.TBoxReasonerImpl;
+import it.unibz.inf.ontop.utils.UriTemplateMatcher;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.SUBSTITUTION_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the SQL rendering of some specific constructs
+ */
+public class OneShotSQLGeneratorEngineTest {
+
+    private static final RDBMetadata METADATA;
+    private static final AtomPredicate PERSON_PREDICATE;
+    private static final AtomPredicate VIEW_PREDICATE;
+    private static final AtomPredicate ANS1_PREDICATE = ATOM_FACTORY.getAtomPredicate("ans1", 1);
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable A = TERM_FACTORY.getVariable("a");
+    private static final Variable B = TERM_FACTORY.getVariable("b");
+    private static final Variable C = TERM_FACTORY.getVariable("c");
+
+    private static final String PERSON_TEMPLATE = "http://example.org/person/{}";
+    private static final String TWO_ARGUMENT_TEMPLATE_PREFIX = "http://example.org/person-name/";
+    private static final String VIEW_STATEMENT = "SELECT ID, NAME FROM PERSON WHERE ID > 10";
+
+    private static final String H2_DRIVER = "org.h2.Driver";
+    private static final String POSTGRESQL_DRIVER = "org.postgresql.Driver";
+    private static final String MYSQL_DRIVER = "com.mysql.jdbc.Driver";
+    private static final String HSQLDB_DRIVER = "org.hsqldb.jdbc.JDBCDriver";
+    private static final String MONETDB_DRIVER = "nl.cwi.monetdb.jdbc.MonetDriver";
+    private static final String TEIID_DRIVER = "org.teiid.jdbc.TeiidDriver";
+
+    private static final Optional<ImmutableQueryModifiers> DISTINCT = Optional.of(
+            new ImmutableQueryModifiersImpl(true, -1, -1, ImmutableList.of()));
+
+    private static final OBDASpecification SPECIFICATION;
+    private static final OntopReformulationSQLConfiguration DEFAULT_CONFIGURATION;
+    private static final IntermediateQueryFactory IQ_FACTORY;
+
+    static {
+        RDBMetadata dbMetadata = RDBMetadataExtractionTools.createDummyMetadata("org.h2.Driver");
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        DatabaseRelationDefinition personTable = dbMetadata.createDatabaseRelation(
+                idFactory.createRelationID(null, "PERSON"));
+        Attribute personId = personTable.addAttribute(idFactory.createAttributeID("ID"),
+                Types.INTEGER, null, false);
+        personTable.addAttribute(idFactory.createAttributeID("NAME"), Types.VARCHAR, null, false);
+        personTable.addUniqueConstraint(UniqueConstraint.primaryKeyOf(personId));
+        PERSON_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(personTable);
+
+        ParserViewDefinition view = dbMetadata.createParserView(VIEW_STATEMENT);
+        view.addAttribute(new QualifiedAttributeID(null, idFactory.createAttributeID("ID")));
+        view.addAttribute(new QualifiedAttributeID(null, idFactory.createAttributeID("NAME")));
+        VIEW_PREDICATE = Relation2Predicate.createAtomPredicateFromRelation(view);
+
+        dbMetadata.freeze();
+        METADATA = dbMetadata;
+        SPECIFICATION = createSpecification(dbMetadata);
+        DEFAULT_CONFIGURATION = createConfiguration(H2_DRIVER, new Properties());
+        IQ_FACTORY = DEFAULT_CONFIGURATION.getInjector().getInstance(IntermediateQueryFactory.class);
+    }
+
+    /**
+     * The rest of the prefix is not affected by the encoding: LIKE on the column
+     */
+    @Test
+    public void testStrStartsUnencodedPrefix() throws OntopReformulationException {
+        String sql = generateSQL(createStrStartsQuery("http://example.org/person/Al"), new Properties());
+
+        assertTrue(sql.contains("LIKE 'Al%'"));
+    }
+
+    /**
+     * The apostrophe is percent-encoded in the IRI: the column cannot be compared with the prefix
+     */
+    @Test
+    public void testStrStartsEncodedApostrophe() throws OntopReformulationException {
+        String sql = generateSQL(createStrStartsQuery("http://example.org/person/O'"), new Properties());
+
+        assertFalse(sql.contains("LIKE 'O"));
+    }
+
+    @Test
+    public void testStrStartsEncodedSpace() throws OntopReformulationException {
+        String sql = generateSQL(createStrStartsQuery("http://example.org/person/Al B"), new Properties());
+
+        assertFalse(sql.contains("LIKE 'Al"));
+    }
+
+    /**
+     * Without the IRI-safe encoding, the column contains the characters as they appear in the IRI
+     */
+    @Test
+    public void testStrStartsApostropheWithoutEncoding() throws OntopReformulationException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.SQL_GENERATE_REPLACE, "false");
+
+        String sql = generateSQL(createStrStartsQuery("http://example.org/person/O'"), properties);
+
+        assertTrue(sql.contains("LIKE 'O''%'"));
+    }
+
+    /**
+     * The view appears twice: defined once in a WITH clause
+     */
+    @Test
+    public void testSharedSubQuery() throws OntopReformulationException {
+        String sql = generateSQL(createViewSelfJoinQuery(), POSTGRESQL_DRIVER, enableCommonTableExpressions());
+
+        assertTrue(sql.startsWith("WITH "));
+        assertEquals(1, countOccurrences(sql, VIEW_STATEMENT));
+        assertEquals(-1, sql.indexOf('\u0000'));
+    }
+
+    /**
+     * Disabled by default
+     */
+    @Test
+    public void testSubQueryNotSharedByDefault() throws OntopReformulationException {
+        String sql = generateSQL(createViewSelfJoinQuery(), POSTGRESQL_DRIVER, new Properties());
+
+        assertFalse(sql.startsWith("WITH "));
+        assertEquals(2, countOccurrences(sql, VIEW_STATEMENT));
+    }
+
+    /**
+     * A sub-query only used once is inlined, even when its name appears in a string constant
+     */
+    @Test
+    public void testSingleSubQueryInlined() throws OntopReformulationException {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A)));
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(TERM_FACTORY.getImmutableExpression(
+                ExpressionOperation.EQ, B, TERM_FACTORY.getConstantLiteral("\"QCTE1\" QVIEW1")));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, filterNode);
+        queryBuilder.addChild(filterNode, dataNode);
+
+        String sql = generateSQL(queryBuilder.build(), POSTGRESQL_DRIVER, enableCommonTableExpressions());
+
+        assertFalse(sql.startsWith("WITH "));
+        assertEquals(1, countOccurrences(sql, VIEW_STATEMENT));
+        assertTrue(sql.contains("'\"QCTE1\" QVIEW1'"));
+        assertEquals(-1, sql.indexOf('\u0000'));
+    }
+
+    /**
+     * The NAME column (VARCHAR) holds xsd:integer values: cast to the type of the constant
+     */
+    @Test
+    public void testStringColumnWithNumericDatatype() throws OntopReformulationException {
+        String sql = generateSQL(createComparisonQuery(B, COL_TYPE.INTEGER), new Properties());
+
+        assertTrue(sql.contains("(CAST(QPERSONVIEW0.NAME AS BIGINT) < 30)"));
+    }
+
+    /**
+     * The NAME column holds xsd:string values: no cast, a string is never equal to a number
+     */
+    @Test
+    public void testStringColumnWithStringDatatype() throws OntopReformulationException {
+        String sql = generateSQL(createComparisonQuery(B, COL_TYPE.STRING), new Properties());
+
+        assertTrue(sql.contains("(QPERSONVIEW0.NAME < 30)"));
+    }
+
+    /**
+     * The ID column is already numeric: it is compared as is (the DB can use its index)
+     */
+    @Test
+    public void testNumericColumn() throws OntopReformulationException {
+        String sql = generateSQL(createComparisonQuery(A, COL_TYPE.INTEGER), new Properties());
+
+        assertTrue(sql.contains("(QPERSONVIEW0.ID < 30)"));
+    }
+
+    /**
+     * Persons for which the typed column is lower than 30 (xsd:integer)
+     */
+    private static IntermediateQuery createComparisonQuery(Variable column, COL_TYPE columnDatatype) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A)));
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(TERM_FACTORY.getImmutableExpression(
+                ExpressionOperation.LT,
+                TERM_FACTORY.getImmutableTypedTerm(column, columnDatatype),
+                TERM_FACTORY.getConstantLiteral("30", COL_TYPE.INTEGER)));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, filterNode);
+        queryBuilder.addChild(filterNode, dataNode);
+        return queryBuilder.build();
+    }
+
+    /**
+     * x built from the first column of two occurrences of the view
+     */
+    private static IntermediateQuery createViewSelfJoinQuery() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A)));
+        InnerJoinNode joinNode = IQ_FACTORY.createInnerJoinNode();
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, A, B));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, A, C));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, joinNode);
+        queryBuilder.addChild(joinNode, dataNode1);
+        queryBuilder.addChild(joinNode, dataNode2);
+        return queryBuilder.build();
+    }
+
+    /**
+     * One row per constant rule, with the type, lang and main columns of the SELECT version
+     */
+    @Test
+    public void testTableValueConstructor() throws OntopReformulationException {
+        String sql = generateSQL(createConstantUnionQuery(), POSTGRESQL_DRIVER, new Properties());
+
+        assertTrue(sql.contains("SELECT * FROM (VALUES\n" +
+                "(4, NULL, CAST(1 AS BIGINT)),\n" +
+                "(4, NULL, CAST(2 AS BIGINT))\n" +
+                ") QVALUES (\"v0QuestType\", \"v0Lang\", \"v0\")"));
+        assertFalse(sql.contains("UNION ALL"));
+    }
+
+    @Test
+    public void testUnionOfConstantRows() throws OntopReformulationException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSQLSettings.VALUES_TABLE_CONSTRUCTOR, "false");
+
+        String sql = generateSQL(createConstantUnionQuery(), POSTGRESQL_DRIVER, properties);
+
+        assertTrue(sql.contains("4 AS \"v0QuestType\", NULL AS \"v0Lang\", CAST(1 AS BIGINT) AS \"v0\""));
+        assertTrue(sql.contains("4 AS \"v0QuestType\", NULL AS \"v0Lang\", CAST(2 AS BIGINT) AS \"v0\""));
+        assertTrue(sql.contains("UNION ALL"));
+        assertFalse(sql.contains("VALUES"));
+    }
+
+    /**
+     * Not supported by the H2 dialect
+     */
+    @Test
+    public void testTableValueConstructorNotSupported() throws OntopReformulationException {
+        String sql = generateSQL(createConstantUnionQuery(), H2_DRIVER, new Properties());
+
+        assertTrue(sql.contains("UNION ALL"));
+        assertFalse(sql.contains("VALUES"));
+    }
+
+    /**
+     * Persons whose ID is 1 or 2 (union of constant rows joined with PERSON)
+     */
+    private static IntermediateQuery createConstantUnionQuery() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), B)));
+        InnerJoinNode joinNode = IQ_FACTORY.createInnerJoinNode();
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(A));
+        ConstructionNode constructionNode1 = IQ_FACTORY.createConstructionNode(ImmutableSet.of(A),
+                SUBSTITUTION_FACTORY.getSubstitution(A, TERM_FACTORY.getConstantLiteral("1", COL_TYPE.INTEGER)));
+        ConstructionNode constructionNode2 = IQ_FACTORY.createConstructionNode(ImmutableSet.of(A),
+                SUBSTITUTION_FACTORY.getSubstitution(A, TERM_FACTORY.getConstantLiteral("2", COL_TYPE.INTEGER)));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, joinNode);
+        queryBuilder.addChild(joinNode, unionNode);
+        queryBuilder.addChild(unionNode, constructionNode1);
+        queryBuilder.addChild(constructionNode1, IQ_FACTORY.createTrueNode());
+        queryBuilder.addChild(unionNode, constructionNode2);
+        queryBuilder.addChild(constructionNode2, IQ_FACTORY.createTrueNode());
+        queryBuilder.addChild(joinNode, dataNode);
+        return queryBuilder.build();
+    }
+
+    /**
+     * The arguments of the template are projected instead of the IRI:
+     * the first one in the main column, the template id in the lang column and the second one after the
+     * standard columns
+     */
+    @Test
+    public void testDeferredIRIConstruction() throws OntopReformulationException {
+        SQLExecutableQuery executableQuery = generateExecutableQuery(createTwoArgumentTemplateQuery(Optional.empty()),
+                H2_DRIVER, enableDeferredIRIConstruction());
+        String sql = executableQuery.getSQL();
+
+        assertTrue(sql.contains("'0' AS \"xLang\""));
+        assertTrue(sql.contains("CAST(QPERSONVIEW0.ID AS CHAR) AS \"x\""));
+        assertTrue(sql.contains("CAST(QPERSONVIEW0.NAME AS CHAR) AS \"xArg1\""));
+        assertFalse(sql.contains(TWO_ARGUMENT_TEMPLATE_PREFIX));
+
+        DeferredIRITemplates templates = executableQuery.getDeferredIRITemplates().get();
+        assertTrue(templates.isDeferred(1));
+        assertEquals(ImmutableList.of(4), templates.getAdditionalArgumentColumns(1));
+        DeferredIRITemplates.Template template = templates.getTemplate(0);
+        assertEquals(ImmutableList.of(TWO_ARGUMENT_TEMPLATE_PREFIX, "/"), template.getFragments());
+        assertEquals(2, template.getArity());
+        assertTrue(template.isEncodingArguments());
+    }
+
+    /**
+     * Disabled by default
+     */
+    @Test
+    public void testIRIConstructionNotDeferredByDefault() throws OntopReformulationException {
+        SQLExecutableQuery executableQuery = generateExecutableQuery(createTwoArgumentTemplateQuery(Optional.empty()),
+                H2_DRIVER, new Properties());
+
+        assertTrue(executableQuery.getSQL().contains(TWO_ARGUMENT_TEMPLATE_PREFIX));
+        assertFalse(executableQuery.getDeferredIRITemplates().isPresent());
+    }
+
+    /**
+     * The DB compares the IRIs: they are built in the DB
+     */
+    @Test
+    public void testIRIConstructionNotDeferredWithDistinct() throws OntopReformulationException {
+        SQLExecutableQuery executableQuery = generateExecutableQuery(createTwoArgumentTemplateQuery(
+                DISTINCT),
+                H2_DRIVER, enableDeferredIRIConstruction());
+
+        assertTrue(executableQuery.getSQL().contains("DISTINCT"));
+        assertTrue(executableQuery.getSQL().contains(TWO_ARGUMENT_TEMPLATE_PREFIX));
+        assertFalse(executableQuery.getSQL().contains("\"xArg1\""));
+        assertFalse(executableQuery.getDeferredIRITemplates().isPresent());
+    }
+
+    /**
+     * The DB sorts the IRIs: they are built in the DB
+     */
+    @Test
+    public void testIRIConstructionNotDeferredWithOrderBy() throws OntopReformulationException {
+        MutableQueryModifiers modifiers = new MutableQueryModifiersImpl();
+        modifiers.addOrderCondition(X, OrderCondition.ORDER_ASCENDING);
+
+        SQLExecutableQuery executableQuery = generateExecutableQuery(createTwoArgumentTemplateQuery(
+                Optional.of(new ImmutableQueryModifiersImpl(modifiers))),
+                H2_DRIVER, enableDeferredIRIConstruction());
+
+        assertTrue(executableQuery.getSQL().contains("ORDER BY"));
+        assertTrue(executableQuery.getSQL().contains(TWO_ARGUMENT_TEMPLATE_PREFIX));
+        assertFalse(executableQuery.getSQL().contains("\"xArg1\""));
+        assertFalse(executableQuery.getDeferredIRITemplates().isPresent());
+    }
+
+    /**
+     * Persons identified by their ID and their NAME
+     */
+    private static IntermediateQuery createTwoArgumentTemplateQuery(Optional<ImmutableQueryModifiers> modifiers) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(TWO_ARGUMENT_TEMPLATE_PREFIX + "{}/{}"), A, B)),
+                modifiers);
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, dataNode);
+        return queryBuilder.build();
+    }
+
+    @Test
+    public void testAskQuery() throws OntopReformulationException {
+        String sql = generateAskSQL(createTemplateUnionQuery(Optional.empty()), H2_DRIVER);
+
+        assertTrue(sql.startsWith("SELECT 1\nWHERE EXISTS (\nSELECT 1\n"));
+        assertEquals(1, countOccurrences(sql, "EXISTS ("));
+        assertTrue(sql.contains("UNION ALL"));
+        assertFalse(sql.contains("LIMIT"));
+    }
+
+    @Test
+    public void testAskQueryMySQL() throws OntopReformulationException {
+        String sql = generateAskSQL(createTemplateUnionQuery(Optional.empty()), MYSQL_DRIVER);
+
+        assertTrue(sql.startsWith("SELECT 1 FROM DUAL\nWHERE EXISTS (\nSELECT 1\n"));
+        assertFalse(sql.contains("LIMIT"));
+    }
+
+    /**
+     * No EXISTS outside a FROM clause for these DBs
+     */
+    @Test
+    public void testAskQueryLimitOne() throws OntopReformulationException {
+        for (String jdbcDriver : ImmutableList.of(HSQLDB_DRIVER, MONETDB_DRIVER, TEIID_DRIVER)) {
+            String sql = generateAskSQL(createTemplateUnionQuery(Optional.empty()), jdbcDriver);
+
+            assertTrue(jdbcDriver, sql.startsWith("SELECT 1 FROM (\nSELECT 1\n"));
+            assertTrue(jdbcDriver, sql.endsWith("\n) ASK_VIEW\nLIMIT 1"));
+            assertFalse(jdbcDriver, sql.contains("EXISTS"));
+        }
+    }
+
+    /**
+     * The aggregate stays in a sub-query: without GROUP BY, COUNT returns one row even on an empty table
+     */
+    @Test
+    public void testAskQueryWithAggregate() throws OntopReformulationException {
+        String sql = generateAskSQL(createCountQuery(), H2_DRIVER);
+
+        assertTrue(sql.startsWith("SELECT 1\nWHERE EXISTS (\nSELECT 1 FROM (\nSELECT"));
+        assertTrue(sql.contains("COUNT(QPERSONVIEW0.ID)"));
+        assertTrue(sql.endsWith("\n) ASK_QVIEW\n)"));
+    }
+
+    /**
+     * An empty union is never translated into SQL (EmptyQueryException) but the dialects must not produce
+     * an invalid query without sub-query.
+     */
+    @Test
+    public void testAskQueryWithoutSubQuery() {
+        assertEquals("SELECT 1\nWHERE 1 = 0", new H2SQLDialectAdapter().sqlExistsQuery(ImmutableList.of()));
+        assertEquals("SELECT 1 FROM DUAL\nWHERE 1 = 0", new Mysql2SQLDialectAdapter().sqlExistsQuery(ImmutableList.of()));
+        assertEquals("SELECT 1 from dual\nWHERE 1 = 0", new OracleSQLDialectAdapter().sqlExistsQuery(ImmutableList.of()));
+        for (SQLDialectAdapter adapter : ImmutableList.of(new HSQLDBDialectAdapter(), new MonetDBSQLDialectAdapter(),
+                new TeiidSQLDialectAdapter()))
+            assertEquals("SELECT 1 FROM (\nSELECT 1\n) ASK_VIEW\nWHERE 1 = 0",
+                    adapter.sqlExistsQuery(ImmutableList.of()));
+    }
+
+    @Test
+    public void testDisjointConstants() throws OntopReformulationException {
+        String sql = generateSQL(createUnionQuery(DISTINCT,
+                TERM_FACTORY.getConstantLiteral("a"), ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, A, B),
+                TERM_FACTORY.getConstantLiteral("b"), ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, A, B)),
+                new Properties());
+
+        assertDisjointUnion(sql);
+    }
+
+    /**
+     * The IDs of the view are nullable, not the ones of PERSON: the first branch never returns NULL
+     */
+    @Test
+    public void testDisjointTemplates() throws OntopReformulationException {
+        assertDisjointUnion(generateSQL(createTemplateUnionQuery(DISTINCT), new Properties()));
+    }
+
+    @Test
+    public void testOverlappingTemplates() throws OntopReformulationException {
+        String sql = generateSQL(createUnionQuery(DISTINCT,
+                TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A),
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B),
+                TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE + "/name"), C),
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, C, B)),
+                new Properties());
+
+        assertNonDisjointUnion(sql);
+    }
+
+    /**
+     * Both branches may return a NULL IRI
+     */
+    @Test
+    public void testDifferentTemplatesOverNullableColumns() throws OntopReformulationException {
+        String sql = generateSQL(createUnionQuery(DISTINCT,
+                TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A),
+                ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, A, B),
+                TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(TWO_ARGUMENT_TEMPLATE_PREFIX + "{}"), C),
+                ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, C, B)),
+                new Properties());
+
+        assertNonDisjointUnion(sql);
+    }
+
+    @Test
+    public void testSameTemplateOverDifferentColumns() throws OntopReformulationException {
+        String sql = generateSQL(createUnionQuery(DISTINCT,
+                TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A),
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B),
+                TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), B),
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B)),
+                new Properties());
+
+        assertNonDisjointUnion(sql);
+    }
+
+    /**
+     * Each branch eliminates its own duplicates
+     */
+    private static void assertDisjointUnion(String sql) {
+        assertTrue(sql.contains("\nUNION ALL\n"));
+        assertFalse(sql.contains("\nUNION\n"));
+        assertEquals(2, countOccurrences(sql, "SELECT DISTINCT"));
+    }
+
+    private static void assertNonDisjointUnion(String sql) {
+        assertTrue(sql.contains("\nUNION\n"));
+        assertFalse(sql.contains("UNION ALL"));
+    }
+
+    /**
+     * Persons identified by their ID, and persons of the view identified by their ID with another template
+     */
+    private static IntermediateQuery createTemplateUnionQuery(Optional<ImmutableQueryModifiers> modifiers) {
+        return createUnionQuery(modifiers,
+                TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), A),
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B),
+                TERM_FACTORY.getImmutableUriTemplate(
+                        TERM_FACTORY.getConstantLiteral(TWO_ARGUMENT_TEMPLATE_PREFIX + "{}"), C),
+                ATOM_FACTORY.getDataAtom(VIEW_PREDICATE, C, B));
+    }
+
+    private static IntermediateQuery createUnionQuery(Optional<ImmutableQueryModifiers> modifiers,
+                                                      ImmutableTerm firstDefinition, DataAtom firstAtom,
+                                                      ImmutableTerm secondDefinition, DataAtom secondAtom) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(), modifiers);
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(projectionAtom.getVariables());
+        ConstructionNode firstNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, firstDefinition));
+        ConstructionNode secondNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, secondDefinition));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, unionNode);
+        queryBuilder.addChild(unionNode, firstNode);
+        queryBuilder.addChild(firstNode, IQ_FACTORY.createExtensionalDataNode(firstAtom));
+        queryBuilder.addChild(unionNode, secondNode);
+        queryBuilder.addChild(secondNode, IQ_FACTORY.createExtensionalDataNode(secondAtom));
+        return queryBuilder.build();
+    }
+
+    /**
+     * Number of persons
+     */
+    private static IntermediateQuery createCountQuery() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, TERM_FACTORY.getImmutableTypedTerm(
+                        TERM_FACTORY.getImmutableExpression(ExpressionOperation.COUNT, A), COL_TYPE.INTEGER)));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B)));
+        return queryBuilder.build();
+    }
+
+    private static Properties enableDeferredIRIConstruction() {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSQLSettings.DEFERRED_IRI_CONSTRUCTION, "true");
+        return properties;
+    }
+
+    private static Properties enableCommonTableExpressions() {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSQLSettings.COMMON_TABLE_EXPRESSIONS, "true");
+        return properties;
+    }
+
+    private static int countOccurrences(String text, String pattern) {
+        int count = 0;
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + pattern.length()))
+            count++;
+        return count;
+    }
+
+    /**
+     * STRSTARTS(IRI, prefix) where the IRI is built from the NAME column
+     */
+    private static IntermediateQuery createStrStartsQuery(String prefix) {
+        ImmutableFunctionalTerm iri = TERM_FACTORY.getImmutableUriTemplate(
+                TERM_FACTORY.getConstantLiteral(PERSON_TEMPLATE), B);
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE, X);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables(),
+                SUBSTITUTION_FACTORY.getSubstitution(X, iri));
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(TERM_FACTORY.getImmutableExpression(
+                ExpressionOperation.STR_STARTS, iri, TERM_FACTORY.getConstantLiteral(prefix)));
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(
+                ATOM_FACTORY.getDataAtom(PERSON_PREDICATE, A, B));
+
+        IntermediateQueryBuilder queryBuilder = createQueryBuilder();
+        queryBuilder.init(projectionAtom, rootNode);
+        queryBuilder.addChild(rootNode, filterNode);
+        queryBuilder.addChild(filterNode, dataNode);
+        return queryBuilder.build();
+    }
+
+    private static IntermediateQueryBuilder createQueryBuilder() {
+        return IQ_FACTORY.createIQBuilder(METADATA, DEFAULT_CONFIGURATION.getExecutorRegistry());
+    }
+
+    private static String generateSQL(IntermediateQuery query, Properties properties)
+            throws OntopReformulationException {
+        return generateSQL(query, H2_DRIVER, properties);
+    }
+
+    private static String generateSQL(IntermediateQuery query, String jdbcDriver, Properties properties)
+            throws OntopReformulationException {
+        return generateExecutableQuery(query, jdbcDriver, properties).getSQL();
+    }
+
+    private static String generateAskSQL(IntermediateQuery query, String jdbcDriver)
+            throws OntopReformulationException {
+        return ((SQLExecutableQuery) createGenerator(jdbcDriver, new Properties())
+                .generateAskQuery(query, ImmutableList.of("x"))).getSQL();
+    }
+
+    private static SQLExecutableQuery generateExecutableQuery(IntermediateQuery query, String jdbcDriver,
+                                                              Properties properties)
+            throws OntopReformulationException {
+        return (SQLExecutableQuery) createGenerator(jdbcDriver, properties)
+                .generateSourceQuery(query, ImmutableList.of("x"));
+    }
+
+    private static NativeQueryGenerator createGenerator(String jdbcDriver, Properties properties) {
+        return createConfiguration(jdbcDriver, properties).getInjector()
+                .getInstance(TranslationFactory.class)
+                .create(METADATA);
+    }
+
+    private static OntopReformulationSQLConfiguration createConfiguration(String jdbcDriver, Properties properties) {
+        return OntopReformulationSQLConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:fake")
+                .jdbcDriver(jdbcDriver)
+                .obdaSpecification(SPECIFICATION)
+                .properties(properties)
+                .enableTestMode()
+                .build();
+    }
+
+    /**
+     * Empty mapping and ontology: the queries are given directly to the SQL generator
+     */
+    private static OBDASpecification createSpecification(RDBMetadata metadata) {
+        OntopMappingConfiguration mappingConfiguration = OntopMappingConfiguration.defaultBuilder()
+                .enableTestMode()
+                .build();
+        SpecificationFactory specificationFactory = mappingConfiguration.getSpecificationFactory();
+
+        Mapping mapping = specificationFactory.createMapping(
+                specificationFactory.createMetadata(specificationFactory.createPrefixManager(ImmutableMap.of()),
+                        UriTemplateMatcher.create(Stream.empty())),
+                ImmutableMap.of(), mappingConfiguration.getExecutorRegistry());
+        OntologyVocabulary vocabulary = OntologyFactoryImpl.getInstance().createVocabulary();
+        TBoxReasoner tBox = TBoxReasonerImpl.create(OntologyFactoryImpl.getInstance().createOntology(vocabulary));
+
+        return specificationFactory.createSpecification(mapping, metadata, tBox, vocabulary);
+    }
+}
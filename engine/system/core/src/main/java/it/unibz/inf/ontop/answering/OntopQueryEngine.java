@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering;
 
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.spec.OBDASpecification;
 
 public interface OntopQueryEngine extends AutoCloseable {
 
@@ -17,4 +18,12 @@ public interface OntopQueryEngine extends AutoCloseable {
      * Gets a OntopConnection usually coming from a connection pool.
      */
     OntopConnection getConnection() throws OntopConnectionException;
+
+    /**
+     * Replaces the OBDA specification (e.g. after a modification of the mapping or of the ontology).
+     *
+     * Atomic: the statements created afterwards use the new specification, including those of the connections
+     * already open, while the statements already created (and their running queries) keep the previous one.
+     */
+    void reload(OBDASpecification obdaSpecification);
 }
@@ -1,5 +1,7 @@
 package it.unibz.inf.ontop.answering.connection;
 
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 
 /**
@@ -20,4 +22,10 @@ public interface DBConnector extends AutoCloseable {
      */
     OntopConnection getConnection() throws OntopConnectionException;
 
+    /**
+     * The statements created afterwards (also by the connections already open) use the new query reformulator.
+     * The statements already created keep the previous one.
+     */
+    void reload(QueryReformulator queryReformulator, DBMetadata dbMetadata);
+
 }
@@ -0,0 +1,137 @@
+package it.unibz.inf.ontop.answering.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Reloads the specification of the query engine each time one of the input files
+ * (mapping, ontology, implicit constraints, statistics) is modified.
+ *
+ * Successive modifications (e.g. an editor saving several times) trigger a single reload.
+ * If the new specification cannot be built (e.g. invalid mapping), the previous one is kept.
+ */
+public class FileWatchingQueryEngine implements OntopQueryEngine {
+
+    @FunctionalInterface
+    public interface SpecificationLoader {
+        OBDASpecification load() throws OBDASpecificationException;
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(FileWatchingQueryEngine.class);
+    private static final long QUIET_PERIOD_MS = 500;
+
+    private final OntopQueryEngine queryEngine;
+    private final ImmutableSet<Path> files;
+    private final SpecificationLoader specificationLoader;
+
+    // guarded by this
+    private WatchService watchService;
+
+    public FileWatchingQueryEngine(OntopQueryEngine queryEngine, ImmutableList<File> files,
+                                   SpecificationLoader specificationLoader) {
+        this.queryEngine = queryEngine;
+        this.files = files.stream()
+                .map(f -> f.toPath().toAbsolutePath().normalize())
+                .collect(ImmutableCollectors.toSet());
+        this.specificationLoader = specificationLoader;
+    }
+
+    /**
+     * Also starts watching the files
+     */
+    @Override
+    public synchronized boolean connect() throws OntopConnectionException {
+        boolean isConnected = queryEngine.connect();
+        if (watchService == null) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+                // Editors often replace the file instead of modifying it
+                for (Path directory : files.stream().map(Path::getParent).collect(ImmutableCollectors.toSet()))
+                    directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            } catch (IOException e) {
+                throw new OntopConnectionException("Cannot watch the input files", e);
+            }
+
+            WatchService service = watchService;
+            Thread watchingThread = new Thread(() -> watch(service), "ontop-input-file-watcher");
+            watchingThread.setDaemon(true);
+            watchingThread.start();
+        }
+        return isConnected;
+    }
+
+    @Override
+    public synchronized void close() throws OntopConnectionException {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn(e.getMessage());
+            }
+            watchService = null;
+        }
+        queryEngine.close();
+    }
+
+    @Override
+    public OntopConnection getConnection() throws OntopConnectionException {
+        return queryEngine.getConnection();
+    }
+
+    @Override
+    public void reload(OBDASpecification obdaSpecification) {
+        queryEngine.reload(obdaSpecification);
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                boolean isModified = isInputFileModified(service.take());
+                WatchKey nextKey;
+                while ((nextKey = service.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS)) != null)
+                    isModified |= isInputFileModified(nextKey);
+
+                if (isModified)
+                    reloadFromFiles();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private boolean isInputFileModified(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        boolean isModified = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            isModified |= (event.kind() == OVERFLOW)
+                    || files.contains(directory.resolve((Path) event.context()));
+        }
+        key.reset();
+        return isModified;
+    }
+
+    private void reloadFromFiles() {
+        try {
+            long start = System.currentTimeMillis();
+            queryEngine.reload(specificationLoader.load());
+            log.info("Specification reloaded in {} ms", System.currentTimeMillis() - start);
+        } catch (OBDASpecificationException | RuntimeException e) {
+            log.warn("Cannot reload the specification (the previous one is kept): {}", e.getMessage());
+        }
+    }
+}
@@ -16,12 +16,16 @@ import it.unibz.inf.ontop.spec.OBDASpecification;
 public class OntopQueryEngineImpl implements OntopQueryEngine {
 
     private final DBConnector dbConnector;
+    private final ExecutorRegistry executorRegistry;
+    private final ReformulationFactory translationFactory;
 
     @AssistedInject
     private OntopQueryEngineImpl(@Assisted OBDASpecification obdaSpecification,
                                  @Assisted ExecutorRegistry executorRegistry,
                                  ReformulationFactory translationFactory,
                                  OntopSystemFactory systemFactory) {
+        this.executorRegistry = executorRegistry;
+        this.translationFactory = translationFactory;
         QueryReformulator queryReformulator = translationFactory.create(obdaSpecification, executorRegistry);
         dbConnector = systemFactory.create(queryReformulator, obdaSpecification.getDBMetadata());
     }
@@ -40,4 +44,10 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
     public OntopConnection getConnection() throws OntopConnectionException {
         return dbConnector.getConnection();
     }
+
+    @Override
+    public void reload(OBDASpecification obdaSpecification) {
+        QueryReformulator queryReformulator = translationFactory.create(obdaSpecification, executorRegistry);
+        dbConnector.reload(queryReformulator, obdaSpecification.getDBMetadata());
+    }
 }
@@ -9,11 +9,18 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
      */
     boolean isPermanentDBConnectionEnabled();
 
+    /**
+     * If true, the query engine reloads its specification when one of the input files is modified
+     * (only when the mapping and the ontology are given as files)
+     */
+    boolean isInputFileWatchingEnabled();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
+    String WATCH_INPUT_FILES = "ontop.reload.watchInputFiles";
 
 
 }
@@ -27,4 +27,9 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
     public boolean isPermanentDBConnectionEnabled() {
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
+
+    @Override
+    public boolean isInputFileWatchingEnabled() {
+        return getRequiredBoolean(WATCH_INPUT_FILES);
+    }
 }
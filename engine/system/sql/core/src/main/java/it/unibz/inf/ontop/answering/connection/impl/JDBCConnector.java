@@ -25,7 +25,8 @@ import java.util.Optional;
  */
 public class JDBCConnector implements DBConnector {
 
-    private final QueryReformulator queryReformulator;
+    /* Replaced atomically by reload() */
+    private volatile Specification specification;
 
     private final OntopSystemSQLSettings settings;
     private final Optional<IRIDictionary> iriDictionary;
@@ -36,7 +37,6 @@ public class JDBCConnector implements DBConnector {
     private final Logger log = LoggerFactory.getLogger(JDBCConnector.class);
     private final JDBCConnectionPool connectionPool;
 
-    private final DBMetadata dbMetadata;
     private final InputQueryFactory inputQueryFactory;
 
     @AssistedInject
@@ -46,8 +46,7 @@ public class JDBCConnector implements DBConnector {
                           JDBCConnectionPool connectionPool,
                           InputQueryFactory inputQueryFactory,
                           OntopSystemSQLSettings settings) {
-        this.queryReformulator = queryReformulator;
-        this.dbMetadata = dbMetadata;
+        this.specification = new Specification(queryReformulator, dbMetadata);
         this.inputQueryFactory = inputQueryFactory;
         this.settings = settings;
         this.iriDictionary = Optional.ofNullable(iriDictionary);
@@ -111,10 +110,30 @@ public class JDBCConnector implements DBConnector {
      */
     @Override
     public OntopConnection getConnection() throws OntopConnectionException {
+        return new SQLConnection(this, getSQLPoolConnection(), iriDictionary, inputQueryFactory, settings);
+    }
 
-        return new SQLConnection(this, queryReformulator, getSQLPoolConnection(), iriDictionary,
-                dbMetadata, inputQueryFactory, settings);
+    /**
+     * Read by the connections for each new statement: after a reload, the statements created
+     * by long-lived connections use the new specification, while the running ones keep the previous one.
+     */
+    Specification getSpecification() {
+        return specification;
     }
 
+    @Override
+    public void reload(QueryReformulator queryReformulator, DBMetadata dbMetadata) {
+        specification = new Specification(queryReformulator, dbMetadata);
+    }
+
+    static class Specification {
+        final QueryReformulator queryReformulator;
+        final DBMetadata dbMetadata;
+
+        private Specification(QueryReformulator queryReformulator, DBMetadata dbMetadata) {
+            this.queryReformulator = queryReformulator;
+            this.dbMetadata = dbMetadata;
+        }
+    }
 
 }
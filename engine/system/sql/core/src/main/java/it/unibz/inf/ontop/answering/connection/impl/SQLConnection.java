@@ -25,11 +25,10 @@ import java.util.Optional;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.impl.JDBCConnector.Specification;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
-import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
-import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
 /***
@@ -46,10 +45,8 @@ import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
  */
 public class SQLConnection implements OntopConnection {
 
-	private final QueryReformulator queryProcessor;
 	private Connection conn;
 	private final Optional<IRIDictionary> iriDictionary;
-	private final DBMetadata dbMetadata;
 	private final InputQueryFactory inputQueryFactory;
 	private final OntopSystemSQLSettings settings;
 
@@ -57,14 +54,11 @@ public class SQLConnection implements OntopConnection {
 	private boolean isClosed;
 
 
-	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
-                         Optional<IRIDictionary> iriDictionary, DBMetadata dbMetadata,
+	public SQLConnection(JDBCConnector jdbcConnector, Connection connection, Optional<IRIDictionary> iriDictionary,
                          InputQueryFactory inputQueryFactory, OntopSystemSQLSettings settings) {
 		this.jdbcConnector = jdbcConnector;
-		this.queryProcessor = queryProcessor;
 		this.conn = connection;
 		this.iriDictionary = iriDictionary;
-		this.dbMetadata = dbMetadata;
 		this.inputQueryFactory = inputQueryFactory;
 		this.settings = settings;
 		this.isClosed = false;
@@ -86,10 +80,12 @@ public class SQLConnection implements OntopConnection {
 				// Sometimes it gets dropped, reconnect
 				conn = jdbcConnector.getSQLPoolConnection();
 			}
+			// Current specification (it may have been reloaded since the creation of the connection)
+			Specification specification = jdbcConnector.getSpecification();
 			return new SQLQuestStatement(
-					this.queryProcessor,
+					specification.queryReformulator,
 					conn.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY),
-					iriDictionary, dbMetadata, inputQueryFactory, settings);
+					iriDictionary, specification.dbMetadata, inputQueryFactory, settings);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -97,7 +93,7 @@ public class SQLConnection implements OntopConnection {
 
 	@Override
 	public InputQueryFactory getInputQueryFactory() {
-		return queryProcessor.getInputQueryFactory();
+		return jdbcConnector.getSpecification().queryReformulator.getInputQueryFactory();
 	}
 
 	@Override
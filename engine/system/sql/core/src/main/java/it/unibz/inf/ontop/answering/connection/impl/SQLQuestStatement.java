@@ -125,8 +125,8 @@ public class SQLQuestStatement extends QuestStatement {
     @Override
     public int getTupleCount(InputQuery inputQuery) throws OntopReformulationException, OntopQueryEvaluationException {
         SQLExecutableQuery targetQuery = checkAndConvertTargetQuery(getExecutableQuery(inputQuery));
-        String sql = targetQuery.getSQL();
-        String newsql = "SELECT count(*) FROM (" + sql + ") t1";
+        String sql = targetQuery.getMainQuery();
+        String newsql = targetQuery.getWithClause() + "SELECT count(*) FROM (" + sql + ") t1";
         if (!isCanceled()) {
             try {
 
@@ -192,9 +192,10 @@ public class SQLQuestStatement extends QuestStatement {
         }
         try {
             java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
-            return settings.isDistinctPostProcessingEnabled()
+            return (settings.isDistinctPostProcessingEnabled() && (!sqlTargetQuery.isDuplicateFree()))
                     ? new SQLDistinctTupleResultSet(set, executableQuery.getSignature(), dbMetadata, iriDictionary)
-                    : new SQLTupleResultSet(set, executableQuery.getSignature(), dbMetadata, iriDictionary);
+                    : new SQLTupleResultSet(set, executableQuery.getSignature(), dbMetadata, iriDictionary,
+                            sqlTargetQuery.getDeferredIRITemplates());
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
         }
@@ -217,7 +218,7 @@ public class SQLQuestStatement extends QuestStatement {
             try {
                 ResultSet set = sqlStatement.executeQuery(sqlQuery);
                 tuples = new SQLTupleResultSet(set, executableQuery.getSignature(), dbMetadata,
-                        iriDictionary);
+                        iriDictionary, sqlTargetQuery.getDeferredIRITemplates());
             } catch (SQLException e) {
                 throw new OntopQueryEvaluationException(e.getMessage());
             }
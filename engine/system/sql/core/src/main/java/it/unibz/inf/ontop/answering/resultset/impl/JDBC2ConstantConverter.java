@@ -3,10 +3,12 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
+import it.unibz.inf.ontop.answering.reformulation.impl.DeferredIRITemplates;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopResultConversionException;
 import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import it.unibz.inf.ontop.utils.EncodeForURI;
 import org.apache.commons.lang3.time.DateUtils;
 
 import java.math.BigDecimal;
@@ -35,6 +37,7 @@ public class JDBC2ConstantConverter {
 
     private AtomicInteger bnodeCounter;
     private IRIDictionary iriDictionary;
+    private final Optional<DeferredIRITemplates> deferredIRITemplates;
 
     private final Map<String, String> bnodeMap;
 
@@ -89,7 +92,13 @@ public class JDBC2ConstantConverter {
 
 
     public JDBC2ConstantConverter(DBMetadata dbMetadata, Optional<IRIDictionary> iriDictionary) {
+        this(dbMetadata, iriDictionary, Optional.empty());
+    }
+
+    public JDBC2ConstantConverter(DBMetadata dbMetadata, Optional<IRIDictionary> iriDictionary,
+                                  Optional<DeferredIRITemplates> deferredIRITemplates) {
         this.iriDictionary = iriDictionary.orElse(null);
+        this.deferredIRITemplates = deferredIRITemplates;
         String vendor = dbMetadata.getDriverName();
         systemDB = identifySystem(vendor);
         this.bnodeCounter = new AtomicInteger();
@@ -127,7 +136,10 @@ public class JDBC2ConstantConverter {
                     return null;
 
                 case OBJECT:
-                    if (iriDictionary != null) {
+                    if (!cell.getTemplateArguments().isEmpty()) {
+                        stringValue = buildIRIFromTemplate(cell);
+                    }
+                    else if (iriDictionary != null) {
                         try {
                             Integer id = Integer.parseInt(stringValue);
                             stringValue = iriDictionary.getURI(id);
@@ -241,6 +253,35 @@ public class JDBC2ConstantConverter {
         }
     }
 
+    /**
+     * Builds the IRI from the arguments projected by the DB (deferred IRI construction).
+     *
+     * Mirrors the SQL CONCAT (and REPLACE) expressions that would otherwise have been generated.
+     */
+    private String buildIRIFromTemplate(MainTypeLangValues cell) throws OntopResultConversionException {
+        DeferredIRITemplates templates = deferredIRITemplates
+                .orElseThrow(() -> new OntopResultConversionException(
+                        "Template arguments found but no IRI template has been provided"));
+        DeferredIRITemplates.Template template = templates.getTemplate(Integer.parseInt(cell.getLangValue()));
+
+        ImmutableList<String> fragments = template.getFragments();
+        ImmutableList<Object> arguments = cell.getTemplateArguments();
+
+        StringBuilder sb = new StringBuilder();
+        if (!fragments.isEmpty())
+            sb.append(fragments.get(0));
+
+        for (int i = 0; i < arguments.size(); i++) {
+            String argument = String.valueOf(arguments.get(i));
+            sb.append(template.isEncodingArguments()
+                    ? EncodeForURI.encodeURIEscapeCodes(argument)
+                    : argument);
+            if (i + 1 < fragments.size())
+                sb.append(fragments.get(i + 1));
+        }
+        return sb.toString();
+    }
+
     private TemporalAccessor convertToJavaDate(Object value) throws OntopResultConversionException {
         TemporalAccessor dateValue = null;
 
@@ -1,5 +1,7 @@
 package it.unibz.inf.ontop.answering.resultset.impl;
 
+import com.google.common.collect.ImmutableList;
+
 import javax.annotation.Nullable;
 
 public class MainTypeLangValues {
@@ -13,10 +15,21 @@ public class MainTypeLangValues {
     @Nullable
     private Object mainValue;
 
+    /**
+     * Non-empty only when the IRI has to be built on the client side
+     */
+    private final ImmutableList<Object> templateArguments;
+
     MainTypeLangValues(Object mainValue, Integer typeValue, String langValue) {
+        this(mainValue, typeValue, langValue, ImmutableList.of());
+    }
+
+    MainTypeLangValues(Object mainValue, Integer typeValue, String langValue,
+                       ImmutableList<Object> templateArguments) {
         this.mainValue = mainValue;
         this.typeValue = typeValue;
         this.langValue = langValue;
+        this.templateArguments = templateArguments;
     }
 
     @Nullable
@@ -33,5 +46,11 @@ public class MainTypeLangValues {
     public Object getMainValue() {
         return mainValue;
     }
-}
 
+    /**
+     * Arguments of the IRI template whose id is given by the lang value
+     */
+    public ImmutableList<Object> getTemplateArguments() {
+        return templateArguments;
+    }
+}
@@ -1,14 +1,21 @@
 package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.reformulation.impl.DeferredIRITemplates;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
 
 public class SQLRowReader {
 
     public List<MainTypeLangValues> read(ResultSet rs, int bindingNamesCount) throws SQLException {
+        return read(rs, bindingNamesCount, Optional.empty());
+    }
+
+    public List<MainTypeLangValues> read(ResultSet rs, int bindingNamesCount,
+                                         Optional<DeferredIRITemplates> deferredIRITemplates) throws SQLException {
 
         final ImmutableList.Builder<MainTypeLangValues> builder = ImmutableList.builder();
 
@@ -17,6 +24,11 @@ public class SQLRowReader {
             final int typeColumnIndex = 3 * i - 2;
             final int langColumnIndex = 3 * i - 1;
 
+            if (deferredIRITemplates.isPresent() && deferredIRITemplates.get().isDeferred(i)) {
+                builder.add(readTemplateArguments(rs, i, deferredIRITemplates.get()));
+                continue;
+            }
+
             builder.add(new MainTypeLangValues(
                     rs.getObject(mainColumnIndex),
                     rs.getInt(typeColumnIndex),
@@ -26,4 +38,32 @@ public class SQLRowReader {
 
         return builder.build();
     }
+
+    /**
+     * The lang column contains the template id and the main column the first argument.
+     *
+     * As for a CONCAT in the DB, a NULL argument makes the IRI NULL.
+     */
+    private MainTypeLangValues readTemplateArguments(ResultSet rs, int bindingIndex,
+                                                     DeferredIRITemplates deferredIRITemplates) throws SQLException {
+        int typeValue = rs.getInt(3 * bindingIndex - 2);
+        String templateId = rs.getString(3 * bindingIndex - 1);
+        Object firstArgument = rs.getObject(3 * bindingIndex);
+
+        if (templateId == null || firstArgument == null)
+            return new MainTypeLangValues(null, typeValue, null);
+
+        ImmutableList.Builder<Object> argumentBuilder = ImmutableList.builder();
+        argumentBuilder.add(firstArgument);
+
+        int arity = deferredIRITemplates.getTemplate(Integer.parseInt(templateId)).getArity();
+        ImmutableList<Integer> additionalColumns = deferredIRITemplates.getAdditionalArgumentColumns(bindingIndex);
+        for (int j = 0; j < arity - 1; j++) {
+            Object argument = rs.getObject(additionalColumns.get(j));
+            if (argument == null)
+                return new MainTypeLangValues(null, typeValue, null);
+            argumentBuilder.add(argument);
+        }
+        return new MainTypeLangValues(firstArgument, typeValue, templateId, argumentBuilder.build());
+    }
 }
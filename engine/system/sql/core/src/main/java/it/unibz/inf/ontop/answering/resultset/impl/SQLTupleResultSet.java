@@ -22,6 +22,7 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
+import it.unibz.inf.ontop.answering.reformulation.impl.DeferredIRITemplates;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
@@ -44,6 +45,8 @@ public class SQLTupleResultSet implements TupleResultSet {
 
     private final JDBC2ConstantConverter ontopConstantRetriever;
 
+    private final Optional<DeferredIRITemplates> deferredIRITemplates;
+
 
     /***
      * Constructs an OBDA statement from an SQL statement, a signature described
@@ -57,7 +60,17 @@ public class SQLTupleResultSet implements TupleResultSet {
      */
     public SQLTupleResultSet(ResultSet set, List<String> signature,
                              DBMetadata dbMetadata, Optional<IRIDictionary> iriDictionary) {
+        this(set, signature, dbMetadata, iriDictionary, Optional.empty());
+    }
+
+    /**
+     * @param deferredIRITemplates present when some IRIs have to be built from their template arguments
+     */
+    public SQLTupleResultSet(ResultSet set, List<String> signature,
+                             DBMetadata dbMetadata, Optional<IRIDictionary> iriDictionary,
+                             Optional<DeferredIRITemplates> deferredIRITemplates) {
         this.rs = set;
+        this.deferredIRITemplates = deferredIRITemplates;
 
         this.signature = signature;
 
@@ -67,7 +80,7 @@ public class SQLTupleResultSet implements TupleResultSet {
             columnMap.put(signature.get(j - 1), j);
         }
 
-        this.ontopConstantRetriever = new JDBC2ConstantConverter(dbMetadata, iriDictionary);
+        this.ontopConstantRetriever = new JDBC2ConstantConverter(dbMetadata, iriDictionary, deferredIRITemplates);
     }
 
     @Override
@@ -89,7 +102,7 @@ public class SQLTupleResultSet implements TupleResultSet {
         SQLRowReader rowReader = new SQLRowReader();
 
         try {
-            final List<MainTypeLangValues> cells = rowReader.read(rs, getColumnCount());
+            final List<MainTypeLangValues> cells = rowReader.read(rs, getColumnCount(), deferredIRITemplates);
             return new SQLOntopBindingSet(cells, signature, columnMap, ontopConstantRetriever);
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
@@ -1,10 +1,14 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Module;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.impl.FileWatchingQueryEngine;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.impl.OntopSQLCredentialConfigurationImpl.OntopSQLCredentialOptions;
 import it.unibz.inf.ontop.iq.executor.ProposalExecutor;
@@ -18,6 +22,7 @@ import it.unibz.inf.ontop.iq.proposal.QueryOptimizationProposal;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.stream.Stream;
@@ -51,6 +56,21 @@ public class OntopStandaloneSQLConfigurationImpl extends OntopMappingSQLAllConfi
         return systemConfiguration.loadQueryReformulator();
     }
 
+    /**
+     * Watches the input files if enabled in the settings
+     */
+    @Override
+    public OntopQueryEngine loadQueryEngine() throws OBDASpecificationException {
+        OntopQueryEngine queryEngine = OntopStandaloneSQLConfiguration.super.loadQueryEngine();
+        if (!settings.isInputFileWatchingEnabled())
+            return queryEngine;
+
+        ImmutableList<File> inputFiles = getSpecificationInputFiles()
+                .orElseThrow(() -> new InvalidOntopConfigurationException(
+                        "The input files can only be watched when the mapping and the ontology are given as files"));
+        return new FileWatchingQueryEngine(queryEngine, inputFiles, this::loadSpecification);
+    }
+
     @Override
     public InputQueryFactory getInputQueryFactory() {
         return getInjector()
@@ -36,6 +36,21 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.isIRISafeEncodingEnabled();
     }
 
+    @Override
+    public boolean isIRIConstructionDeferred() {
+        return systemSettings.isIRIConstructionDeferred();
+    }
+
+    @Override
+    public boolean isCommonTableExpressionSharingEnabled() {
+        return systemSettings.isCommonTableExpressionSharingEnabled();
+    }
+
+    @Override
+    public boolean isValuesTableConstructorEnabled() {
+        return systemSettings.isValuesTableConstructorEnabled();
+    }
+
     @Override
     public boolean isKeepAliveEnabled() {
         return systemSettings.isKeepAliveEnabled();
@@ -65,4 +80,9 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
     public boolean isPermanentDBConnectionEnabled() {
         return systemSettings.isPermanentDBConnectionEnabled();
     }
+
+    @Override
+    public boolean isInputFileWatchingEnabled() {
+        return systemSettings.isInputFileWatchingEnabled();
+    }
 }
@@ -66,6 +66,11 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public boolean isInputFileWatchingEnabled() {
+        return systemSettings.isInputFileWatchingEnabled();
+    }
+
     @Override
     public String getJdbcUser() {
         return sqlCredentialSettings.getJdbcUser();
@@ -0,0 +1,120 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.impl.DeferredIRITemplates;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
+import it.unibz.inf.ontop.model.term.Constant;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Rows of a query with deferred IRI construction: x is built from the template arguments, y is a regular IRI.
+ *
+ * Columns: x (type, template id, first argument), y (type, lang, main), second argument of x.
+ */
+public class DeferredIRIConstructionTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:deferred_iri_construction";
+
+    private static final DeferredIRITemplates TEMPLATES = new DeferredIRITemplates(
+            ImmutableList.of(
+                    new DeferredIRITemplates.Template(
+                            ImmutableList.of("http://example.org/person/", "/"), 2, true),
+                    new DeferredIRITemplates.Template(
+                            ImmutableList.of("http://example.org/raw/"), 1, false)),
+            ImmutableMap.of(1, ImmutableList.of(7)));
+
+    private static final String Y_COLUMNS = "1, NULL, 'http://example.org/y'";
+
+    private static Connection connection;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * The space and the slash of the arguments are percent-encoded, not the fragments of the template
+     */
+    @Test
+    public void testEncodedArguments() throws Exception {
+        List<Constant> row = readRow("1, '0', 'Al B', " + Y_COLUMNS + ", 'x/y'");
+
+        assertEquals("http://example.org/person/Al%20B/x%2Fy", row.get(0).getValue());
+        assertEquals("http://example.org/y", row.get(1).getValue());
+    }
+
+    @Test
+    public void testUnencodedArgument() throws Exception {
+        List<Constant> row = readRow("1, '1', 'Al B', " + Y_COLUMNS + ", NULL");
+
+        assertEquals("http://example.org/raw/Al B", row.get(0).getValue());
+        assertEquals("http://example.org/y", row.get(1).getValue());
+    }
+
+    /**
+     * As for a CONCAT in the DB, a NULL argument makes the IRI NULL
+     */
+    @Test
+    public void testNullFirstArgument() throws Exception {
+        List<Constant> row = readRow("1, '0', NULL, " + Y_COLUMNS + ", 'x/y'");
+
+        assertNull(row.get(0));
+        assertEquals("http://example.org/y", row.get(1).getValue());
+    }
+
+    @Test
+    public void testNullSecondArgument() throws Exception {
+        List<Constant> row = readRow("1, '0', 'Al B', " + Y_COLUMNS + ", NULL");
+
+        assertNull(row.get(0));
+        assertEquals("http://example.org/y", row.get(1).getValue());
+    }
+
+    /**
+     * Branch of a union in which x is not bound
+     */
+    @Test
+    public void testUnboundVariable() throws Exception {
+        List<Constant> row = readRow("0, NULL, NULL, " + Y_COLUMNS + ", NULL");
+
+        assertNull(row.get(0));
+        assertEquals("http://example.org/y", row.get(1).getValue());
+    }
+
+    private static List<Constant> readRow(String values) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM (VALUES (" + values + "))")) {
+            rs.next();
+            List<MainTypeLangValues> cells = new SQLRowReader().read(rs, 2, Optional.of(TEMPLATES));
+
+            JDBC2ConstantConverter converter = new JDBC2ConstantConverter(
+                    RDBMetadataExtractionTools.createDummyMetadata("org.h2.Driver"), Optional.empty(),
+                    Optional.of(TEMPLATES));
+            // null for an unbound variable
+            List<Constant> row = new ArrayList<>();
+            for (MainTypeLangValues cell : cells)
+                row.add(converter.getConstantFromJDBC(cell));
+            return row;
+        }
+    }
+}
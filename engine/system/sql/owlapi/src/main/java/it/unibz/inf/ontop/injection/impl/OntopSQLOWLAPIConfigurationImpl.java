@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
@@ -39,6 +40,12 @@ public class OntopSQLOWLAPIConfigurationImpl extends OntopStandaloneSQLConfigura
         return mappingOWLConfiguration.loadInputOntology();
     }
 
+    @Override
+    Optional<ImmutableList<File>> getSpecificationInputFiles() {
+        return super.getSpecificationInputFiles()
+                .flatMap(mappingOWLConfiguration::addOntologyFile);
+    }
+
     static class OntopSQLOWLAPIOptions {
         final OntopStandaloneSQLOptions sqlOptions;
         final OntopMappingOWLAPIOptions owlOptions;
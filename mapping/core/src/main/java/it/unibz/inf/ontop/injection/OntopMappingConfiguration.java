@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.injection;
 
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.injection.impl.OntopMappingConfigurationImpl;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
 
 import javax.annotation.Nonnull;
@@ -15,6 +16,14 @@ public interface OntopMappingConfiguration extends OntopOBDAConfiguration, Ontop
     @Override
     OntopMappingSettings getSettings();
 
+    /**
+     * Report of the last construction of the specification (empty if profiling is disabled,
+     * see OntopMappingSettings.isStartupProfilingEnabled())
+     */
+    default StartupProfiler getStartupProfiler() {
+        return getInjector().getInstance(StartupProfiler.class);
+    }
+
 
 
     static Builder<? extends Builder> defaultBuilder() {
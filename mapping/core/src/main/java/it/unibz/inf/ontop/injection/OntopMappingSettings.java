@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection;
 
+import com.google.common.collect.ImmutableList;
 
 public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizationSettings {
 
@@ -18,6 +19,33 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
      */
     boolean isDefaultDatatypeInferred();
 
+    /**
+     * If true, the TBox is classified on integer ids and bitsets (faster on large ontologies)
+     */
+    boolean isBitSetTBoxClassificationEnabled();
+
+    /**
+     * If true, the T-mapping of a predicate is computed on its first access
+     */
+    boolean isLazyTMappingSaturationEnabled();
+
+    /**
+     * IRIs of the classes and properties whose T-mappings are computed at startup in the lazy mode
+     */
+    ImmutableList<String> getPrewarmedTMappingPredicates();
+
+    /**
+     * If true, a specification built again by the same configuration reuses the definitions of the previous one
+     * for the predicates that are not affected by the changes of the mapping and of the ontology
+     */
+    boolean isIncrementalSpecificationUpdateEnabled();
+
+    /**
+     * If true, the wall time, the allocated bytes and some element counts are recorded
+     * for each phase of the construction of the specification (see StartupProfiler)
+     */
+    boolean isStartupProfilingEnabled();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -26,6 +54,11 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
     String QUERY_ONTOLOGY_ANNOTATIONS = "ontop.queryOntologyAnnotation";
     String COMPLETE_PROVIDED_METADATA = "ontop.completeProvidedMetadata";
     String INFER_DEFAULT_DATATYPE = "ontop.inferDefaultDatatype";
+    String BITSET_TBOX_CLASSIFICATION = "ontop.tboxClassification.bitset";
+    String LAZY_TMAPPING_SATURATION = "ontop.tMappings.lazy";
+    String PREWARMED_TMAPPING_PREDICATES = "ontop.tMappings.lazy.prewarm";
+    String INCREMENTAL_SPECIFICATION_UPDATE = "ontop.specification.incrementalUpdate";
+    String STARTUP_PROFILING = "ontop.profiling.startup";
 
     /**
      * Options to specify base IRI.
@@ -16,6 +16,7 @@ import it.unibz.inf.ontop.iq.proposal.QueryOptimizationProposal;
 import it.unibz.inf.ontop.spec.OBDASpecInput;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import it.unibz.inf.ontop.spec.OBDASpecificationExtractor;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
 import it.unibz.inf.ontop.spec.mapping.pp.PreProcessedMapping;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
@@ -98,9 +99,35 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
                                                   Supplier<Optional<Graph>> mappingGraphSupplier,
                                                   Supplier<Optional<File>> constraintFileSupplier
                                                   ) throws OBDASpecificationException {
+        StartupProfiler profiler = getInjector().getInstance(StartupProfiler.class);
+        profiler.reset();
+
+        try (StartupProfiler.Phase phase = profiler.startPhase("specification")) {
+            return extractSpecification(profiler, ontologySupplier, ppMappingSupplier, mappingFileSupplier,
+                    mappingReaderSupplier, mappingGraphSupplier, constraintFileSupplier);
+        }
+    }
+
+    private OBDASpecification extractSpecification(StartupProfiler profiler, OntologySupplier ontologySupplier,
+                                                   Supplier<Optional<PreProcessedMapping>> ppMappingSupplier,
+                                                   Supplier<Optional<File>> mappingFileSupplier,
+                                                   Supplier<Optional<Reader>> mappingReaderSupplier,
+                                                   Supplier<Optional<Graph>> mappingGraphSupplier,
+                                                   Supplier<Optional<File>> constraintFileSupplier
+                                                   ) throws OBDASpecificationException {
         OBDASpecificationExtractor extractor = getInjector().getInstance(OBDASpecificationExtractor.class);
 
-        Optional<Ontology> optionalOntology = ontologySupplier.get();
+        Optional<Ontology> optionalOntology;
+        try (StartupProfiler.Phase phase = profiler.startPhase("ontology loading")) {
+            optionalOntology = ontologySupplier.get();
+            optionalOntology.ifPresent(o -> phase
+                    .count("classes", o.getVocabulary().getClasses().size())
+                    .count("objectProperties", o.getVocabulary().getObjectProperties().size())
+                    .count("dataProperties", o.getVocabulary().getDataProperties().size())
+                    .count("subClassAxioms", o.getSubClassAxioms().size())
+                    .count("subPropertyAxioms", o.getSubObjectPropertyAxioms().size()
+                            + o.getSubDataPropertyAxioms().size()));
+        }
         Optional<DBMetadata> optionalMetadata = options.dbMetadata;
 
         /*
@@ -6,6 +6,7 @@ import com.google.inject.Module;
 import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.injection.ProvenanceMappingFactory;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 import it.unibz.inf.ontop.spec.mapping.MappingWithProvenance;
 import it.unibz.inf.ontop.spec.ontology.MappingVocabularyExtractor;
 import it.unibz.inf.ontop.spec.mapping.validation.MappingOntologyComplianceValidator;
@@ -39,8 +40,10 @@ public class OntopMappingModule extends OntopAbstractModule {
         bindFromSettings(MappingDatatypeFiller.class);
         bindFromSettings(MappingMerger.class);
         bindFromSettings(MappingTransformer.class);
+        bindFromSettings(StartupProfiler.class);
         bindFromSettings(MappingOntologyComplianceValidator.class);
         bindFromSettings(MappingSameAsInverseRewriter.class);
+        bindFromSettings(MappingSameAsCanonicalIRIRewriter.class);
         bindFromSettings(MappingEquivalenceFreeRewriter.class);
 
         Module factoryModule = buildFactory(ImmutableList.of(MappingWithProvenance.class),
@@ -5,6 +5,7 @@ import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingTransformer;
 import it.unibz.inf.ontop.spec.OBDASpecificationExtractor;
+import it.unibz.inf.ontop.spec.OBDASpecificationUpdater;
 
 /**
  * POST-module: to be loaded after that all the dependencies of concrete implementations have been defined
@@ -19,6 +20,7 @@ public class OntopMappingPostModule extends OntopAbstractModule {
     public void configure() {
         bindFromSettings(MappingExtractor.class);
         bindFromSettings(MappingTransformer.class);
+        bindFromSettings(OBDASpecificationUpdater.class);
         bindFromSettings(OBDASpecificationExtractor.class);
     }
 }
@@ -1,8 +1,11 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.util.Arrays;
 import java.util.Properties;
 
 
@@ -42,6 +45,36 @@ class OntopMappingSettingsImpl extends OntopOBDASettingsImpl implements OntopMap
         return getRequiredBoolean(INFER_DEFAULT_DATATYPE);
     }
 
+    @Override
+    public boolean isBitSetTBoxClassificationEnabled() {
+        return getRequiredBoolean(BITSET_TBOX_CLASSIFICATION);
+    }
+
+    @Override
+    public boolean isLazyTMappingSaturationEnabled() {
+        return getRequiredBoolean(LAZY_TMAPPING_SATURATION);
+    }
+
+    @Override
+    public ImmutableList<String> getPrewarmedTMappingPredicates() {
+        return getProperty(PREWARMED_TMAPPING_PREDICATES)
+                .map(s -> Arrays.stream(s.split(","))
+                        .map(String::trim)
+                        .filter(iri -> !iri.isEmpty())
+                        .collect(ImmutableCollectors.toList()))
+                .orElse(ImmutableList.of());
+    }
+
+    @Override
+    public boolean isIncrementalSpecificationUpdateEnabled() {
+        return getRequiredBoolean(INCREMENTAL_SPECIFICATION_UPDATE);
+    }
+
+    @Override
+    public boolean isStartupProfilingEnabled() {
+        return getRequiredBoolean(STARTUP_PROFILING);
+    }
+
     @Override
     public boolean isOntologyAnnotationQueryingEnabled() {
         return getRequiredBoolean(QUERY_ONTOLOGY_ANNOTATIONS);
@@ -0,0 +1,30 @@
+package it.unibz.inf.ontop.spec;
+
+
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.spec.mapping.pp.PreProcessedMapping;
+import it.unibz.inf.ontop.spec.ontology.Ontology;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+/**
+ * Builds the OBDA specification like the OBDASpecificationExtractor, but starting from the last specification
+ * it has built: only the classes and properties affected by the changes of the mapping or of the ontology
+ * are saturated and normalized again.
+ *
+ * Stateful: one per configuration (see OntopMappingSettings.isIncrementalSpecificationUpdateEnabled()).
+ */
+public interface OBDASpecificationUpdater {
+
+    OBDASpecification update(@Nonnull OBDASpecInput specInput, @Nonnull Optional<DBMetadata> dbMetadata,
+                             @Nonnull Optional<Ontology> ontology, ExecutorRegistry executorRegistry)
+            throws OBDASpecificationException;
+
+    OBDASpecification update(@Nonnull OBDASpecInput specInput, @Nonnull PreProcessedMapping ppMapping,
+                             @Nonnull Optional<DBMetadata> dbMetadata, @Nonnull Optional<Ontology> ontology,
+                             ExecutorRegistry executorRegistry)
+            throws OBDASpecificationException;
+}
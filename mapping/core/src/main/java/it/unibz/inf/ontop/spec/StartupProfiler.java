@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.spec;
+
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Measures the phases of the construction of the OBDA specification (DB metadata extraction, classification,
+ * saturation, etc.): wall time, allocated bytes and element counts (e.g. number of relations or of mapping rules).
+ *
+ * Only records when enabled (see OntopMappingSettings.isStartupProfilingEnabled()).
+ * One per configuration: the report covers the last construction of the specification.
+ */
+public interface StartupProfiler {
+
+    /**
+     * To be closed at the end of the phase (try-with-resources)
+     */
+    Phase startPhase(String name);
+
+    /**
+     * Forgets the phases recorded so far
+     */
+    void reset();
+
+    /**
+     * Completed phases, in the order in which they started (nested phases come after their enclosing phase)
+     */
+    ImmutableList<PhaseReport> getReport();
+
+    /**
+     * Report as a JSON array (one object per phase)
+     */
+    String toJson();
+
+
+    interface Phase extends AutoCloseable {
+
+        Phase count(String element, long value);
+
+        @Override
+        void close();
+    }
+
+    interface PhaseReport {
+
+        String getName();
+
+        /**
+         * Number of the enclosing phases (of the same thread): 0 for the top-level phases
+         */
+        int getDepth();
+
+        long getWallTimeMs();
+
+        /**
+         * Bytes allocated by all the threads during the phase (if supported by the JVM).
+         * The allocations of the threads terminated before the end of the phase are not counted.
+         */
+        Optional<Long> getAllocatedBytes();
+
+        ImmutableMap<String, Long> getCounts();
+    }
+}
@@ -18,6 +18,8 @@ import it.unibz.inf.ontop.spec.OBDASpecInput;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingTransformer;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import it.unibz.inf.ontop.spec.OBDASpecificationExtractor;
+import it.unibz.inf.ontop.spec.OBDASpecificationUpdater;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 
 import java.util.Optional;
 import javax.annotation.Nonnull;
@@ -30,20 +32,28 @@ public class DefaultOBDASpecificationExtractor implements OBDASpecificationExtra
     private final MappingTransformer mappingTransformer;
     private final OntopMappingSettings settings;
     private final MappingVocabularyExtractor vocabularyExtractor;
+    private final OBDASpecificationUpdater specificationUpdater;
+    private final StartupProfiler profiler;
 
     @Inject
     private DefaultOBDASpecificationExtractor(MappingExtractor mappingExtractor, MappingTransformer mappingTransformer,
-                                              OntopMappingSettings settings, MappingVocabularyExtractor vocabularyExtractor) {
+                                              OntopMappingSettings settings, MappingVocabularyExtractor vocabularyExtractor,
+                                              OBDASpecificationUpdater specificationUpdater, StartupProfiler profiler) {
         this.mappingExtractor = mappingExtractor;
         this.mappingTransformer = mappingTransformer;
         this.settings = settings;
         this.vocabularyExtractor = vocabularyExtractor;
+        this.specificationUpdater = specificationUpdater;
+        this.profiler = profiler;
     }
 
     @Override
     public OBDASpecification extract(@Nonnull OBDASpecInput specInput, @Nonnull Optional<DBMetadata> dbMetadata,
                                      @Nonnull Optional<Ontology> optionalOntology, ExecutorRegistry executorRegistry)
             throws OBDASpecificationException {
+        if (settings.isIncrementalSpecificationUpdateEnabled())
+            return specificationUpdater.update(specInput, dbMetadata, optionalOntology, executorRegistry);
+
         Optional<TBoxReasoner> optionalSaturatedTBox = saturateTBox(optionalOntology);
 
         MappingAndDBMetadata mappingAndDBMetadata = mappingExtractor.extract(specInput, dbMetadata, optionalOntology,
@@ -56,6 +66,9 @@ public class DefaultOBDASpecificationExtractor implements OBDASpecificationExtra
     public OBDASpecification extract(@Nonnull OBDASpecInput specInput, @Nonnull PreProcessedMapping ppMapping,
                                      @Nonnull Optional<DBMetadata> dbMetadata, @Nonnull Optional<Ontology> optionalOntology,
                                      ExecutorRegistry executorRegistry) throws OBDASpecificationException {
+        if (settings.isIncrementalSpecificationUpdateEnabled())
+            return specificationUpdater.update(specInput, ppMapping, dbMetadata, optionalOntology, executorRegistry);
+
         Optional<TBoxReasoner> optionalSaturatedTBox = saturateTBox(optionalOntology);
 
         MappingAndDBMetadata mappingAndDBMetadata = mappingExtractor.extract(ppMapping, specInput, dbMetadata,
@@ -71,7 +84,7 @@ public class DefaultOBDASpecificationExtractor implements OBDASpecificationExtra
         Ontology ontology = optionalOntology
                 .orElseGet(() -> vocabularyExtractor.extractOntology(mappingAndDBMetadata.getMapping()));
         TBoxReasoner tBox = optionalInputTBox
-                .orElseGet(() -> TBoxReasonerImpl.create(ontology, settings.isEquivalenceOptimizationEnabled()));
+                .orElseGet(() -> classify(ontology));
 
         return mappingTransformer.transform(
                 specInput,
@@ -83,7 +96,14 @@ public class DefaultOBDASpecificationExtractor implements OBDASpecificationExtra
 
     private Optional<TBoxReasoner> saturateTBox(Optional<Ontology> ontology) {
         return ontology
-                .map(o -> TBoxReasonerImpl.create(o, settings.isEquivalenceOptimizationEnabled()));
+                .map(this::classify);
+    }
+
+    private TBoxReasoner classify(Ontology ontology) {
+        try (StartupProfiler.Phase phase = profiler.startPhase("TBox classification")) {
+            return TBoxReasonerImpl.create(ontology, settings.isEquivalenceOptimizationEnabled(),
+                    settings.isBitSetTBoxClassificationEnabled());
+        }
     }
 
 
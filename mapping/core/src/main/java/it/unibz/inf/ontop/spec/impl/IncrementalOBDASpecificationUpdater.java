@@ -0,0 +1,340 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.datalog.Datalog2QueryMappingConverter;
+import it.unibz.inf.ontop.datalog.LinearInclusionDependencies;
+import it.unibz.inf.ontop.datalog.Mapping2DatalogConverter;
+import it.unibz.inf.ontop.datalog.impl.CQContainmentCheckUnderLIDs;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.exception.DBMetadataExtractionException;
+import it.unibz.inf.ontop.exception.MappingException;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.injection.SpecificationFactory;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import it.unibz.inf.ontop.model.term.impl.PredicateImpl;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationUpdater;
+import it.unibz.inf.ontop.spec.StartupProfiler;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
+import it.unibz.inf.ontop.spec.mapping.MappingExtractor.MappingAndDBMetadata;
+import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
+import it.unibz.inf.ontop.spec.mapping.pp.PreProcessedMapping;
+import it.unibz.inf.ontop.spec.mapping.transformer.MappingNormalizer;
+import it.unibz.inf.ontop.spec.mapping.transformer.MappingTransformer;
+import it.unibz.inf.ontop.spec.mapping.transformer.impl.LazyTMappingProcessor;
+import it.unibz.inf.ontop.spec.mapping.transformer.impl.LegacyMappingSaturator;
+import it.unibz.inf.ontop.spec.ontology.MappingVocabularyExtractor;
+import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.spec.ontology.TBoxReasoner;
+import it.unibz.inf.ontop.spec.ontology.impl.TBoxReasonerImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+
+/**
+ * Keeps the T-mappings of the last specification it has built.
+ *
+ * The steps preceding the saturation are applied to the whole new mapping. Then the saturated and normalized
+ * definition of a predicate is taken from the previous specification when its descendants in the TBox
+ * and their mappings have not changed (see LazyTMappingProcessor.hasSameTMapping(...)).
+ * The definition of the triple predicate is rebuilt as soon as one definition changes.
+ * Nothing is reused when the DB metadata (relations, attributes, keys, functional dependencies
+ * and foreign keys) has changed.
+ *
+ * The TBox is only classified again when the hierarchies of the ontology have changed.
+ *
+ * The previous specification is never modified, so it can still be used by the running queries.
+ */
+@Singleton
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public class IncrementalOBDASpecificationUpdater implements OBDASpecificationUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalOBDASpecificationUpdater.class);
+
+    private final MappingExtractor mappingExtractor;
+    private final MappingTransformer mappingTransformer;
+    private final MappingNormalizer mappingNormalizer;
+    private final Mapping2DatalogConverter mapping2DatalogConverter;
+    private final Datalog2QueryMappingConverter datalog2MappingConverter;
+    private final TMappingExclusionConfig tMappingExclusionConfig;
+    private final MappingVocabularyExtractor vocabularyExtractor;
+    private final SpecificationFactory specificationFactory;
+    private final OntopMappingSettings settings;
+    private final StartupProfiler profiler;
+
+    // guarded by this
+    @Nullable
+    private State previousState;
+
+    @Inject
+    private IncrementalOBDASpecificationUpdater(MappingExtractor mappingExtractor,
+                                                MappingTransformer mappingTransformer,
+                                                MappingNormalizer mappingNormalizer,
+                                                Mapping2DatalogConverter mapping2DatalogConverter,
+                                                Datalog2QueryMappingConverter datalog2MappingConverter,
+                                                TMappingExclusionConfig tMappingExclusionConfig,
+                                                MappingVocabularyExtractor vocabularyExtractor,
+                                                SpecificationFactory specificationFactory,
+                                                OntopMappingSettings settings, StartupProfiler profiler) {
+        this.mappingExtractor = mappingExtractor;
+        this.mappingTransformer = mappingTransformer;
+        this.mappingNormalizer = mappingNormalizer;
+        this.mapping2DatalogConverter = mapping2DatalogConverter;
+        this.datalog2MappingConverter = datalog2MappingConverter;
+        this.tMappingExclusionConfig = tMappingExclusionConfig;
+        this.vocabularyExtractor = vocabularyExtractor;
+        this.specificationFactory = specificationFactory;
+        this.settings = settings;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public synchronized OBDASpecification update(@Nonnull OBDASpecInput specInput, @Nonnull Optional<DBMetadata> dbMetadata,
+                                                 @Nonnull Optional<Ontology> optionalOntology,
+                                                 ExecutorRegistry executorRegistry)
+            throws OBDASpecificationException {
+        Optional<TBoxReasoner> optionalSaturatedTBox = optionalOntology.map(this::classify);
+
+        MappingAndDBMetadata mappingAndDBMetadata = mappingExtractor.extract(specInput, dbMetadata, optionalOntology,
+                optionalSaturatedTBox, executorRegistry);
+
+        return transform(optionalOntology, optionalSaturatedTBox, mappingAndDBMetadata);
+    }
+
+    @Override
+    public synchronized OBDASpecification update(@Nonnull OBDASpecInput specInput, @Nonnull PreProcessedMapping ppMapping,
+                                                 @Nonnull Optional<DBMetadata> dbMetadata,
+                                                 @Nonnull Optional<Ontology> optionalOntology,
+                                                 ExecutorRegistry executorRegistry)
+            throws OBDASpecificationException {
+        Optional<TBoxReasoner> optionalSaturatedTBox = optionalOntology.map(this::classify);
+
+        MappingAndDBMetadata mappingAndDBMetadata = mappingExtractor.extract(ppMapping, specInput, dbMetadata,
+                optionalOntology, optionalSaturatedTBox, executorRegistry);
+
+        return transform(optionalOntology, optionalSaturatedTBox, mappingAndDBMetadata);
+    }
+
+    private OBDASpecification transform(Optional<Ontology> optionalOntology, Optional<TBoxReasoner> optionalSaturatedTBox,
+                                        MappingAndDBMetadata mappingAndDBMetadata)
+            throws MappingException, DBMetadataExtractionException {
+        Mapping mapping = mappingAndDBMetadata.getMapping();
+        DBMetadata dbMetadata = mappingAndDBMetadata.getDBMetadata();
+
+        //Bootstrap the ontology from the mapping if it does not already exist
+        Ontology ontology = optionalOntology
+                .orElseGet(() -> vocabularyExtractor.extractOntology(mapping));
+        TBoxReasoner tBox = optionalSaturatedTBox
+                .orElseGet(() -> classify(ontology));
+
+        Mapping canonicalMapping;
+        try (StartupProfiler.Phase phase = profiler.startPhase("mapping preparation")) {
+            canonicalMapping = mappingTransformer.prepareForSaturation(mapping, dbMetadata, ontology, tBox);
+            phase.count("predicates", canonicalMapping.getPredicates().size());
+        }
+
+        try (StartupProfiler.Phase phase = profiler.startPhase("incremental T-mapping saturation")) {
+            return saturateAndNormalize(mapping, canonicalMapping, dbMetadata, ontology, tBox, phase);
+        }
+    }
+
+    private OBDASpecification saturateAndNormalize(Mapping mapping, Mapping canonicalMapping, DBMetadata dbMetadata,
+                                                   Ontology ontology, TBoxReasoner tBox, StartupProfiler.Phase phase)
+            throws MappingException, DBMetadataExtractionException {
+
+        LinearInclusionDependencies foreignKeyRules = new LinearInclusionDependencies(dbMetadata.generateFKRules());
+        CQContainmentCheckUnderLIDs foreignKeyCQC = new CQContainmentCheckUnderLIDs(foreignKeyRules);
+
+        ImmutableList<CQIE> initialMappingRules = mapping2DatalogConverter.convert(canonicalMapping)
+                .map(r -> LegacyIsNotNullDatalogMappingFiller.addNotNull(r, dbMetadata))
+                .collect(ImmutableCollectors.toList());
+
+        LazyTMappingProcessor tMappingProcessor = new LazyTMappingProcessor(initialMappingRules, tBox, foreignKeyCQC,
+                tMappingExclusionConfig, r -> LegacyIsNotNullDatalogMappingFiller.addNotNull(r, dbMetadata));
+
+        ImmutableSet<Predicate> predicates = tMappingProcessor.getPredicates().stream()
+                .filter(p -> !isTriplePredicate(p))
+                .collect(ImmutableCollectors.toSet());
+
+        ImmutableSet<String> metadataFingerprint = getMetadataFingerprint(dbMetadata);
+        // The definitions built against other DB metadata are not reused
+        Optional<State> reusableState = Optional.ofNullable(previousState)
+                .filter(s -> s.metadataFingerprint.equals(metadataFingerprint));
+
+        ImmutableSet<Predicate> reusedPredicates = reusableState
+                .map(s -> predicates.stream()
+                        .filter(p -> s.predicates.contains(p))
+                        .filter(p -> tMappingProcessor.hasSameTMapping(s.tMappingProcessor, p))
+                        .collect(ImmutableCollectors.toSet()))
+                .orElseGet(ImmutableSet::of);
+
+        reusableState.ifPresent(s -> reusedPredicates
+                .forEach(p -> tMappingProcessor.reuseTMapping(s.tMappingProcessor, p)));
+
+        ImmutableList<CQIE> updatedRules = predicates.stream()
+                .filter(p -> !reusedPredicates.contains(p))
+                .flatMap(p -> tMappingProcessor.getTMappings(p).stream())
+                .collect(ImmutableCollectors.toList());
+
+        boolean isTripleDefinitionReused = reusableState
+                .filter(s -> reusedPredicates.size() == predicates.size())
+                .filter(s -> predicates.equals(s.predicates))
+                .filter(s -> tMappingProcessor.hasSameTMapping(s.tMappingProcessor, PredicateImpl.QUEST_TRIPLE_PRED))
+                .isPresent();
+
+        ImmutableList<CQIE> rulesToConvert = isTripleDefinitionReused
+                ? updatedRules
+                : Stream.concat(updatedRules.stream(), getTripleRules(tMappingProcessor).stream())
+                .collect(ImmutableCollectors.toList());
+
+        Mapping updatedMapping = mappingNormalizer.normalize(
+                datalog2MappingConverter.convertMappingRules(rulesToConvert, dbMetadata, mapping.getExecutorRegistry(),
+                        mapping.getMetadata()));
+
+        ImmutableMap.Builder<AtomPredicate, IntermediateQuery> definitionBuilder = ImmutableMap.builder();
+        for (AtomPredicate predicate : updatedMapping.getPredicates())
+            updatedMapping.getDefinition(predicate)
+                    .ifPresent(d -> definitionBuilder.put(predicate, d));
+
+        Stream<Predicate> previousPredicates = isTripleDefinitionReused
+                ? Stream.concat(reusedPredicates.stream(), Stream.of(PredicateImpl.QUEST_TRIPLE_PRED))
+                : reusedPredicates.stream();
+        reusableState.ifPresent(s -> previousPredicates
+                .map(ATOM_FACTORY::getAtomPredicate)
+                .forEach(p -> s.saturatedMapping.getDefinition(p)
+                        .ifPresent(d -> definitionBuilder.put(p, d))));
+
+        Mapping saturatedMapping = specificationFactory.createMapping(mapping.getMetadata(), definitionBuilder.build(),
+                mapping.getExecutorRegistry());
+
+        log.debug("Specification update: {} definitions reused, {} saturated again", reusedPredicates.size(),
+                predicates.size() - reusedPredicates.size());
+        phase.count("reusedPredicates", reusedPredicates.size())
+                .count("saturatedPredicates", predicates.size() - reusedPredicates.size());
+
+        previousState = new State(ontology, tBox, tMappingProcessor, predicates, saturatedMapping,
+                metadataFingerprint);
+
+        return specificationFactory.createSpecification(saturatedMapping, dbMetadata, tBox, ontology.getVocabulary());
+    }
+
+    /**
+     * Rules with a triple head, and the triple versions of all the other rules
+     */
+    private static ImmutableList<CQIE> getTripleRules(LazyTMappingProcessor tMappingProcessor) {
+        ImmutableSet<CQIE> allRules = tMappingProcessor.getPredicates().stream()
+                .flatMap(p -> tMappingProcessor.getTMappings(p).stream())
+                .collect(ImmutableCollectors.toSet());
+
+        return Stream.concat(
+                allRules.stream()
+                        .filter(r -> isTriplePredicate(r.getHead().getFunctionSymbol())),
+                LegacyMappingSaturator.generateTripleMappings(allRules).stream())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Relations (tables and views) with their attributes, unique constraints, functional dependencies
+     * and foreign keys, independently of their order
+     */
+    private static ImmutableSet<String> getMetadataFingerprint(DBMetadata dbMetadata) {
+        return Stream.concat(
+                Stream.of(dbMetadata.toString().split("\n")),
+                dbMetadata.getDatabaseRelations().stream()
+                        .flatMap(r -> Stream.concat(
+                                Stream.concat(
+                                        r.getUniqueConstraints().stream()
+                                                .map(Object::toString),
+                                        r.getOtherFunctionalDependencies().stream()
+                                                .map(d -> r.getID() + ": " + printAttributes(d.getDeterminants())
+                                                        + " -> " + printAttributes(d.getDependents()))),
+                                r.getForeignKeys().stream()
+                                        .map(Object::toString))))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private static String printAttributes(ImmutableSet<Attribute> attributes) {
+        return attributes.stream()
+                .map(a -> a.getID().toString())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static boolean isTriplePredicate(Predicate predicate) {
+        return predicate.equals(PredicateImpl.QUEST_TRIPLE_PRED);
+    }
+
+    /**
+     * Reuses the previous TBox when the hierarchies have not changed
+     */
+    private TBoxReasoner classify(Ontology ontology) {
+        try (StartupProfiler.Phase phase = profiler.startPhase("TBox classification")) {
+            if (previousState != null && hasSameHierarchies(previousState.ontology, ontology)) {
+                phase.count("reused", 1);
+                return previousState.tBox;
+            }
+
+            return TBoxReasonerImpl.create(ontology, settings.isEquivalenceOptimizationEnabled(),
+                    settings.isBitSetTBoxClassificationEnabled());
+        }
+    }
+
+    private static boolean hasSameHierarchies(Ontology ontology1, Ontology ontology2) {
+        return ImmutableSet.copyOf(ontology1.getVocabulary().getClasses())
+                    .equals(ImmutableSet.copyOf(ontology2.getVocabulary().getClasses()))
+                && ImmutableSet.copyOf(ontology1.getVocabulary().getObjectProperties())
+                    .equals(ImmutableSet.copyOf(ontology2.getVocabulary().getObjectProperties()))
+                && ImmutableSet.copyOf(ontology1.getVocabulary().getDataProperties())
+                    .equals(ImmutableSet.copyOf(ontology2.getVocabulary().getDataProperties()))
+                && ImmutableSet.copyOf(ontology1.getSubClassAxioms())
+                    .equals(ImmutableSet.copyOf(ontology2.getSubClassAxioms()))
+                && ImmutableSet.copyOf(ontology1.getSubDataRangeAxioms())
+                    .equals(ImmutableSet.copyOf(ontology2.getSubDataRangeAxioms()))
+                && ImmutableSet.copyOf(ontology1.getSubObjectPropertyAxioms())
+                    .equals(ImmutableSet.copyOf(ontology2.getSubObjectPropertyAxioms()))
+                && ImmutableSet.copyOf(ontology1.getSubDataPropertyAxioms())
+                    .equals(ImmutableSet.copyOf(ontology2.getSubDataPropertyAxioms()));
+    }
+
+
+    private static class State {
+        private final Ontology ontology;
+        private final TBoxReasoner tBox;
+        private final LazyTMappingProcessor tMappingProcessor;
+        // Without the triple predicate
+        private final ImmutableSet<Predicate> predicates;
+        private final Mapping saturatedMapping;
+        private final ImmutableSet<String> metadataFingerprint;
+
+        private State(Ontology ontology, TBoxReasoner tBox, LazyTMappingProcessor tMappingProcessor,
+                      ImmutableSet<Predicate> predicates, Mapping saturatedMapping,
+                      ImmutableSet<String> metadataFingerprint) {
+            this.ontology = ontology;
+            this.tBox = tBox;
+            this.tMappingProcessor = tMappingProcessor;
+            this.predicates = predicates;
+            this.saturatedMapping = saturatedMapping;
+            this.metadataFingerprint = metadataFingerprint;
+        }
+    }
+}
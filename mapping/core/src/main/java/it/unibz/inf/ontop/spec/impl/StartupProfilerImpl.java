@@ -0,0 +1,209 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.spec.StartupProfiler;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The depth of a phase is the number of phases open in the same thread when it starts
+ * (the phases of the other threads, e.g. of a parallel stream, are not enclosing it).
+ * <p>
+ * The allocated bytes of a phase are the sum, over the threads alive at its end, of the bytes allocated since
+ * its start (or since their creation). The allocations of the threads that terminate before the end of the phase
+ * (e.g. the worker threads of an executor shut down during the phase) are therefore lost.
+ */
+@Singleton
+public class StartupProfilerImpl implements StartupProfiler {
+
+    private static final Phase DISABLED_PHASE = new Phase() {
+        @Override
+        public Phase count(String element, long value) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final boolean isEnabled;
+
+    // guarded by this
+    private final List<PhaseImpl> phases = new ArrayList<>();
+    // Number of open phases, per thread
+    private final ThreadLocal<AtomicInteger> openPhaseCounts = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Inject
+    private StartupProfilerImpl(OntopMappingSettings settings) {
+        this.isEnabled = settings.isStartupProfilingEnabled();
+    }
+
+    @Override
+    public Phase startPhase(String name) {
+        if (!isEnabled)
+            return DISABLED_PHASE;
+
+        PhaseImpl phase = new PhaseImpl(name, openPhaseCounts.get());
+        synchronized (this) {
+            phases.add(phase);
+        }
+        return phase;
+    }
+
+    /**
+     * The phases still open are not forgotten by their thread (their nested phases keep their depth)
+     */
+    @Override
+    public synchronized void reset() {
+        phases.clear();
+    }
+
+    @Override
+    public synchronized ImmutableList<PhaseReport> getReport() {
+        return phases.stream()
+                .filter(PhaseImpl::isClosed)
+                .map(p -> (PhaseReport) p)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public String toJson() {
+        return getReport().stream()
+                .map(StartupProfilerImpl::toJson)
+                .collect(Collectors.joining(",\n  ", "[\n  ", "\n]"));
+    }
+
+    private static String toJson(PhaseReport phase) {
+        return "{\"phase\": " + quote(phase.getName())
+                + ", \"depth\": " + phase.getDepth()
+                + ", \"wallTimeMs\": " + phase.getWallTimeMs()
+                + phase.getAllocatedBytes().map(b -> ", \"allocatedBytes\": " + b).orElse("")
+                + ", \"counts\": " + phase.getCounts().entrySet().stream()
+                        .map(e -> quote(e.getKey()) + ": " + e.getValue())
+                        .collect(Collectors.joining(", ", "{", "}"))
+                + "}";
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Thread ID -> bytes allocated by the thread since its creation, for the live threads.
+     * Empty if not supported by the JVM.
+     */
+    private static Optional<Map<Long, Long>> getAllocatedBytesPerThread() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean))
+            return Optional.empty();
+
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled())
+            return Optional.empty();
+
+        long[] threadIds = threadBean.getAllThreadIds();
+        long[] allocatedBytes = allocationBean.getThreadAllocatedBytes(threadIds);
+        Map<Long, Long> map = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++)
+            // -1 for a thread that has terminated in the meantime
+            if (allocatedBytes[i] >= 0)
+                map.put(threadIds[i], allocatedBytes[i]);
+        return Optional.of(map);
+    }
+
+    /**
+     * The allocation counter of a thread never decreases, so the sum is not negative
+     */
+    private static long getAllocatedBytesSince(Map<Long, Long> start, Map<Long, Long> end) {
+        long total = 0;
+        for (Map.Entry<Long, Long> e : end.entrySet())
+            total += e.getValue() - start.getOrDefault(e.getKey(), 0L);
+        return total;
+    }
+
+
+    private class PhaseImpl implements Phase, PhaseReport {
+        private final String name;
+        private final int depth;
+        private final AtomicInteger openPhaseCount;
+        private final long startTime;
+        private final Optional<Map<Long, Long>> startAllocatedBytes;
+        // guarded by this
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private volatile boolean isClosed = false;
+        private long wallTimeMs;
+        private Optional<Long> allocatedBytes = Optional.empty();
+
+        /**
+         * openPhaseCount: counter of the thread starting the phase
+         */
+        private PhaseImpl(String name, AtomicInteger openPhaseCount) {
+            this.name = name;
+            this.depth = openPhaseCount.getAndIncrement();
+            this.openPhaseCount = openPhaseCount;
+            this.startAllocatedBytes = getAllocatedBytesPerThread();
+            this.startTime = System.nanoTime();
+        }
+
+        @Override
+        public synchronized Phase count(String element, long value) {
+            counts.put(element, value);
+            return this;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (isClosed)
+                return;
+            wallTimeMs = (System.nanoTime() - startTime) / 1000000;
+            allocatedBytes = startAllocatedBytes.flatMap(start -> getAllocatedBytesPerThread()
+                    .map(end -> getAllocatedBytesSince(start, end)));
+            isClosed = true;
+            openPhaseCount.decrementAndGet();
+        }
+
+        private boolean isClosed() {
+            return isClosed;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public long getWallTimeMs() {
+            return wallTimeMs;
+        }
+
+        @Override
+        public Optional<Long> getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public synchronized ImmutableMap<String, Long> getCounts() {
+            return ImmutableMap.copyOf(counts);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Class for TMapping Optimization. The Mappings for the classes and properties in the configuration are assumed to "exact".
@@ -40,6 +41,14 @@ public class TMappingExclusionConfig {
         return  properties.contains(propertyExpression.getName());
     }
 
+    /**
+     * Sorted names of the excluded classes and properties (stable across runs)
+     */
+    @Override
+    public String toString() {
+        return "classes=" + new TreeSet<>(classes) + ", properties=" + new TreeSet<>(properties);
+    }
+
     private static final TMappingExclusionConfig EMPTY = new TMappingExclusionConfig(Collections.<String>emptySet(), Collections.<String>emptySet());
 
     /**
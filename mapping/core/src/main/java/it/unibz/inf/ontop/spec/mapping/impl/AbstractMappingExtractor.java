@@ -5,6 +5,7 @@ import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 import it.unibz.inf.ontop.spec.impl.MappingAndDBMetadataImpl;
 import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
 import it.unibz.inf.ontop.spec.mapping.MappingWithProvenance;
@@ -28,10 +29,13 @@ public abstract class AbstractMappingExtractor<T1 extends PreProcessedMapping, T
 
     private final MappingOntologyComplianceValidator ontologyComplianceValidator;
     protected final T3 mappingParser;
+    protected final StartupProfiler profiler;
 
-    protected AbstractMappingExtractor(MappingOntologyComplianceValidator ontologyComplianceValidator, T3 mappingParser) {
+    protected AbstractMappingExtractor(MappingOntologyComplianceValidator ontologyComplianceValidator, T3 mappingParser,
+                                       StartupProfiler profiler) {
         this.ontologyComplianceValidator = ontologyComplianceValidator;
         this.mappingParser = mappingParser;
+        this.profiler = profiler;
     }
 
     @Override
@@ -41,7 +45,11 @@ public abstract class AbstractMappingExtractor<T1 extends PreProcessedMapping, T
                                         @Nonnull ExecutorRegistry executorRegistry)
             throws MappingException, DBMetadataExtractionException {
 
-        T1 ppMapping = extractPPMapping(specInput);
+        T1 ppMapping;
+        try (StartupProfiler.Phase phase = profiler.startPhase("mapping parsing")) {
+            ppMapping = extractPPMapping(specInput);
+            phase.count("triplesMaps", ppMapping.getTripleMaps().size());
+        }
 
         return extract(ppMapping, specInput, dbMetadata, ontology, saturatedTBox, executorRegistry);
     }
@@ -0,0 +1,13 @@
+package it.unibz.inf.ontop.spec.mapping.transformer;
+
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+
+/**
+ * Adds the canonical representatives (the subjects of the sameAs mapping assertions) of the IRIs linked
+ * by owl:sameAs to the other mapping assertions. The original IRIs, linked or not, are kept.
+ */
+public interface MappingSameAsCanonicalIRIRewriter {
+
+    Mapping rewrite(Mapping mapping, DBMetadata dbMetadata);
+}
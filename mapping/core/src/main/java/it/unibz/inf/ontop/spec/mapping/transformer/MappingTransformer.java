@@ -18,4 +18,10 @@ public interface MappingTransformer {
     OBDASpecification transform(OBDASpecInput specInput, Mapping mapping, DBMetadata dbMetadata,
                                 Ontology ontology, TBoxReasoner tBox)
             throws MappingException, OntologyException, DBMetadataExtractionException;
+
+    /**
+     * Steps of transform(...) that precede the saturation (ABox facts, equivalences, sameAs, canonical IRIs)
+     */
+    Mapping prepareForSaturation(Mapping mapping, DBMetadata dbMetadata, Ontology ontology, TBoxReasoner tBox)
+            throws MappingException, DBMetadataExtractionException;
 }
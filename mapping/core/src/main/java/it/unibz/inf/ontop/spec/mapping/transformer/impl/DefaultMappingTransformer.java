@@ -11,6 +11,7 @@ import it.unibz.inf.ontop.spec.ontology.Ontology;
 import it.unibz.inf.ontop.spec.ontology.TBoxReasoner;
 import it.unibz.inf.ontop.spec.OBDASpecInput;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 import it.unibz.inf.ontop.spec.mapping.transformer.*;
 
 public class DefaultMappingTransformer implements MappingTransformer{
@@ -23,8 +24,10 @@ public class DefaultMappingTransformer implements MappingTransformer{
     private final MappingMerger mappingMerger;
     private final OntopMappingSettings settings;
     private final MappingSameAsInverseRewriter sameAsInverseRewriter;
+    private final MappingSameAsCanonicalIRIRewriter sameAsCanonicalIRIRewriter;
     private final MappingEquivalenceFreeRewriter eqFreeRewriter;
     private final SpecificationFactory specificationFactory;
+    private final StartupProfiler profiler;
 
     @Inject
     private DefaultMappingTransformer(MappingCanonicalRewriter mappingCanonicalRewriter,
@@ -34,8 +37,10 @@ public class DefaultMappingTransformer implements MappingTransformer{
                                      MappingMerger mappingMerger,
                                      OntopMappingSettings settings,
                                      MappingSameAsInverseRewriter sameAsInverseRewriter,
+                                     MappingSameAsCanonicalIRIRewriter sameAsCanonicalIRIRewriter,
                                      MappingEquivalenceFreeRewriter eqFreeRewriter,
-                                     SpecificationFactory specificationFactory) {
+                                     SpecificationFactory specificationFactory,
+                                     StartupProfiler profiler) {
         this.mappingCanonicalRewriter = mappingCanonicalRewriter;
         this.mappingNormalizer = mappingNormalizer;
         this.mappingSaturator = mappingSaturator;
@@ -43,23 +48,43 @@ public class DefaultMappingTransformer implements MappingTransformer{
         this.mappingMerger = mappingMerger;
         this.settings = settings;
         this.sameAsInverseRewriter = sameAsInverseRewriter;
+        this.sameAsCanonicalIRIRewriter = sameAsCanonicalIRIRewriter;
         this.eqFreeRewriter = eqFreeRewriter;
         this.specificationFactory = specificationFactory;
+        this.profiler = profiler;
     }
 
     @Override
     public OBDASpecification transform(OBDASpecInput specInput, Mapping mapping, DBMetadata dbMetadata, Ontology ontology,
                                        TBoxReasoner tBox)
             throws MappingException, DBMetadataExtractionException {
+        Mapping canonicalMapping;
+        try (StartupProfiler.Phase phase = profiler.startPhase("mapping preparation")) {
+            canonicalMapping = prepareForSaturation(mapping, dbMetadata, ontology, tBox);
+            phase.count("predicates", canonicalMapping.getPredicates().size());
+        }
+
+        Mapping saturatedMapping = mappingSaturator.saturate(canonicalMapping, dbMetadata, tBox);
+
+        Mapping normalizedMapping;
+        try (StartupProfiler.Phase phase = profiler.startPhase("mapping normalization")) {
+            normalizedMapping = mappingNormalizer.normalize(saturatedMapping);
+            phase.count("predicates", normalizedMapping.getPredicates().size());
+        }
+
+        return specificationFactory.createSpecification(normalizedMapping, dbMetadata, tBox, ontology.getVocabulary());
+    }
+
+    @Override
+    public Mapping prepareForSaturation(Mapping mapping, DBMetadata dbMetadata, Ontology ontology, TBoxReasoner tBox)
+            throws MappingException, DBMetadataExtractionException {
         Mapping factsAsMapping = factConverter.convert(ontology, mapping.getExecutorRegistry(),
                 settings.isOntologyAnnotationQueryingEnabled(), mapping.getMetadata().getUriTemplateMatcher());
         Mapping mappingWithFacts = mappingMerger.merge(mapping, factsAsMapping);
         Mapping eqFreeMapping = eqFreeRewriter.rewrite(mappingWithFacts, tBox, ontology.getVocabulary(), dbMetadata);
-        Mapping sameAsOptimizedMapping = sameAsInverseRewriter.rewrite(eqFreeMapping, dbMetadata);
-        Mapping canonicalMapping = mappingCanonicalRewriter.rewrite(sameAsOptimizedMapping, dbMetadata);
-        Mapping saturatedMapping = mappingSaturator.saturate(canonicalMapping, dbMetadata, tBox);
-        Mapping normalizedMapping = mappingNormalizer.normalize(saturatedMapping);
-
-        return specificationFactory.createSpecification(normalizedMapping, dbMetadata, tBox, ontology.getVocabulary());
+        // Before adding the inverses of the sameAs assertions (the direction matters)
+        Mapping sameAsCanonicalMapping = sameAsCanonicalIRIRewriter.rewrite(eqFreeMapping, dbMetadata);
+        Mapping sameAsOptimizedMapping = sameAsInverseRewriter.rewrite(sameAsCanonicalMapping, dbMetadata);
+        return mappingCanonicalRewriter.rewrite(sameAsOptimizedMapping, dbMetadata);
     }
 }
@@ -0,0 +1,140 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.datalog.Datalog2QueryMappingConverter;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import it.unibz.inf.ontop.model.term.impl.PredicateImpl;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.spec.mapping.MappingMetadata;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.ATOM_FACTORY;
+
+/**
+ * Saturated mapping whose definitions are computed on their first access
+ * (see LazyTMappingProcessor) and then memoized.
+ *
+ * The definition of the triple predicate requires the T-mappings of all the predicates.
+ * getQueries() computes all the definitions.
+ */
+public class LazySaturatedMapping implements Mapping {
+
+    private final LazyTMappingProcessor tMappingProcessor;
+    private final Datalog2QueryMappingConverter datalog2MappingConverter;
+    private final DBMetadata dbMetadata;
+    private final MappingMetadata metadata;
+    private final ExecutorRegistry executorRegistry;
+    /**
+     * Applied to each definition (e.g. normalization)
+     */
+    private final UnaryOperator<IntermediateQuery> definitionTransformer;
+
+    private final ConcurrentMap<AtomPredicate, Optional<IntermediateQuery>> definitions = new ConcurrentHashMap<>();
+
+    LazySaturatedMapping(LazyTMappingProcessor tMappingProcessor, Datalog2QueryMappingConverter datalog2MappingConverter,
+                         DBMetadata dbMetadata, MappingMetadata metadata, ExecutorRegistry executorRegistry,
+                         UnaryOperator<IntermediateQuery> definitionTransformer) {
+        this.tMappingProcessor = tMappingProcessor;
+        this.datalog2MappingConverter = datalog2MappingConverter;
+        this.dbMetadata = dbMetadata;
+        this.metadata = metadata;
+        this.executorRegistry = executorRegistry;
+        this.definitionTransformer = definitionTransformer;
+    }
+
+    /**
+     * Same T-mappings, with the transformer applied to each definition (on its first access)
+     */
+    LazySaturatedMapping transform(UnaryOperator<IntermediateQuery> transformer) {
+        return new LazySaturatedMapping(tMappingProcessor, datalog2MappingConverter, dbMetadata, metadata,
+                executorRegistry, q -> transformer.apply(definitionTransformer.apply(q)));
+    }
+
+    @Override
+    public MappingMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public Optional<IntermediateQuery> getDefinition(AtomPredicate predicate) {
+        Optional<IntermediateQuery> definition = definitions.get(predicate);
+        if (definition == null) {
+            // computed outside of the map (concurrent computations of the same definition are harmless)
+            Optional<IntermediateQuery> newDefinition = computeDefinition(predicate);
+            Optional<IntermediateQuery> previous = definitions.putIfAbsent(predicate, newDefinition);
+            definition = previous != null ? previous : newDefinition;
+        }
+        return definition
+                .filter(q -> q.getProjectionAtom().getPredicate().getArity() == predicate.getArity());
+    }
+
+    private Optional<IntermediateQuery> computeDefinition(AtomPredicate predicate) {
+        ImmutableList<CQIE> rules = isTriplePredicate(predicate)
+                ? getTripleRules()
+                : tMappingProcessor.getTMappings(predicate);
+        if (rules.isEmpty())
+            return Optional.empty();
+
+        return datalog2MappingConverter.convertMappingRules(rules, dbMetadata, executorRegistry, metadata)
+                .getDefinition(predicate)
+                .map(definitionTransformer);
+    }
+
+    /**
+     * Rules with a triple head, and the triple versions of all the other rules
+     */
+    private ImmutableList<CQIE> getTripleRules() {
+        ImmutableSet<CQIE> allRules = tMappingProcessor.getPredicates().stream()
+                .flatMap(p -> tMappingProcessor.getTMappings(p).stream())
+                .collect(ImmutableCollectors.toSet());
+
+        return Stream.concat(
+                allRules.stream()
+                        .filter(r -> isTriplePredicate(r.getHead().getFunctionSymbol())),
+                LegacyMappingSaturator.generateTripleMappings(allRules).stream())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static boolean isTriplePredicate(Predicate predicate) {
+        return predicate.equals(PredicateImpl.QUEST_TRIPLE_PRED);
+    }
+
+    @Override
+    public ImmutableSet<AtomPredicate> getPredicates() {
+        ImmutableSet<AtomPredicate> predicates = tMappingProcessor.getPredicates().stream()
+                .map(ATOM_FACTORY::getAtomPredicate)
+                .collect(ImmutableCollectors.toSet());
+
+        return predicates.isEmpty()
+                ? predicates
+                : Stream.concat(predicates.stream(), Stream.of(ATOM_FACTORY.getAtomPredicate(PredicateImpl.QUEST_TRIPLE_PRED)))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    @Override
+    public ImmutableCollection<IntermediateQuery> getQueries() {
+        return getPredicates().stream()
+                .map(this::getDefinition)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public ExecutorRegistry getExecutorRegistry() {
+        return executorRegistry;
+    }
+}
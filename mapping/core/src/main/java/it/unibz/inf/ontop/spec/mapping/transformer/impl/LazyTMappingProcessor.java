@@ -0,0 +1,430 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.datalog.impl.CQContainmentCheckUnderLIDs;
+import it.unibz.inf.ontop.model.term.Function;
+import it.unibz.inf.ontop.model.term.Term;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
+import it.unibz.inf.ontop.spec.mapping.transformer.impl.TMappingProcessor.TMappingIndexEntry;
+import it.unibz.inf.ontop.spec.ontology.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+
+/**
+ * On-demand version of TMappingProcessor.getTMappings (full T-mappings):
+ * the T-mapping of a predicate is computed on its first access and then memoized.
+ *
+ * The T-mapping of a predicate only depends on the original mappings and on the TBox
+ * (the mappings of the descendants and, for non-representatives, the T-mapping of the representative),
+ * so the rules are the same as the ones of the eager saturation.
+ *
+ * Thread-safe: the computations are serialized (CQContainmentCheckUnderLIDs is not thread-safe)
+ * but the memoized T-mappings are read without locking.
+ */
+public class LazyTMappingProcessor {
+
+	private final TBoxReasoner reasoner;
+	private final CQContainmentCheckUnderLIDs cqc;
+	private final TMappingExclusionConfig excludeFromTMappings;
+	private final UnaryOperator<CQIE> ruleCompletion;
+
+	private final ImmutableListMultimap<Predicate, CQIE> originalRuleIndex;
+
+	// predicates of the TBox -> equivalence set processed for them (as in TMappingProcessor)
+	private final Map<Predicate, Equivalences<ObjectPropertyExpression>> objectPropertySets = new HashMap<>();
+	private final Map<Predicate, Equivalences<DataPropertyExpression>> dataPropertySets = new HashMap<>();
+	private final Map<Predicate, Equivalences<ClassExpression>> classSets = new HashMap<>();
+
+	// guarded by lock
+	private final Object lock = new Object();
+	private final Map<Predicate, List<TMappingRule>> originalMappingIndex = new HashMap<>();
+	private final Map<Predicate, TMappingIndexEntry> mappingIndex = new HashMap<>();
+
+	private final ConcurrentMap<Predicate, ImmutableList<CQIE>> tMappings = new ConcurrentHashMap<>();
+	private final Supplier<ImmutableSet<Predicate>> predicates;
+
+	/**
+	 * @param originalMappings
+	 * @param reasoner
+	 * @param cqc
+	 * @param excludeFromTMappings
+	 * @param ruleCompletion applied to each rule of the T-mappings
+	 */
+	public LazyTMappingProcessor(List<CQIE> originalMappings, TBoxReasoner reasoner, CQContainmentCheckUnderLIDs cqc,
+								 TMappingExclusionConfig excludeFromTMappings, UnaryOperator<CQIE> ruleCompletion) {
+
+		if (excludeFromTMappings == null)
+			throw new NullPointerException("excludeFromTMappings");
+
+		this.reasoner = reasoner;
+		this.cqc = cqc;
+		this.excludeFromTMappings = excludeFromTMappings;
+		this.ruleCompletion = ruleCompletion;
+
+		ImmutableListMultimap.Builder<Predicate, CQIE> ruleIndexBuilder = ImmutableListMultimap.builder();
+		for (CQIE mapping : originalMappings)
+			ruleIndexBuilder.put(mapping.getHead().getFunctionSymbol(), mapping);
+		this.originalRuleIndex = ruleIndexBuilder.build();
+
+		for (Equivalences<ObjectPropertyExpression> propertySet : reasoner.getObjectPropertyDAG()) {
+			// the sets with an inverse representative are skipped (see TMappingProcessor)
+			if (propertySet.getRepresentative().isInverse())
+				continue;
+			for (ObjectPropertyExpression property : propertySet)
+				objectPropertySets.put(property.getPredicate(), propertySet);
+		}
+
+		for (Equivalences<DataPropertyExpression> propertySet : reasoner.getDataPropertyDAG())
+			for (DataPropertyExpression property : propertySet)
+				dataPropertySets.put(property.getPredicate(), propertySet);
+
+		for (Equivalences<ClassExpression> classSet : reasoner.getClassDAG()) {
+			if (!(classSet.getRepresentative() instanceof OClass))
+				continue;
+			for (ClassExpression equiv : classSet)
+				if (equiv instanceof OClass)
+					classSets.put(((OClass) equiv).getPredicate(), classSet);
+		}
+
+		this.predicates = Suppliers.memoize(this::computePredicates);
+	}
+
+	/**
+	 * predicates with a non-empty T-mapping (without computing the T-mappings)
+	 */
+	public ImmutableSet<Predicate> getPredicates() {
+		return predicates.get();
+	}
+
+	/**
+	 * T-mapping of the predicate (computed on the first call)
+	 */
+	public ImmutableList<CQIE> getTMappings(Predicate predicate) {
+		ImmutableList<CQIE> rules = tMappings.get(predicate);
+		if (rules != null)
+			return rules;
+
+		synchronized (lock) {
+			rules = tMappings.get(predicate);
+			if (rules == null) {
+				ImmutableSet.Builder<CQIE> builder = ImmutableSet.builder();
+				for (TMappingRule rule : getEntry(predicate))
+					builder.add(ruleCompletion.apply(rule.asCQIE()));
+				rules = builder.build().asList();
+				tMappings.put(predicate, rules);
+			}
+			return rules;
+		}
+	}
+
+	/**
+	 * computes the T-mappings of the predicates with these names
+	 */
+	public void prewarm(Collection<String> predicateNames) {
+		for (Predicate predicate : getPredicates())
+			if (predicateNames.contains(predicate.getName()))
+				getTMappings(predicate);
+	}
+
+
+	/**
+	 * true if the T-mapping of the predicate is necessarily the same as the one of the previous processor:
+	 * same descendants in the TBox and same original mappings for all of them
+	 * (the foreign keys used by the containment checks are assumed not to have changed)
+	 */
+	public boolean hasSameTMapping(LazyTMappingProcessor previous, Predicate predicate) {
+		ImmutableSet<DescriptionBT> sources = getSources(predicate);
+		if (!sources.equals(previous.getSources(predicate)))
+			return false;
+
+		for (Predicate sourcePredicate : getSourcePredicates(predicate, sources))
+			if (!ImmutableSet.copyOf(originalRuleIndex.get(sourcePredicate))
+					.equals(ImmutableSet.copyOf(previous.originalRuleIndex.get(sourcePredicate))))
+				return false;
+		return true;
+	}
+
+	/**
+	 * takes the T-mapping of the predicate from the previous processor (see hasSameTMapping)
+	 */
+	public void reuseTMapping(LazyTMappingProcessor previous, Predicate predicate) {
+		tMappings.putIfAbsent(predicate, previous.getTMappings(predicate));
+	}
+
+	/**
+	 * the descriptions whose original mappings are merged into the T-mapping of the predicate
+	 * (with its own original mappings)
+	 */
+	private ImmutableSet<DescriptionBT> getSources(Predicate predicate) {
+		ImmutableSet.Builder<DescriptionBT> builder = ImmutableSet.builder();
+
+		Equivalences<ObjectPropertyExpression> objectPropertySet = objectPropertySets.get(predicate);
+		Equivalences<DataPropertyExpression> dataPropertySet = dataPropertySets.get(predicate);
+		Equivalences<ClassExpression> classSet = classSets.get(predicate);
+		if (objectPropertySet != null) {
+			if (!excludeFromTMappings.contains(objectPropertySet.getRepresentative()))
+				for (Equivalences<ObjectPropertyExpression> descendants : reasoner.getObjectPropertyDAG().getSub(objectPropertySet))
+					builder.addAll(descendants);
+		}
+		else if (dataPropertySet != null) {
+			if (!excludeFromTMappings.contains(dataPropertySet.getRepresentative()))
+				for (Equivalences<DataPropertyExpression> descendants : reasoner.getDataPropertyDAG().getSub(dataPropertySet))
+					builder.addAll(descendants);
+		}
+		else if (classSet != null) {
+			if (!excludeFromTMappings.contains((OClass) classSet.getRepresentative()))
+				for (Equivalences<ClassExpression> descendants : reasoner.getClassDAG().getSub(classSet))
+					for (ClassExpression childDescription : descendants)
+						if (getChildPredicate(childDescription).isPresent())
+							builder.add(childDescription);
+		}
+		return builder.build();
+	}
+
+	private static ImmutableSet<Predicate> getSourcePredicates(Predicate predicate, ImmutableSet<DescriptionBT> sources) {
+		ImmutableSet.Builder<Predicate> builder = ImmutableSet.builder();
+		builder.add(predicate);
+		for (DescriptionBT source : sources) {
+			if (source instanceof ObjectPropertyExpression)
+				builder.add(((ObjectPropertyExpression) source).getPredicate());
+			else if (source instanceof DataPropertyExpression)
+				builder.add(((DataPropertyExpression) source).getPredicate());
+			else if (source instanceof OClass)
+				builder.add(((OClass) source).getPredicate());
+			else if (source instanceof ObjectSomeValuesFrom)
+				builder.add(((ObjectSomeValuesFrom) source).getProperty().getPredicate());
+			else if (source instanceof DataSomeValuesFrom)
+				builder.add(((DataSomeValuesFrom) source).getProperty().getPredicate());
+		}
+		return builder.build();
+	}
+
+	private List<TMappingRule> getOriginalMappings(Predicate predicate) {
+		List<TMappingRule> rules = originalMappingIndex.get(predicate);
+		if (rules == null) {
+			rules = new ArrayList<>();
+			for (CQIE mapping : originalRuleIndex.get(predicate)) {
+				CQIE reduced = cqc.removeRedundantAtoms(mapping);
+				rules.add(new TMappingRule(reduced.getHead(), reduced.getBody(), cqc));
+			}
+			originalMappingIndex.put(predicate, rules);
+		}
+		return rules;
+	}
+
+	private TMappingIndexEntry getEntry(Predicate predicate) {
+		TMappingIndexEntry entry = mappingIndex.get(predicate);
+		if (entry == null) {
+			entry = new TMappingIndexEntry();
+			for (TMappingRule rule : getOriginalMappings(predicate))
+				entry.mergeMappingsWithCQC(rule);
+
+			Equivalences<ObjectPropertyExpression> objectPropertySet = objectPropertySets.get(predicate);
+			Equivalences<DataPropertyExpression> dataPropertySet = dataPropertySets.get(predicate);
+			Equivalences<ClassExpression> classSet = classSets.get(predicate);
+			if (objectPropertySet != null)
+				addObjectTMappings(entry, predicate, objectPropertySet);
+			else if (dataPropertySet != null)
+				addDataTMappings(entry, predicate, dataPropertySet);
+			else if (classSet != null)
+				addClassTMappings(entry, predicate, classSet);
+
+			mappingIndex.put(predicate, entry);
+		}
+		return entry;
+	}
+
+	private void addObjectTMappings(TMappingIndexEntry entry, Predicate predicate,
+									Equivalences<ObjectPropertyExpression> propertySet) {
+
+		ObjectPropertyExpression current = propertySet.getRepresentative();
+		if (excludeFromTMappings.contains(current))
+			return;
+
+		Predicate currentPredicate = current.getPredicate();
+		if (currentPredicate.equals(predicate)) {
+			for (Equivalences<ObjectPropertyExpression> descendants : reasoner.getObjectPropertyDAG().getSub(propertySet)) {
+				for (ObjectPropertyExpression childproperty : descendants) {
+					for (TMappingRule childmapping : getOriginalMappings(childproperty.getPredicate())) {
+						List<Term> terms = childmapping.getHeadTerms();
+						Function newMappingHead = !childproperty.isInverse()
+								? TERM_FACTORY.getFunction(currentPredicate, terms)
+								: TERM_FACTORY.getFunction(currentPredicate, terms.get(1), terms.get(0));
+						entry.mergeMappingsWithCQC(new TMappingRule(newMappingHead, childmapping));
+					}
+				}
+			}
+		}
+		else {
+			TMappingIndexEntry currentNodeMappings = getEntry(currentPredicate);
+			for (ObjectPropertyExpression equivProperty : propertySet) {
+				if (!equivProperty.getPredicate().equals(predicate))
+					continue;
+
+				for (TMappingRule currentNodeMapping : currentNodeMappings) {
+					List<Term> terms = currentNodeMapping.getHeadTerms();
+					Function newhead = !equivProperty.isInverse()
+							? TERM_FACTORY.getFunction(predicate, terms)
+							: TERM_FACTORY.getFunction(predicate, terms.get(1), terms.get(0));
+					entry.mergeMappingsWithCQC(new TMappingRule(newhead, currentNodeMapping));
+				}
+			}
+		}
+	}
+
+	private void addDataTMappings(TMappingIndexEntry entry, Predicate predicate,
+								  Equivalences<DataPropertyExpression> propertySet) {
+
+		DataPropertyExpression current = propertySet.getRepresentative();
+		if (excludeFromTMappings.contains(current))
+			return;
+
+		Predicate currentPredicate = current.getPredicate();
+		if (currentPredicate.equals(predicate)) {
+			for (Equivalences<DataPropertyExpression> descendants : reasoner.getDataPropertyDAG().getSub(propertySet)) {
+				for (DataPropertyExpression childproperty : descendants) {
+					for (TMappingRule childmapping : getOriginalMappings(childproperty.getPredicate())) {
+						Function newMappingHead = TERM_FACTORY.getFunction(currentPredicate, childmapping.getHeadTerms());
+						entry.mergeMappingsWithCQC(new TMappingRule(newMappingHead, childmapping));
+					}
+				}
+			}
+		}
+		else {
+			for (TMappingRule currentNodeMapping : getEntry(currentPredicate)) {
+				Function newhead = TERM_FACTORY.getFunction(predicate, currentNodeMapping.getHeadTerms());
+				entry.mergeMappingsWithCQC(new TMappingRule(newhead, currentNodeMapping));
+			}
+		}
+	}
+
+	private void addClassTMappings(TMappingIndexEntry entry, Predicate predicate,
+								   Equivalences<ClassExpression> classSet) {
+
+		OClass current = (OClass) classSet.getRepresentative();
+		if (excludeFromTMappings.contains(current))
+			return;
+
+		Predicate currentPredicate = current.getPredicate();
+		if (currentPredicate.equals(predicate)) {
+			for (Equivalences<ClassExpression> descendants : reasoner.getClassDAG().getSub(classSet)) {
+				for (ClassExpression childDescription : descendants) {
+					Optional<Predicate> childPredicate = getChildPredicate(childDescription);
+					if (!childPredicate.isPresent())
+						continue;
+
+					for (TMappingRule childmapping : getOriginalMappings(childPredicate.get())) {
+						List<Term> terms = childmapping.getHeadTerms();
+
+						Function newMappingHead;
+						if (childDescription instanceof OClass)
+							newMappingHead = TERM_FACTORY.getFunction(currentPredicate, terms);
+						else if (childDescription instanceof ObjectSomeValuesFrom
+								&& ((ObjectSomeValuesFrom) childDescription).getProperty().isInverse())
+							newMappingHead = TERM_FACTORY.getFunction(currentPredicate, terms.get(1));
+						else
+							newMappingHead = TERM_FACTORY.getFunction(currentPredicate, terms.get(0));
+
+						entry.mergeMappingsWithCQC(new TMappingRule(newMappingHead, childmapping));
+					}
+				}
+			}
+		}
+		else {
+			for (TMappingRule currentNodeMapping : getEntry(currentPredicate)) {
+				Function newhead = TERM_FACTORY.getFunction(predicate, currentNodeMapping.getHeadTerms());
+				entry.mergeMappingsWithCQC(new TMappingRule(newhead, currentNodeMapping));
+			}
+		}
+	}
+
+	/**
+	 * predicate whose mappings are inherited from a sub-class (if any)
+	 */
+	private Optional<Predicate> getChildPredicate(ClassExpression childDescription) {
+		if (childDescription instanceof OClass) {
+			return excludeFromTMappings.contains((OClass) childDescription)
+					? Optional.empty()
+					: Optional.of(((OClass) childDescription).getPredicate());
+		}
+		else if (childDescription instanceof ObjectSomeValuesFrom)
+			return Optional.of(((ObjectSomeValuesFrom) childDescription).getProperty().getPredicate());
+		else
+			return Optional.of(((DataSomeValuesFrom) childDescription).getProperty().getPredicate());
+	}
+
+	/**
+	 * the predicates with original mappings and the predicates of the sets above them
+	 * (the merge of the rules never produces an empty T-mapping)
+	 */
+	private ImmutableSet<Predicate> computePredicates() {
+		Set<Predicate> result = new HashSet<>(originalRuleIndex.keySet());
+
+		EquivalencesDAG<ObjectPropertyExpression> objectPropertyDAG = reasoner.getObjectPropertyDAG();
+		ImmutableSetMultimap<Predicate, Equivalences<ObjectPropertyExpression>> objectPropertyChildSets =
+				getChildSets(objectPropertyDAG, p -> Optional.of(p.getPredicate()));
+		Set<Equivalences<ObjectPropertyExpression>> objectPropertyAncestors = getAncestors(objectPropertyDAG,
+				objectPropertyChildSets);
+		for (Equivalences<ObjectPropertyExpression> propertySet : objectPropertyAncestors)
+			if (!propertySet.getRepresentative().isInverse() && !excludeFromTMappings.contains(propertySet.getRepresentative()))
+				for (ObjectPropertyExpression property : propertySet)
+					result.add(property.getPredicate());
+
+		EquivalencesDAG<DataPropertyExpression> dataPropertyDAG = reasoner.getDataPropertyDAG();
+		Set<Equivalences<DataPropertyExpression>> dataPropertyAncestors = getAncestors(dataPropertyDAG,
+				getChildSets(dataPropertyDAG, p -> Optional.of(p.getPredicate())));
+		for (Equivalences<DataPropertyExpression> propertySet : dataPropertyAncestors)
+			if (!excludeFromTMappings.contains(propertySet.getRepresentative()))
+				for (DataPropertyExpression property : propertySet)
+					result.add(property.getPredicate());
+
+		EquivalencesDAG<ClassExpression> classDAG = reasoner.getClassDAG();
+		Set<Equivalences<ClassExpression>> classAncestors = getAncestors(classDAG,
+				getChildSets(classDAG, this::getChildPredicate));
+		for (Equivalences<ClassExpression> classSet : classAncestors)
+			if ((classSet.getRepresentative() instanceof OClass)
+					&& !excludeFromTMappings.contains((OClass) classSet.getRepresentative()))
+				for (ClassExpression equiv : classSet)
+					if (equiv instanceof OClass)
+						result.add(((OClass) equiv).getPredicate());
+
+		return ImmutableSet.copyOf(result);
+	}
+
+	/**
+	 * sets of the DAG indexed by the predicates whose mappings are inherited from their members
+	 */
+	private static <T> ImmutableSetMultimap<Predicate, Equivalences<T>> getChildSets(
+			EquivalencesDAG<T> dag, java.util.function.Function<T, Optional<Predicate>> childPredicate) {
+		ImmutableSetMultimap.Builder<Predicate, Equivalences<T>> builder = ImmutableSetMultimap.builder();
+		for (Equivalences<T> set : dag)
+			for (T member : set)
+				childPredicate.apply(member).ifPresent(p -> builder.put(p, set));
+		return builder.build();
+	}
+
+	/**
+	 * the sets above (or equal to) a set with a member that has original mappings
+	 */
+	private <T> Set<Equivalences<T>> getAncestors(EquivalencesDAG<T> dag,
+												  ImmutableSetMultimap<Predicate, Equivalences<T>> childSets) {
+		Set<Equivalences<T>> ancestors = new HashSet<>();
+		for (Predicate predicate : originalRuleIndex.keySet())
+			for (Equivalences<T> set : childSets.get(predicate))
+				if (!ancestors.contains(set))
+					ancestors.addAll(dag.getSuper(set));
+		return ancestors;
+	}
+}
@@ -14,6 +14,8 @@ import it.unibz.inf.ontop.model.term.Function;
 import it.unibz.inf.ontop.model.term.Term;
 import it.unibz.inf.ontop.datalog.impl.CQContainmentCheckUnderLIDs;
 import it.unibz.inf.ontop.datalog.LinearInclusionDependencies;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.spec.StartupProfiler;
 import it.unibz.inf.ontop.spec.ontology.TBoxReasoner;
 import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
 import it.unibz.inf.ontop.spec.impl.LegacyIsNotNullDatalogMappingFiller;
@@ -21,6 +23,7 @@ import it.unibz.inf.ontop.spec.mapping.transformer.MappingSaturator;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -37,18 +40,30 @@ public class LegacyMappingSaturator implements MappingSaturator {
     private final TMappingExclusionConfig tMappingExclusionConfig;
     private final Mapping2DatalogConverter mapping2DatalogConverter;
     private final Datalog2QueryMappingConverter datalog2MappingConverter;
+    private final OntopMappingSettings settings;
+    private final StartupProfiler profiler;
 
     @Inject
     private LegacyMappingSaturator(TMappingExclusionConfig tMappingExclusionConfig,
                                    Mapping2DatalogConverter mapping2DatalogConverter,
-                                   Datalog2QueryMappingConverter datalog2MappingConverter) {
+                                   Datalog2QueryMappingConverter datalog2MappingConverter,
+                                   OntopMappingSettings settings, StartupProfiler profiler) {
         this.tMappingExclusionConfig = tMappingExclusionConfig;
         this.mapping2DatalogConverter = mapping2DatalogConverter;
         this.datalog2MappingConverter = datalog2MappingConverter;
+        this.settings = settings;
+        this.profiler = profiler;
     }
 
     @Override
     public Mapping saturate(Mapping mapping, DBMetadata dbMetadata, TBoxReasoner saturatedTBox) {
+        try (StartupProfiler.Phase phase = profiler.startPhase("T-mapping saturation")) {
+            return saturate(mapping, dbMetadata, saturatedTBox, phase);
+        }
+    }
+
+    private Mapping saturate(Mapping mapping, DBMetadata dbMetadata, TBoxReasoner saturatedTBox,
+                             StartupProfiler.Phase phase) {
 
         LinearInclusionDependencies foreignKeyRules = new LinearInclusionDependencies(dbMetadata.generateFKRules());
         CQContainmentCheckUnderLIDs foreignKeyCQC = new CQContainmentCheckUnderLIDs(foreignKeyRules);
@@ -56,6 +71,17 @@ public class LegacyMappingSaturator implements MappingSaturator {
         ImmutableList<CQIE> initialMappingRules = mapping2DatalogConverter.convert(mapping)
                 .map(r -> LegacyIsNotNullDatalogMappingFiller.addNotNull(r, dbMetadata))
                 .collect(ImmutableCollectors.toList());
+        phase.count("rulesBefore", initialMappingRules.size());
+
+        // In the lazy mode, the T-mappings are computed later (on demand)
+        if (settings.isLazyTMappingSaturationEnabled()) {
+            LazyTMappingProcessor tMappingProcessor = new LazyTMappingProcessor(initialMappingRules, saturatedTBox,
+                    foreignKeyCQC, tMappingExclusionConfig,
+                    r -> LegacyIsNotNullDatalogMappingFiller.addNotNull(r, dbMetadata));
+            tMappingProcessor.prewarm(settings.getPrewarmedTMappingPredicates());
+            return new LazySaturatedMapping(tMappingProcessor, datalog2MappingConverter, dbMetadata,
+                    mapping.getMetadata(), mapping.getExecutorRegistry(), q -> q);
+        }
 
         ImmutableSet<CQIE> saturatedMappingRules = TMappingProcessor.getTMappings(initialMappingRules, saturatedTBox,
                 true,
@@ -65,6 +91,7 @@ public class LegacyMappingSaturator implements MappingSaturator {
 
         List<CQIE> allMappingRules = new ArrayList<>(saturatedMappingRules);
         allMappingRules.addAll(generateTripleMappings(saturatedMappingRules));
+        phase.count("rulesAfter", allMappingRules.size());
 
         return datalog2MappingConverter.convertMappingRules(ImmutableList.copyOf(allMappingRules),
                 dbMetadata, mapping.getExecutorRegistry(), mapping.getMetadata());
@@ -76,7 +103,7 @@ public class LegacyMappingSaturator implements MappingSaturator {
      *
      * TODO: clean it
      */
-    private static List<CQIE> generateTripleMappings(ImmutableSet<CQIE> saturatedRules) {
+    public static List<CQIE> generateTripleMappings(Collection<CQIE> saturatedRules) {
         List<CQIE> newmappings = new LinkedList<CQIE>();
 
         for (CQIE mapping : saturatedRules) {
@@ -37,6 +37,12 @@ public class MappingNormalizerImpl implements MappingNormalizer {
 
     @Override
     public Mapping normalize(Mapping mapping) {
+        if (mapping instanceof LazySaturatedMapping) {
+            AtomicInteger i = new AtomicInteger(0);
+            return ((LazySaturatedMapping) mapping).transform(
+                    q -> appendSuffixToVariableNames(transformerFactory, q, i.incrementAndGet()));
+        }
+
         Stream<IntermediateQuery> queryStream = mapping.getPredicates().stream()
                 .map(mapping::getDefinition)
                 .filter(Optional::isPresent)
@@ -1,12 +1,22 @@
 package it.unibz.inf.ontop.spec.mapping.transformer.impl;
 
+import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import it.unibz.inf.ontop.datalog.CQIE;
 import it.unibz.inf.ontop.model.IriConstants;
 import it.unibz.inf.ontop.model.term.Function;
+import it.unibz.inf.ontop.model.term.Term;
+import it.unibz.inf.ontop.model.term.ValueConstant;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static it.unibz.inf.ontop.model.OntopModelSingletons.DATALOG_FACTORY;
@@ -20,7 +30,7 @@ public class MappingSameAs {
     public static ImmutableList<CQIE> addSameAsInverse(ImmutableList<CQIE> mappingRules) {
         Stream<CQIE> newRuleStream = mappingRules.stream()
                 // the targets are already split. We have only one target atom
-                .filter(r -> r.getHead().getFunctionSymbol().getName().equals(IriConstants.SAME_AS))
+                .filter(MappingSameAs::isSameAsRule)
                 .map(r -> {
                     Function head = r.getHead();
                     Function inversedHead = TERM_FACTORY.getFunction(head.getFunctionSymbol(),
@@ -32,4 +42,155 @@ public class MappingSameAs {
         return Stream.concat(mappingRules.stream(), newRuleStream)
                 .collect(ImmutableCollectors.toList());
     }
+
+    /**
+     * Adds to the other mapping assertions the corresponding subjects (canonical IRIs) of the IRIs built
+     * with the template of the objects of the sameAs assertions.
+     *
+     * The source of the sameAs assertion is used as a lookup relation: it is joined once with the
+     * source of each assertion (one rule per sameAs assertion), instead of at query time for each triple pattern.
+     *
+     * The entities without a sameAs link keep their original IRI: the original assertion is replaced by
+     * a left join with the sources of the sameAs assertions, restricted to the rows without a match.
+     * Each entity is thus returned with a single IRI (no query-time sameAs rewriting follows).
+     *
+     * Only applies when the templates of the subject and of the object differ.
+     * Templates being both canonical and non-canonical (chains of sameAs) are ignored.
+     */
+    public static ImmutableList<CQIE> replaceByCanonicalIRIs(ImmutableList<CQIE> mappingRules) {
+        ImmutableList<CQIE> sameAsRules = mappingRules.stream()
+                .filter(MappingSameAs::isSameAsRule)
+                .filter(r -> getIRITemplate(r.getHead().getTerm(0)).isPresent())
+                .filter(r -> getIRITemplate(r.getHead().getTerm(1)).isPresent())
+                .filter(r -> !getIRITemplate(r.getHead().getTerm(0)).equals(getIRITemplate(r.getHead().getTerm(1))))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableSet<String> canonicalTemplates = sameAsRules.stream()
+                .map(r -> getIRITemplate(r.getHead().getTerm(0)).get())
+                .collect(ImmutableCollectors.toSet());
+
+        ImmutableMultimap<String, CQIE> sameAsRuleIndex = sameAsRules.stream()
+                .filter(r -> !canonicalTemplates.contains(getIRITemplate(r.getHead().getTerm(1)).get()))
+                .collect(ImmutableCollectors.toMultimap(
+                        r -> getIRITemplate(r.getHead().getTerm(1)).get(),
+                        r -> r));
+
+        if (sameAsRuleIndex.isEmpty())
+            return mappingRules;
+
+        return mappingRules.stream()
+                .flatMap(r -> isSameAsRule(r)
+                        ? Stream.of(r)
+                        : replaceByCanonicalIRIs(r, sameAsRuleIndex).stream())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static List<CQIE> replaceByCanonicalIRIs(CQIE rule, ImmutableMultimap<String, CQIE> sameAsRuleIndex) {
+        List<CQIE> rules = ImmutableList.of(rule);
+        Function head = rule.getHead();
+        for (int i = 0; i < head.getArity(); i++) {
+            int index = i;
+            Optional<String> template = getIRITemplate(head.getTerm(i));
+            if (!template.isPresent() || !sameAsRuleIndex.containsKey(template.get()))
+                continue;
+
+            ImmutableCollection<CQIE> sameAsRules = sameAsRuleIndex.get(template.get());
+            rules = rules.stream()
+                    .flatMap(r -> Stream.concat(
+                            Stream.of(restrictToUnlinkedIRIs(r, index, sameAsRules)),
+                            sameAsRules.stream()
+                                    .map(s -> joinWithSameAsRule(r, index, s))))
+                    .collect(Collectors.toList());
+        }
+        return rules;
+    }
+
+    /**
+     * The IRI at the given position is replaced by the subject of the sameAs assertion
+     * (joined on the arguments of the object IRI)
+     */
+    private static CQIE joinWithSameAsRule(CQIE rule, int index, CQIE sameAsRule) {
+        CQIE freshSameAsRule = DATALOG_FACTORY.getFreshCQIECopy(sameAsRule);
+        Function canonicalIRI = (Function) freshSameAsRule.getHead().getTerm(0);
+        Function linkedIRI = (Function) freshSameAsRule.getHead().getTerm(1);
+        Function iri = (Function) rule.getHead().getTerm(index);
+
+        List<Term> headTerms = new ArrayList<>(rule.getHead().getTerms());
+        headTerms.set(index, canonicalIRI);
+        Function newHead = TERM_FACTORY.getFunction(rule.getHead().getFunctionSymbol(), headTerms);
+
+        List<Function> body = new ArrayList<>(rule.getBody());
+        body.addAll(freshSameAsRule.getBody());
+        // Same template: the first term is the template itself
+        for (int j = 1; j < iri.getArity(); j++)
+            body.add(TERM_FACTORY.getFunctionEQ(iri.getTerm(j), linkedIRI.getTerm(j)));
+
+        return DATALOG_FACTORY.getCQIE(newHead, body);
+    }
+
+    /**
+     * Keeps the rows whose IRI at the given position is not the object of a sameAs assertion
+     * (left join with the source of each sameAs assertion, without match)
+     */
+    private static CQIE restrictToUnlinkedIRIs(CQIE rule, int index, ImmutableCollection<CQIE> sameAsRules) {
+        Function iri = (Function) rule.getHead().getTerm(index);
+
+        List<Function> body = new ArrayList<>(rule.getBody());
+        List<Function> nullChecks = new ArrayList<>();
+        for (CQIE sameAsRule : sameAsRules) {
+            CQIE freshSameAsRule = DATALOG_FACTORY.getFreshCQIECopy(sameAsRule);
+            Function linkedIRI = (Function) freshSameAsRule.getHead().getTerm(1);
+
+            Function condition = TERM_FACTORY.getFunctionEQ(iri.getTerm(1), linkedIRI.getTerm(1));
+            for (int j = 2; j < iri.getArity(); j++)
+                condition = TERM_FACTORY.getFunctionAND(condition,
+                        TERM_FACTORY.getFunctionEQ(iri.getTerm(j), linkedIRI.getTerm(j)));
+
+            body = Lists.newArrayList(DATALOG_FACTORY.getSPARQLLeftJoin(toSingleDataAtom(body),
+                    toSingleDataAtom(freshSameAsRule.getBody()), Optional.of(condition)));
+            // Not null when the equality holds
+            nullChecks.add(TERM_FACTORY.getFunctionIsNull(linkedIRI.getTerm(1)));
+        }
+        body.addAll(nullChecks);
+
+        return DATALOG_FACTORY.getCQIE((Function) rule.getHead().clone(), body);
+    }
+
+    /**
+     * Each side of a left join is made of a single data or composite atom, followed by filters:
+     * the data atoms are grouped into joins
+     */
+    private static List<Function> toSingleDataAtom(List<Function> atoms) {
+        List<Function> dataAtoms = atoms.stream()
+                .filter(MappingSameAs::isDataOrCompositeAtom)
+                .collect(Collectors.toList());
+        Function dataAtom = dataAtoms.stream()
+                .reduce(DATALOG_FACTORY::getSPARQLJoin)
+                .orElseThrow(() -> new IllegalArgumentException("No data atom in " + atoms));
+
+        List<Function> newAtoms = new ArrayList<>();
+        newAtoms.add(dataAtom);
+        atoms.stream()
+                .filter(a -> !isDataOrCompositeAtom(a))
+                .forEach(newAtoms::add);
+        return newAtoms;
+    }
+
+    private static boolean isDataOrCompositeAtom(Function atom) {
+        return atom.isDataFunction() || atom.isAlgebraFunction();
+    }
+
+    private static boolean isSameAsRule(CQIE rule) {
+        return rule.getHead().getFunctionSymbol().getName().equals(IriConstants.SAME_AS);
+    }
+
+    private static Optional<String> getIRITemplate(Term term) {
+        if (!(term instanceof Function))
+            return Optional.empty();
+        Function function = (Function) term;
+        if (!(function.getFunctionSymbol() instanceof URITemplatePredicate)
+                || !(function.getTerm(0) instanceof ValueConstant))
+            return Optional.empty();
+        return Optional.of(((ValueConstant) function.getTerm(0)).getValue());
+    }
 }
@@ -56,7 +56,7 @@ public class TMappingProcessor {
 
 	private static final boolean noCQC = false;		
 
-	private static class TMappingIndexEntry implements Iterable<TMappingRule> {
+	static class TMappingIndexEntry implements Iterable<TMappingRule> {
 		private final List<TMappingRule> rules = new LinkedList<>();
 	
 
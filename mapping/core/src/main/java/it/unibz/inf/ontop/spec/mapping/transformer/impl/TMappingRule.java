@@ -61,7 +61,11 @@ public class TMappingRule {
 		List<Function> filters = new ArrayList<>(body.size());
 		
 		for (Function atom : body) {
-			if (atom.getFunctionSymbol() instanceof BuiltinPredicate) {
+			// left joins (see MappingSameAs) are kept with the database atoms
+			if (atom.isAlgebraFunction()) {
+				databaseAtoms.add((Function)atom.clone());
+			}
+			else if (atom.getFunctionSymbol() instanceof BuiltinPredicate) {
 				Function clone = (Function)atom.clone();
 				filters.add(clone);
 			}
@@ -153,27 +157,31 @@ public class TMappingRule {
 		return cqc.computeHomomorphsim(stripped, other.stripped);
 	}
 	
+	/**
+	 * the atoms are cloned because EQNormalizer.enforceEqualities modifies them
+	 * (the rule can still be merged with other rules afterwards)
+	 */
 	public CQIE asCQIE() {
 		List<Function> combinedBody;
 		if (!filterAtoms.isEmpty()) {
 			combinedBody = new ArrayList<>(databaseAtoms.size() + filterAtoms.size()); 
-			combinedBody.addAll(databaseAtoms);
+			combinedBody.addAll(cloneList(databaseAtoms));
 			
 			Iterator<List<Function>> iterOR = filterAtoms.iterator();
 			List<Function> list = iterOR.next(); // IMPORTANT: assume that conditions is non-empty
-			Function mergedConditions = getMergedByAND(list);
+			Function mergedConditions = getMergedByAND(cloneList(list));
 			while (iterOR.hasNext()) {
 				list = iterOR.next();
-				Function e = getMergedByAND(list);
+				Function e = getMergedByAND(cloneList(list));
 				mergedConditions = TERM_FACTORY.getFunctionOR(e, mergedConditions);
 			}
 			
 			combinedBody.add(mergedConditions);
 		}
 		else
-			combinedBody = databaseAtoms;
+			combinedBody = cloneList(databaseAtoms);
 		
-		CQIE cq = DATALOG_FACTORY.getCQIE(head, combinedBody);
+		CQIE cq = DATALOG_FACTORY.getCQIE((Function)head.clone(), combinedBody);
 		EQNormalizer.enforceEqualities(cq);
 		return cq;
 	}
@@ -0,0 +1,379 @@
+package it.unibz.inf.ontop.spec.ontology.impl;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.spec.ontology.*;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Alternative construction of the DAGs of TBoxReasonerImpl for large ontologies
+ *
+ *   - the entities of each hierarchy get dense integer ids and the inclusions
+ *     are stored in compressed adjacency arrays (no graph objects)
+ *   - the equivalence sets are the strongly connected components (iterative Tarjan)
+ *   - the transitive closure of the DAG of the equivalence sets is computed with bitsets,
+ *     which gives the minimal set of edges (transitive reduction)
+ *
+ * The class, data range, object property and data property hierarchies are classified in parallel.
+ *
+ * @see TBoxReasonerImpl#create(Ontology, boolean, boolean)
+ */
+
+final class BitSetTBoxClassifier {
+
+	private BitSetTBoxClassifier() {
+	}
+
+	static TBoxReasoner classify(Ontology ontology, boolean equivalenceReduced) {
+
+		// the class and data range hierarchies are built from the property inclusions
+		Hierarchy<ObjectPropertyExpression> objectProperties = getObjectPropertyHierarchy(ontology);
+		Hierarchy<DataPropertyExpression> dataProperties = getDataPropertyHierarchy(ontology);
+
+		CompletableFuture<EquivalencesDAGImpl<ObjectPropertyExpression>> objectPropertyDAG =
+				CompletableFuture.supplyAsync(objectProperties::getEquivalencesDAG);
+		CompletableFuture<EquivalencesDAGImpl<DataPropertyExpression>> dataPropertyDAG =
+				CompletableFuture.supplyAsync(dataProperties::getEquivalencesDAG);
+		CompletableFuture<EquivalencesDAGImpl<ClassExpression>> classDAG =
+				CompletableFuture.supplyAsync(() -> getClassHierarchy(ontology, objectProperties, dataProperties)
+						.getEquivalencesDAG());
+		CompletableFuture<EquivalencesDAGImpl<DataRangeExpression>> dataRangeDAG =
+				CompletableFuture.supplyAsync(() -> getDataRangeHierarchy(ontology, dataProperties)
+						.getEquivalencesDAG());
+
+		return TBoxReasonerImpl.create(join(classDAG), join(dataRangeDAG), join(objectPropertyDAG),
+				join(dataPropertyDAG), equivalenceReduced);
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+
+	/**
+	 *  same vertices and edges as TBoxReasonerImpl.getObjectPropertyGraph
+	 */
+
+	private static Hierarchy<ObjectPropertyExpression> getObjectPropertyHierarchy(Ontology ontology) {
+
+		Hierarchy<ObjectPropertyExpression> hierarchy = new Hierarchy<>();
+
+		for (ObjectPropertyExpression role : ontology.getVocabulary().getObjectProperties()) {
+			if (!role.isBottom() && !role.isTop()) {
+				hierarchy.addVertex(role);
+				hierarchy.addVertex(role.getInverse());
+			}
+		}
+
+		for (ObjectPropertyExpression role : ontology.getAuxiliaryObjectProperties()) {
+			hierarchy.addVertex(role);
+			hierarchy.addVertex(role.getInverse());
+		}
+
+		for (BinaryAxiom<ObjectPropertyExpression> roleIncl : ontology.getSubObjectPropertyAxioms()) {
+			hierarchy.addEdge(roleIncl.getSub(), roleIncl.getSuper());
+			hierarchy.addEdge(roleIncl.getSub().getInverse(), roleIncl.getSuper().getInverse());
+		}
+
+		return hierarchy;
+	}
+
+	/**
+	 *  same vertices and edges as TBoxReasonerImpl.getDataPropertyGraph
+	 */
+
+	private static Hierarchy<DataPropertyExpression> getDataPropertyHierarchy(Ontology ontology) {
+
+		Hierarchy<DataPropertyExpression> hierarchy = new Hierarchy<>();
+
+		for (DataPropertyExpression role : ontology.getVocabulary().getDataProperties())
+			if (!role.isBottom() && !role.isTop())
+				hierarchy.addVertex(role);
+
+		for (BinaryAxiom<DataPropertyExpression> roleIncl : ontology.getSubDataPropertyAxioms())
+			hierarchy.addEdge(roleIncl.getSub(), roleIncl.getSuper());
+
+		return hierarchy;
+	}
+
+	/**
+	 *  same vertices and edges as TBoxReasonerImpl.getClassGraph
+	 */
+
+	private static Hierarchy<ClassExpression> getClassHierarchy(Ontology ontology,
+																Hierarchy<ObjectPropertyExpression> objectProperties,
+																Hierarchy<DataPropertyExpression> dataProperties) {
+
+		Hierarchy<ClassExpression> hierarchy = new Hierarchy<>();
+
+		for (OClass concept : ontology.getVocabulary().getClasses())
+			if (!concept.isBottom() && !concept.isTop())
+				hierarchy.addVertex(concept);
+
+		for (ObjectPropertyExpression role : objectProperties.getVertices())
+			hierarchy.addVertex(role.getDomain());
+
+		objectProperties.forEachEdge((child, parent) ->
+				hierarchy.addEdge(child.getDomain(), parent.getDomain()));
+
+		for (DataPropertyExpression role : dataProperties.getVertices())
+			for (DataSomeValuesFrom dom : role.getAllDomainRestrictions())
+				hierarchy.addVertex(dom);
+
+		dataProperties.forEachEdge((child, parent) ->
+				hierarchy.addEdge(child.getDomainRestriction(DatatypeImpl.rdfsLiteral),
+						parent.getDomainRestriction(DatatypeImpl.rdfsLiteral)));
+
+		for (BinaryAxiom<ClassExpression> clsIncl : ontology.getSubClassAxioms())
+			hierarchy.addEdge(clsIncl.getSub(), clsIncl.getSuper());
+
+		return hierarchy;
+	}
+
+	/**
+	 *  same vertices and edges as TBoxReasonerImpl.getDataRangeGraph
+	 */
+
+	private static Hierarchy<DataRangeExpression> getDataRangeHierarchy(Ontology ontology,
+																		Hierarchy<DataPropertyExpression> dataProperties) {
+
+		Hierarchy<DataRangeExpression> hierarchy = new Hierarchy<>();
+
+		for (DataPropertyExpression role : dataProperties.getVertices())
+			hierarchy.addVertex(role.getRange());
+
+		dataProperties.forEachEdge((child, parent) ->
+				hierarchy.addEdge(child.getRange(), parent.getRange()));
+
+		for (BinaryAxiom<DataRangeExpression> clsIncl : ontology.getSubDataRangeAxioms()) {
+			hierarchy.addVertex(clsIncl.getSuper()); // Datatype is not among the vertices from the start
+			hierarchy.addEdge(clsIncl.getSub(), clsIncl.getSuper());
+		}
+
+		return hierarchy;
+	}
+
+
+	/**
+	 * vertices (with dense integer ids) and edges of a hierarchy
+	 *
+	 * not thread-safe: it is built by a single thread and then only read
+	 */
+
+	private static final class Hierarchy<T> {
+
+		private final Map<T, Integer> ids = new HashMap<>();
+		private final List<T> vertices = new ArrayList<>();
+
+		private int[] sources = new int[16];
+		private int[] targets = new int[16];
+		private int edgeCount = 0;
+
+		void addVertex(T v) {
+			if (!ids.containsKey(v)) {
+				ids.put(v, vertices.size());
+				vertices.add(v);
+			}
+		}
+
+		void addEdge(T source, T target) {
+			Integer s = ids.get(source);
+			if (s == null)
+				throw new IllegalArgumentException("no such vertex in graph: " + source);
+			Integer t = ids.get(target);
+			if (t == null)
+				throw new IllegalArgumentException("no such vertex in graph: " + target);
+
+			if (edgeCount == sources.length) {
+				sources = Arrays.copyOf(sources, edgeCount * 2);
+				targets = Arrays.copyOf(targets, edgeCount * 2);
+			}
+			sources[edgeCount] = s;
+			targets[edgeCount] = t;
+			edgeCount++;
+		}
+
+		List<T> getVertices() {
+			return Collections.unmodifiableList(vertices);
+		}
+
+		void forEachEdge(BiConsumer<T, T> consumer) {
+			for (int i = 0; i < edgeCount; i++)
+				consumer.accept(vertices.get(sources[i]), vertices.get(targets[i]));
+		}
+
+		EquivalencesDAGImpl<T> getEquivalencesDAG() {
+			int n = vertices.size();
+
+			// compressed adjacency arrays: the successors of v are adjacency[offsets[v] .. offsets[v + 1] - 1]
+			int[] offsets = new int[n + 1];
+			for (int i = 0; i < edgeCount; i++)
+				offsets[sources[i] + 1]++;
+			for (int v = 0; v < n; v++)
+				offsets[v + 1] += offsets[v];
+			int[] adjacency = new int[edgeCount];
+			int[] position = Arrays.copyOf(offsets, n);
+			for (int i = 0; i < edgeCount; i++)
+				adjacency[position[sources[i]]++] = targets[i];
+
+			int[] component = new int[n];
+			int componentCount = getStronglyConnectedComponents(offsets, adjacency, component);
+
+			// members of each component, in the order of the vertex ids
+			int[] memberOffsets = new int[componentCount + 1];
+			for (int v = 0; v < n; v++)
+				memberOffsets[component[v] + 1]++;
+			for (int c = 0; c < componentCount; c++)
+				memberOffsets[c + 1] += memberOffsets[c];
+			int[] members = new int[n];
+			position = Arrays.copyOf(memberOffsets, componentCount);
+			for (int v = 0; v < n; v++)
+				members[position[component[v]]++] = v;
+
+			List<Equivalences<T>> equivalenceSets = new ArrayList<>(componentCount);
+			for (int c = 0; c < componentCount; c++) {
+				ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+				for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++)
+					builder.add(vertices.get(members[i]));
+				equivalenceSets.add(new Equivalences<>(builder.build()));
+			}
+
+			SimpleDirectedGraph<Equivalences<T>, DefaultEdge> dag = new SimpleDirectedGraph<>(DefaultEdge.class);
+			for (Equivalences<T> equivalenceSet : equivalenceSets)
+				dag.addVertex(equivalenceSet);
+
+			// successors of each component (without duplicates and loops)
+			int[] successorOffsets = new int[componentCount + 1];
+			int[] successors = new int[Math.max(edgeCount, 1)];
+			int[] lastSeen = new int[componentCount];
+			Arrays.fill(lastSeen, -1);
+			int[] predecessorCount = new int[componentCount];
+			int successorCount = 0;
+			for (int c = 0; c < componentCount; c++) {
+				successorOffsets[c] = successorCount;
+				for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+					int v = members[i];
+					for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+						int d = component[adjacency[j]];
+						if (d != c && lastSeen[d] != c) {
+							lastSeen[d] = c;
+							successors[successorCount++] = d;
+							predecessorCount[d]++;
+						}
+					}
+				}
+			}
+			successorOffsets[componentCount] = successorCount;
+
+			// Tarjan numbers the components in reverse topological order:
+			// the successors of c are smaller than c and their closures are already computed.
+			// The closure of a component is dropped once all its predecessors have been processed.
+			BitSet[] strictSupers = new BitSet[componentCount];
+			for (int c = 0; c < componentCount; c++) {
+				BitSet supers = new BitSet();
+				for (int i = successorOffsets[c]; i < successorOffsets[c + 1]; i++)
+					supers.or(strictSupers[successors[i]]);
+
+				// the edge from c to d is redundant if d is reachable from another successor
+				for (int i = successorOffsets[c]; i < successorOffsets[c + 1]; i++) {
+					int d = successors[i];
+					if (!supers.get(d))
+						dag.addEdge(equivalenceSets.get(c), equivalenceSets.get(d));
+				}
+
+				for (int i = successorOffsets[c]; i < successorOffsets[c + 1]; i++) {
+					int d = successors[i];
+					supers.set(d);
+					if (--predecessorCount[d] == 0)
+						strictSupers[d] = null;
+				}
+				if (predecessorCount[c] > 0)
+					strictSupers[c] = supers;
+			}
+
+			return EquivalencesDAGImpl.getEquivalencesDAG(dag);
+		}
+	}
+
+	/**
+	 * iterative version of the Tarjan algorithm (no recursion on deep hierarchies)
+	 *
+	 * @param offsets compressed adjacency arrays
+	 * @param adjacency compressed adjacency arrays
+	 * @param component the component of each vertex (output)
+	 * @return the number of components
+	 */
+
+	private static int getStronglyConnectedComponents(int[] offsets, int[] adjacency, int[] component) {
+		int n = offsets.length - 1;
+
+		int[] index = new int[n];
+		Arrays.fill(index, -1);
+		int[] lowLink = new int[n];
+		boolean[] onStack = new boolean[n];
+		int[] stack = new int[n];
+		int stackSize = 0;
+		int[] callStack = new int[n];
+		int callStackSize = 0;
+		int[] nextEdge = new int[n];
+
+		int counter = 0;
+		int componentCount = 0;
+
+		for (int root = 0; root < n; root++) {
+			if (index[root] != -1)
+				continue;
+
+			index[root] = lowLink[root] = counter++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			nextEdge[root] = offsets[root];
+			callStack[callStackSize++] = root;
+
+			while (callStackSize > 0) {
+				int v = callStack[callStackSize - 1];
+				if (nextEdge[v] < offsets[v + 1]) {
+					int w = adjacency[nextEdge[v]++];
+					if (index[w] == -1) {
+						index[w] = lowLink[w] = counter++;
+						stack[stackSize++] = w;
+						onStack[w] = true;
+						nextEdge[w] = offsets[w];
+						callStack[callStackSize++] = w;
+					}
+					else if (onStack[w])
+						lowLink[v] = Math.min(lowLink[v], index[w]);
+				}
+				else {
+					callStackSize--;
+					if (lowLink[v] == index[v]) {
+						int w;
+						do {
+							w = stack[--stackSize];
+							onStack[w] = false;
+							component[w] = componentCount;
+						} while (w != v);
+						componentCount++;
+					}
+					if (callStackSize > 0) {
+						int u = callStack[callStackSize - 1];
+						lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+					}
+				}
+			}
+		}
+		return componentCount;
+	}
+}
@@ -304,6 +304,23 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		return new EquivalencesDAGImpl<TT>(graph, dag, vertexIndex, vertexIndex);
 	}
 
+	/**
+	 * DAG from already computed equivalence sets and edges between them
+	 * (used by BitSetTBoxClassifier)
+	 */
+
+	static <TT> EquivalencesDAGImpl<TT> getEquivalencesDAG(SimpleDirectedGraph<Equivalences<TT>,DefaultEdge> dag) {
+
+		ImmutableMap.Builder<TT, Equivalences<TT>> vertexIndexBuilder = new ImmutableMap.Builder<>();
+		for (Equivalences<TT> equivalenceSet : dag.vertexSet()) {
+			for (TT node : equivalenceSet)
+				vertexIndexBuilder.put(node, equivalenceSet);
+		}
+		ImmutableMap<TT, Equivalences<TT>> vertexIndex = vertexIndexBuilder.build();
+
+		return new EquivalencesDAGImpl<TT>(null, dag, vertexIndex, vertexIndex);
+	}
+
 	
 	public static <T> EquivalencesDAGImpl<T> reduce(EquivalencesDAGImpl<T> source, SimpleDirectedGraph <Equivalences<T>,DefaultEdge> target) {
 		
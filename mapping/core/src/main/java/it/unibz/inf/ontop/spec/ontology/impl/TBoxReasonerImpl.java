@@ -87,6 +87,30 @@ public class TBoxReasonerImpl implements TBoxReasoner {
 		final EquivalencesDAGImpl<DataRangeExpression> dataRangeDAG =
 				EquivalencesDAGImpl.getEquivalencesDAG(getDataRangeGraph(onto, dataPropertyGraph));
 
+		return create(classDAG, dataRangeDAG, objectPropertyDAG, dataPropertyDAG, equivalenceReduced);
+	}
+
+	/**
+	 * constructs a TBox reasoner from an ontology
+	 * @param onto: ontology
+	 * @param bitSetClassification: if true, the DAGs are computed by BitSetTBoxClassifier
+	 */
+
+	public static TBoxReasoner create(Ontology onto, boolean equivalenceReduced, boolean bitSetClassification) {
+		return bitSetClassification
+				? BitSetTBoxClassifier.classify(onto, equivalenceReduced)
+				: create(onto, equivalenceReduced);
+	}
+
+	/**
+	 * chooses the representatives in the DAGs (and reduces them if required)
+	 */
+
+	static TBoxReasoner create(EquivalencesDAGImpl<ClassExpression> classDAG,
+							   EquivalencesDAGImpl<DataRangeExpression> dataRangeDAG,
+							   EquivalencesDAGImpl<ObjectPropertyExpression> objectPropertyDAG,
+							   EquivalencesDAGImpl<DataPropertyExpression> dataPropertyDAG,
+							   boolean equivalenceReduced) {
 		chooseObjectPropertyRepresentatives(objectPropertyDAG);
 		chooseDataPropertyRepresentatives(dataPropertyDAG);
 		chooseClassRepresentatives(classDAG, objectPropertyDAG, dataPropertyDAG);
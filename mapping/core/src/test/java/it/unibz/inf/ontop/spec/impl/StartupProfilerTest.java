@@ -0,0 +1,146 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.spec.StartupProfiler;
+import it.unibz.inf.ontop.spec.StartupProfiler.PhaseReport;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StartupProfilerTest {
+
+    @Test
+    public void testNestedPhases() {
+        StartupProfiler profiler = createProfiler(true);
+        try (StartupProfiler.Phase outer = profiler.startPhase("outer")) {
+            try (StartupProfiler.Phase inner = profiler.startPhase("inner")) {
+                inner.count("elements", 3);
+            }
+        }
+        try (StartupProfiler.Phase next = profiler.startPhase("next")) {
+        }
+
+        ImmutableList<PhaseReport> report = profiler.getReport();
+        assertEquals(3, report.size());
+        assertPhase(report.get(0), "outer", 0);
+        assertPhase(report.get(1), "inner", 1);
+        assertEquals(Long.valueOf(3), report.get(1).getCounts().get("elements"));
+        assertPhase(report.get(2), "next", 0);
+    }
+
+    /**
+     * The phases open in another thread do not enclose the phases of the current thread
+     */
+    @Test
+    public void testConcurrentPhases() throws Exception {
+        StartupProfiler profiler = createProfiler(true);
+        try (StartupProfiler.Phase outer = profiler.startPhase("outer")) {
+            Thread thread = new Thread(() -> {
+                try (StartupProfiler.Phase worker = profiler.startPhase("worker")) {
+                    try (StartupProfiler.Phase nested = profiler.startPhase("nested")) {
+                    }
+                }
+            });
+            thread.start();
+            thread.join();
+            try (StartupProfiler.Phase inner = profiler.startPhase("inner")) {
+            }
+        }
+
+        ImmutableList<PhaseReport> report = profiler.getReport();
+        assertEquals(4, report.size());
+        assertPhase(report.get(0), "outer", 0);
+        assertPhase(report.get(1), "worker", 0);
+        assertPhase(report.get(2), "nested", 1);
+        assertPhase(report.get(3), "inner", 1);
+    }
+
+    /**
+     * A phase open during a reset still encloses the phases started after the reset
+     */
+    @Test
+    public void testResetWithOpenPhase() {
+        StartupProfiler profiler = createProfiler(true);
+        try (StartupProfiler.Phase outer = profiler.startPhase("outer")) {
+            profiler.reset();
+            try (StartupProfiler.Phase inner = profiler.startPhase("inner")) {
+            }
+        }
+        try (StartupProfiler.Phase next = profiler.startPhase("next")) {
+        }
+
+        ImmutableList<PhaseReport> report = profiler.getReport();
+        // The outer phase has been forgotten
+        assertEquals(2, report.size());
+        assertPhase(report.get(0), "inner", 1);
+        assertPhase(report.get(1), "next", 0);
+    }
+
+    /**
+     * The allocations of the threads alive at the end of the phase are counted
+     */
+    @Test
+    public void testAllocatedBytes() {
+        StartupProfiler profiler = createProfiler(true);
+        byte[] array;
+        try (StartupProfiler.Phase phase = profiler.startPhase("allocation")) {
+            array = new byte[10000000];
+        }
+        assertEquals(10000000, array.length);
+
+        Optional<Long> allocatedBytes = profiler.getReport().get(0).getAllocatedBytes();
+        allocatedBytes.ifPresent(b -> assertTrue(b >= 10000000));
+    }
+
+    /**
+     * The allocations of a terminated thread are lost, but the other allocations are still counted
+     */
+    @Test
+    public void testAllocatedBytesWithTerminatedThread() throws Exception {
+        StartupProfiler profiler = createProfiler(true);
+        byte[] array;
+        try (StartupProfiler.Phase phase = profiler.startPhase("allocation")) {
+            Thread thread = new Thread(() -> {
+                byte[] threadArray = new byte[50000000];
+                threadArray[0] = 1;
+            });
+            thread.start();
+            thread.join();
+            array = new byte[10000000];
+        }
+        assertEquals(10000000, array.length);
+
+        Optional<Long> allocatedBytes = profiler.getReport().get(0).getAllocatedBytes();
+        allocatedBytes.ifPresent(b -> assertTrue(b >= 10000000 && b < 50000000));
+    }
+
+    @Test
+    public void testDisabled() {
+        StartupProfiler profiler = createProfiler(false);
+        try (StartupProfiler.Phase phase = profiler.startPhase("phase")) {
+            phase.count("elements", 1);
+        }
+        assertTrue(profiler.getReport().isEmpty());
+    }
+
+    private static void assertPhase(PhaseReport phase, String name, int depth) {
+        assertEquals(name, phase.getName());
+        assertEquals(depth, phase.getDepth());
+    }
+
+    private static StartupProfiler createProfiler(boolean isEnabled) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.STARTUP_PROFILING, String.valueOf(isEnabled));
+        return OntopMappingConfiguration.defaultBuilder()
+                .properties(properties)
+                .enableTestMode()
+                .build()
+                .getStartupProfiler();
+    }
+}
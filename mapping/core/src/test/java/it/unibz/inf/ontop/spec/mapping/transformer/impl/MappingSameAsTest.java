@@ -0,0 +1,81 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.datalog.impl.DatalogAlgebraOperatorPredicates;
+import it.unibz.inf.ontop.model.IriConstants;
+import it.unibz.inf.ontop.model.term.Function;
+import it.unibz.inf.ontop.model.term.ValueConstant;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.DATALOG_FACTORY;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappingSameAsTest {
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+    private static final Variable Z = TERM_FACTORY.getVariable("z");
+    private static final Variable N = TERM_FACTORY.getVariable("n");
+
+    private static final ValueConstant CANONICAL_TEMPLATE = TERM_FACTORY.getConstantLiteral("http://a.org/person/{}");
+    private static final ValueConstant LINKED_TEMPLATE = TERM_FACTORY.getConstantLiteral("http://b.org/person/{}");
+
+    private static final Predicate SAME_AS = TERM_FACTORY.getObjectPropertyPredicate(IriConstants.SAME_AS);
+    private static final Predicate NAME = TERM_FACTORY.getDataPropertyPredicate("http://example.org/name");
+    private static final Predicate LINK_TABLE = TERM_FACTORY.getPredicate("LINK", 2);
+    private static final Predicate PERSON_TABLE = TERM_FACTORY.getPredicate("PERSON", 2);
+
+    /**
+     * The persons of the PERSON table without a row in LINK must not be lost,
+     * while the linked ones only get their canonical IRI
+     */
+    @Test
+    public void testUnlinkedEntity() {
+        CQIE sameAsRule = DATALOG_FACTORY.getCQIE(
+                TERM_FACTORY.getFunction(SAME_AS,
+                        TERM_FACTORY.getUriTemplate(CANONICAL_TEMPLATE, X),
+                        TERM_FACTORY.getUriTemplate(LINKED_TEMPLATE, Y)),
+                Arrays.asList(TERM_FACTORY.getFunction(LINK_TABLE, X, Y)));
+        CQIE nameRule = DATALOG_FACTORY.getCQIE(
+                TERM_FACTORY.getFunction(NAME, TERM_FACTORY.getUriTemplate(LINKED_TEMPLATE, Z), N),
+                Arrays.asList(TERM_FACTORY.getFunction(PERSON_TABLE, Z, N)));
+
+        ImmutableList<CQIE> rules = MappingSameAs.replaceByCanonicalIRIs(ImmutableList.of(sameAsRule, nameRule));
+
+        assertEquals(3, rules.size());
+        assertTrue(rules.contains(sameAsRule));
+        // The original IRIs are only kept for the persons without a link
+        assertFalse(rules.contains(nameRule));
+
+        CQIE unlinkedRule = rules.stream()
+                .filter(r -> r.getHead().equals(nameRule.getHead()))
+                .findAny()
+                .get();
+        Function leftJoin = unlinkedRule.getBody().get(0);
+        assertEquals(DatalogAlgebraOperatorPredicates.SPARQL_LEFTJOIN, leftJoin.getFunctionSymbol());
+        assertEquals(TERM_FACTORY.getFunction(PERSON_TABLE, Z, N), leftJoin.getTerm(0));
+        assertEquals(LINK_TABLE, ((Function) leftJoin.getTerm(1)).getFunctionSymbol());
+        assertEquals(ExpressionOperation.IS_NULL, unlinkedRule.getBody().get(1).getFunctionSymbol());
+
+        CQIE canonicalRule = rules.stream()
+                .filter(r -> r.getHead().getFunctionSymbol().equals(NAME))
+                .filter(r -> !r.equals(unlinkedRule))
+                .findAny()
+                .get();
+        Function subject = (Function) canonicalRule.getHead().getTerm(0);
+        assertEquals(CANONICAL_TEMPLATE, subject.getTerm(0));
+        assertTrue(canonicalRule.getBody().stream()
+                .anyMatch(a -> a.getFunctionSymbol().equals(LINK_TABLE)));
+        assertTrue(canonicalRule.getBody().stream()
+                .anyMatch(a -> a.getFunctionSymbol().equals(PERSON_TABLE)));
+    }
+}
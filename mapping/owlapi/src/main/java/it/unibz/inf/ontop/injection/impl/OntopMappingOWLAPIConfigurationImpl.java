@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.OntologyException;
 import it.unibz.inf.ontop.injection.OntopMappingOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSettings;
@@ -12,6 +13,7 @@ import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -22,6 +24,7 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
         implements OntopMappingOWLAPIConfiguration {
 
     private final OntopMappingOWLAPIOptions options;
+    // Guarded by this
     private Optional<OWLOntology> owlOntology;
 
     protected OntopMappingOWLAPIConfigurationImpl(OntopMappingSettings settings, OntopMappingOWLAPIOptions options) {
@@ -31,19 +34,31 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
     }
 
     /**
-     * TODO: cache the ontology
+     * The ontology loaded from the file or the URL is kept for the next specification load
+     * (e.g. the reasoner and its specification share it).
      */
     @Override
-    public Optional<OWLOntology> loadInputOntology() throws OWLOntologyCreationException {
+    public synchronized Optional<OWLOntology> loadInputOntology() throws OWLOntologyCreationException {
         if (options.ontology.isPresent()) {
             return options.ontology;
         }
-        if (owlOntology.isPresent()){
-            return owlOntology;
+        if (!owlOntology.isPresent()) {
+            owlOntology = loadOntologyFromFile();
         }
-        return loadOntologyFromFile();
-
+        return owlOntology;
+    }
 
+    /**
+     * The ontology file or URL is read again at each specification load (e.g. after a modification,
+     * see FileWatchingQueryEngine), except for the first load following loadInputOntology().
+     */
+    private synchronized Optional<OWLOntology> takeInputOntology() throws OWLOntologyCreationException {
+        if (options.ontology.isPresent()) {
+            return options.ontology;
+        }
+        Optional<OWLOntology> ontology = owlOntology.isPresent() ? owlOntology : loadOntologyFromFile();
+        owlOntology = Optional.empty();
+        return ontology;
     }
 
     private Optional<OWLOntology> loadOntologyFromFile() throws OWLOntologyCreationException {
@@ -53,7 +68,7 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
         OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
 
         if (options.mappingOntologyOptions.ontologyFile.isPresent()) {
-            owlOntology = Optional.of(manager.loadOntologyFromOntologyDocument(options.mappingOntologyOptions.ontologyFile.get()));
+            return Optional.of(manager.loadOntologyFromOntologyDocument(options.mappingOntologyOptions.ontologyFile.get()));
         }
 
         /**
@@ -62,7 +77,7 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
         try {
             Optional<URL> optionalURL = options.mappingOntologyOptions.ontologyURL;
             if (optionalURL.isPresent()) {
-                owlOntology = Optional.of(
+                return Optional.of(
                         manager.loadOntologyFromOntologyDocument(
                                 optionalURL.get().openStream()));
             }
@@ -73,18 +88,33 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
             throw new OWLOntologyCreationException(e.getMessage());
         }
 
-        return owlOntology;
+        return Optional.empty();
     }
 
     Optional<Ontology> loadOntology() throws OntologyException {
         try {
-            return loadInputOntology()
+            return takeInputOntology()
                     .map(o -> OWLAPITranslatorUtility.translateImportsClosure(o));
         } catch (OWLOntologyCreationException e) {
             throw new OntologyException(e.getMessage());
         }
     }
 
+    /**
+     * Adds the ontology file (if any) to the input files of the specification.
+     * Nothing if the ontology is given as an OWLOntology object or by a URL.
+     *
+     * Imported ontologies are not included.
+     */
+    Optional<ImmutableList<File>> addOntologyFile(ImmutableList<File> inputFiles) {
+        if (options.ontology.isPresent() || options.mappingOntologyOptions.ontologyURL.isPresent())
+            return Optional.empty();
+
+        return Optional.of(options.mappingOntologyOptions.ontologyFile
+                .map(f -> ImmutableList.<File>builder().addAll(inputFiles).add(f).build())
+                .orElse(inputFiles));
+    }
+
     static class OntopMappingOWLAPIOptions {
 
         private final Optional<OWLOntology> ontology;
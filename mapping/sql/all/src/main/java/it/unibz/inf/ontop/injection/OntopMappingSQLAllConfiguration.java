@@ -1,10 +1,13 @@
 package it.unibz.inf.ontop.injection;
 
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.impl.OntopMappingSQLAllConfigurationImpl;
+import it.unibz.inf.ontop.spec.OBDASpecification;
 import org.apache.commons.rdf.api.Graph;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
 
 /**
@@ -15,6 +18,15 @@ public interface OntopMappingSQLAllConfiguration extends OntopMappingSQLConfigur
     @Override
     OntopMappingSQLAllSettings getSettings();
 
+    /**
+     * Builds the OBDA specification and saves it into the snapshot file,
+     * which can then be declared in the settings (see OntopMappingSQLSettings.SPECIFICATION_SNAPSHOT)
+     * for speeding up the next startups.
+     *
+     * Only possible when the mapping (and the ontology, if any) are given as files.
+     */
+    OBDASpecification saveSpecificationSnapshot(@Nonnull File snapshotFile) throws OBDASpecificationException, IOException;
+
     static Builder<? extends Builder> defaultBuilder() {
         return new OntopMappingSQLAllConfigurationImpl.BuilderImpl<>();
     }
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.DuplicateMappingException;
 import it.unibz.inf.ontop.exception.InvalidMappingException;
 import it.unibz.inf.ontop.exception.MappingIOException;
@@ -7,12 +8,18 @@ import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSQLAllSettings;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsSerializer;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.snapshot.SpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.spec.snapshot.SpecificationSnapshotTools;
 import org.apache.commons.rdf.api.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -23,6 +30,8 @@ public class OntopMappingSQLAllConfigurationImpl extends OntopMappingSQLConfigur
         implements OntopMappingSQLAllConfiguration {
 
 
+    private static final Logger log = LoggerFactory.getLogger(OntopMappingSQLAllConfigurationImpl.class);
+
     private final OntopMappingSQLAllSettings settings;
     private final OntopMappingSQLAllOptions options;
 
@@ -45,6 +54,23 @@ public class OntopMappingSQLAllConfigurationImpl extends OntopMappingSQLConfigur
     OBDASpecification loadSpecification(OntologySupplier ontologySupplier)
             throws OBDASpecificationException {
 
+        Optional<File> snapshotFile = settings.getSpecificationSnapshotFile()
+                .map(File::new);
+        Optional<ImmutableList<File>> inputFiles = getSpecificationInputFiles();
+        if (snapshotFile.isPresent() && inputFiles.isPresent()) {
+            try {
+                Optional<OBDASpecification> specification = getInjector().getInstance(SpecificationSnapshotSerializer.class)
+                        .load(snapshotFile.get(),
+                                SpecificationSnapshotTools.computeFingerprint(inputFiles.get(), settings,
+                                        getTmappingExclusions()),
+                                getExecutorRegistry());
+                if (specification.isPresent())
+                    return specification.get();
+            } catch (IOException e) {
+                log.warn("Cannot use the specification snapshot {}: {}", snapshotFile.get(), e.getMessage());
+            }
+        }
+
         return loadSpecification(ontologySupplier,
                 () -> options.mappingFile,
                 () -> options.mappingReader,
@@ -52,6 +78,42 @@ public class OntopMappingSQLAllConfigurationImpl extends OntopMappingSQLConfigur
                 () -> options.constraintFile);
     }
 
+    @Override
+    public OBDASpecification saveSpecificationSnapshot(@Nonnull File snapshotFile)
+            throws OBDASpecificationException, IOException {
+        ImmutableList<File> inputFiles = getSpecificationInputFiles()
+                .orElseThrow(() -> new InvalidOntopConfigurationException(
+                        "A snapshot can only be created when the mapping and the ontology are given as files"));
+
+        OBDASpecification specification = loadSpecification();
+        getInjector().getInstance(SpecificationSnapshotSerializer.class)
+                .save(specification, SpecificationSnapshotTools.computeFingerprint(inputFiles, settings,
+                        getTmappingExclusions()), snapshotFile);
+        return specification;
+    }
+
+    /**
+     * Files from which the specification is built (for the fingerprint of the snapshots).
+     * Nothing if some inputs are not files.
+     *
+     * To be extended by the configurations including an ontology.
+     */
+    Optional<ImmutableList<File>> getSpecificationInputFiles() {
+        if (options.mappingReader.isPresent() || options.mappingGraph.isPresent() || !options.mappingFile.isPresent())
+            return Optional.empty();
+
+        ImmutableList.Builder<File> files = ImmutableList.builder();
+        files.add(options.mappingFile.get());
+        options.constraintFile.ifPresent(files::add);
+        // Same resolution as for the extraction of the mapping
+        File statisticsFile = settings.getStatisticsFile()
+                .map(File::new)
+                .orElseGet(() -> DBStatisticsSerializer.getDefaultStatisticsFile(options.mappingFile.get()));
+        if (statisticsFile.exists())
+            files.add(statisticsFile);
+        return Optional.of(files.build());
+    }
+
     @Override
     public Optional<SQLPPMapping> loadPPMapping() throws MappingIOException, InvalidMappingException, DuplicateMappingException {
         return loadPPMapping(
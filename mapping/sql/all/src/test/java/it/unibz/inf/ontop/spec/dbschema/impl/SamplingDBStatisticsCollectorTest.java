@@ -0,0 +1,200 @@
+package it.unibz.inf.ontop.spec.dbschema.impl;
+
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics.TableStatistics;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsCollector;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Samples of 100 rows. PERSON has 1000 rows (unique IDs, 5 cities, one null city out of 10),
+ * COMPANY has 10 rows.
+ */
+public class SamplingDBStatisticsCollectorTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:statistics_collector";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+
+    private static final int SAMPLE_SIZE = 100;
+    private static final int PERSON_COUNT = 1000;
+
+    private static final String MAPPING = "[PrefixDeclaration]\n" +
+            ":\thttp://example.org/\n" +
+            "\n" +
+            "[MappingDeclaration] @collection [[\n" +
+            "mappingId\tperson\n" +
+            "target\t\t:person/{ID} :city :city/{CITY} .\n" +
+            "source\t\tSELECT ID, CITY FROM PERSON\n" +
+            "\n" +
+            "mappingId\tcompany\n" +
+            "target\t\t:company/{ID} a :Company .\n" +
+            "source\t\tSELECT ID FROM COMPANY\n" +
+            "\n" +
+            "mappingId\tslow\n" +
+            "target\t\t:slow/{ID} a :Slow .\n" +
+            "source\t\tSELECT ID FROM PERSON WHERE SLOW(ID)\n" +
+            "]]\n";
+
+    // Keeps the in-memory DB alive
+    private static Connection connection;
+    private static DBStatistics statistics;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE PERSON (ID INT PRIMARY KEY, CITY VARCHAR(10))");
+            for (int i = 0; i < PERSON_COUNT; i++)
+                statement.executeUpdate("INSERT INTO PERSON VALUES (" + i + ", "
+                        + (i % 10 == 0 ? "NULL" : "'C" + (i % 5) + "'") + ")");
+            statement.executeUpdate("CREATE TABLE COMPANY (ID INT PRIMARY KEY)");
+            for (int i = 0; i < 10; i++)
+                statement.executeUpdate("INSERT INTO COMPANY VALUES (" + i + ")");
+            statement.executeUpdate("CREATE ALIAS SLOW FOR \""
+                    + SamplingDBStatisticsCollectorTest.class.getName() + ".slow\"");
+        }
+
+        OntopMappingSQLAllConfiguration configuration = createConfiguration();
+        statistics = configuration.getInjector().getInstance(DBStatisticsCollector.class)
+                .collect(configuration.loadProvidedPPMapping(), createMetadata());
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * The sample contains all the rows: exact statistics
+     */
+    @Test
+    public void testCompleteSample() {
+        TableStatistics tableStatistics = getTableStatistics("COMPANY");
+
+        assertEquals(10, tableStatistics.getRowCount());
+        assertEquals(Long.valueOf(10), tableStatistics.getDistinctValueCounts().get(getColumn("ID")));
+        assertEquals(10L, (long) statistics.getMappingCardinalities().get("company"));
+    }
+
+    /**
+     * First 100 rows: the row count comes from a COUNT query
+     * and the number of distinct values is extrapolated with GEE (sqrt(1000/100) * f1 + d - f1)
+     */
+    @Test
+    public void testDistinctValueExtrapolation() {
+        TableStatistics tableStatistics = getTableStatistics("PERSON");
+
+        assertEquals(PERSON_COUNT, tableStatistics.getRowCount());
+        // 100 values appearing once in the sample
+        assertEquals(Long.valueOf(316), tableStatistics.getDistinctValueCounts().get(getColumn("ID")));
+        // No value appearing once in the sample
+        assertEquals(Long.valueOf(5), tableStatistics.getDistinctValueCounts().get(getColumn("CITY")));
+        assertEquals(0.1, tableStatistics.getNullFractions().get(getColumn("CITY")), 0.0001);
+
+        assertEquals(PERSON_COUNT, (long) statistics.getMappingCardinalities().get("person"));
+        assertEquals(316.0 / PERSON_COUNT,
+                statistics.getTemplateSelectivities().get("http://example.org/person/{}"), 0.0001);
+        // 90 non-null cities in the sample, i.e. 900 IRIs
+        assertEquals(5.0 / 900,
+                statistics.getTemplateSelectivities().get("http://example.org/city/{}"), 0.0001);
+    }
+
+    /**
+     * The COUNT query reaches the timeout: the size of the sample is used instead
+     */
+    @Test
+    public void testCountTimeout() {
+        assertEquals(SAMPLE_SIZE, (long) statistics.getMappingCardinalities().get("slow"));
+    }
+
+    /**
+     * The statistics of the mapping assertions are attached to the views of their source queries
+     */
+    @Test
+    public void testParserViewStatistics() throws Exception {
+        OntopMappingSQLAllConfiguration configuration = createConfiguration();
+        SQLPPMapping ppMapping = configuration.loadProvidedPPMapping();
+        RDBMetadata metadata = createMetadata();
+
+        SQLPPTriplesMap triplesMap = ppMapping.getTripleMaps().stream()
+                .filter(m -> m.getId().equals("person"))
+                .findFirst().get();
+        ParserViewDefinition view = metadata.createParserView(triplesMap.getSourceQuery().getSQLQuery());
+        QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+        view.addAttribute(new QualifiedAttributeID(null, idfac.createAttributeID("ID")));
+        view.addAttribute(new QualifiedAttributeID(null, idfac.createAttributeID("CITY")));
+
+        statistics.insertIntoParserViews(ppMapping, metadata);
+
+        RelationStatistics viewStatistics = view.getStatistics().get();
+        assertEquals(PERSON_COUNT, viewStatistics.getRowCount());
+        assertEquals(Long.valueOf(316), viewStatistics.getDistinctValueCount(1).get());
+        // Selectivity 5 / 900 applied to the 1000 rows
+        assertEquals(Long.valueOf(6), viewStatistics.getDistinctValueCount(2).get());
+    }
+
+    /**
+     * Called for each row of the "slow" source query
+     */
+    public static boolean slow(int id) throws InterruptedException {
+        Thread.sleep(5);
+        return true;
+    }
+
+    private static TableStatistics getTableStatistics(String table) {
+        RDBMetadata metadata = createMetadata();
+        return statistics.getTableStatistics(metadata.getQuotedIDFactory().createRelationID(null, table)).get();
+    }
+
+    private static String getColumn(String column) {
+        return createMetadata().getQuotedIDFactory().createAttributeID(column).getSQLRendering();
+    }
+
+    /**
+     * Without statistics from the JDBC driver
+     */
+    private static RDBMetadata createMetadata() {
+        RDBMetadata metadata = RDBMetadataExtractionTools.createDummyMetadata("org.h2.Driver");
+        QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+
+        DatabaseRelationDefinition person = metadata.createDatabaseRelation(idfac.createRelationID(null, "PERSON"));
+        person.addAttribute(idfac.createAttributeID("ID"), Types.INTEGER, null, false);
+        person.addAttribute(idfac.createAttributeID("CITY"), Types.VARCHAR, null, true);
+
+        DatabaseRelationDefinition company = metadata.createDatabaseRelation(idfac.createRelationID(null, "COMPANY"));
+        company.addAttribute(idfac.createAttributeID("ID"), Types.INTEGER, null, false);
+        return metadata;
+    }
+
+    private static OntopMappingSQLAllConfiguration createConfiguration() {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSQLSettings.STATISTICS_SAMPLE_SIZE, String.valueOf(SAMPLE_SIZE));
+        properties.setProperty(OntopMappingSQLSettings.STATISTICS_QUERY_TIMEOUT, "1");
+
+        return OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(MAPPING))
+                .jdbcUrl(JDBC_URL)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcDriver("org.h2.Driver")
+                .properties(properties)
+                .build();
+    }
+}
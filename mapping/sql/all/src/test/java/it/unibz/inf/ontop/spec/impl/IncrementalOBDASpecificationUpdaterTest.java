@@ -0,0 +1,123 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationUpdater;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.Types;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class IncrementalOBDASpecificationUpdaterTest {
+
+    private static final String PERSON = "http://example.org/Person";
+    private static final String NAME = "http://example.org/name";
+
+    private static final String MAPPING = "[PrefixDeclaration]\n" +
+            ":\thttp://example.org/\n" +
+            "\n" +
+            "[MappingDeclaration] @collection [[\n" +
+            "mappingId\tperson\n" +
+            "target\t\t:person/{ID} a :Person .\n" +
+            "source\t\tSELECT ID FROM PERSON\n" +
+            "\n" +
+            "mappingId\tname\n" +
+            "target\t\t:person/{ID} :name {FNAME} .\n" +
+            "source\t\t%s\n" +
+            "]]\n";
+
+    private static final String NAME_SOURCE = "SELECT ID, FNAME FROM PERSON";
+
+    private OntopMappingSQLAllConfiguration configuration;
+    private OBDASpecificationUpdater updater;
+
+    @Before
+    public void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.INCREMENTAL_SPECIFICATION_UPDATE, "true");
+
+        configuration = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(String.format(MAPPING, NAME_SOURCE)))
+                .jdbcUrl("jdbc:h2://localhost/fake")
+                .jdbcUser("fake_user")
+                .jdbcPassword("fake_password")
+                .enableProvidedDBMetadataCompletion(false)
+                .properties(properties)
+                .build();
+        updater = configuration.getInjector().getInstance(OBDASpecificationUpdater.class);
+    }
+
+    @Test
+    public void testUnchangedSpecification() throws OBDASpecificationException {
+        Mapping mapping1 = update(NAME_SOURCE, createMetadata(false)).getSaturatedMapping();
+        Mapping mapping2 = update(NAME_SOURCE, createMetadata(false)).getSaturatedMapping();
+
+        assertSame(getDefinition(mapping1, PERSON), getDefinition(mapping2, PERSON));
+        assertSame(getDefinition(mapping1, NAME), getDefinition(mapping2, NAME));
+    }
+
+    @Test
+    public void testChangedAssertion() throws OBDASpecificationException {
+        Mapping mapping1 = update(NAME_SOURCE, createMetadata(false)).getSaturatedMapping();
+        Mapping mapping2 = update("SELECT ID, FNAME FROM PERSON WHERE ID > 10", createMetadata(false))
+                .getSaturatedMapping();
+
+        assertSame(getDefinition(mapping1, PERSON), getDefinition(mapping2, PERSON));
+        assertNotSame(getDefinition(mapping1, NAME), getDefinition(mapping2, NAME));
+    }
+
+    @Test
+    public void testChangedSchema() throws OBDASpecificationException {
+        Mapping mapping1 = update(NAME_SOURCE, createMetadata(false)).getSaturatedMapping();
+        Mapping mapping2 = update(NAME_SOURCE, createMetadata(true)).getSaturatedMapping();
+
+        assertNotSame(getDefinition(mapping1, PERSON), getDefinition(mapping2, PERSON));
+        assertNotSame(getDefinition(mapping1, NAME), getDefinition(mapping2, NAME));
+    }
+
+    private OBDASpecification update(String nameSource, DBMetadata dbMetadata) throws OBDASpecificationException {
+        OBDASpecInput specInput = OBDASpecInput.defaultBuilder()
+                .addMappingReader(new StringReader(String.format(MAPPING, nameSource)))
+                .build();
+        return updater.update(specInput, Optional.of(dbMetadata), Optional.empty(),
+                configuration.getExecutorRegistry());
+    }
+
+    private static IntermediateQuery getDefinition(Mapping mapping, String iri) {
+        AtomPredicate predicate = mapping.getPredicates().stream()
+                .filter(p -> p.getName().equals(iri))
+                .findAny()
+                .orElseThrow(() -> new IllegalStateException("No definition for " + iri));
+        return mapping.getDefinition(predicate).get();
+    }
+
+    private static DBMetadata createMetadata(boolean withPrimaryKey) {
+        RDBMetadata dbMetadata = RDBMetadataExtractionTools.createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        DatabaseRelationDefinition personTable = dbMetadata.createDatabaseRelation(
+                idFactory.createRelationID(null, "PERSON"));
+        Attribute personId = personTable.addAttribute(idFactory.createAttributeID("ID"),
+                Types.INTEGER, null, false);
+        personTable.addAttribute(idFactory.createAttributeID("FNAME"),
+                Types.VARCHAR, null, true);
+        if (withPrimaryKey)
+            personTable.addUniqueConstraint(UniqueConstraint.primaryKeyOf(personId));
+
+        dbMetadata.freeze();
+        return dbMetadata;
+    }
+}
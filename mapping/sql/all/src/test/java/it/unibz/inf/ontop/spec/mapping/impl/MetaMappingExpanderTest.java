@@ -0,0 +1,121 @@
+package it.unibz.inf.ontop.spec.mapping.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
+import it.unibz.inf.ontop.exception.MetaMappingExpansionException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MetaMappingExpanderTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:meta_mapping_expander";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+
+    private static final String MAPPING = "[PrefixDeclaration]\n" +
+            ":\thttp://example.org/\n" +
+            "\n" +
+            "[MappingDeclaration] @collection [[\n" +
+            "mappingId\titem\n" +
+            "target\t\t%s\n" +
+            "source\t\tSELECT ID, CLS, PROP FROM ITEM\n" +
+            "]]\n";
+
+    // Keeps the in-memory DB alive
+    private static Connection connection;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE ITEM (ID INT PRIMARY KEY, CLS VARCHAR(10), PROP VARCHAR(10))");
+            statement.executeUpdate("INSERT INTO ITEM VALUES (1, 'A', 'p'), (2, 'A', 'q'), (3, 'B', 'p')");
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Each meta-atom is expanded on the values of its own template columns only
+     */
+    @Test
+    public void testAtomsWithDifferentTemplateColumns() throws Exception {
+        ImmutableList<SQLPPTriplesMap> expandedMappings = expand(
+                "<http://example.org/item/{ID}> a <http://example.org/{CLS}> ; " +
+                        "<http://example.org/{PROP}> <http://example.org/item/{ID}> .");
+
+        ImmutableMap<String, String> sources = getSourcesByPredicate(expandedMappings);
+        assertEquals(4, expandedMappings.size());
+        assertEquals(4, sources.size());
+
+        String sourceOfA = sources.get("http://example.org/A");
+        assertTrue(sourceOfA.contains("CLS = 'A'"));
+        assertFalse(sourceOfA.contains("PROP ="));
+
+        String sourceOfQ = sources.get("http://example.org/q");
+        assertTrue(sourceOfQ.contains("PROP = 'q'"));
+        assertFalse(sourceOfQ.contains("CLS ="));
+
+        assertTrue(sources.containsKey("http://example.org/B"));
+        assertTrue(sources.containsKey("http://example.org/p"));
+    }
+
+    /**
+     * An invalid meta-atom is reported, while the valid meta-atom of the same triples map does not fail
+     */
+    @Test
+    public void testInvalidAtom() throws Exception {
+        try {
+            expand("<http://example.org/item/{ID}> a <http://example.org/{CLS}> ; " +
+                    "<http://example.org/{MISSING}> <http://example.org/item/{ID}> .");
+            fail("The placeholder MISSING does not occur in the source query");
+        }
+        catch (MetaMappingExpansionException e) {
+            assertEquals("The placeholder 'MISSING' in the target does not occur in the body of the mapping",
+                    e.getMessage());
+        }
+    }
+
+    private static ImmutableList<SQLPPTriplesMap> expand(String target) throws Exception {
+        OntopMappingSQLAllConfiguration configuration = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(String.format(MAPPING, target)))
+                .jdbcUrl(JDBC_URL)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcDriver("org.h2.Driver")
+                .build();
+
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(connection);
+        RDBMetadataExtractionTools.loadMetadata(metadata, connection, null);
+
+        return MetaMappingExpander.expand(configuration.loadProvidedPPMapping().getTripleMaps(),
+                configuration.getSettings(), metadata);
+    }
+
+    private static ImmutableMap<String, String> getSourcesByPredicate(ImmutableList<SQLPPTriplesMap> mappings) {
+        return mappings.stream()
+                .collect(ImmutableCollectors.toMap(
+                        m -> m.getTargetAtoms().get(0).getFunctionSymbol().getName(),
+                        m -> m.getSourceQuery().toString()));
+    }
+}
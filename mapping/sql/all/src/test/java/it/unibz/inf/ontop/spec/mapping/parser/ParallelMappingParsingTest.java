@@ -0,0 +1,209 @@
+package it.unibz.inf.ontop.spec.mapping.parser;
+
+import eu.optique.r2rml.api.model.PredicateObjectMap;
+import eu.optique.r2rml.api.model.RefObjectMap;
+import eu.optique.r2rml.api.model.TriplesMap;
+import it.unibz.inf.ontop.exception.InvalidMappingExceptionWithIndicator;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.spec.mapping.parser.impl.R2RMLManager;
+import it.unibz.inf.ontop.spec.mapping.parser.impl.R2RMLParser;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The target queries (native format) and the triples maps (R2RML) are parsed in parallel:
+ * the result must be the one of a sequential parsing.
+ * The sequential parsing is obtained by running the parser in a pool with a single thread.
+ */
+public class ParallelMappingParsingTest {
+
+    private static final int MAPPING_COUNT = 200;
+
+    private static final Pattern LINE_PATTERN = Pattern.compile("Line (\\d+):");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SQLMappingParser mappingParser;
+
+    public ParallelMappingParsingTest() {
+        OntopMappingSQLAllConfiguration configuration = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:h2://localhost/fake")
+                .jdbcUser("fake_user")
+                .jdbcPassword("fake_password")
+                .build();
+        mappingParser = configuration.getInjector().getInstance(SQLMappingParser.class);
+    }
+
+    @Test
+    public void testNativeTriplesMapOrder() throws Exception {
+        String mapping = createNativeMapping(new ArrayList<>(), false);
+
+        List<String> parallel = describe(mappingParser.parse(new StringReader(mapping)).getTripleMaps());
+        List<String> sequential = runSequentially(() ->
+                describe(mappingParser.parse(new StringReader(mapping)).getTripleMaps()));
+
+        assertEquals(sequential, parallel);
+        List<String> expectedIds = new ArrayList<>();
+        for (int i = 0; i < MAPPING_COUNT; i++)
+            expectedIds.add("m" + i);
+        assertEquals(expectedIds, parallel.stream()
+                .map(s -> s.substring(0, s.indexOf(' ')))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * The errors of the target queries (parsed in parallel) and the other errors (found while reading the file)
+     * are reported in the order of the lines
+     */
+    @Test
+    public void testNativeErrorLineNumbers() throws Exception {
+        List<Integer> expectedLineNumbers = new ArrayList<>();
+        String mapping = createNativeMapping(expectedLineNumbers, true);
+
+        String parallel = getErrorMessage(mapping);
+        String sequential = runSequentially(() -> getErrorMessage(mapping));
+
+        assertEquals(sequential, parallel);
+        List<Integer> lineNumbers = new ArrayList<>();
+        Matcher matcher = LINE_PATTERN.matcher(parallel);
+        while (matcher.find())
+            lineNumbers.add(Integer.parseInt(matcher.group(1)));
+        assertEquals(expectedLineNumbers, lineNumbers);
+    }
+
+    /**
+     * The triples maps follow the order of the R2RML triples map collection,
+     * each one followed by its join triples maps
+     */
+    @Test
+    public void testR2RMLTriplesMapOrder() throws Exception {
+        File file = folder.newFile("mapping.ttl");
+        Files.write(file.toPath(), createR2RMLMapping().getBytes(StandardCharsets.UTF_8));
+
+        R2RMLManager manager = new R2RMLManager(file);
+        List<String> parallel = getSourceQueries(manager.getMappings(manager.getModel()));
+        List<String> sequential = runSequentially(() -> getSourceQueries(manager.getMappings(manager.getModel())));
+
+        assertEquals(sequential, parallel);
+        List<String> expected = new ArrayList<>();
+        for (TriplesMap tm : new R2RMLParser().getMappingNodes(manager.getModel())) {
+            expected.add(tm.getLogicalTable().getSQLQuery().trim());
+            for (PredicateObjectMap pobm : tm.getPredicateObjectMaps())
+                for (RefObjectMap robm : pobm.getRefObjectMaps())
+                    expected.add(robm.getJointQuery().trim());
+        }
+        assertEquals(expected, parallel);
+    }
+
+    private String getErrorMessage(String mapping) throws Exception {
+        try {
+            mappingParser.parse(new StringReader(mapping));
+        }
+        catch (InvalidMappingExceptionWithIndicator e) {
+            return e.getMessage();
+        }
+        fail("The mapping is invalid");
+        return null;
+    }
+
+    /**
+     * With errors: every 10th target query is invalid and every 25th is blank
+     * (their line numbers are added to errorLineNumbers)
+     */
+    private static String createNativeMapping(List<Integer> errorLineNumbers, boolean withErrors) {
+        StringBuilder sb = new StringBuilder("[PrefixDeclaration]\n" +
+                ":\thttp://example.org/\n" +
+                "\n" +
+                "[MappingDeclaration] @collection [[\n");
+        int lineNumber = 5;
+        for (int i = 0; i < MAPPING_COUNT; i++) {
+            sb.append("mappingId\tm").append(i).append("\n");
+            lineNumber++;
+            if (withErrors && i % 25 == 7) {
+                sb.append("target\t\t\n");
+                errorLineNumbers.add(lineNumber);
+            }
+            else if (withErrors && i % 10 == 3) {
+                sb.append("target\t\t:p").append(i).append("/{ID} a :C").append(i).append(" ;\n");
+                errorLineNumbers.add(lineNumber);
+            }
+            else
+                sb.append("target\t\t:p").append(i).append("/{ID} a :C").append(i)
+                        .append(" ; :name").append(i).append(" {NAME} .\n");
+            lineNumber++;
+            sb.append("source\t\tSELECT ID, NAME FROM T").append(i).append("\n\n");
+            lineNumber += 2;
+        }
+        sb.append("]]\n");
+        return sb.toString();
+    }
+
+    /**
+     * Every 5th triples map refers to the previous one
+     */
+    private static String createR2RMLMapping() {
+        StringBuilder sb = new StringBuilder("@prefix rr: <http://www.w3.org/ns/r2rml#> .\n" +
+                "@prefix ex: <http://example.org/> .\n\n");
+        for (int i = 0; i < MAPPING_COUNT; i++) {
+            sb.append("ex:TM").append(i).append(" a rr:TriplesMap ;\n")
+                    .append("  rr:logicalTable [ rr:sqlQuery \"SELECT ID, NAME FROM T").append(i).append("\" ] ;\n")
+                    .append("  rr:subjectMap [ rr:template \"http://example.org/p").append(i)
+                    .append("/{ID}\" ; rr:class ex:C").append(i).append(" ] ;\n")
+                    .append("  rr:predicateObjectMap [ rr:predicate ex:name").append(i)
+                    .append(" ; rr:objectMap [ rr:column \"NAME\" ] ]");
+            if (i % 5 == 4)
+                sb.append(" ;\n  rr:predicateObjectMap [ rr:predicate ex:previous").append(i)
+                        .append(" ; rr:objectMap [ rr:parentTriplesMap ex:TM").append(i - 1)
+                        .append(" ; rr:joinCondition [ rr:child \"ID\" ; rr:parent \"ID\" ] ] ]");
+            sb.append(" .\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static List<String> describe(List<SQLPPTriplesMap> triplesMaps) {
+        return triplesMaps.stream()
+                .map(m -> m.getId() + " " + m.getSourceQuery() + " " + m.getTargetAtoms())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> getSourceQueries(List<SQLPPTriplesMap> triplesMaps) {
+        return triplesMaps.stream()
+                .map(m -> m.getSourceQuery().getSQLQuery().trim())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The parallel streams started by a task of a pool run in this pool
+     */
+    private static <T> T runSequentially(Callable<T> callable) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            return pool.submit(callable).get();
+        }
+        catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package it.unibz.inf.ontop.spec.mapping.pp.impl;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.mapping.pp.EmptyTriplesMapPruner;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ParallelEmptyTriplesMapPrunerTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:empty_triples_map_pruner";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+
+    private static final String MAPPING = "[PrefixDeclaration]\n" +
+            ":\thttp://example.org/\n" +
+            "\n" +
+            "[MappingDeclaration] @collection [[\n" +
+            "mappingId\tperson\n" +
+            "target\t\t:person/{ID} a :Person .\n" +
+            "source\t\tSELECT ID FROM PERSON\n" +
+            "\n" +
+            "mappingId\tcompany\n" +
+            "target\t\t:company/{ID} a :Company .\n" +
+            "source\t\tSELECT ID FROM COMPANY\n" +
+            "\n" +
+            "mappingId\tinvalid\n" +
+            "target\t\t:city/{ID} a :City .\n" +
+            "source\t\tSELECT ID FROM CITY\n" +
+            "]]\n";
+
+    // Keeps the in-memory DB alive
+    private static Connection connection;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE PERSON (ID INT PRIMARY KEY)");
+            statement.executeUpdate("INSERT INTO PERSON VALUES (1), (2)");
+            statement.executeUpdate("CREATE TABLE COMPANY (ID INT PRIMARY KEY)");
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * The empty triples maps are removed, while the ones whose probe fails are kept
+     */
+    @Test
+    public void testPruning() throws Exception {
+        SQLPPMapping ppMapping = prune(JDBC_URL);
+
+        assertEquals(ImmutableSet.of("person", "invalid"), getIds(ppMapping));
+    }
+
+    /**
+     * When the DB cannot be reached, the mapping is kept unchanged and the loading goes on
+     */
+    @Test
+    public void testUnreachableDB() throws Exception {
+        OntopMappingSQLAllConfiguration configuration = createConfiguration("jdbc:h2:tcp://localhost:1/unreachable");
+        SQLPPMapping ppMapping = configuration.loadProvidedPPMapping();
+
+        SQLPPMapping prunedMapping = configuration.getInjector().getInstance(EmptyTriplesMapPruner.class)
+                .prune(ppMapping);
+
+        assertSame(ppMapping, prunedMapping);
+    }
+
+    private static SQLPPMapping prune(String jdbcUrl) throws Exception {
+        OntopMappingSQLAllConfiguration configuration = createConfiguration(jdbcUrl);
+        return configuration.getInjector().getInstance(EmptyTriplesMapPruner.class)
+                .prune(configuration.loadProvidedPPMapping());
+    }
+
+    private static OntopMappingSQLAllConfiguration createConfiguration(String jdbcUrl) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSQLSettings.EMPTY_TRIPLES_MAP_PRUNING, "true");
+        properties.setProperty(OntopMappingSQLSettings.EMPTY_TRIPLES_MAP_PROBING_QUERY_TIMEOUT, "5");
+
+        return OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(MAPPING))
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcDriver("org.h2.Driver")
+                .properties(properties)
+                .build();
+    }
+
+    private static ImmutableSet<String> getIds(SQLPPMapping ppMapping) {
+        return ppMapping.getTripleMaps().stream()
+                .map(SQLPPTriplesMap::getId)
+                .collect(ImmutableCollectors.toSet());
+    }
+}
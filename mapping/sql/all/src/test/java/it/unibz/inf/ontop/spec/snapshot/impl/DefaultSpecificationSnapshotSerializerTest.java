@@ -0,0 +1,177 @@
+package it.unibz.inf.ontop.spec.snapshot.impl;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.datalog.Mapping2DatalogConverter;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationExtractor;
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyFactoryImpl;
+import it.unibz.inf.ontop.spec.snapshot.SpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringReader;
+import java.sql.Types;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultSpecificationSnapshotSerializerTest {
+
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final String MAPPING = "[PrefixDeclaration]\n" +
+            ":\thttp://example.org/\n" +
+            "\n" +
+            "[MappingDeclaration] @collection [[\n" +
+            "mappingId\tperson\n" +
+            "target\t\t:person/{ID} a :Person ; :name {NAME} ; :worksFor :dept/{DEPT} .\n" +
+            "source\t\tSELECT ID, NAME, DEPT FROM PERSON\n" +
+            "\n" +
+            "mappingId\tdept\n" +
+            "target\t\t:dept/{ID} a :Department .\n" +
+            "source\t\tSELECT ID FROM DEPT\n" +
+            "]]\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        OntopMappingSQLAllConfiguration configuration = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(MAPPING))
+                .jdbcUrl("jdbc:h2://localhost/fake")
+                .jdbcUser("fake_user")
+                .jdbcPassword("fake_password")
+                .enableProvidedDBMetadataCompletion(false)
+                .build();
+
+        OBDASpecInput specInput = OBDASpecInput.defaultBuilder()
+                .addMappingReader(new StringReader(MAPPING))
+                .build();
+        OBDASpecification specification = configuration.getInjector().getInstance(OBDASpecificationExtractor.class)
+                .extract(specInput, Optional.of(createMetadata()), Optional.of(createOntology()),
+                        configuration.getExecutorRegistry());
+
+        SpecificationSnapshotSerializer serializer = configuration.getInjector()
+                .getInstance(SpecificationSnapshotSerializer.class);
+        File file = new File(folder.getRoot(), "specification.snapshot");
+        serializer.save(specification, FINGERPRINT, file);
+
+        assertFalse(serializer.load(file, "other", configuration.getExecutorRegistry()).isPresent());
+        OBDASpecification loadedSpecification = serializer.load(file, FINGERPRINT,
+                configuration.getExecutorRegistry()).get();
+
+        Mapping2DatalogConverter converter = configuration.getInjector().getInstance(Mapping2DatalogConverter.class);
+        ImmutableSet<String> rules = getRules(converter, specification);
+        assertFalse(rules.isEmpty());
+        assertEquals(rules, getRules(converter, loadedSpecification));
+
+        TBoxReasoner tBox = specification.getSaturatedTBox();
+        TBoxReasoner loadedTBox = loadedSpecification.getSaturatedTBox();
+        assertEquals(getInclusions(tBox.getClassDAG()), getInclusions(loadedTBox.getClassDAG()));
+        assertEquals(getInclusions(tBox.getObjectPropertyDAG()), getInclusions(loadedTBox.getObjectPropertyDAG()));
+        assertEquals(getInclusions(tBox.getDataPropertyDAG()), getInclusions(loadedTBox.getDataPropertyDAG()));
+        assertEquals(getInclusions(tBox.getDataRangeDAG()), getInclusions(loadedTBox.getDataRangeDAG()));
+
+        ImmutableSet<String> relations = getRelations(specification.getDBMetadata());
+        assertTrue(relations.stream().anyMatch(r -> r.startsWith("FK ")));
+        assertTrue(relations.stream().anyMatch(r -> r.startsWith("UC ")));
+        assertEquals(relations, getRelations(loadedSpecification.getDBMetadata()));
+    }
+
+    private static ImmutableSet<String> getRules(Mapping2DatalogConverter converter, OBDASpecification specification) {
+        return converter.convert(specification.getSaturatedMapping())
+                .map(Object::toString)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    /**
+     * Each vertex (sorted members) with its direct super-vertices
+     */
+    private static <T> ImmutableSet<String> getInclusions(EquivalencesDAG<T> dag) {
+        return StreamSupport.stream(dag.spliterator(), false)
+                .map(v -> toString(v) + " < " + dag.getDirectSuper(v).stream()
+                        .map(DefaultSpecificationSnapshotSerializerTest::toString)
+                        .sorted()
+                        .collect(Collectors.joining(", ")))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private static <T> String toString(Equivalences<T> vertex) {
+        return vertex.getMembers().stream()
+                .map(Object::toString)
+                .sorted()
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    private static ImmutableSet<String> getRelations(DBMetadata dbMetadata) {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (DatabaseRelationDefinition relation : dbMetadata.getDatabaseRelations()) {
+            builder.add(relation.toString());
+            for (UniqueConstraint uc : relation.getUniqueConstraints())
+                builder.add("UC " + uc.isPrimaryKey() + " " + uc);
+            for (ForeignKeyConstraint fk : relation.getForeignKeys())
+                builder.add("FK " + fk);
+        }
+        return builder.build();
+    }
+
+    private static DBMetadata createMetadata() {
+        RDBMetadata dbMetadata = RDBMetadataExtractionTools.createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        DatabaseRelationDefinition deptTable = dbMetadata.createDatabaseRelation(
+                idFactory.createRelationID(null, "DEPT"));
+        Attribute deptId = deptTable.addAttribute(idFactory.createAttributeID("ID"), Types.INTEGER, null, false);
+        deptTable.addUniqueConstraint(UniqueConstraint.primaryKeyOf(deptId));
+
+        DatabaseRelationDefinition personTable = dbMetadata.createDatabaseRelation(
+                idFactory.createRelationID(null, "PERSON"));
+        Attribute personId = personTable.addAttribute(idFactory.createAttributeID("ID"), Types.INTEGER, null, false);
+        Attribute personName = personTable.addAttribute(idFactory.createAttributeID("NAME"), Types.VARCHAR, null, false);
+        Attribute personDept = personTable.addAttribute(idFactory.createAttributeID("DEPT"), Types.INTEGER, null, true);
+        personTable.addUniqueConstraint(UniqueConstraint.primaryKeyOf(personId));
+        personTable.addUniqueConstraint(UniqueConstraint.builder(personTable).add(personName).build("PERSON_NAME", false));
+        personTable.addForeignKeyConstraint(ForeignKeyConstraint.builder(personTable, deptTable)
+                .add(personDept, deptId).build("PERSON_DEPT"));
+
+        dbMetadata.freeze();
+        return dbMetadata;
+    }
+
+    private static Ontology createOntology() throws InconsistentOntologyException {
+        OntologyVocabulary vocabulary = OntologyFactoryImpl.getInstance().createVocabulary();
+        OClass person = vocabulary.createClass("http://example.org/Person");
+        OClass human = vocabulary.createClass("http://example.org/Human");
+        OClass employee = vocabulary.createClass("http://example.org/Employee");
+        OClass department = vocabulary.createClass("http://example.org/Department");
+        ObjectPropertyExpression worksFor = vocabulary.createObjectProperty("http://example.org/worksFor");
+        ObjectPropertyExpression headOf = vocabulary.createObjectProperty("http://example.org/headOf");
+        DataPropertyExpression name = vocabulary.createDataProperty("http://example.org/name");
+        DataPropertyExpression label = vocabulary.createDataProperty("http://example.org/label");
+
+        Ontology ontology = OntologyFactoryImpl.getInstance().createOntology(vocabulary);
+        // equivalent classes
+        ontology.addSubClassOfAxiom(person, human);
+        ontology.addSubClassOfAxiom(human, person);
+        ontology.addSubClassOfAxiom(employee, person);
+        ontology.addSubClassOfAxiom(worksFor.getDomain(), employee);
+        ontology.addSubClassOfAxiom(worksFor.getRange(), department);
+        ontology.addSubPropertyOfAxiom(headOf, worksFor);
+        ontology.addSubPropertyOfAxiom(name, label);
+        ontology.addDataPropertyRangeAxiom(name.getRange(),
+                vocabulary.getDatatype("http://www.w3.org/2001/XMLSchema#string"));
+        return ontology;
+    }
+}
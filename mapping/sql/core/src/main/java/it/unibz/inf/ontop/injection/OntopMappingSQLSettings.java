@@ -1,6 +1,87 @@
 package it.unibz.inf.ontop.injection;
 
+import java.util.Optional;
 
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * Maximal number of rows read per table or source query when collecting the statistics of the data source
+     */
+    int getStatisticsSampleSize();
+
+    /**
+     * Number of parallel DB connections used when collecting the statistics of the data source
+     */
+    int getStatisticsCollectionThreadCount();
+
+    /**
+     * Timeout (in seconds) of the counting queries used when collecting the statistics of the data source
+     */
+    int getStatisticsQueryTimeout();
+
+    /**
+     * File of the statistics of the data source (see DBStatisticsSerializer).
+     * By default, the file stored next to the mapping file (same name, .stats extension).
+     */
+    Optional<String> getStatisticsFile();
+
+    /**
+     * Removes at startup the triples maps whose source query is empty (see EmptyTriplesMapPruner)
+     */
+    boolean isEmptyTriplesMapPruningEnabled();
+
+    /**
+     * Number of parallel DB connections used for probing the source queries
+     */
+    int getEmptyTriplesMapProbingThreadCount();
+
+    /**
+     * Timeout (in seconds) of each probe. Limiting the number of rows does not prevent some DBs
+     * from fully evaluating the source query before returning the first row.
+     */
+    int getEmptyTriplesMapProbingQueryTimeout();
+
+    /**
+     * File of the precompiled OBDA specification (see SpecificationSnapshotSerializer).
+     * Used instead of the mapping, the ontology and the DB metadata when still valid.
+     */
+    Optional<String> getSpecificationSnapshotFile();
+
+    /**
+     * Number of parallel DB connections used for extracting the DB metadata
+     */
+    int getMetadataExtractionThreadCount();
+
+    /**
+     * Local cache file of the DB metadata (see RDBMetadataCache).
+     * Only the relations whose definition has changed in the DB are extracted again.
+     */
+    Optional<String> getMetadataCacheFile();
+
+    /**
+     * Maximal age (in seconds) of the relations of the metadata cache, after which they are extracted again
+     */
+    int getMetadataCacheMaxAge();
+
+    /**
+     * Number of parallel DB connections used for the parameter queries of the meta-mappings
+     */
+    int getMetaMappingExpansionThreadCount();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String STATISTICS_SAMPLE_SIZE = "ontop.statistics.sampleSize";
+    String STATISTICS_THREAD_COUNT = "ontop.statistics.threadCount";
+    String STATISTICS_QUERY_TIMEOUT = "ontop.statistics.queryTimeout";
+    String STATISTICS_FILE = "ontop.statistics.file";
+    String EMPTY_TRIPLES_MAP_PRUNING = "ontop.emptyTriplesMapPruning";
+    String EMPTY_TRIPLES_MAP_PROBING_THREAD_COUNT = "ontop.emptyTriplesMapPruning.threadCount";
+    String EMPTY_TRIPLES_MAP_PROBING_QUERY_TIMEOUT = "ontop.emptyTriplesMapPruning.queryTimeout";
+    String SPECIFICATION_SNAPSHOT = "ontop.specificationSnapshot";
+    String METADATA_EXTRACTION_THREAD_COUNT = "ontop.metadataExtraction.threadCount";
+    String METADATA_CACHE = "ontop.metadataExtraction.cache";
+    String METADATA_CACHE_MAX_AGE = "ontop.metadataExtraction.cache.maxAge";
+    String META_MAPPING_EXPANSION_THREAD_COUNT = "ontop.metaMappingExpansion.threadCount";
 }
@@ -4,11 +4,14 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopMappingSQLConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.injection.SQLPPMappingFactory;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsCollector;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintExtractor;
 import it.unibz.inf.ontop.spec.dbschema.RDBMetadataExtractor;
 import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
 import it.unibz.inf.ontop.spec.mapping.parser.SQLMappingParser;
+import it.unibz.inf.ontop.spec.mapping.pp.EmptyTriplesMapPruner;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMappingConverter;
+import it.unibz.inf.ontop.spec.snapshot.SpecificationSnapshotSerializer;
 
 public class OntopMappingSQLModule extends OntopAbstractModule {
 
@@ -30,6 +33,9 @@ public class OntopMappingSQLModule extends OntopAbstractModule {
         bindFromSettings(PreProcessedImplicitRelationalDBConstraintExtractor.class);
         bindFromSettings(MappingExtractor.class);
         bindFromSettings(RDBMetadataExtractor.class);
+        bindFromSettings(DBStatisticsCollector.class);
+        bindFromSettings(EmptyTriplesMapPruner.class);
+        bindFromSettings(SpecificationSnapshotSerializer.class);
 
 //        Module nativeQLFactoryModule = buildFactory(
 //                ImmutableList.of(RDBMetadataExtractor.class),
@@ -28,6 +28,66 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
         return loadDefaultPropertiesFromFile(OntopMappingSQLSettings.class, DEFAULT_PROPERTY_FILE);
     }
 
+    @Override
+    public int getStatisticsSampleSize() {
+        return getRequiredInteger(STATISTICS_SAMPLE_SIZE);
+    }
+
+    @Override
+    public int getStatisticsCollectionThreadCount() {
+        return getRequiredInteger(STATISTICS_THREAD_COUNT);
+    }
+
+    @Override
+    public int getStatisticsQueryTimeout() {
+        return getRequiredInteger(STATISTICS_QUERY_TIMEOUT);
+    }
+
+    @Override
+    public Optional<String> getStatisticsFile() {
+        return getProperty(STATISTICS_FILE);
+    }
+
+    @Override
+    public boolean isEmptyTriplesMapPruningEnabled() {
+        return getRequiredBoolean(EMPTY_TRIPLES_MAP_PRUNING);
+    }
+
+    @Override
+    public int getEmptyTriplesMapProbingThreadCount() {
+        return getRequiredInteger(EMPTY_TRIPLES_MAP_PROBING_THREAD_COUNT);
+    }
+
+    @Override
+    public int getEmptyTriplesMapProbingQueryTimeout() {
+        return getRequiredInteger(EMPTY_TRIPLES_MAP_PROBING_QUERY_TIMEOUT);
+    }
+
+    @Override
+    public Optional<String> getSpecificationSnapshotFile() {
+        return getProperty(SPECIFICATION_SNAPSHOT);
+    }
+
+    @Override
+    public int getMetadataExtractionThreadCount() {
+        return getRequiredInteger(METADATA_EXTRACTION_THREAD_COUNT);
+    }
+
+    @Override
+    public Optional<String> getMetadataCacheFile() {
+        return getProperty(METADATA_CACHE);
+    }
+
+    @Override
+    public int getMetadataCacheMaxAge() {
+        return getRequiredInteger(METADATA_CACHE_MAX_AGE);
+    }
+
+    @Override
+    public int getMetaMappingExpansionThreadCount() {
+        return getRequiredInteger(META_MAPPING_EXPANSION_THREAD_COUNT);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
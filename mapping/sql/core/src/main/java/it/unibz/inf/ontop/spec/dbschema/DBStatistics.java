@@ -0,0 +1,225 @@
+package it.unibz.inf.ontop.spec.dbschema;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.ValueConstant;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Statistics collected on the data source (see DBStatisticsCollector):
+ *   - per table: number of rows, number of distinct values and fraction of nulls of the columns,
+ *   - per mapping assertion (triples map ID): number of tuples returned by the source query,
+ *   - per IRI template: selectivity, i.e. the ratio between the number of distinct IRIs and the number of tuples
+ *     (1 when the template arguments identify the tuples).
+ * <p>
+ * Tables and columns are identified by their SQL rendering, so that the statistics can be stored
+ * in a file (see DBStatisticsSerializer) and inserted into newly extracted DB metadata.
+ * The statistics of the mapping assertions are inserted into the views created for their source queries
+ * (see insertIntoParserViews), which have no statistics otherwise.
+ */
+public class DBStatistics {
+
+    public static class TableStatistics {
+        private final long rowCount;
+        private final ImmutableMap<String, Long> distinctValueCounts;
+        private final ImmutableMap<String, Double> nullFractions;
+
+        public TableStatistics(long rowCount, ImmutableMap<String, Long> distinctValueCounts,
+                               ImmutableMap<String, Double> nullFractions) {
+            this.rowCount = rowCount;
+            this.distinctValueCounts = distinctValueCounts;
+            this.nullFractions = nullFractions;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Column (SQL rendering) -> number of distinct values
+         */
+        public ImmutableMap<String, Long> getDistinctValueCounts() {
+            return distinctValueCounts;
+        }
+
+        /**
+         * Column (SQL rendering) -> fraction of nulls
+         */
+        public ImmutableMap<String, Double> getNullFractions() {
+            return nullFractions;
+        }
+    }
+
+    private final ImmutableMap<String, TableStatistics> tableStatistics;
+    private final ImmutableMap<String, Long> mappingCardinalities;
+    private final ImmutableMap<String, Double> templateSelectivities;
+
+    public DBStatistics(ImmutableMap<String, TableStatistics> tableStatistics,
+                        ImmutableMap<String, Long> mappingCardinalities,
+                        ImmutableMap<String, Double> templateSelectivities) {
+        this.tableStatistics = tableStatistics;
+        this.mappingCardinalities = mappingCardinalities;
+        this.templateSelectivities = templateSelectivities;
+    }
+
+    /**
+     * Table (SQL rendering of the relation ID) -> statistics
+     */
+    public ImmutableMap<String, TableStatistics> getTableStatistics() {
+        return tableStatistics;
+    }
+
+    /**
+     * Triples map ID -> number of tuples of the source query
+     */
+    public ImmutableMap<String, Long> getMappingCardinalities() {
+        return mappingCardinalities;
+    }
+
+    /**
+     * IRI template -> selectivity (between 0 and 1)
+     */
+    public ImmutableMap<String, Double> getTemplateSelectivities() {
+        return templateSelectivities;
+    }
+
+    public Optional<TableStatistics> getTableStatistics(RelationID relationId) {
+        return Optional.ofNullable(tableStatistics.get(relationId.getSQLRendering()));
+    }
+
+    /**
+     * Attaches the table statistics to the corresponding relations of the DB metadata.
+     * <p>
+     * Replaces the statistics obtained from the JDBC driver. Unknown tables and columns are ignored.
+     */
+    public void insertInto(DBMetadata metadata) {
+        for (DatabaseRelationDefinition relation : metadata.getDatabaseRelations()) {
+            Optional<TableStatistics> optionalStatistics = getTableStatistics(relation.getID());
+            if (!optionalStatistics.isPresent())
+                continue;
+
+            TableStatistics statistics = optionalStatistics.get();
+            RelationStatistics.Builder builder = RelationStatistics.builder(statistics.getRowCount());
+            for (Attribute attribute : relation.getAttributes()) {
+                String column = attribute.getID().getSQLRendering();
+                Long distinctValueCount = statistics.getDistinctValueCounts().get(column);
+                if (distinctValueCount != null)
+                    builder.addDistinctValueCount(attribute, distinctValueCount);
+                Double nullFraction = statistics.getNullFractions().get(column);
+                if (nullFraction != null)
+                    builder.addNullFraction(attribute, nullFraction);
+            }
+            relation.setStatistics(builder.build());
+        }
+    }
+
+    /**
+     * Attaches the statistics of the mapping assertions to the views created for their source queries
+     * (source queries not understood by the SQL parser):
+     *   - the row count of the view is the cardinality of the mapping assertion,
+     *   - the number of distinct values of a column used as the only argument of an IRI template
+     *     is derived from the selectivity of the template.
+     * <p>
+     * To be called after the conversion of the mapping (which creates the views) and before freezing the metadata.
+     */
+    public void insertIntoParserViews(SQLPPMapping ppMapping, RDBMetadata metadata) {
+        Map<String, SQLPPTriplesMap> triplesMaps = new HashMap<>();
+        for (SQLPPTriplesMap triplesMap : ppMapping.getTripleMaps()) {
+            if (mappingCardinalities.containsKey(triplesMap.getId()))
+                triplesMaps.putIfAbsent(triplesMap.getSourceQuery().getSQLQuery(), triplesMap);
+        }
+
+        for (ParserViewDefinition view : metadata.getParserViews()) {
+            SQLPPTriplesMap triplesMap = triplesMaps.get(view.getStatement());
+            if (triplesMap == null)
+                continue;
+
+            long rowCount = mappingCardinalities.get(triplesMap.getId());
+            // Column used by several templates: the least selective value is kept
+            Map<Attribute, Long> distinctValueCounts = new HashMap<>();
+            for (ImmutableFunctionalTerm template : getTemplates(triplesMap)) {
+                Double selectivity = templateSelectivities.get(getTemplateString(template));
+                if ((selectivity == null) || (template.getArity() != 2)
+                        || !(template.getArguments().get(1) instanceof Variable))
+                    continue;
+
+                Variable variable = (Variable) template.getArguments().get(1);
+                view.getAttributes().stream()
+                        .filter(a -> isColumn(variable, a.getID().getName()))
+                        .findFirst()
+                        .ifPresent(a -> distinctValueCounts.merge(a, Math.round(selectivity * rowCount), Math::max));
+            }
+
+            RelationStatistics.Builder builder = RelationStatistics.builder(rowCount);
+            distinctValueCounts.forEach(builder::addDistinctValueCount);
+            view.setStatistics(builder.build());
+        }
+    }
+
+    /**
+     * IRI templates (with at least one argument) of the target atoms of the mapping assertion
+     */
+    public static ImmutableList<ImmutableFunctionalTerm> getTemplates(SQLPPTriplesMap triplesMap) {
+        return triplesMap.getTargetAtoms().stream()
+                .flatMap(DBStatistics::extractTemplates)
+                .distinct()
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static Stream<ImmutableFunctionalTerm> extractTemplates(ImmutableTerm term) {
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return Stream.empty();
+
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        if ((functionalTerm.getFunctionSymbol() instanceof URITemplatePredicate)
+                && (functionalTerm.getArity() > 1)
+                && (functionalTerm.getArguments().get(0) instanceof ValueConstant))
+            return Stream.of(functionalTerm);
+
+        return functionalTerm.getArguments().stream()
+                .flatMap(DBStatistics::extractTemplates);
+    }
+
+    public static String getTemplateString(ImmutableFunctionalTerm template) {
+        return ((ValueConstant) template.getArguments().get(0)).getValue();
+    }
+
+    /**
+     * Whether the variable of the target atoms refers to the column (label) of the source query
+     */
+    public static boolean isColumn(Variable variable, String columnLabel) {
+        return unquote(columnLabel).equalsIgnoreCase(unquote(variable.getName()));
+    }
+
+    private static String unquote(String name) {
+        if (name.length() > 1 && (name.startsWith("\"") || name.startsWith("`") || name.startsWith("["))
+                && (name.endsWith("\"") || name.endsWith("`") || name.endsWith("]")))
+            return name.substring(1, name.length() - 1);
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, TableStatistics> e : tableStatistics.entrySet()) {
+            sb.append(e.getKey()).append(": ").append(e.getValue().getRowCount()).append(" rows, distinct values ")
+                    .append(e.getValue().getDistinctValueCounts()).append(", nulls ")
+                    .append(e.getValue().getNullFractions()).append("\n");
+        }
+        sb.append("Mapping cardinalities: ").append(mappingCardinalities).append("\n");
+        sb.append("Template selectivities: ").append(templateSelectivities);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package it.unibz.inf.ontop.spec.dbschema;
+
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.exception.DBMetadataExtractionException;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+
+/**
+ * Collects statistics about the data source by querying the tables and the source queries of the mapping.
+ *
+ * The result can be saved next to the mapping (see DBStatisticsSerializer), so that it is loaded
+ * at startup and used by the query reformulation (e.g. for ordering the joins).
+ */
+public interface DBStatisticsCollector {
+
+    /**
+     * Only the relations present in the DB metadata are analyzed
+     */
+    DBStatistics collect(SQLPPMapping ppMapping, RDBMetadata metadata) throws DBMetadataExtractionException;
+}
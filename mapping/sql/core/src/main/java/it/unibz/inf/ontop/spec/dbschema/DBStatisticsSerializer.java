@@ -0,0 +1,141 @@
+package it.unibz.inf.ontop.spec.dbschema;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics.TableStatistics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Saves and loads DBStatistics.
+ * <p>
+ * By default, the statistics file is stored next to the mapping file (same name, .stats extension).
+ * <p>
+ * Tab-separated text format (one entry per line, lines starting with # are comments):
+ * <pre>
+ * version   3
+ * table     TABLE_ID   ROW_COUNT
+ * column    TABLE_ID   COLUMN_ID   DISTINCT_VALUE_COUNT   NULL_FRACTION
+ * mapping   TRIPLES_MAP_ID   ROW_COUNT
+ * template  IRI_TEMPLATE   SELECTIVITY
+ * </pre>
+ * Files with another version are rejected (the statistics have to be collected again).
+ */
+public class DBStatisticsSerializer {
+
+    public static final int VERSION = 3;
+
+    private static final String EXTENSION = ".stats";
+    private static final String SEPARATOR = "\t";
+
+    private static final String VERSION_ENTRY = "version";
+    private static final String TABLE_ENTRY = "table";
+    private static final String COLUMN_ENTRY = "column";
+    private static final String MAPPING_ENTRY = "mapping";
+    private static final String TEMPLATE_ENTRY = "template";
+
+    /**
+     * Statistics file associated to the mapping file
+     */
+    public static File getDefaultStatisticsFile(File mappingFile) {
+        String name = mappingFile.getName();
+        int index = name.lastIndexOf('.');
+        String baseName = index > 0 ? name.substring(0, index) : name;
+        return new File(mappingFile.getAbsoluteFile().getParentFile(), baseName + EXTENSION);
+    }
+
+    public static void save(DBStatistics statistics, File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            writer.write("# Statistics of the data source, collected by Ontop\n");
+            writeEntry(writer, VERSION_ENTRY, String.valueOf(VERSION));
+
+            for (Map.Entry<String, TableStatistics> e : statistics.getTableStatistics().entrySet()) {
+                TableStatistics tableStatistics = e.getValue();
+                writeEntry(writer, TABLE_ENTRY, e.getKey(), String.valueOf(tableStatistics.getRowCount()));
+
+                for (Map.Entry<String, Long> c : tableStatistics.getDistinctValueCounts().entrySet()) {
+                    Double nullFraction = tableStatistics.getNullFractions().get(c.getKey());
+                    writeEntry(writer, COLUMN_ENTRY, e.getKey(), c.getKey(), String.valueOf(c.getValue()),
+                            String.valueOf(nullFraction == null ? 0 : nullFraction));
+                }
+            }
+            for (Map.Entry<String, Long> e : statistics.getMappingCardinalities().entrySet())
+                writeEntry(writer, MAPPING_ENTRY, e.getKey(), String.valueOf(e.getValue()));
+
+            for (Map.Entry<String, Double> e : statistics.getTemplateSelectivities().entrySet())
+                writeEntry(writer, TEMPLATE_ENTRY, e.getKey(), String.valueOf(e.getValue()));
+        }
+    }
+
+    private static void writeEntry(Writer writer, String... values) throws IOException {
+        writer.write(String.join(SEPARATOR, values));
+        writer.write("\n");
+    }
+
+    public static DBStatistics load(File file) throws IOException {
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> distinctValueCounts = new HashMap<>();
+        Map<String, Map<String, Double>> nullFractions = new HashMap<>();
+        ImmutableMap.Builder<String, Long> mappingCardinalities = ImmutableMap.builder();
+        ImmutableMap.Builder<String, Double> templateSelectivities = ImmutableMap.builder();
+        boolean isVersionChecked = false;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] values = line.split(SEPARATOR);
+                try {
+                    switch (values[0]) {
+                        case VERSION_ENTRY:
+                            int version = Integer.parseInt(values[1]);
+                            if (version != VERSION)
+                                throw new IOException("Unsupported version of the statistics file " + file + ": "
+                                        + version + " (expected: " + VERSION + ")");
+                            isVersionChecked = true;
+                            break;
+                        case TABLE_ENTRY:
+                            rowCounts.put(values[1], Long.parseLong(values[2]));
+                            break;
+                        case COLUMN_ENTRY:
+                            distinctValueCounts.computeIfAbsent(values[1], t -> new LinkedHashMap<>())
+                                    .put(values[2], Long.parseLong(values[3]));
+                            nullFractions.computeIfAbsent(values[1], t -> new LinkedHashMap<>())
+                                    .put(values[2], Double.parseDouble(values[4]));
+                            break;
+                        case MAPPING_ENTRY:
+                            mappingCardinalities.put(values[1], Long.parseLong(values[2]));
+                            break;
+                        case TEMPLATE_ENTRY:
+                            templateSelectivities.put(values[1], Double.parseDouble(values[2]));
+                            break;
+                        default:
+                            throw new IOException("Unknown entry at line " + lineNumber + " of " + file);
+                    }
+                }
+                catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    throw new IOException("Malformed entry at line " + lineNumber + " of " + file + ": " + line);
+                }
+            }
+        }
+        if (!isVersionChecked)
+            throw new IOException("No version found in the statistics file " + file);
+
+        ImmutableMap.Builder<String, TableStatistics> tableStatistics = ImmutableMap.builder();
+        for (Map.Entry<String, Long> e : rowCounts.entrySet()) {
+            tableStatistics.put(e.getKey(), new TableStatistics(e.getValue(),
+                    ImmutableMap.copyOf(distinctValueCounts.getOrDefault(e.getKey(), new HashMap<>())),
+                    ImmutableMap.copyOf(nullFractions.getOrDefault(e.getKey(), new HashMap<>()))));
+        }
+        return new DBStatistics(tableStatistics.build(), mappingCardinalities.build(), templateSelectivities.build());
+    }
+}
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.spec.dbschema.impl;
 
 
 import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataCache;
 import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
 import it.unibz.inf.ontop.dbschema.RelationID;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
@@ -11,6 +12,7 @@ import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import it.unibz.inf.ontop.spec.dbschema.RDBMetadataExtractor;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintExtractor;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintSet;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 import net.sf.jsqlparser.JSQLParserException;
 
 import javax.annotation.Nullable;
@@ -41,11 +43,17 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
      */
     private final PreProcessedImplicitRelationalDBConstraintExtractor implicitDBConstraintExtractor;
 
+    /**
+     * For creating the additional connections used for extracting the metadata in parallel
+     */
+    private final OntopMappingSQLSettings settings;
+
     @Inject
     private DefaultRDBMetadataExtractor(OntopMappingSQLSettings settings,
                                         PreProcessedImplicitRelationalDBConstraintExtractor implicitDBConstraintExtractor) {
         this.obtainFullMetadata = settings.isFullMetadataExtractionEnabled();
         this.implicitDBConstraintExtractor = implicitDBConstraintExtractor;
+        this.settings = settings;
     }
 
     @Override
@@ -77,7 +85,7 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
 
             // if we have to parse the full metadata or just the table list in the mappings
             if (obtainFullMetadata) {
-                RDBMetadataExtractionTools.loadMetadata(metadata, connection, null);
+                loadMetadata(metadata, connection, null);
             }
             else {
                 try {
@@ -93,7 +101,7 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
                         realTables.addAll(referredTables);
                     });
 
-                    RDBMetadataExtractionTools.loadMetadata(metadata, connection, realTables);
+                    loadMetadata(metadata, connection, realTables);
                 }
                 catch (JSQLParserException e) {
                     System.out.println("Error obtaining the tables" + e);
@@ -113,4 +121,18 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
         } catch (SQLException e) {
             throw new DBMetadataExtractionException(e.getMessage());
         }    }
+
+    private void loadMetadata(RDBMetadata metadata, Connection connection, Set<RelationID> realTables)
+            throws SQLException {
+        Optional<String> cacheFile = settings.getMetadataCacheFile();
+        if (cacheFile.isPresent())
+            RDBMetadataCache.loadMetadata(metadata, connection, realTables,
+                    new File(cacheFile.get()), settings.getMetadataCacheMaxAge(), settings.getJdbcUrl() + " " + settings.getJdbcUser(),
+                    () -> LocalJDBCConnectionUtils.createConnection(settings),
+                    settings.getMetadataExtractionThreadCount());
+        else
+            RDBMetadataExtractionTools.loadMetadata(metadata, connection, realTables,
+                    () -> LocalJDBCConnectionUtils.createConnection(settings),
+                    settings.getMetadataExtractionThreadCount());
+    }
 }
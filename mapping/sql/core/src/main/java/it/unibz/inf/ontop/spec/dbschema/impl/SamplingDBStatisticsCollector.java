@@ -0,0 +1,311 @@
+package it.unibz.inf.ontop.spec.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DatabaseRelationDefinition;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RelationStatistics;
+import it.unibz.inf.ontop.exception.DBMetadataExtractionException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics.TableStatistics;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsCollector;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the statistics in parallel (one DB connection per thread), from samples of bounded size.
+ * <p>
+ * The sample of a table (or of a source query) is made of the first rows returned by the DB
+ * (JDBC max rows: portable but not random). When the sample contains all the rows, the statistics are exact.
+ * Otherwise:
+ *   - the row count comes from the DB metadata (JDBC index statistics) or from a COUNT query (with a timeout),
+ *   - the number of distinct values is extrapolated with the GEE estimator
+ *     (Charikar et al., "Towards estimation error guarantees for distinct values", PODS 2000).
+ * <p>
+ * Tables and mapping assertions that cannot be analyzed are skipped (a warning is logged).
+ */
+public class SamplingDBStatisticsCollector implements DBStatisticsCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(SamplingDBStatisticsCollector.class);
+
+    private final OntopMappingSQLSettings settings;
+
+    @Inject
+    private SamplingDBStatisticsCollector(OntopMappingSQLSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public DBStatistics collect(SQLPPMapping ppMapping, RDBMetadata metadata) throws DBMetadataExtractionException {
+        int threadCount = Math.max(1, settings.getStatisticsCollectionThreadCount());
+        BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            for (int i = 0; i < threadCount; i++)
+                connections.add(LocalJDBCConnectionUtils.createConnection(settings));
+
+            Map<String, Future<Optional<TableStatistics>>> tableFutures = new LinkedHashMap<>();
+            for (DatabaseRelationDefinition relation : metadata.getDatabaseRelations()) {
+                tableFutures.put(relation.getID().getSQLRendering(), executor.submit(
+                        () -> withConnection(connections, c -> collectTableStatistics(relation, c),
+                                relation.getID().toString())));
+            }
+
+            Map<String, Future<Optional<MappingStatistics>>> mappingFutures = new LinkedHashMap<>();
+            for (SQLPPTriplesMap triplesMap : ppMapping.getTripleMaps()) {
+                mappingFutures.put(triplesMap.getId(), executor.submit(
+                        () -> withConnection(connections, c -> collectMappingStatistics(triplesMap, c),
+                                triplesMap.getId())));
+            }
+
+            ImmutableMap.Builder<String, TableStatistics> tableStatistics = ImmutableMap.builder();
+            for (Map.Entry<String, Future<Optional<TableStatistics>>> e : tableFutures.entrySet())
+                e.getValue().get().ifPresent(s -> tableStatistics.put(e.getKey(), s));
+
+            ImmutableMap.Builder<String, Long> mappingCardinalities = ImmutableMap.builder();
+            Map<String, Double> templateSelectivities = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<Optional<MappingStatistics>>> e : mappingFutures.entrySet()) {
+                Optional<MappingStatistics> mappingStatistics = e.getValue().get();
+                if (mappingStatistics.isPresent()) {
+                    mappingCardinalities.put(e.getKey(), mappingStatistics.get().rowCount);
+                    // Template used by several mapping assertions: the least selective value is kept
+                    mappingStatistics.get().templateSelectivities
+                            .forEach((t, s) -> templateSelectivities.merge(t, s, Math::max));
+                }
+            }
+
+            return new DBStatistics(tableStatistics.build(), mappingCardinalities.build(),
+                    ImmutableMap.copyOf(templateSelectivities));
+
+        } catch (SQLException e) {
+            throw new DBMetadataExtractionException(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBMetadataExtractionException("Statistics collection interrupted");
+        } catch (ExecutionException e) {
+            throw new DBMetadataExtractionException(e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("Cannot close the connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SQLFunction<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+
+    private static <T> Optional<T> withConnection(BlockingQueue<Connection> connections, SQLFunction<T> function,
+                                                  String target) throws InterruptedException {
+        Connection connection = connections.take();
+        try {
+            return Optional.of(function.apply(connection));
+        } catch (SQLException e) {
+            log.warn("Cannot collect the statistics of " + target + ": " + e.getMessage());
+            return Optional.empty();
+        } finally {
+            connections.put(connection);
+        }
+    }
+
+    private TableStatistics collectTableStatistics(DatabaseRelationDefinition relation, Connection connection)
+            throws SQLException {
+        String tableName = relation.getID().getSQLRendering();
+        List<Attribute> attributes = relation.getAttributes();
+        String columns = attributes.isEmpty()
+                ? "*"
+                : attributes.stream()
+                    .map(a -> a.getID().getSQLRendering())
+                    .collect(Collectors.joining(", "));
+
+        List<List<String>> sample = readSample(connection, "SELECT " + columns + " FROM " + tableName);
+        long rowCount = getRowCount(connection, tableName, sample.size(),
+                relation.getStatistics().map(RelationStatistics::getRowCount));
+
+        ImmutableMap.Builder<String, Long> distinctValueCounts = ImmutableMap.builder();
+        ImmutableMap.Builder<String, Double> nullFractions = ImmutableMap.builder();
+        for (int i = 0; i < attributes.size(); i++) {
+            final int index = i;
+            List<String> values = sample.stream()
+                    .map(r -> r.get(index))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            String column = attributes.get(i).getID().getSQLRendering();
+            distinctValueCounts.put(column, estimateDistinctValueCount(values, sample.size(), rowCount));
+            nullFractions.put(column, sample.isEmpty()
+                    ? 0.0
+                    : (double) (sample.size() - values.size()) / sample.size());
+        }
+        return new TableStatistics(rowCount, distinctValueCounts.build(), nullFractions.build());
+    }
+
+    private MappingStatistics collectMappingStatistics(SQLPPTriplesMap triplesMap, Connection connection)
+            throws SQLException {
+        String sourceQuery = triplesMap.getSourceQuery().getSQLQuery();
+
+        ImmutableList<ImmutableFunctionalTerm> templates = DBStatistics.getTemplates(triplesMap);
+
+        List<String> columnLabels = new ArrayList<>();
+        List<List<String>> sample = readSample(connection, sourceQuery, columnLabels);
+        long rowCount = getRowCount(connection, "(" + sourceQuery + ") stats_source", sample.size(),
+                Optional.empty());
+
+        Map<String, Double> templateSelectivities = new HashMap<>();
+        for (ImmutableFunctionalTerm template : templates) {
+            Optional<List<Integer>> columnIndexes = getColumnIndexes(template, columnLabels);
+            if (!columnIndexes.isPresent())
+                continue;
+
+            // Tuples with a null do not produce an IRI
+            List<List<String>> tuples = sample.stream()
+                    .map(r -> columnIndexes.get().stream()
+                            .map(r::get)
+                            .collect(Collectors.toList()))
+                    .filter(t -> t.stream().allMatch(Objects::nonNull))
+                    .collect(Collectors.toList());
+            if (tuples.isEmpty())
+                continue;
+
+            double tupleCount = (double) tuples.size() * rowCount / sample.size();
+            double selectivity = estimateDistinctValueCount(tuples, sample.size(), rowCount) / tupleCount;
+            templateSelectivities.merge(DBStatistics.getTemplateString(template), Math.min(1.0, selectivity), Math::max);
+        }
+        return new MappingStatistics(rowCount, templateSelectivities);
+    }
+
+    private List<List<String>> readSample(Connection connection, String query) throws SQLException {
+        return readSample(connection, query, new ArrayList<>());
+    }
+
+    /**
+     * Reads at most sampleSize rows (values as strings, for having value-based equality).
+     * The column labels are added to the given list.
+     */
+    private List<List<String>> readSample(Connection connection, String query, List<String> columnLabels)
+            throws SQLException {
+        int sampleSize = settings.getStatisticsSampleSize();
+        List<List<String>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            statement.setMaxRows(sampleSize);
+            statement.setFetchSize(Math.min(sampleSize, 1000));
+            try (ResultSet rs = statement.executeQuery(query)) {
+                ResultSetMetaData rsMetadata = rs.getMetaData();
+                int columnCount = rsMetadata.getColumnCount();
+                for (int i = 1; i <= columnCount; i++)
+                    columnLabels.add(rsMetadata.getColumnLabel(i));
+
+                while (rs.next()) {
+                    List<String> row = new ArrayList<>(columnCount);
+                    for (int i = 1; i <= columnCount; i++)
+                        row.add(rs.getString(i));
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Exact when the sample contains all the rows. Otherwise, uses the given estimation or a COUNT query.
+     * Falls back to the sample size (lower bound) when the COUNT query fails (e.g. timeout).
+     */
+    private long getRowCount(Connection connection, String fromItem, int sampleRowCount,
+                             Optional<Long> estimatedRowCount) {
+        if (sampleRowCount < settings.getStatisticsSampleSize())
+            return sampleRowCount;
+
+        if (estimatedRowCount.isPresent() && estimatedRowCount.get() >= sampleRowCount)
+            return estimatedRowCount.get();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(settings.getStatisticsQueryTimeout());
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + fromItem)) {
+                if (rs.next())
+                    return Math.max(sampleRowCount, rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot count the rows of " + fromItem + " (the size of the sample is used instead): "
+                    + e.getMessage());
+        }
+        return sampleRowCount;
+    }
+
+    /**
+     * GEE estimator: sqrt(N/n) * f1 + (d - f1)
+     * where f1 is the number of values appearing once in the sample and d the number of distinct values in the sample.
+     */
+    private static long estimateDistinctValueCount(Collection<?> sampleValues, long sampleRowCount, long rowCount) {
+        Map<Object, Integer> frequencies = new HashMap<>();
+        for (Object value : sampleValues)
+            frequencies.merge(value, 1, Integer::sum);
+
+        long distinctCount = frequencies.size();
+        if (sampleRowCount >= rowCount || sampleRowCount == 0)
+            return distinctCount;
+
+        long singletonCount = frequencies.values().stream()
+                .filter(f -> f == 1)
+                .count();
+
+        double estimate = Math.sqrt((double) rowCount / sampleRowCount) * singletonCount
+                + (distinctCount - singletonCount);
+        return Math.min(rowCount, Math.max(distinctCount, Math.round(estimate)));
+    }
+
+    /**
+     * Positions of the template variables among the columns of the source query (if all found)
+     */
+    private static Optional<List<Integer>> getColumnIndexes(ImmutableFunctionalTerm template,
+                                                            List<String> columnLabels) {
+        List<Integer> indexes = new ArrayList<>();
+        for (ImmutableTerm argument : template.getArguments().subList(1, template.getArity())) {
+            if (!(argument instanceof Variable))
+                return Optional.empty();
+
+            Variable variable = (Variable) argument;
+            int index = -1;
+            for (int i = 0; i < columnLabels.size(); i++) {
+                if (DBStatistics.isColumn(variable, columnLabels.get(i))) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0)
+                return Optional.empty();
+            indexes.add(index);
+        }
+        return Optional.of(indexes);
+    }
+
+    private static class MappingStatistics {
+        private final long rowCount;
+        private final Map<String, Double> templateSelectivities;
+
+        private MappingStatistics(long rowCount, Map<String, Double> templateSelectivities) {
+            this.rowCount = rowCount;
+            this.templateSelectivities = templateSelectivities;
+        }
+    }
+}
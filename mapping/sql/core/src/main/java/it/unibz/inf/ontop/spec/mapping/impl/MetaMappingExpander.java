@@ -55,6 +55,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
 
@@ -74,6 +75,11 @@ public class MetaMappingExpander {
 	/**
 	 * this method expand the input mappings, which may include meta mappings, to the concrete mappings
 	 *
+	 * The parameter queries (SELECT DISTINCT over the template columns) are run in parallel
+	 * over a bounded number of connections. Meta mappings with the same source query and
+	 * the same template columns share one parameter query. The expanded mappings keep
+	 * the order of the input mappings.
+	 *
 	 * @param mappings
 	 * 		a list of mappings, which may include meta mappings
 	 * @return
@@ -85,7 +91,10 @@ public class MetaMappingExpander {
 
 		List<String> errorMessages = new LinkedList<>();
 
-		List<SQLPPTriplesMap> expandedMappings = new LinkedList<>();
+		// in the order of the input mappings
+		List<PendingMapping> pendingMappings = new ArrayList<>();
+		// by source query and template columns
+		Map<List<String>, ParameterQuery> parameterQueries = new LinkedHashMap<>();
 
 		for (SQLPPTriplesMap mapping : mappings) {
 
@@ -94,31 +103,43 @@ public class MetaMappingExpander {
 
 			if (split) {
 				String id = mapping.getId();
-				OBDASQLQuery sourceQuery = mapping.getSourceQuery();
-
-				try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
-
-					for (ImmutableFunctionalTerm atom : mapping.getTargetAtoms()) {
-						if (!atom.getFunctionSymbol().isTriplePredicate()) {
-							// for normal mappings, we do not need to expand it.
-							SQLPPTriplesMap newMapping = mapping.extractPPMappingAssertion(atom);
-
-							expandedMappings.add(newMapping);
-						} else {
-							try {
-								expandedMappings.addAll(instantiateMapping(connection, metadata, id, atom, sourceQuery.toString()));
-							} catch (Exception e) {
-								log.warn("Parse exception, check no SQL reserved keywords have been used " + e.getMessage());
-								errorMessages.add(e.getMessage());
-							}
+				String sourceQuery = mapping.getSourceQuery().toString();
+
+				for (ImmutableFunctionalTerm atom : mapping.getTargetAtoms()) {
+					if (!atom.getFunctionSymbol().isTriplePredicate()) {
+						// for normal mappings, we do not need to expand it.
+						SQLPPTriplesMap newMapping = mapping.extractPPMappingAssertion(atom);
+
+						pendingMappings.add(() -> ImmutableList.of(newMapping));
+					} else {
+						try {
+							// the parameter query is registered only once the meta mapping atom is valid
+							MetaMappingAtom metaMappingAtom = new MetaMappingAtom(metadata, id, atom, sourceQuery);
+							ParameterQuery parameterQuery = parameterQueries.computeIfAbsent(
+									metaMappingAtom.getParameterQueryKey(),
+									k -> new ParameterQuery(sourceQuery, metaMappingAtom.templateColumns));
+							pendingMappings.add(() -> metaMappingAtom.instantiate(parameterQuery.getValues()));
+						} catch (Exception e) {
+							log.warn("Parse exception, check no SQL reserved keywords have been used " + e.getMessage());
+							errorMessages.add(e.getMessage());
 						}
 					}
-				} catch (SQLException e) {
-					throw new MetaMappingExpansionException(e);
 				}
 			}
 			else
-				expandedMappings.add(mapping);
+				pendingMappings.add(() -> ImmutableList.of(mapping));
+		}
+
+		runParameterQueries(ImmutableList.copyOf(parameterQueries.values()), settings);
+
+		List<SQLPPTriplesMap> expandedMappings = new LinkedList<>();
+		for (PendingMapping pendingMapping : pendingMappings) {
+			try {
+				expandedMappings.addAll(pendingMapping.instantiate());
+			} catch (Exception e) {
+				log.warn("Parse exception, check no SQL reserved keywords have been used " + e.getMessage());
+				errorMessages.add(e.getMessage());
+			}
 		}
 
 		if (!errorMessages.isEmpty())
@@ -127,71 +148,184 @@ public class MetaMappingExpander {
 		return ImmutableList.copyOf(expandedMappings);
 	}
 
-	private static List<SQLPPTriplesMap> instantiateMapping(Connection connection, DBMetadata metadata, String id,
-															ImmutableFunctionalTerm target, String sql)
-			throws SQLException, JSQLParserException, InvalidSelectQueryException, UnsupportedSelectQueryException {
+	private interface PendingMapping {
+		List<SQLPPTriplesMap> instantiate() throws SQLException, JSQLParserException;
+	}
 
-		ImmutableList<SelectExpressionItem> queryColumns = getQueryColumns(metadata, sql);
+	/**
+	 * SELECT DISTINCT over the template columns of the meta mapping atoms
+	 * with the same source query and the same template columns
+	 */
+	private static final class ParameterQuery {
+		private final String sql;
+		private final ImmutableList<SelectExpressionItem> columns;
+		private List<List<String>> values;
+		private Exception exception;
+
+		private ParameterQuery(String sql, ImmutableList<SelectExpressionItem> columns) {
+			this.sql = sql;
+			this.columns = columns;
+		}
 
-		int arity = isURIRDFType(target.getTerm(1)) ? 1 : 2;
-		Function templateAtom = (Function)((arity == 1)
-				? target.getTerm(2)   // template is in the position of object
-				: target.getTerm(1)); // template is in the position of predicate
+		private void run(BlockingQueue<Connection> connections) throws InterruptedException {
+			Connection connection = connections.take();
+			try {
+				values = getTemplateValues(connection, sql, columns);
+			} catch (SQLException | JSQLParserException e) {
+				// reported for each meta mapping atom
+				exception = e;
+			} finally {
+				connections.put(connection);
+			}
+		}
 
-		ImmutableList<SelectExpressionItem> templateColumns =
-				getTemplateColumns(metadata.getQuotedIDFactory(), templateAtom, queryColumns);
+		/**
+		 * Distinct values of the template columns (in the order of the result of the query)
+		 */
+		private List<List<String>> getValues() throws SQLException, JSQLParserException {
+			if (exception instanceof SQLException)
+				throw (SQLException) exception;
+			if (exception != null)
+				throw (JSQLParserException) exception;
 
-		ImmutableList<SelectItem> newColumns = queryColumns.stream()
-				.filter(c -> !templateColumns.contains(c))
-				.collect(ImmutableCollectors.toList());
-		if (newColumns.isEmpty())   // avoid empty SELECT clause
-			newColumns = ImmutableList.of(new AllColumns());
+			return values;
+		}
+	}
 
-		List<List<String>> templateValues = getTemplateValues(connection, sql, templateColumns);
+	/**
+	 * Runs the parameter queries in parallel (one DB connection per thread)
+	 */
+	private static void runParameterQueries(ImmutableList<ParameterQuery> parameterQueries,
+											OntopMappingSQLSettings settings) throws MetaMappingExpansionException {
+		if (parameterQueries.isEmpty())
+			return;
+
+		int threadCount = Math.max(1, Math.min(settings.getMetaMappingExpansionThreadCount(), parameterQueries.size()));
+		BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(threadCount);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+		try {
+			for (int i = 0; i < threadCount; i++)
+				connections.add(LocalJDBCConnectionUtils.createConnection(settings));
+
+			List<Future<?>> futures = new ArrayList<>(parameterQueries.size());
+			for (ParameterQuery parameterQuery : parameterQueries)
+				futures.add(executor.submit(() -> {
+					parameterQuery.run(connections);
+					return null;
+				}));
+
+			for (Future<?> future : futures)
+				future.get();
+
+		} catch (SQLException e) {
+			throw new MetaMappingExpansionException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MetaMappingExpansionException("Expansion of the meta mappings interrupted");
+		} catch (ExecutionException e) {
+			throw new MetaMappingExpansionException(e.getCause().getMessage());
+		} finally {
+			executor.shutdownNow();
+			for (Connection connection : connections) {
+				try {
+					connection.close();
+				} catch (SQLException e) {
+					log.warn("Cannot close the connection: " + e.getMessage());
+				}
+			}
+		}
+	}
 
-		List<SQLPPTriplesMap> expandedMappings = new ArrayList<>(templateValues.size());
+	private static final class MetaMappingAtom {
+		private final String id;
+		private final ImmutableFunctionalTerm target;
+		private final String sql;
+		private final int arity;
+		private final Function templateAtom;
+		private final ImmutableList<SelectExpressionItem> templateColumns;
+		private final ImmutableList<SelectItem> newColumns;
+
+		private MetaMappingAtom(DBMetadata metadata, String id, ImmutableFunctionalTerm target, String sql)
+				throws InvalidSelectQueryException, UnsupportedSelectQueryException {
+			this.id = id;
+			this.target = target;
+			this.sql = sql;
+
+			ImmutableList<SelectExpressionItem> queryColumns = getQueryColumns(metadata, sql);
+
+			arity = isURIRDFType(target.getTerm(1)) ? 1 : 2;
+			templateAtom = (Function)((arity == 1)
+					? target.getTerm(2)   // template is in the position of object
+					: target.getTerm(1)); // template is in the position of predicate
+
+			templateColumns = getTemplateColumns(metadata.getQuotedIDFactory(), templateAtom, queryColumns);
+
+			ImmutableList<SelectItem> columns = queryColumns.stream()
+					.filter(c -> !templateColumns.contains(c))
+					.collect(ImmutableCollectors.toList());
+			newColumns = columns.isEmpty()   // avoid empty SELECT clause
+					? ImmutableList.of(new AllColumns())
+					: columns;
+		}
 
-		for(List<String> values : templateValues) {
-			// create a new  query with the changed projection and selection
-			Expression whereClauseExtension = getWhereClauseExtension(templateColumns, values);
+		/**
+		 * source query followed by the SQL renderings of the template columns
+		 */
+		private List<String> getParameterQueryKey() {
+			List<String> key = new ArrayList<>(templateColumns.size() + 1);
+			key.add(sql);
+			for (SelectExpressionItem column : templateColumns)
+				key.add(column.toString());
+			return key;
+		}
 
-			Select select = (Select) CCJSqlParserUtil.parse(sql);
-			PlainSelect plainSelect = (PlainSelect)select.getSelectBody();
+		private List<SQLPPTriplesMap> instantiate(List<List<String>> templateValues) throws JSQLParserException {
 
-			plainSelect.setSelectItems(newColumns);
+			List<SQLPPTriplesMap> expandedMappings = new ArrayList<>(templateValues.size());
 
-			// whereClauseExtension is never null
-			plainSelect.setWhere((plainSelect.getWhere() == null)
-					? whereClauseExtension
-					: new AndExpression(plainSelect.getWhere(), whereClauseExtension));
+			for(List<String> values : templateValues) {
+				// create a new  query with the changed projection and selection
+				Expression whereClauseExtension = getWhereClauseExtension(templateColumns, values);
 
-			OBDASQLQuery newSourceQuery =  MAPPING_FACTORY.getSQLQuery(select.toString());
+				Select select = (Select) CCJSqlParserUtil.parse(sql);
+				PlainSelect plainSelect = (PlainSelect)select.getSelectBody();
 
-			// construct new Target Query by expanding higher order atoms of the form
-			// <pre>triple(t1, 'rdf:type', URI("http://example.org/{}", X))</pre>
-			// to
-			// <pre>http://example.org/cls(t1)</pre>, if X is t1
-			// (similarly for properties)
+				plainSelect.setSelectItems(newColumns);
 
-			String predicateName = getPredicateName(templateAtom.getTerm(0), values);
-			ImmutableFunctionalTerm newTarget = (arity == 1)
-					? TERM_FACTORY.getImmutableFunctionalTerm(TERM_FACTORY.getClassPredicate(predicateName),
-					target.getTerm(0))
-					: TERM_FACTORY.getImmutableFunctionalTerm(TERM_FACTORY.getObjectPropertyPredicate(predicateName),
-					target.getTerm(0), target.getTerm(2));
+				// whereClauseExtension is never null
+				plainSelect.setWhere((plainSelect.getWhere() == null)
+						? whereClauseExtension
+						: new AndExpression(plainSelect.getWhere(), whereClauseExtension));
 
-			String newId = IDGenerator.getNextUniqueID(id + "#");
+				OBDASQLQuery newSourceQuery =  MAPPING_FACTORY.getSQLQuery(select.toString());
 
-			// TODO: see how to keep the provenance
-			SQLPPTriplesMap mapping = new OntopNativeSQLPPTriplesMap(newId, newSourceQuery,
-					ImmutableList.of(newTarget));
+				// construct new Target Query by expanding higher order atoms of the form
+				// <pre>triple(t1, 'rdf:type', URI("http://example.org/{}", X))</pre>
+				// to
+				// <pre>http://example.org/cls(t1)</pre>, if X is t1
+				// (similarly for properties)
 
-			expandedMappings.add(mapping);
+				String predicateName = getPredicateName(templateAtom.getTerm(0), values);
+				ImmutableFunctionalTerm newTarget = (arity == 1)
+						? TERM_FACTORY.getImmutableFunctionalTerm(TERM_FACTORY.getClassPredicate(predicateName),
+						target.getTerm(0))
+						: TERM_FACTORY.getImmutableFunctionalTerm(TERM_FACTORY.getObjectPropertyPredicate(predicateName),
+						target.getTerm(0), target.getTerm(2));
 
-			log.debug("Expanded Mapping: {}", mapping);
-		}
+				String newId = IDGenerator.getNextUniqueID(id + "#");
+
+				// TODO: see how to keep the provenance
+				SQLPPTriplesMap mapping = new OntopNativeSQLPPTriplesMap(newId, newSourceQuery,
+						ImmutableList.of(newTarget));
+
+				expandedMappings.add(mapping);
+
+				log.debug("Expanded Mapping: {}", mapping);
+			}
 
-		return expandedMappings;
+			return expandedMappings;
+		}
 	}
 
 
@@ -8,11 +8,15 @@ import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.StartupProfiler;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics;
+import it.unibz.inf.ontop.spec.dbschema.DBStatisticsSerializer;
 import it.unibz.inf.ontop.spec.dbschema.RDBMetadataExtractor;
 import it.unibz.inf.ontop.spec.impl.MappingAndDBMetadataImpl;
 import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
 import it.unibz.inf.ontop.spec.mapping.MappingWithProvenance;
 import it.unibz.inf.ontop.spec.mapping.parser.SQLMappingParser;
+import it.unibz.inf.ontop.spec.mapping.pp.EmptyTriplesMapPruner;
 import it.unibz.inf.ontop.spec.mapping.pp.PreProcessedMapping;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMappingConverter;
@@ -27,6 +31,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -40,17 +46,20 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
     private final RDBMetadataExtractor dbMetadataExtractor;
     private final OntopMappingSQLSettings settings;
     private final MappingDatatypeFiller mappingDatatypeFiller;
+    private final EmptyTriplesMapPruner emptyTriplesMapPruner;
     private static final Logger log = LoggerFactory.getLogger(SQLMappingExtractor.class);
 
     @Inject
     private SQLMappingExtractor(SQLMappingParser mappingParser, MappingOntologyComplianceValidator ontologyComplianceValidator,
                                 SQLPPMappingConverter ppMappingConverter, MappingDatatypeFiller mappingDatatypeFiller,
-                                RDBMetadataExtractor dbMetadataExtractor, OntopMappingSQLSettings settings) {
+                                RDBMetadataExtractor dbMetadataExtractor, EmptyTriplesMapPruner emptyTriplesMapPruner,
+                                OntopMappingSQLSettings settings, StartupProfiler profiler) {
 
-        super(ontologyComplianceValidator, mappingParser);
+        super(ontologyComplianceValidator, mappingParser, profiler);
         this.ppMappingConverter = ppMappingConverter;
         this.dbMetadataExtractor = dbMetadataExtractor;
         this.mappingDatatypeFiller = mappingDatatypeFiller;
+        this.emptyTriplesMapPruner = emptyTriplesMapPruner;
         this.settings = settings;
     }
 
@@ -67,21 +76,43 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
             throws MetaMappingExpansionException, DBMetadataExtractionException, MappingOntologyMismatchException, InvalidMappingSourceQueriesException, UnknownDatatypeException {
 
 
-        RDBMetadata dbMetadata = extractDBMetadata(ppMapping, optionalDBMetadata, specInput);
+        RDBMetadata dbMetadata;
+        Optional<DBStatistics> statistics;
+        try (StartupProfiler.Phase phase = profiler.startPhase("DB metadata extraction")) {
+            dbMetadata = extractDBMetadata(ppMapping, optionalDBMetadata, specInput);
+            statistics = loadStatistics(specInput);
+            statistics.ifPresent(s -> s.insertInto(dbMetadata));
+            phase.count("relations", dbMetadata.getDatabaseRelations().size());
+        }
 
         log.debug("DB Metadata: \n{}", dbMetadata);
 
         log.debug(dbMetadata.printKeys());
 
-        SQLPPMapping expandedPPMapping = expandPPMapping(ppMapping, settings, dbMetadata);
+        SQLPPMapping expandedPPMapping;
+        try (StartupProfiler.Phase phase = profiler.startPhase("meta-mapping expansion")) {
+            expandedPPMapping = expandPPMapping(ppMapping, settings, dbMetadata);
+            phase.count("triplesMapsBefore", ppMapping.getTripleMaps().size())
+                    .count("triplesMapsAfter", expandedPPMapping.getTripleMaps().size());
+        }
+
+        // Optional (disabled by default)
+        SQLPPMapping nonEmptyPPMapping = emptyTriplesMapPruner.prune(expandedPPMapping);
 
-        // NB: may also add views in the DBMetadata (for non-understood SQL queries)
-        MappingWithProvenance provMapping = ppMappingConverter.convert(expandedPPMapping, dbMetadata, executorRegistry);
-        dbMetadata.freeze();
+        MappingWithProvenance filledProvMapping;
+        try (StartupProfiler.Phase phase = profiler.startPhase("mapping conversion")) {
+            // NB: may also add views in the DBMetadata (for non-understood SQL queries)
+            MappingWithProvenance provMapping = ppMappingConverter.convert(nonEmptyPPMapping, dbMetadata, executorRegistry);
+            statistics.ifPresent(s -> s.insertIntoParserViews(nonEmptyPPMapping, dbMetadata));
+            dbMetadata.freeze();
 
-        MappingWithProvenance filledProvMapping = mappingDatatypeFiller.inferMissingDatatypes(provMapping, dbMetadata);
+            filledProvMapping = mappingDatatypeFiller.inferMissingDatatypes(provMapping, dbMetadata);
+            phase.count("assertions", filledProvMapping.getMappingAssertions().size());
+        }
 
-        validateMapping(optionalOntology, optionalSaturatedTBox, filledProvMapping);
+        try (StartupProfiler.Phase phase = profiler.startPhase("mapping validation")) {
+            validateMapping(optionalOntology, optionalSaturatedTBox, filledProvMapping);
+        }
 
         return new MappingAndDBMetadataImpl(filledProvMapping.toRegularMapping(), dbMetadata);
     }
@@ -100,6 +131,27 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
         }
     }
 
+    /**
+     * Loads the statistics file given in the settings or, by default, the one stored next to the mapping file (if any)
+     */
+    private Optional<DBStatistics> loadStatistics(OBDASpecInput specInput) {
+        Optional<File> statisticsFile = (settings.getStatisticsFile().isPresent()
+                    ? settings.getStatisticsFile().map(File::new)
+                    : specInput.getMappingFile().map(DBStatisticsSerializer::getDefaultStatisticsFile))
+                .filter(File::exists);
+        if (!statisticsFile.isPresent())
+            return Optional.empty();
+
+        try {
+            DBStatistics statistics = DBStatisticsSerializer.load(statisticsFile.get());
+            log.debug("Statistics loaded from {}", statisticsFile.get());
+            return Optional.of(statistics);
+        } catch (IOException e) {
+            log.warn("Ignoring the statistics file: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     /**
      * Makes use of the DB connection
      */
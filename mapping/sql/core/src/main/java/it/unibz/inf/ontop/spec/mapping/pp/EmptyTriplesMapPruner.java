@@ -0,0 +1,14 @@
+package it.unibz.inf.ontop.spec.mapping.pp;
+
+import it.unibz.inf.ontop.exception.DBMetadataExtractionException;
+
+/**
+ * Removes the triples maps whose source query returns no tuple in the current data source,
+ * so that they do not appear anymore in the reformulated queries.
+ *
+ * The result only holds for the current content of the DB: it is refreshed each time the OBDA specification is loaded.
+ */
+public interface EmptyTriplesMapPruner {
+
+    SQLPPMapping prune(SQLPPMapping ppMapping) throws DBMetadataExtractionException;
+}
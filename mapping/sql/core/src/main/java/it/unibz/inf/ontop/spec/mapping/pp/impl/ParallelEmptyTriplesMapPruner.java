@@ -0,0 +1,132 @@
+package it.unibz.inf.ontop.spec.mapping.pp.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.exception.DBMetadataExtractionException;
+import it.unibz.inf.ontop.exception.DuplicateMappingException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.mapping.pp.EmptyTriplesMapPruner;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Probes the source queries in parallel (one DB connection per thread).
+ * Each probe fetches at most one row (JDBC max rows, the portable equivalent of LIMIT 1)
+ * and is bounded by a query timeout, as some DBs still evaluate the full source query.
+ * <p>
+ * Triples maps whose probe fails or times out are kept.
+ * When no connection can be opened, the mapping is returned unchanged.
+ * Does nothing when disabled in the settings.
+ */
+public class ParallelEmptyTriplesMapPruner implements EmptyTriplesMapPruner {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelEmptyTriplesMapPruner.class);
+
+    private final OntopMappingSQLSettings settings;
+
+    @Inject
+    private ParallelEmptyTriplesMapPruner(OntopMappingSQLSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public SQLPPMapping prune(SQLPPMapping ppMapping) throws DBMetadataExtractionException {
+        if (!settings.isEmptyTriplesMapPruningEnabled())
+            return ppMapping;
+
+        ImmutableList<SQLPPTriplesMap> triplesMaps = ppMapping.getTripleMaps();
+        int threadCount = Math.max(1, Math.min(settings.getEmptyTriplesMapProbingThreadCount(), triplesMaps.size()));
+        int queryTimeout = settings.getEmptyTriplesMapProbingQueryTimeout();
+        BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            try {
+                for (int i = 0; i < threadCount; i++)
+                    connections.add(LocalJDBCConnectionUtils.createConnection(settings));
+            }
+            catch (SQLException e) {
+                log.warn("Cannot connect to the DB for probing the source queries (all the triples maps are kept): "
+                        + e.getMessage());
+                return ppMapping;
+            }
+
+            List<Future<Boolean>> futures = new ArrayList<>(triplesMaps.size());
+            for (SQLPPTriplesMap triplesMap : triplesMaps)
+                futures.add(executor.submit(() -> isEmpty(triplesMap, connections, queryTimeout)));
+
+            ImmutableList.Builder<SQLPPTriplesMap> nonEmptyTriplesMaps = ImmutableList.builder();
+            int emptyCount = 0;
+            for (int i = 0; i < triplesMaps.size(); i++) {
+                if (isEmpty(triplesMaps.get(i), futures.get(i))) {
+                    log.debug("Empty source query: the triples map {} is removed", triplesMaps.get(i).getId());
+                    emptyCount++;
+                }
+                else
+                    nonEmptyTriplesMaps.add(triplesMaps.get(i));
+            }
+            log.info("{} empty triples map(s) out of {} removed", emptyCount, triplesMaps.size());
+
+            return emptyCount == 0
+                    ? ppMapping
+                    : new SQLPPMappingImpl(nonEmptyTriplesMaps.build(), ppMapping.getMetadata());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBMetadataExtractionException("Probing of the source queries interrupted");
+        } catch (DuplicateMappingException e) {
+            // Internal bug: the IDs were already unique
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("Cannot close the connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Unexpected failures of a probe are logged and the triples map is kept
+     */
+    private static boolean isEmpty(SQLPPTriplesMap triplesMap, Future<Boolean> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("Cannot probe the source query of " + triplesMap.getId() + " (kept): " + e.getCause());
+            return false;
+        }
+    }
+
+    private static boolean isEmpty(SQLPPTriplesMap triplesMap, BlockingQueue<Connection> connections,
+                                   int queryTimeout) throws InterruptedException {
+        Connection connection = connections.take();
+        try (Statement statement = connection.createStatement()) {
+            statement.setMaxRows(1);
+            statement.setFetchSize(1);
+            statement.setQueryTimeout(queryTimeout);
+            try (ResultSet rs = statement.executeQuery(triplesMap.getSourceQuery().getSQLQuery())) {
+                return !rs.next();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot probe the source query of " + triplesMap.getId() + " (kept): " + e.getMessage());
+            return false;
+        } finally {
+            connections.put(connection);
+        }
+    }
+}
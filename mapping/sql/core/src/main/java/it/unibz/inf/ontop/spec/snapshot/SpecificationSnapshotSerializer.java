@@ -0,0 +1,28 @@
+package it.unibz.inf.ontop.spec.snapshot;
+
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Saves and loads precompiled OBDA specifications (saturated mapping, DB metadata and saturated TBox),
+ * so that the startup does not need to parse the mapping, classify the ontology and extract the DB metadata again.
+ * <p>
+ * A snapshot is tagged with the fingerprint of the inputs it has been built from (see SpecificationSnapshotTools).
+ * It is only loaded when the fingerprint is still the same.
+ */
+public interface SpecificationSnapshotSerializer {
+
+    void save(OBDASpecification specification, String fingerprint, File file) throws IOException;
+
+    /**
+     * Returns nothing when the file does not exist or when the snapshot is outdated
+     * (other fingerprint or other version of the format).
+     *
+     * @throws IOException if the file cannot be read or is corrupted
+     */
+    Optional<OBDASpecification> load(File file, String fingerprint, ExecutorRegistry executorRegistry) throws IOException;
+}
@@ -0,0 +1,75 @@
+package it.unibz.inf.ontop.spec.snapshot;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+import static it.unibz.inf.ontop.injection.OntopMappingSQLSettings.*;
+
+public class SpecificationSnapshotTools {
+
+    private static final String EXTENSION = ".snapshot";
+
+    /**
+     * Settings affecting the construction of the OBDA specification
+     */
+    private static final ImmutableList<String> FINGERPRINT_KEYS = ImmutableList.of(
+            JDBC_URL, JDBC_USER, BASE_IRI,
+            OPTIMIZE_EQUIVALENCES, SAME_AS, SAME_AS_CANONICAL_IRIS,
+            QUERY_ONTOLOGY_ANNOTATIONS, OBTAIN_FULL_METADATA, COMPLETE_PROVIDED_METADATA, INFER_DEFAULT_DATATYPE,
+            EMPTY_TRIPLES_MAP_PRUNING, BITSET_TBOX_CLASSIFICATION, LAZY_TMAPPING_SATURATION,
+            PREWARMED_TMAPPING_PREDICATES, STATISTICS_FILE);
+
+    /**
+     * Snapshot file associated to the mapping file
+     */
+    public static File getDefaultSnapshotFile(File mappingFile) {
+        String name = mappingFile.getName();
+        int index = name.lastIndexOf('.');
+        String baseName = index > 0 ? name.substring(0, index) : name;
+        return new File(mappingFile.getAbsoluteFile().getParentFile(), baseName + EXTENSION);
+    }
+
+    /**
+     * SHA-256 of the content of the input files (mapping, ontology, constraints, statistics),
+     * of the settings affecting the specification and of the T-mapping exclusions.
+     * <p>
+     * The content of the DB is not taken into account: the snapshot has to be created again after a change of the schema.
+     */
+    public static String computeFingerprint(ImmutableList<File> inputFiles, OntopMappingSQLSettings settings,
+                                            Optional<TMappingExclusionConfig> tMappingExclusions)
+            throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM supports SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        for (File file : inputFiles) {
+            digest.update(Files.readAllBytes(file.toPath()));
+            // separator
+            digest.update((byte) 0);
+        }
+        for (String key : FINGERPRINT_KEYS) {
+            String value = key + "=" + settings.getProperty(key).orElse("") + "\n";
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        String exclusions = "tMappingExclusions=" + tMappingExclusions.map(Object::toString).orElse("") + "\n";
+        digest.update(exclusions.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest())
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,270 @@
+package it.unibz.inf.ontop.spec.snapshot.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.datalog.AlgebraOperatorPredicate;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate.COL_TYPE;
+import it.unibz.inf.ontop.model.term.impl.BNodePredicateImpl;
+import it.unibz.inf.ontop.model.term.impl.DatatypePredicateImpl;
+import it.unibz.inf.ontop.model.term.impl.URITemplatePredicateImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.datalog.impl.DatalogAlgebraOperatorPredicates.*;
+import static it.unibz.inf.ontop.model.OntopModelSingletons.*;
+
+/**
+ * Binary encoding of Datalog rules (terms and predicates).
+ * <p>
+ * Predicates are re-created from their kind, name, arity and types
+ * (predicates are compared by name).
+ */
+final class DatalogCodec {
+
+    private static final byte VARIABLE = 0;
+    private static final byte VALUE_CONSTANT = 1;
+    private static final byte URI_CONSTANT = 2;
+    private static final byte BNODE = 3;
+    private static final byte FUNCTIONAL_TERM = 4;
+
+    private static final byte OPERATION_PREDICATE = 0;
+    private static final byte DATATYPE_PREDICATE = 1;
+    private static final byte URI_TEMPLATE_PREDICATE = 2;
+    private static final byte BNODE_PREDICATE = 3;
+    private static final byte ALGEBRA_OPERATOR_PREDICATE = 4;
+    private static final byte ATOM_PREDICATE = 5;
+    private static final byte OTHER_PREDICATE = 6;
+
+    private static final ImmutableMap<String, AlgebraOperatorPredicate> ALGEBRA_OPERATORS = Stream.of(
+            SPARQL_JOIN, SPARQL_LEFTJOIN, SPARQL_GROUP, SPARQL_HAVING)
+            .collect(ImmutableCollectors.toMap(Predicate::getName, p -> p));
+
+    private static final ImmutableMap<String, Predicate> DATATYPE_PREDICATES = TYPE_FACTORY.getDatatypePredicates().stream()
+            .collect(ImmutableCollectors.toMap(Predicate::getName, p -> p));
+
+    private DatalogCodec() {
+    }
+
+    static void writeRule(CQIE rule, DataOutputStream out) throws IOException {
+        writeTerm(rule.getHead(), out);
+        out.writeInt(rule.getBody().size());
+        for (Function atom : rule.getBody())
+            writeTerm(atom, out);
+    }
+
+    static CQIE readRule(DataInputStream in) throws IOException {
+        Function head = readFunction(in);
+        int size = in.readInt();
+        List<Function> body = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            body.add(readFunction(in));
+        return DATALOG_FACTORY.getCQIE(head, body);
+    }
+
+    static void writeTerm(Term term, DataOutputStream out) throws IOException {
+        if (term instanceof Variable) {
+            out.writeByte(VARIABLE);
+            writeString(((Variable) term).getName(), out);
+        }
+        else if (term instanceof ValueConstant) {
+            ValueConstant constant = (ValueConstant) term;
+            out.writeByte(VALUE_CONSTANT);
+            writeString(constant.getValue(), out);
+            writeString(constant.getLanguage(), out);
+            writeType(constant.getType(), out);
+        }
+        else if (term instanceof URIConstant) {
+            out.writeByte(URI_CONSTANT);
+            writeString(((URIConstant) term).getURI(), out);
+        }
+        else if (term instanceof BNode) {
+            out.writeByte(BNODE);
+            writeString(((BNode) term).getName(), out);
+        }
+        else if (term instanceof Function) {
+            Function function = (Function) term;
+            out.writeByte(FUNCTIONAL_TERM);
+            writePredicate(function.getFunctionSymbol(), out);
+            out.writeInt(function.getTerms().size());
+            for (Term argument : function.getTerms())
+                writeTerm(argument, out);
+        }
+        else
+            throw new IOException("Unsupported term: " + term);
+    }
+
+    static Term readTerm(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        switch (kind) {
+            case VARIABLE:
+                return TERM_FACTORY.getVariable(readString(in));
+            case VALUE_CONSTANT:
+                return readValueConstant(in);
+            case URI_CONSTANT:
+                return TERM_FACTORY.getConstantURI(readString(in));
+            case BNODE:
+                return TERM_FACTORY.getConstantBNode(readString(in));
+            case FUNCTIONAL_TERM:
+                Predicate predicate = readPredicate(in);
+                int arity = in.readInt();
+                List<Term> arguments = new ArrayList<>(arity);
+                for (int i = 0; i < arity; i++)
+                    arguments.add(readTerm(in));
+                return TERM_FACTORY.getFunction(predicate, arguments);
+            default:
+                throw new IOException("Unknown kind of term: " + kind);
+        }
+    }
+
+    static Function readFunction(DataInputStream in) throws IOException {
+        Term term = readTerm(in);
+        if (!(term instanceof Function))
+            throw new IOException("An atom was expected: " + term);
+        return (Function) term;
+    }
+
+    private static ValueConstant readValueConstant(DataInputStream in) throws IOException {
+        String value = readString(in);
+        String language = readString(in);
+        COL_TYPE type = readType(in);
+        if (language != null)
+            return TERM_FACTORY.getConstantLiteral(value, language);
+
+        ValueConstant constant = TERM_FACTORY.getConstantLiteral(value, type);
+        // the constants below are sometimes compared by reference
+        if (constant.equals(TermConstants.NULL))
+            return TermConstants.NULL;
+        if (constant.equals(TermConstants.TRUE))
+            return TermConstants.TRUE;
+        if (constant.equals(TermConstants.FALSE))
+            return TermConstants.FALSE;
+        return constant;
+    }
+
+    private static void writePredicate(Predicate predicate, DataOutputStream out) throws IOException {
+        if (predicate instanceof ExpressionOperation) {
+            out.writeByte(OPERATION_PREDICATE);
+            writeString(((ExpressionOperation) predicate).name(), out);
+            return;
+        }
+        if (predicate instanceof URITemplatePredicate)
+            out.writeByte(URI_TEMPLATE_PREDICATE);
+        else if (predicate instanceof BNodePredicate)
+            out.writeByte(BNODE_PREDICATE);
+        else if (predicate instanceof DatatypePredicate)
+            out.writeByte(DATATYPE_PREDICATE);
+        else if (predicate instanceof AlgebraOperatorPredicate)
+            out.writeByte(ALGEBRA_OPERATOR_PREDICATE);
+        else if (predicate instanceof AtomPredicate)
+            out.writeByte(ATOM_PREDICATE);
+        else if (predicate instanceof OperationPredicate)
+            throw new IOException("Unsupported operation: " + predicate);
+        else
+            out.writeByte(OTHER_PREDICATE);
+
+        writeString(predicate.getName(), out);
+        out.writeInt(predicate.getArity());
+        COL_TYPE[] types = predicate.getTypes();
+        out.writeBoolean(types != null);
+        if (types != null) {
+            out.writeInt(types.length);
+            for (COL_TYPE type : types)
+                writeType(type, out);
+        }
+    }
+
+    private static Predicate readPredicate(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        if (kind == OPERATION_PREDICATE) {
+            String name = readString(in);
+            try {
+                return ExpressionOperation.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown operation: " + name);
+            }
+        }
+
+        String name = readString(in);
+        int arity = in.readInt();
+        COL_TYPE[] types = null;
+        if (in.readBoolean()) {
+            types = new COL_TYPE[in.readInt()];
+            for (int i = 0; i < types.length; i++)
+                types[i] = readType(in);
+        }
+
+        switch (kind) {
+            case URI_TEMPLATE_PREDICATE:
+                return new URITemplatePredicateImpl(arity);
+            case BNODE_PREDICATE:
+                return new BNodePredicateImpl(arity);
+            case DATATYPE_PREDICATE:
+                Predicate datatypePredicate = DATATYPE_PREDICATES.get(name);
+                if (datatypePredicate != null)
+                    return datatypePredicate;
+                if (types == null)
+                    throw new IOException("Datatype predicate without types: " + name);
+                return new DatatypePredicateImpl(name, types);
+            case ALGEBRA_OPERATOR_PREDICATE:
+                AlgebraOperatorPredicate algebraOperator = ALGEBRA_OPERATORS.get(name);
+                if (algebraOperator == null)
+                    throw new IOException("Unknown algebra operator: " + name);
+                return algebraOperator;
+            case ATOM_PREDICATE:
+                return types == null
+                        ? ATOM_FACTORY.getAtomPredicate(name, arity)
+                        : ATOM_FACTORY.getAtomPredicate(TERM_FACTORY.getPredicate(name, types));
+            case OTHER_PREDICATE:
+                return types == null
+                        ? TERM_FACTORY.getPredicate(name, arity)
+                        : TERM_FACTORY.getPredicate(name, types);
+            default:
+                throw new IOException("Unknown kind of predicate: " + kind);
+        }
+    }
+
+    private static void writeType(COL_TYPE type, DataOutputStream out) throws IOException {
+        writeString(type == null ? null : type.name(), out);
+    }
+
+    private static COL_TYPE readType(DataInputStream in) throws IOException {
+        String name = readString(in);
+        try {
+            return name == null ? null : COL_TYPE.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown type: " + name);
+        }
+    }
+
+    /**
+     * null-safe and without the 64K limit of writeUTF
+     */
+    static void writeString(String s, DataOutputStream out) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,159 @@
+package it.unibz.inf.ontop.spec.snapshot.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.datalog.Datalog2QueryMappingConverter;
+import it.unibz.inf.ontop.datalog.Mapping2DatalogConverter;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataSerializer;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.SpecificationFactory;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.model.term.Function;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.spec.mapping.MappingMetadata;
+import it.unibz.inf.ontop.spec.mapping.PrefixManager;
+import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.spec.ontology.TBoxReasoner;
+import it.unibz.inf.ontop.spec.snapshot.SpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.UriTemplateMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.Map;
+import java.util.Optional;
+
+import static it.unibz.inf.ontop.model.OntopModelSingletons.TERM_FACTORY;
+import static it.unibz.inf.ontop.spec.snapshot.impl.DatalogCodec.readString;
+import static it.unibz.inf.ontop.spec.snapshot.impl.DatalogCodec.writeString;
+
+/**
+ * Binary format (the model classes are not serializable):
+ * <pre>
+ * header      magic string, version, fingerprint
+ * prefixes    prefix -> IRI
+ * metadata    see RDBMetadataSerializer
+ * mapping     saturated mapping, as Datalog rules
+ * TBox        vocabulary and reduced axioms (see TBoxCodec)
+ * </pre>
+ * The URI template matcher is re-created from the heads of the mapping rules
+ * and the TBox is classified again.
+ */
+public class DefaultSpecificationSnapshotSerializer implements SpecificationSnapshotSerializer {
+
+    private static final Logger log = LoggerFactory.getLogger(DefaultSpecificationSnapshotSerializer.class);
+
+    private static final String MAGIC = "ontop-specification-snapshot";
+    /**
+     * To be incremented each time the format changes
+     */
+    public static final int VERSION = 3;
+
+    private final Mapping2DatalogConverter mapping2DatalogConverter;
+    private final Datalog2QueryMappingConverter datalog2MappingConverter;
+    private final SpecificationFactory specificationFactory;
+    private final OntopMappingSQLSettings settings;
+
+    @Inject
+    private DefaultSpecificationSnapshotSerializer(Mapping2DatalogConverter mapping2DatalogConverter,
+                                                   Datalog2QueryMappingConverter datalog2MappingConverter,
+                                                   SpecificationFactory specificationFactory,
+                                                   OntopMappingSQLSettings settings) {
+        this.mapping2DatalogConverter = mapping2DatalogConverter;
+        this.datalog2MappingConverter = datalog2MappingConverter;
+        this.specificationFactory = specificationFactory;
+        this.settings = settings;
+    }
+
+    @Override
+    public void save(OBDASpecification specification, String fingerprint, File file) throws IOException {
+        DBMetadata dbMetadata = specification.getDBMetadata();
+        if (!(dbMetadata instanceof RDBMetadata))
+            throw new IOException("Only the specifications of relational databases can be saved");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            writeString(MAGIC, out);
+            out.writeInt(VERSION);
+            writeString(fingerprint, out);
+
+            Mapping mapping = specification.getSaturatedMapping();
+            ImmutableMap<String, String> prefixes = mapping.getMetadata().getPrefixManager().getPrefixMap();
+            out.writeInt(prefixes.size());
+            for (Map.Entry<String, String> e : prefixes.entrySet()) {
+                writeString(e.getKey(), out);
+                writeString(e.getValue(), out);
+            }
+
+            RDBMetadataSerializer.write((RDBMetadata) dbMetadata, out);
+
+            ImmutableList<CQIE> rules = mapping2DatalogConverter.convert(mapping)
+                    .collect(ImmutableCollectors.toList());
+            out.writeInt(rules.size());
+            for (CQIE rule : rules)
+                DatalogCodec.writeRule(rule, out);
+
+            TBoxCodec.write(specification.getVocabulary(), specification.getSaturatedTBox(), out);
+        }
+    }
+
+    @Override
+    public Optional<OBDASpecification> load(File file, String fingerprint, ExecutorRegistry executorRegistry)
+            throws IOException {
+        if (!file.exists())
+            return Optional.empty();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!MAGIC.equals(readString(in)))
+                throw new IOException(file + " is not a specification snapshot");
+            int version = in.readInt();
+            if (version != VERSION) {
+                log.info("Specification snapshot {} ignored: version {} instead of {}", file, version, VERSION);
+                return Optional.empty();
+            }
+            if (!fingerprint.equals(readString(in))) {
+                log.info("Specification snapshot {} ignored: the inputs or the settings have changed", file);
+                return Optional.empty();
+            }
+
+            ImmutableMap.Builder<String, String> prefixes = ImmutableMap.builder();
+            int prefixCount = in.readInt();
+            for (int i = 0; i < prefixCount; i++)
+                prefixes.put(readString(in), readString(in));
+            PrefixManager prefixManager = specificationFactory.createPrefixManager(prefixes.build());
+
+            RDBMetadata dbMetadata = RDBMetadataSerializer.read(in);
+
+            int ruleCount = in.readInt();
+            ImmutableList.Builder<CQIE> rules = ImmutableList.builder();
+            for (int i = 0; i < ruleCount; i++)
+                rules.add(DatalogCodec.readRule(in));
+            ImmutableList<CQIE> mappingRules = rules.build();
+
+            UriTemplateMatcher uriTemplateMatcher = UriTemplateMatcher.create(mappingRules.stream()
+                    .flatMap(r -> r.getHead().getTerms().stream())
+                    .filter(t -> (t instanceof Function)
+                            && (((Function) t).getFunctionSymbol() instanceof URITemplatePredicate))
+                    .map(t -> TERM_FACTORY.getImmutableFunctionalTerm((Function) t)));
+            MappingMetadata mappingMetadata = specificationFactory.createMetadata(prefixManager, uriTemplateMatcher);
+            Mapping mapping = datalog2MappingConverter.convertMappingRules(mappingRules, dbMetadata,
+                    executorRegistry, mappingMetadata);
+
+            Ontology ontology = TBoxCodec.readOntology(in);
+            TBoxReasoner tBox = TBoxCodec.classify(ontology, settings.isEquivalenceOptimizationEnabled(),
+                    settings.isBitSetTBoxClassificationEnabled());
+
+            return Optional.of(specificationFactory.createSpecification(mapping, dbMetadata, tBox,
+                    ontology.getVocabulary()));
+        }
+        catch (EOFException e) {
+            throw new IOException(file + " is truncated");
+        }
+    }
+}
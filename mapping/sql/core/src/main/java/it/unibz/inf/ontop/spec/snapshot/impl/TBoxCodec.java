@@ -0,0 +1,275 @@
+package it.unibz.inf.ontop.spec.snapshot.impl;
+
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyFactoryImpl;
+import it.unibz.inf.ontop.spec.ontology.impl.TBoxReasonerImpl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static it.unibz.inf.ontop.spec.snapshot.impl.DatalogCodec.readString;
+import static it.unibz.inf.ontop.spec.snapshot.impl.DatalogCodec.writeString;
+
+/**
+ * Binary encoding of the ontology vocabulary and of the saturated TBox.
+ * <p>
+ * Only the reduced axioms are stored (equivalences and direct inclusions of the DAGs,
+ * data property ranges): the TBox is classified again when read.
+ * Axioms involving top or bottom entities are not stored (they are not part of the classification).
+ */
+final class TBoxCodec {
+
+    /**
+     * Prefix of the names of the auxiliary properties (see OntologyImpl.createAuxiliaryObjectProperty())
+     */
+    private static final String AUX_ROLE_PREFIX = "AUX.ROLE";
+
+    private static final byte OCLASS = 0;
+    private static final byte OBJECT_SOME_VALUES_FROM = 1;
+    private static final byte DATA_SOME_VALUES_FROM = 2;
+
+    private TBoxCodec() {
+    }
+
+    static void write(ImmutableOntologyVocabulary vocabulary, TBoxReasoner tBox, DataOutputStream out) throws IOException {
+        writeNames(vocabulary.getClasses(), OClass::getName, out);
+        writeNames(vocabulary.getObjectProperties(), ObjectPropertyExpression::getName, out);
+        writeNames(vocabulary.getDataProperties(), DataPropertyExpression::getName, out);
+        writeNames(vocabulary.getAnnotationProperties(), AnnotationProperty::getName, out);
+
+        List<Inclusion<ObjectPropertyExpression>> objectPropertyAxioms = getReducedInclusions(tBox.getObjectPropertyDAG(),
+                vocabulary.getObjectProperties());
+        int auxiliaryPropertyCount = 0;
+        for (Inclusion<ObjectPropertyExpression> axiom : objectPropertyAxioms)
+            for (ObjectPropertyExpression ope : new ObjectPropertyExpression[] { axiom.sub, axiom.sup })
+                if (ope.getName().startsWith(AUX_ROLE_PREFIX))
+                    auxiliaryPropertyCount = Math.max(auxiliaryPropertyCount,
+                            Integer.parseInt(ope.getName().substring(AUX_ROLE_PREFIX.length())) + 1);
+        out.writeInt(auxiliaryPropertyCount);
+
+        out.writeInt(objectPropertyAxioms.size());
+        for (Inclusion<ObjectPropertyExpression> axiom : objectPropertyAxioms) {
+            writeObjectProperty(axiom.sub, out);
+            writeObjectProperty(axiom.sup, out);
+        }
+
+        List<Inclusion<DataPropertyExpression>> dataPropertyAxioms = getReducedInclusions(tBox.getDataPropertyDAG(),
+                vocabulary.getDataProperties());
+        out.writeInt(dataPropertyAxioms.size());
+        for (Inclusion<DataPropertyExpression> axiom : dataPropertyAxioms) {
+            writeString(axiom.sub.getName(), out);
+            writeString(axiom.sup.getName(), out);
+        }
+
+        List<Inclusion<ClassExpression>> classAxioms = getReducedInclusions(tBox.getClassDAG(),
+                vocabulary.getClasses());
+        out.writeInt(classAxioms.size());
+        for (Inclusion<ClassExpression> axiom : classAxioms) {
+            writeClassExpression(axiom.sub, out);
+            writeClassExpression(axiom.sup, out);
+        }
+
+        List<Inclusion<DataRangeExpression>> rangeAxioms = getDataPropertyRanges(tBox.getDataRangeDAG());
+        out.writeInt(rangeAxioms.size());
+        for (Inclusion<DataRangeExpression> axiom : rangeAxioms) {
+            writeString(((DataPropertyRangeExpression) axiom.sub).getProperty().getName(), out);
+            writeString(((Datatype) axiom.sup).getPredicate().getName(), out);
+        }
+    }
+
+    /**
+     * Returns the ontology re-created from the stored axioms (and the TBox classified again).
+     */
+    static Ontology readOntology(DataInputStream in) throws IOException {
+        OntologyVocabulary vocabulary = OntologyFactoryImpl.getInstance().createVocabulary();
+        for (String name : readNames(in))
+            vocabulary.createClass(name);
+        for (String name : readNames(in))
+            vocabulary.createObjectProperty(name);
+        for (String name : readNames(in))
+            vocabulary.createDataProperty(name);
+        for (String name : readNames(in))
+            vocabulary.createAnnotationProperty(name);
+
+        Ontology ontology = OntologyFactoryImpl.getInstance().createOntology(vocabulary);
+        Map<String, ObjectPropertyExpression> auxiliaryProperties = new HashMap<>();
+        int auxiliaryPropertyCount = in.readInt();
+        for (int i = 0; i < auxiliaryPropertyCount; i++) {
+            ObjectPropertyExpression ope = ontology.createAuxiliaryObjectProperty();
+            auxiliaryProperties.put(ope.getName(), ope);
+        }
+
+        try {
+            int objectPropertyAxiomCount = in.readInt();
+            for (int i = 0; i < objectPropertyAxiomCount; i++)
+                ontology.addSubPropertyOfAxiom(
+                        readObjectProperty(ontology, auxiliaryProperties, in),
+                        readObjectProperty(ontology, auxiliaryProperties, in));
+
+            int dataPropertyAxiomCount = in.readInt();
+            for (int i = 0; i < dataPropertyAxiomCount; i++)
+                ontology.addSubPropertyOfAxiom(
+                        vocabulary.getDataProperty(readString(in)),
+                        vocabulary.getDataProperty(readString(in)));
+
+            int classAxiomCount = in.readInt();
+            for (int i = 0; i < classAxiomCount; i++)
+                ontology.addSubClassOfAxiom(
+                        readClassExpression(ontology, auxiliaryProperties, in),
+                        readClassExpression(ontology, auxiliaryProperties, in));
+
+            int rangeAxiomCount = in.readInt();
+            for (int i = 0; i < rangeAxiomCount; i++)
+                ontology.addDataPropertyRangeAxiom(
+                        vocabulary.getDataProperty(readString(in)).getRange(),
+                        vocabulary.getDatatype(readString(in)));
+        }
+        catch (InconsistentOntologyException | RuntimeException e) {
+            throw new IOException("Invalid TBox: " + e.getMessage());
+        }
+        return ontology;
+    }
+
+    static TBoxReasoner classify(Ontology ontology, boolean equivalenceReduced, boolean bitSetClassification) {
+        return TBoxReasonerImpl.create(ontology, equivalenceReduced, bitSetClassification);
+    }
+
+    /**
+     * Equivalences (both directions between each member and the representative)
+     * and the direct inclusions between the representatives.
+     * <p>
+     * The entities removed from the DAG by the equivalence optimization are only known by their canonical form:
+     * their equivalence with it is added explicitly.
+     */
+    private static <T extends DescriptionBT> List<Inclusion<T>> getReducedInclusions(EquivalencesDAG<T> dag,
+                                                                                 Collection<? extends T> entities) {
+        List<Inclusion<T>> axioms = new ArrayList<>();
+        for (T entity : entities) {
+            if (dag.getVertex(entity) != null)
+                continue;
+            T canonicalForm = dag.getCanonicalForm(entity);
+            if (canonicalForm == null || canonicalForm.equals(entity)
+                    || canonicalForm.isTop() || canonicalForm.isBottom())
+                continue;
+            axioms.add(new Inclusion<>(entity, canonicalForm));
+            axioms.add(new Inclusion<>(canonicalForm, entity));
+        }
+        for (Equivalences<T> vertex : dag) {
+            T representative = vertex.getRepresentative();
+            if (representative.isTop() || representative.isBottom())
+                continue;
+            for (T member : vertex) {
+                if (member.equals(representative) || member.isTop() || member.isBottom())
+                    continue;
+                axioms.add(new Inclusion<>(member, representative));
+                axioms.add(new Inclusion<>(representative, member));
+            }
+            for (Equivalences<T> sub : dag.getDirectSub(vertex)) {
+                T subRepresentative = sub.getRepresentative();
+                if (!subRepresentative.isTop() && !subRepresentative.isBottom())
+                    axioms.add(new Inclusion<>(subRepresentative, representative));
+            }
+        }
+        return axioms;
+    }
+
+    /**
+     * Pairs (range of a data property, datatype) entailed by the TBox
+     */
+    private static List<Inclusion<DataRangeExpression>> getDataPropertyRanges(EquivalencesDAG<DataRangeExpression> dag) {
+        List<Inclusion<DataRangeExpression>> axioms = new ArrayList<>();
+        for (Equivalences<DataRangeExpression> vertex : dag) {
+            Set<Equivalences<DataRangeExpression>> supers = new HashSet<>(dag.getSuper(vertex));
+            supers.add(vertex);
+            for (DataRangeExpression member : vertex) {
+                if (!(member instanceof DataPropertyRangeExpression))
+                    continue;
+                DataPropertyRangeExpression range = (DataPropertyRangeExpression) member;
+                if (range.getProperty().isTop() || range.getProperty().isBottom())
+                    continue;
+                for (Equivalences<DataRangeExpression> superVertex : supers)
+                    for (DataRangeExpression superMember : superVertex)
+                        if (superMember instanceof Datatype)
+                            axioms.add(new Inclusion<>(range, superMember));
+            }
+        }
+        return axioms;
+    }
+
+    private static final class Inclusion<T> {
+        private final T sub, sup;
+
+        private Inclusion(T sub, T sup) {
+            this.sub = sub;
+            this.sup = sup;
+        }
+    }
+
+    private static void writeClassExpression(ClassExpression ce, DataOutputStream out) throws IOException {
+        if (ce instanceof OClass) {
+            out.writeByte(OCLASS);
+            writeString(((OClass) ce).getName(), out);
+        }
+        else if (ce instanceof ObjectSomeValuesFrom) {
+            out.writeByte(OBJECT_SOME_VALUES_FROM);
+            writeObjectProperty(((ObjectSomeValuesFrom) ce).getProperty(), out);
+        }
+        else if (ce instanceof DataSomeValuesFrom) {
+            DataSomeValuesFrom dsvf = (DataSomeValuesFrom) ce;
+            out.writeByte(DATA_SOME_VALUES_FROM);
+            writeString(dsvf.getProperty().getName(), out);
+            writeString(dsvf.getDatatype().getPredicate().getName(), out);
+        }
+        else
+            throw new IOException("Unsupported class expression: " + ce);
+    }
+
+    private static ClassExpression readClassExpression(Ontology ontology, Map<String, ObjectPropertyExpression> auxiliaryProperties,
+                                                       DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        switch (kind) {
+            case OCLASS:
+                return ontology.getVocabulary().getClass(readString(in));
+            case OBJECT_SOME_VALUES_FROM:
+                return readObjectProperty(ontology, auxiliaryProperties, in).getDomain();
+            case DATA_SOME_VALUES_FROM:
+                DataPropertyExpression dpe = ontology.getVocabulary().getDataProperty(readString(in));
+                return dpe.getDomainRestriction(ontology.getVocabulary().getDatatype(readString(in)));
+            default:
+                throw new IOException("Unknown kind of class expression: " + kind);
+        }
+    }
+
+    private static void writeObjectProperty(ObjectPropertyExpression ope, DataOutputStream out) throws IOException {
+        writeString(ope.getName(), out);
+        out.writeBoolean(ope.isInverse());
+    }
+
+    private static ObjectPropertyExpression readObjectProperty(Ontology ontology,
+                                                               Map<String, ObjectPropertyExpression> auxiliaryProperties,
+                                                               DataInputStream in) throws IOException {
+        String name = readString(in);
+        boolean isInverse = in.readBoolean();
+        ObjectPropertyExpression ope = auxiliaryProperties.containsKey(name)
+                ? auxiliaryProperties.get(name)
+                : ontology.getVocabulary().getObjectProperty(name);
+        return isInverse ? ope.getInverse() : ope;
+    }
+
+    private static <T> void writeNames(Collection<T> entities, java.util.function.Function<T, String> nameExtractor,
+                                       DataOutputStream out) throws IOException {
+        out.writeInt(entities.size());
+        for (T entity : entities)
+            writeString(nameExtractor.apply(entity), out);
+    }
+
+    private static List<String> readNames(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            names.add(readString(in));
+        return names;
+    }
+}
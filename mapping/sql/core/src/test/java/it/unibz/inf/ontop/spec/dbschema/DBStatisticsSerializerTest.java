@@ -0,0 +1,53 @@
+package it.unibz.inf.ontop.spec.dbschema;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.spec.dbschema.DBStatistics.TableStatistics;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Types;
+
+import static org.junit.Assert.*;
+
+public class DBStatisticsSerializerTest {
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		RDBMetadata dbMetadata = RDBMetadataExtractionTools.createDummyMetadata();
+		QuotedIDFactory idfac = dbMetadata.getQuotedIDFactory();
+
+		DatabaseRelationDefinition table = dbMetadata.createDatabaseRelation(idfac.createRelationID(null, "person"));
+		Attribute id = table.addAttribute(idfac.createAttributeID("id"), Types.INTEGER, null, false);
+		Attribute name = table.addAttribute(idfac.createAttributeID("name"), Types.VARCHAR, null, true);
+
+		String tableKey = table.getID().getSQLRendering();
+		DBStatistics statistics = new DBStatistics(
+				ImmutableMap.of(tableKey, new TableStatistics(1000,
+						ImmutableMap.of(id.getID().getSQLRendering(), 1000L, name.getID().getSQLRendering(), 800L),
+						ImmutableMap.of(id.getID().getSQLRendering(), 0.0, name.getID().getSQLRendering(), 0.25))),
+				ImmutableMap.of("mapping-person", 1000L),
+				ImmutableMap.of("http://example.org/person/{}", 1.0));
+
+		File file = File.createTempFile("ontop", ".stats");
+		file.deleteOnExit();
+		DBStatisticsSerializer.save(statistics, file);
+		DBStatistics loadedStatistics = DBStatisticsSerializer.load(file);
+
+		assertEquals(statistics.getMappingCardinalities(), loadedStatistics.getMappingCardinalities());
+		assertEquals(statistics.getTemplateSelectivities(), loadedStatistics.getTemplateSelectivities());
+
+		loadedStatistics.insertInto(dbMetadata);
+		RelationStatistics relationStatistics = table.getStatistics().get();
+		assertEquals(1000, relationStatistics.getRowCount());
+		assertEquals(Long.valueOf(800), relationStatistics.getDistinctValueCount(name.getIndex()).get());
+		assertEquals(0.25, relationStatistics.getNullFraction(name.getIndex()).get(), 0.0001);
+	}
+
+	@Test
+	public void testDefaultStatisticsFile() {
+		assertEquals("university.stats",
+				DBStatisticsSerializer.getDefaultStatisticsFile(new File("university.obda")).getName());
+	}
+}
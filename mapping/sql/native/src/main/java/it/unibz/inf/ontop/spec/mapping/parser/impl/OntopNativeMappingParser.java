@@ -55,9 +55,11 @@ import java.io.IOException;
 import java.io.LineNumberReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static it.unibz.inf.ontop.exception.InvalidMappingExceptionWithIndicator.*;
 
@@ -150,7 +152,8 @@ public class OntopNativeMappingParser implements SQLMappingParser {
             throws MappingIOException, InvalidMappingExceptionWithIndicator, DuplicateMappingException {
 
         final Map<String, String> prefixes = new HashMap<>();
-        final List<SQLPPTriplesMap> mappings = new ArrayList<>();
+        // one list per mapping declaration
+        final List<List<MappingEntry>> mappingDeclarations = new ArrayList<>();
         final List<Indicator> invalidMappingIndicators = new ArrayList<>();
 
         List<TargetQueryParser> parsers = null;
@@ -191,7 +194,7 @@ public class OntopNativeMappingParser implements SQLMappingParser {
                         if (parsers == null) {
                             parsers = createParsers(ImmutableMap.copyOf(prefixes));
                         }
-                        mappings.addAll(readMappingDeclaration(lineNumberReader, parsers, invalidMappingIndicators));
+                        mappingDeclarations.add(readMappingDeclaration(lineNumberReader, parsers, invalidMappingIndicators));
                     } else {
                         throw new IOException("Unknown syntax: " + line);
                     }
@@ -205,8 +208,33 @@ public class OntopNativeMappingParser implements SQLMappingParser {
             throw new MappingIOException(e);
         }
 
+        // The target queries are independent from each other: they are parsed in parallel
+        mappingDeclarations.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList())
+                .parallelStream()
+                .forEach(MappingEntry::parseTargetQuery);
+
+        final List<SQLPPTriplesMap> mappings = new ArrayList<>();
+        for (List<MappingEntry> mappingDeclaration : mappingDeclarations) {
+            List<SQLPPTriplesMap> currentSourceMappings = new ArrayList<>();
+            for (MappingEntry entry : mappingDeclaration) {
+                if (entry.isTargetQueryUnparsable) {
+                    invalidMappingIndicators.add(new Indicator(entry.targetLineNumber,
+                            new String[] {entry.mappingId, entry.targetString}, ERROR_PARSING_TARGET_QUERY));
+                }
+                else {
+                    currentSourceMappings = addNewMapping(entry.mappingId, entry.sourceQuery, entry.targetQuery,
+                            currentSourceMappings);
+                }
+            }
+            mappings.addAll(currentSourceMappings);
+        }
+
         // Throw some validation exceptions
         if (!invalidMappingIndicators.isEmpty()) {
+            // in the order of the file
+            invalidMappingIndicators.sort(Comparator.comparingInt(Indicator::getLineNumber));
             throw new InvalidMappingExceptionWithIndicator(invalidMappingIndicators);
         }
 
@@ -238,24 +266,57 @@ public class OntopNativeMappingParser implements SQLMappingParser {
         return prefixes;
     }
 
+    /**
+     * Mapping assertion whose target query is parsed after reading the whole file
+     */
+    private static final class MappingEntry {
+        private final String mappingId;
+        private final String sourceQuery;
+        private final String targetString;
+        private final int targetLineNumber;
+        private final List<TargetQueryParser> parsers;
+        private ImmutableList<ImmutableFunctionalTerm> targetQuery;
+        private boolean isTargetQueryUnparsable = false;
+
+        private MappingEntry(String mappingId, String sourceQuery, String targetString, int targetLineNumber,
+                             List<TargetQueryParser> parsers) {
+            this.mappingId = mappingId;
+            this.sourceQuery = sourceQuery;
+            this.targetString = targetString;
+            this.targetLineNumber = targetLineNumber;
+            this.parsers = parsers;
+        }
+
+        private void parseTargetQuery() {
+            if (targetString == null)
+                return;
+            try {
+                targetQuery = loadTargetQuery(targetString, parsers);
+            } catch (UnparsableTargetQueryException e) {
+                isTargetQueryUnparsable = true;
+            }
+        }
+    }
+
     /**
      * TODO: describe
      * TODO: follow the advice of IntelliJ: split this method to make its workflow tractable.
      * @param reader
      * @param invalidMappingIndicators Read-write list of error indicators.
-     * @return The updated mapping set of the current source
+     * @return The mapping entries of the current source (with their target query not parsed yet)
      * @throws IOException
      */
-    private static List<SQLPPTriplesMap> readMappingDeclaration(LineNumberReader reader,
-                                                                List<TargetQueryParser> parsers,
-                                                                List<Indicator> invalidMappingIndicators)
+    private static List<MappingEntry> readMappingDeclaration(LineNumberReader reader,
+                                                             List<TargetQueryParser> parsers,
+                                                             List<Indicator> invalidMappingIndicators)
             throws IOException {
-        List<SQLPPTriplesMap> currentSourceMappings = new ArrayList<>();
+        List<MappingEntry> currentSourceMappings = new ArrayList<>();
 
         String mappingId = "";
         String currentLabel = ""; // the reader is working on which label
         StringBuffer sourceQuery = null;
-        ImmutableList<ImmutableFunctionalTerm> targetQuery = null;
+        String targetQuery = null;
+        int targetLineNumber = -1;
         int wsCount = 0;  // length of whitespace used as the separator
         boolean isMappingValid = true; // a flag to load the mapping to the model if valid
         
@@ -268,8 +329,8 @@ public class OntopNativeMappingParser implements SQLMappingParser {
             	if (!mappingId.isEmpty()) {
 	            	// Save the mapping to the model (if valid) at this point
 	                if (isMappingValid) {
-	                    currentSourceMappings =
-                                addNewMapping(mappingId, sourceQuery.toString(), targetQuery, currentSourceMappings);
+	                    currentSourceMappings.add(new MappingEntry(mappingId, sourceQuery.toString(), targetQuery,
+                                targetLineNumber, parsers));
 	                    mappingId = "";
 	                    sourceQuery = null;
 	                    targetQuery = null;
@@ -311,14 +372,9 @@ public class OntopNativeMappingParser implements SQLMappingParser {
                     invalidMappingIndicators.add(new Indicator(lineNumber, mappingId, TARGET_QUERY_IS_BLANK));
                     isMappingValid = false;
                 } else {
-	                // Load the target query
-                    try {
-                        targetQuery = loadTargetQuery(targetString, parsers);
-                    } catch (UnparsableTargetQueryException e) {
-                        invalidMappingIndicators.add(new Indicator(lineNumber, new String[] {mappingId, targetString},
-                                ERROR_PARSING_TARGET_QUERY));
-                        isMappingValid = false;
-                    }
+	                // The target query is parsed later (see MappingEntry)
+                    targetQuery = targetString;
+                    targetLineNumber = lineNumber;
                 }
             } else if (currentLabel.equals(Label.source.name())) {
                 String sourceString = value;
@@ -347,7 +403,8 @@ public class OntopNativeMappingParser implements SQLMappingParser {
         
         // Save the last mapping entry to the model
         if (!mappingId.isEmpty() && isMappingValid) {
-            currentSourceMappings = addNewMapping(mappingId, sourceQuery.toString(), targetQuery, currentSourceMappings);
+            currentSourceMappings.add(new MappingEntry(mappingId, sourceQuery.toString(), targetQuery,
+                    targetLineNumber, parsers));
         }
 
         return currentSourceMappings;
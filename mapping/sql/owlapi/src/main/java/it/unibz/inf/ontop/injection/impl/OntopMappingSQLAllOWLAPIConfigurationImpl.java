@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopMappingSQLAllOWLAPIConfiguration;
@@ -34,6 +35,12 @@ public class OntopMappingSQLAllOWLAPIConfigurationImpl extends OntopMappingSQLAl
         return mappingOWLConfiguration.loadInputOntology();
     }
 
+    @Override
+    Optional<ImmutableList<File>> getSpecificationInputFiles() {
+        return super.getSpecificationInputFiles()
+                .flatMap(mappingOWLConfiguration::addOntologyFile);
+    }
+
     static class OntopMappingSQLAllOWLAPIOptions {
 
         final OntopMappingSQLAllOptions sqlOptions;
@@ -42,6 +42,7 @@ import eu.optique.r2rml.api.model.TriplesMap;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
 import it.unibz.inf.ontop.model.term.impl.TermUtils;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.Graph;
 import org.apache.commons.rdf.rdf4j.RDF4J;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
@@ -130,45 +131,49 @@ public class R2RMLManager {
 	 */
 	public ImmutableList<SQLPPTriplesMap> getMappings(Graph myModel) throws InvalidR2RMLMappingException {
 
-		List<SQLPPTriplesMap> mappings = new ArrayList<SQLPPTriplesMap>();
-
 		// retrieve the TriplesMap nodes
 		Collection<TriplesMap> tripleMaps = r2rmlParser.getMappingNodes(myModel);
 
-		for (TriplesMap tm : tripleMaps) {
+		// The triples maps are translated in parallel (the output follows the order of the collection).
+		// R2RMLParser is stateful (class predicates): one instance per triples map
+		return new ArrayList<>(tripleMaps).parallelStream()
+				.flatMap(tm -> getMappings(tripleMaps, tm, new R2RMLParser()).stream())
+				.collect(ImmutableCollectors.toList());
+	}
 
+	private List<SQLPPTriplesMap> getMappings(Collection<TriplesMap> tripleMaps, TriplesMap tm, R2RMLParser parser) {
+		List<SQLPPTriplesMap> mappings = new ArrayList<>();
+		try {
 			// for each node get a mapping
-			SQLPPTriplesMap mapping;
-
-			try {
-				mapping = getMapping(tm);
+			SQLPPTriplesMap mapping = getMapping(tm, parser);
 
-                if(mapping!=null) {
-                    // add it to the list of mappings
-                    mappings.add(mapping);
-                }
+			if(mapping!=null) {
+				// add it to the list of mappings
+				mappings.add(mapping);
+			}
 
-				// pass 2 - check for join conditions, add to list
-				List<SQLPPTriplesMap> joinMappings = getJoinMappings(tripleMaps, tm);
-				if (joinMappings != null) {
-					mappings.addAll(joinMappings);
-				}
-			} catch (Exception e) {
-				e.printStackTrace();
-				throw new RuntimeException(e);
+			// pass 2 - check for join conditions, add to list
+			List<SQLPPTriplesMap> joinMappings = getJoinMappings(tripleMaps, tm, parser);
+			if (joinMappings != null) {
+				mappings.addAll(joinMappings);
 			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new RuntimeException(e);
 		}
-		return ImmutableList.copyOf(mappings);
+		return mappings;
 	}
+
 	/**
 	 * Get OBDA mapping axiom from R2RML TriplesMap 
 	 * @param tm
+	 * @param r2rmlParser
 	 * @return
 	 * @throws Exception
 	 */
-	private SQLPPTriplesMap getMapping(TriplesMap tm) throws Exception {
+	private SQLPPTriplesMap getMapping(TriplesMap tm, R2RMLParser r2rmlParser) throws Exception {
 		String sourceQuery = r2rmlParser.getSQLQuery(tm).trim();
-		ImmutableList<ImmutableFunctionalTerm> body = getMappingTripleAtoms(tm);
+		ImmutableList<ImmutableFunctionalTerm> body = getMappingTripleAtoms(tm, r2rmlParser);
 		//Function head = getHeadAtom(body);
 		//CQIE targetQuery = DATALOG_FACTORY.getCQIE(head, body);
 		// TODO: consider a R2RML-specific type of triples map
@@ -186,10 +191,12 @@ public class R2RMLManager {
 	 * Get join OBDA mapping axiom from R2RML TriplesMap
 	 * @param tripleMaps
 	 * @param tm
+	 * @param r2rmlParser
 	 * @return
 	 * @throws Exception
 	 */
-	private List<SQLPPTriplesMap> getJoinMappings(Collection<TriplesMap> tripleMaps, TriplesMap tm) throws Exception {
+	private List<SQLPPTriplesMap> getJoinMappings(Collection<TriplesMap> tripleMaps, TriplesMap tm,
+												  R2RMLParser r2rmlParser) throws Exception {
 		String sourceQuery = "";
 		List<SQLPPTriplesMap> joinMappings = new ArrayList<SQLPPTriplesMap>();
 		for (PredicateObjectMap pobm: tm.getPredicateObjectMaps()) {
@@ -260,10 +267,11 @@ public class R2RMLManager {
 	/**
 	 * Get OBDA mapping body terms from R2RML TriplesMap
 	 * @param tm
+	 * @param r2rmlParser
 	 * @return
 	 * @throws Exception
 	 */
-	private ImmutableList<ImmutableFunctionalTerm> getMappingTripleAtoms(TriplesMap tm) throws Exception {
+	private ImmutableList<ImmutableFunctionalTerm> getMappingTripleAtoms(TriplesMap tm, R2RMLParser r2rmlParser) throws Exception {
 		//the body to return
 		ImmutableList.Builder<ImmutableFunctionalTerm> bodyBuilder = ImmutableList.builder();
 		
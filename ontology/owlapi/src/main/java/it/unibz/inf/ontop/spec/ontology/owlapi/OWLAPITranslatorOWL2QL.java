@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.spec.ontology.owlapi;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.spec.ontology.impl.ClassImpl;
 import it.unibz.inf.ontop.spec.ontology.impl.DataPropertyExpressionImpl;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * 
@@ -168,18 +170,7 @@ public class OWLAPITranslatorOWL2QL implements OWLAxiomVisitor {
 	
 	@Override
 	public void visit(OWLClassAssertionAxiom ax) {
-		try {
-			ClassAssertion a = helper.translate(ax);
-			if (a != null)
-				dl_onto.addClassAssertion(a);
-		}
-		catch (TranslationException e) {
-			log.warn(NOT_SUPPORTED_EXT, ax, e.getMessage());
-		}		
-		catch (InconsistentOntologyException e) {
-			log.warn(INCONSISTENT_ONTOLOGY, ax);
-			throw new RuntimeException(INCONSISTENT_ONTOLOGY_EXCEPTION_MESSAGE + ax);
-		} 
+		translateAssertion(ax);
 	}
 
 
@@ -418,18 +409,7 @@ public class OWLAPITranslatorOWL2QL implements OWLAxiomVisitor {
 	
 	@Override
 	public void visit(OWLObjectPropertyAssertionAxiom ax) {
-		try {
-			ObjectPropertyAssertion a = helper.translate(ax);
-			if (a != null)
-				dl_onto.addObjectPropertyAssertion(a);
-		}
-		catch (TranslationException e) {
-			log.warn(NOT_SUPPORTED_EXT, ax, e.getMessage());
-		}
-		catch (InconsistentOntologyException e) {
-			log.warn(INCONSISTENT_ONTOLOGY, ax);
-			throw new RuntimeException(INCONSISTENT_ONTOLOGY_EXCEPTION_MESSAGE + ax);
-		}						
+		translateAssertion(ax);
 	}
 
 
@@ -578,18 +558,7 @@ public class OWLAPITranslatorOWL2QL implements OWLAxiomVisitor {
 
 	@Override
 	public void visit(OWLDataPropertyAssertionAxiom ax) {
-		try {
-			DataPropertyAssertion a = helper.translate(ax);
-			if (a != null)
-				dl_onto.addDataPropertyAssertion(a);
-		} 
-		catch (InconsistentOntologyException e) {
-			log.warn(INCONSISTENT_ONTOLOGY, ax);
-			throw new RuntimeException(INCONSISTENT_ONTOLOGY_EXCEPTION_MESSAGE + ax);
-		}
-		catch (TranslationException e) {
-			log.warn(NOT_SUPPORTED_EXT, ax, e.getMessage());
-		}
+		translateAssertion(ax);
 	}
 
 	/**
@@ -1041,18 +1010,7 @@ public class OWLAPITranslatorOWL2QL implements OWLAxiomVisitor {
 	
 	@Override
 	public void visit(OWLAnnotationAssertionAxiom ax) {
-		try {
-			AnnotationAssertion a = helper.translate(ax);
-			if (a != null)
-				dl_onto.addAnnotationAssertion(a);
-		}
-		catch (TranslationException e) {
-			log.warn(NOT_SUPPORTED_EXT, ax, e.getMessage());
-		}
-		catch (InconsistentOntologyException e) {
-			log.warn(INCONSISTENT_ONTOLOGY, ax);
-			throw new RuntimeException(INCONSISTENT_ONTOLOGY_EXCEPTION_MESSAGE + ax);
-		}
+		translateAssertion(ax);
 	}
 
 	@Override
@@ -1092,6 +1050,110 @@ public class OWLAPITranslatorOWL2QL implements OWLAxiomVisitor {
 	public void setCurrentOWLOntology(OWLOntology owl) {
 		currentOWLOntology = owl;
 	}
+
+	private static final ImmutableSet<AxiomType<?>> ASSERTION_AXIOM_TYPES = ImmutableSet.of(
+			AxiomType.CLASS_ASSERTION,
+			AxiomType.OBJECT_PROPERTY_ASSERTION,
+			AxiomType.DATA_PROPERTY_ASSERTION,
+			AxiomType.ANNOTATION_ASSERTION);
+
+	/**
+	 * Translates all the axioms of the ontology.
+	 *
+	 * The assertions only depend on the vocabulary and only add to the lists of assertions:
+	 * they are translated in parallel (each thread fills its own AssertionBuilder) after the other axioms,
+	 * which are visited in turn. The builders are merged in the order of the axioms,
+	 * so the result is the same as visiting all the axioms in turn.
+	 */
+	public void translate(OWLOntology owl) {
+		setCurrentOWLOntology(owl);
+
+		Map<Boolean, List<OWLAxiom>> axioms = owl.getAxioms().stream()
+				.collect(Collectors.partitioningBy(ax -> ASSERTION_AXIOM_TYPES.contains(ax.getAxiomType())));
+
+		for (OWLAxiom axiom : axioms.get(false))
+			axiom.accept(this);
+
+		axioms.get(true).parallelStream()
+				.collect(AssertionBuilder::new, AssertionBuilder::add, AssertionBuilder::addAll)
+				.addTo(dl_onto);
+	}
+
+	/**
+	 * Translates a single assertion in the same way as translate(OWLOntology)
+	 */
+	private void translateAssertion(OWLAxiom ax) {
+		AssertionBuilder builder = new AssertionBuilder();
+		builder.add(ax);
+		builder.addTo(dl_onto);
+	}
+
+	private final class AssertionBuilder {
+		private final List<ClassAssertion> classAssertions = new ArrayList<>();
+		private final List<ObjectPropertyAssertion> objectPropertyAssertions = new ArrayList<>();
+		private final List<DataPropertyAssertion> dataPropertyAssertions = new ArrayList<>();
+		private final List<AnnotationAssertion> annotationAssertions = new ArrayList<>();
+		// the axioms following an inconsistent one are ignored
+		private OWLAxiom inconsistentAxiom;
+
+		void add(OWLAxiom ax) {
+			if (inconsistentAxiom != null)
+				return;
+			try {
+				if (ax instanceof OWLClassAssertionAxiom) {
+					ClassAssertion a = helper.translate((OWLClassAssertionAxiom) ax);
+					if (a != null)
+						classAssertions.add(a);
+				}
+				else if (ax instanceof OWLObjectPropertyAssertionAxiom) {
+					ObjectPropertyAssertion a = helper.translate((OWLObjectPropertyAssertionAxiom) ax);
+					if (a != null)
+						objectPropertyAssertions.add(a);
+				}
+				else if (ax instanceof OWLDataPropertyAssertionAxiom) {
+					DataPropertyAssertion a = helper.translate((OWLDataPropertyAssertionAxiom) ax);
+					if (a != null)
+						dataPropertyAssertions.add(a);
+				}
+				else {
+					AnnotationAssertion a = helper.translate((OWLAnnotationAssertionAxiom) ax);
+					if (a != null)
+						annotationAssertions.add(a);
+				}
+			}
+			catch (TranslationException e) {
+				log.warn(NOT_SUPPORTED_EXT, ax, e.getMessage());
+			}
+			catch (InconsistentOntologyException e) {
+				inconsistentAxiom = ax;
+			}
+		}
+
+		/**
+		 * The other builder contains the axioms following the ones of this builder
+		 */
+		void addAll(AssertionBuilder other) {
+			if (inconsistentAxiom != null)
+				return;
+			classAssertions.addAll(other.classAssertions);
+			objectPropertyAssertions.addAll(other.objectPropertyAssertions);
+			dataPropertyAssertions.addAll(other.dataPropertyAssertions);
+			annotationAssertions.addAll(other.annotationAssertions);
+			inconsistentAxiom = other.inconsistentAxiom;
+		}
+
+		void addTo(Ontology ontology) {
+			classAssertions.forEach(ontology::addClassAssertion);
+			objectPropertyAssertions.forEach(ontology::addObjectPropertyAssertion);
+			dataPropertyAssertions.forEach(ontology::addDataPropertyAssertion);
+			annotationAssertions.forEach(ontology::addAnnotationAssertion);
+
+			if (inconsistentAxiom != null) {
+				log.warn(INCONSISTENT_ONTOLOGY, inconsistentAxiom);
+				throw new RuntimeException(INCONSISTENT_ONTOLOGY_EXCEPTION_MESSAGE + inconsistentAxiom);
+			}
+		}
+	}
 	
 	private final Ontology createOntology(Collection<OWLOntology> owls) {
 		OntologyVocabulary vb = OntologyFactoryImpl.getInstance().createVocabulary();
@@ -22,7 +22,6 @@ package it.unibz.inf.ontop.spec.ontology.owlapi;
 
 import it.unibz.inf.ontop.spec.ontology.Ontology;
 import org.semanticweb.owlapi.apibinding.OWLManager;
-import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -70,14 +69,8 @@ public class OWLAPITranslatorUtility {
 		log.debug("Load ontologies called. Translating {} ontologies.", ontologies.size());
 
 		OWLAPITranslatorOWL2QL translator = new OWLAPITranslatorOWL2QL(ontologies);
-		for (OWLOntology owl : ontologies) {
-			translator.setCurrentOWLOntology(owl);
-			for (OWLAxiom axiom : owl.getAxioms())  {
-				//if (!(axiom.isAnnotationAxiom()) && !(axiom instanceof OWLDeclarationAxiom))
-				//	System.out.println(axiom);
-				axiom.accept(translator);
-			}
-		}
+		for (OWLOntology owl : ontologies)
+			translator.translate(owl);
 		
 		log.debug("Ontology loaded: {}", translator.getOntology());
 
@@ -93,10 +86,7 @@ public class OWLAPITranslatorUtility {
 	
 	public static Ontology translate(OWLOntology owl) {
 		OWLAPITranslatorOWL2QL translator = new OWLAPITranslatorOWL2QL(Collections.singleton(owl));
-		translator.setCurrentOWLOntology(owl);
-
-		for (OWLAxiom axiom : owl.getAxioms()) 
-			axiom.accept(translator);
+		translator.translate(owl);
 		return translator.getOntology();	
 	}
 	
@@ -112,10 +102,7 @@ public class OWLAPITranslatorUtility {
 		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
 		OWLOntology owl = man.loadOntologyFromOntologyDocument(new File(filename));
 		OWLAPITranslatorOWL2QL translator = new OWLAPITranslatorOWL2QL(Collections.singleton(owl));
-		translator.setCurrentOWLOntology(owl);
-
-		for (OWLAxiom axiom : owl.getAxioms()) 
-			axiom.accept(translator);
+		translator.translate(owl);
 	
 		return translator.getOntology();	
 	}
@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.si.dag;
+
+import it.unibz.inf.ontop.spec.ontology.Equivalences;
+import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
+import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.spec.ontology.TBoxReasoner;
+import it.unibz.inf.ontop.spec.ontology.impl.TBoxReasonerImpl;
+import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorUtility;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compares the DAGs obtained with the bitset classification to those of the default classification
+ */
+public class S_BitSetClassificationTest extends TestCase {
+
+	ArrayList<String> input = new ArrayList<String>();
+
+	public void setUp() {
+		input.add("src/test/resources/test/dag/test-role-hierarchy.owl");
+		input.add("src/test/resources/test/stockexchange-unittest.owl");
+		input.add("src/test/resources/test/dag/role-equivalence.owl");
+		input.add("src/test/resources/test/dag/test-equivalence-classes.owl");
+		input.add("src/test/resources/test/dag/test-equivalence-roles-inverse.owl");
+		input.add("src/test/resources/test/newDag/equivalents7.owl");
+		input.add("src/test/resources/test/newDag/equivalents8.owl");
+		input.add("src/test/resources/test/newDag/inverseEquivalents7.owl");
+		input.add("src/test/resources/test/newDag/inverseEquivalents8.owl");
+	}
+
+	public void testSameClassification() throws Exception {
+		for (String fileInput : input) {
+			Ontology ontology = OWLAPITranslatorUtility.loadOntologyFromFile(fileInput);
+			for (boolean equivalenceReduced : new boolean[] { false, true }) {
+				TBoxReasoner expected = TBoxReasonerImpl.create(ontology, equivalenceReduced, false);
+				TBoxReasoner actual = TBoxReasonerImpl.create(ontology, equivalenceReduced, true);
+
+				assertSameDAG(fileInput, expected.getClassDAG(), actual.getClassDAG());
+				assertSameDAG(fileInput, expected.getObjectPropertyDAG(), actual.getObjectPropertyDAG());
+				assertSameDAG(fileInput, expected.getDataPropertyDAG(), actual.getDataPropertyDAG());
+				assertSameDAG(fileInput, expected.getDataRangeDAG(), actual.getDataRangeDAG());
+			}
+		}
+	}
+
+	private static <T> void assertSameDAG(String fileInput, EquivalencesDAG<T> expected, EquivalencesDAG<T> actual) {
+		assertEquals(fileInput, vertices(expected), vertices(actual));
+		for (Equivalences<T> vertex : expected) {
+			Equivalences<T> other = actual.getVertex(vertex.getRepresentative());
+			assertEquals(fileInput, vertex.getRepresentative(), other.getRepresentative());
+			assertEquals(fileInput, vertex.isIndexed(), other.isIndexed());
+			assertEquals(fileInput, new HashSet<>(expected.getSub(vertex)), new HashSet<>(actual.getSub(other)));
+			assertEquals(fileInput, new HashSet<>(expected.getSuper(vertex)), new HashSet<>(actual.getSuper(other)));
+		}
+	}
+
+	private static <T> Set<Equivalences<T>> vertices(EquivalencesDAG<T> dag) {
+		Set<Equivalences<T>> vertices = new HashSet<>();
+		for (Equivalences<T> vertex : dag)
+			vertices.add(vertex);
+		return vertices;
+	}
+}